@@ -0,0 +1,212 @@
+package com.simbest.boot.suggest.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.KeywordHits;
+import com.simbest.boot.suggest.model.Organization;
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+import com.simbest.boot.suggest.model.TextFeatures;
+import com.simbest.boot.suggest.util.AhoCorasickMatcher;
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+
+/**
+ * 基准测试数据生成器
+ * 使用固定随机种子生成公文风格的中文任务标题、分词词典、同义词组、职责领域和组织，
+ * 词典大小、同义词组数量、领域数量和组织数量均可配置，同一组参数每次生成的数据完全相同。
+ * 同义词组的各成员同时加入词典，标题与关键词分别随机选用同一组内的不同成员，
+ * 使分词、直接匹配和分词匹配的命中与未命中路径都能被覆盖。
+ */
+public final class BenchmarkData {
+
+    private static final long SEED = 20240601L; // 随机种子
+
+    private static final String[] ACTIONS = { "关于开展", "关于组织", "关于推进", "关于加强", "关于落实", "关于印发", "关于申请",
+            "关于报送", "关于做好", "关于调整" };
+    private static final String[] PERIODS = { "2024年", "2025年", "第一季度", "上半年", "下半年", "年度", "近期", "" };
+    private static final String[] SUBJECTS = { "网络安全", "安全生产", "财务预算", "人力资源", "党风廉政", "信息化建设", "工程建设",
+            "市场营销", "客户服务", "采购管理", "合同管理", "审计监督", "宣传报道", "工会活动", "后勤保障", "数据治理", "应急管理",
+            "科技创新", "质量管理", "档案管理", "网格运营", "政企业务", "综合维护", "节能减排", "保密工作" };
+    private static final String[] OBJECTS = { "专项检查", "工作方案", "培训计划", "考核办法", "整改情况", "年度总结", "实施细则",
+            "调研报告", "费用报销", "资金拨付", "风险排查", "隐患治理", "制度修订", "评审会议", "验收工作" };
+    private static final String[] SUFFIXES = { "的通知", "的请示", "的报告", "的函", "的意见", "的批复", "" };
+    private static final String[] ORG_TYPES = { "DEPARTMENT", "DIVISION", "TEAM", "OFFICE" };
+    private static final String CHAR_POOL = "管理服务建设工作发展安全网络信息财务人力资源市场客户工程技术质量审计监督"
+            + "综合办公行政后勤保障运营维护数据平台系统项目采购合同预算考核培训检查整改创新规划协调"; // 合成词语使用的常用字
+
+    private final List<String> titles; // 任务标题
+    private final List<String> dictionaryWords; // 词典词语
+    private final List<List<String>> synonymGroups; // 同义词组
+    private final List<ResponsibilityDomain> domains; // 职责领域
+    private final List<Organization> organizations; // 组织
+    private final AhoCorasickMatcher keywordAutomaton; // 领域和组织关键词自动机
+
+    /**
+     * 生成基准测试数据
+     *
+     * @param titleCount        任务标题数量
+     * @param dictionarySize    词典词语数量
+     * @param synonymGroupCount 同义词组数量
+     * @param domainCount       职责领域数量
+     * @param organizationCount 组织数量
+     */
+    public BenchmarkData(int titleCount, int dictionarySize, int synonymGroupCount, int domainCount,
+            int organizationCount) {
+        Random random = new Random(SEED);
+
+        // 1. 同义词组：以主题词或对象词为首个成员，其余成员为合成的近义表述
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < synonymGroupCount; i++) {
+            String head = i < SUBJECTS.length ? SUBJECTS[i] : pick(random, OBJECTS) + syntheticWord(random, 2);
+            List<String> group = new ArrayList<>();
+            group.add(head);
+            int size = 2 + random.nextInt(3);
+            while (group.size() < size) {
+                group.add(syntheticWord(random, 2 + random.nextInt(3)));
+            }
+            groups.add(Collections.unmodifiableList(group));
+        }
+        this.synonymGroups = Collections.unmodifiableList(groups);
+
+        // 2. 词典：固定词语、同义词组成员，不足部分用合成词语补齐
+        Set<String> words = new LinkedHashSet<>();
+        Collections.addAll(words, SUBJECTS);
+        Collections.addAll(words, OBJECTS);
+        for (List<String> group : groups) {
+            words.addAll(group);
+        }
+        while (words.size() < dictionarySize) {
+            words.add(syntheticWord(random, 2 + random.nextInt(3)));
+        }
+        this.dictionaryWords = Collections.unmodifiableList(new ArrayList<>(words));
+
+        // 3. 任务标题：动作 + 时间 + 主题 + 对象 + 文种，主题有一定概率替换为同义词
+        List<String> titleList = new ArrayList<>(titleCount);
+        for (int i = 0; i < titleCount; i++) {
+            String subject = pick(random, SUBJECTS);
+            if (!groups.isEmpty() && random.nextInt(4) == 0) {
+                subject = pick(random, groups.get(random.nextInt(groups.size())));
+            }
+            titleList.add(pick(random, ACTIONS) + pick(random, PERIODS) + subject + pick(random, OBJECTS)
+                    + pick(random, SUFFIXES));
+        }
+        this.titles = Collections.unmodifiableList(titleList);
+
+        // 4. 职责领域和组织：关键词取自主题、对象、同义词组和词典
+        List<ResponsibilityDomain> domainList = new ArrayList<>(domainCount);
+        for (int i = 0; i < domainCount; i++) {
+            ResponsibilityDomain domain = new ResponsibilityDomain("bench_domain_" + i,
+                    pick(random, SUBJECTS) + "领域" + i, "基准测试领域");
+            domain.setKeywords(keywords(random, groups, 4 + random.nextInt(8)));
+            domainList.add(domain);
+        }
+        this.domains = Collections.unmodifiableList(domainList);
+
+        List<Organization> organizationList = new ArrayList<>(organizationCount);
+        for (int i = 0; i < organizationCount; i++) {
+            Organization organization = new Organization();
+            organization.setOrgId("bench_org_" + i);
+            organization.setOrgName(pick(random, SUBJECTS) + "部" + i);
+            organization.setOrgType(ORG_TYPES[i % ORG_TYPES.length]);
+            List<String> keywords = keywords(random, groups, 3 + random.nextInt(6));
+            List<Double> weights = new ArrayList<>(keywords.size());
+            for (int k = 0; k < keywords.size(); k++) {
+                weights.add(0.5 + random.nextInt(6) / 10.0);
+            }
+            organization.setKeywords(keywords);
+            organization.setKeywordWeights(weights);
+            organizationList.add(organization);
+        }
+        this.organizations = Collections.unmodifiableList(organizationList);
+
+        Set<String> automatonKeywords = new LinkedHashSet<>();
+        for (ResponsibilityDomain domain : domainList) {
+            automatonKeywords.addAll(domain.getKeywords());
+        }
+        for (Organization organization : organizationList) {
+            automatonKeywords.addAll(organization.getKeywords());
+        }
+        this.keywordAutomaton = new AhoCorasickMatcher(automatonKeywords);
+    }
+
+    /**
+     * 将词典词语加入分词器词典
+     * 分词器词典为进程级共享状态，JMH默认每组参数使用独立进程，不同参数之间互不影响
+     */
+    public void installDictionary() {
+        ChineseTokenizer.initialize();
+        ChineseTokenizer.addWords(dictionaryWords);
+    }
+
+    /**
+     * 分析任务标题：分词并使用领域和组织关键词自动机扫描，与请求期间的查询分析一致
+     *
+     * @param title 任务标题
+     * @return 已分析的任务标题
+     */
+    public AnalyzedQuery analyze(String title) {
+        KeywordHits keywordHits = new KeywordHits(title, keywordAutomaton.getKeywords(),
+                keywordAutomaton.findAll(title), Collections.emptyMap());
+        return new AnalyzedQuery(null, TextFeatures.of(title), keywordHits);
+    }
+
+    public List<String> getTitles() {
+        return titles;
+    }
+
+    public List<String> getDictionaryWords() {
+        return dictionaryWords;
+    }
+
+    public List<List<String>> getSynonymGroups() {
+        return synonymGroups;
+    }
+
+    public List<ResponsibilityDomain> getDomains() {
+        return domains;
+    }
+
+    public List<Organization> getOrganizations() {
+        return organizations;
+    }
+
+    private static List<String> keywords(Random random, List<List<String>> groups, int count) {
+        Set<String> keywords = new LinkedHashSet<>();
+        while (keywords.size() < count) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    keywords.add(pick(random, SUBJECTS));
+                    break;
+                case 1:
+                    keywords.add(pick(random, OBJECTS));
+                    break;
+                default:
+                    keywords.add(groups.isEmpty() ? syntheticWord(random, 2)
+                            : pick(random, groups.get(random.nextInt(groups.size()))));
+                    break;
+            }
+        }
+        return new ArrayList<>(keywords);
+    }
+
+    private static String syntheticWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(CHAR_POOL.charAt(random.nextInt(CHAR_POOL.length())));
+        }
+        return word.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
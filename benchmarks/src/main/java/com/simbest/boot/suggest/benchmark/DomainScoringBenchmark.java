@@ -0,0 +1,79 @@
+package com.simbest.boot.suggest.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+
+/**
+ * 职责领域评分基准测试
+ * 测量一个已分析的任务标题对全部职责领域调用 {@link ResponsibilityDomain#calculateMatchScore(AnalyzedQuery)} 的耗时和分配速率
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainScoringBenchmark {
+
+    @Param({ "5000" })
+    private int dictionarySize; // 词典词语数量
+
+    @Param({ "100", "2000" })
+    private int synonymGroupCount; // 同义词组数量
+
+    @Param({ "50", "500" })
+    private int domainCount; // 职责领域数量
+
+    private List<ResponsibilityDomain> domains; // 职责领域
+    private List<AnalyzedQuery> queries; // 已分析的任务标题
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(256, dictionarySize, synonymGroupCount, domainCount, 0);
+        data.installDictionary();
+        domains = data.getDomains();
+        queries = new ArrayList<>(data.getTitles().size());
+        for (String title : data.getTitles()) {
+            queries.add(data.analyze(title));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double scoreAllDomainsSingleThread(TitleCursor cursor) throws IOException {
+        return scoreAllDomains(cursor.next(queries));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double scoreAllDomainsMultiThread(TitleCursor cursor) throws IOException {
+        return scoreAllDomains(cursor.next(queries));
+    }
+
+    private double scoreAllDomains(AnalyzedQuery query) throws IOException {
+        double total = 0.0;
+        for (ResponsibilityDomain domain : domains) {
+            total += domain.calculateMatchScore(query);
+        }
+        return total;
+    }
+}
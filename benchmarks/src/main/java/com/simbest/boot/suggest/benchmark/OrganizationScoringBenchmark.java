@@ -0,0 +1,96 @@
+package com.simbest.boot.suggest.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.Organization;
+import com.simbest.boot.suggest.service.OrganizationKeywordMatchService;
+import com.simbest.boot.suggest.service.OrganizationService;
+
+/**
+ * 组织关键词评分基准测试
+ * 测量 {@link OrganizationKeywordMatchService#getAllOrganizationMatchScores(AnalyzedQuery)} 的耗时和分配速率。
+ * 不启动Spring容器，组织服务替换为返回固定组织列表的实现。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrganizationScoringBenchmark {
+
+    @Param({ "5000" })
+    private int dictionarySize; // 词典词语数量
+
+    @Param({ "100", "2000" })
+    private int synonymGroupCount; // 同义词组数量
+
+    @Param({ "100", "1000" })
+    private int organizationCount; // 组织数量
+
+    private OrganizationKeywordMatchService matchService; // 组织关键字匹配服务
+    private List<AnalyzedQuery> queries; // 已分析的任务标题
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        BenchmarkData data = new BenchmarkData(256, dictionarySize, synonymGroupCount, 0, organizationCount);
+        data.installDictionary();
+        queries = new ArrayList<>(data.getTitles().size());
+        for (String title : data.getTitles()) {
+            queries.add(data.analyze(title));
+        }
+
+        matchService = new OrganizationKeywordMatchService();
+        Field field = OrganizationKeywordMatchService.class.getDeclaredField("organizationService");
+        field.setAccessible(true);
+        field.set(matchService, new FixedOrganizationService(data.getOrganizations()));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Map<String, Double> scoreAllOrganizationsSingleThread(TitleCursor cursor) throws IOException {
+        return matchService.getAllOrganizationMatchScores(cursor.next(queries));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Map<String, Double> scoreAllOrganizationsMultiThread(TitleCursor cursor) throws IOException {
+        return matchService.getAllOrganizationMatchScores(cursor.next(queries));
+    }
+
+    /**
+     * 返回固定组织列表的组织服务，与正式实现一样每次返回新的列表副本
+     */
+    private static final class FixedOrganizationService extends OrganizationService {
+        private final List<Organization> organizations; // 组织列表
+
+        private FixedOrganizationService(List<Organization> organizations) {
+            this.organizations = organizations;
+        }
+
+        @Override
+        public List<Organization> getAllOrganizations() {
+            return new ArrayList<>(organizations);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.simbest.boot.suggest.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.simbest.boot.suggest.model.TextSimilarityUtil;
+import com.simbest.boot.suggest.model.TitleFeatureVector;
+
+/**
+ * 文本相似度基准测试
+ * 测量 {@link TextSimilarityUtil#calculateFinalSimilarity} 在原始文本（含特征提取）
+ * 和预先计算的特征向量两种输入下的单线程与多线程耗时和分配速率
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimilarityBenchmark {
+
+    @Param({ "1000", "20000" })
+    private int dictionarySize; // 词典词语数量
+
+    @Param({ "200" })
+    private int synonymGroupCount; // 同义词组数量
+
+    private List<String[]> textPairs; // 任务标题对
+    private List<TitleFeatureVector[]> vectorPairs; // 任务标题特征向量对
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(1024, dictionarySize, synonymGroupCount, 0, 0);
+        data.installDictionary();
+        List<String> titles = data.getTitles();
+        textPairs = new ArrayList<>(titles.size());
+        vectorPairs = new ArrayList<>(titles.size());
+        for (int i = 0; i < titles.size(); i++) {
+            String title1 = titles.get(i);
+            String title2 = titles.get((i * 7 + 3) % titles.size());
+            textPairs.add(new String[] { title1, title2 });
+            vectorPairs.add(new TitleFeatureVector[] { TitleFeatureVector.of(title1), TitleFeatureVector.of(title2) });
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double textSingleThread(TitleCursor cursor) throws IOException {
+        String[] pair = cursor.next(textPairs);
+        return TextSimilarityUtil.calculateFinalSimilarity(pair[0], pair[1]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double textMultiThread(TitleCursor cursor) throws IOException {
+        String[] pair = cursor.next(textPairs);
+        return TextSimilarityUtil.calculateFinalSimilarity(pair[0], pair[1]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double vectorSingleThread(TitleCursor cursor) {
+        TitleFeatureVector[] pair = cursor.next(vectorPairs);
+        return TextSimilarityUtil.calculateFinalSimilarity(pair[0], pair[1]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double vectorMultiThread(TitleCursor cursor) {
+        TitleFeatureVector[] pair = cursor.next(vectorPairs);
+        return TextSimilarityUtil.calculateFinalSimilarity(pair[0], pair[1]);
+    }
+}
@@ -0,0 +1,28 @@
+package com.simbest.boot.suggest.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 每个基准测试线程独立的任务标题游标，依次循环取用测试数据，避免线程间共享可变状态
+ */
+@State(Scope.Thread)
+public class TitleCursor {
+
+    private int position; // 当前位置
+
+    /**
+     * 取下一个元素
+     *
+     * @param values 测试数据
+     * @param <T>    元素类型
+     * @return 下一个元素
+     */
+    public <T> T next(List<T> values) {
+        T value = values.get(position);
+        position = position + 1 < values.size() ? position + 1 : 0;
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.simbest.boot.suggest.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+
+/**
+ * 分词基准测试
+ * 测量 {@link ChineseTokenizer#tokenize(String)} 在不同词典规模下的单线程与多线程吞吐和分配速率
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+    @Param({ "1000", "20000" })
+    private int dictionarySize; // 词典词语数量
+
+    @Param({ "200" })
+    private int synonymGroupCount; // 同义词组数量
+
+    private List<String> titles; // 任务标题
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(1024, dictionarySize, synonymGroupCount, 0, 0);
+        data.installDictionary();
+        titles = data.getTitles();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<String> tokenizeSingleThread(TitleCursor cursor) {
+        return ChineseTokenizer.tokenize(cursor.next(titles));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<String> tokenizeMultiThread(TitleCursor cursor) {
+        return ChineseTokenizer.tokenize(cursor.next(titles));
+    }
+}
@@ -53,6 +53,7 @@ public class AppConfig {
     private double algorithmOrganizationWeight = 0.8;
     private double algorithmHistoryWeight = 0.7;
     private double algorithmDomainWeight = 0.6;
+    private boolean algorithmDomainIndexVerify = false; // 是否校验领域关键词索引评分与逐领域计算结果一致
 
     // 阈值配置
     private double thresholdBaseThreshold = 0.01;
@@ -67,16 +68,49 @@ public class AppConfig {
     private int historicalMatchingMaxResults = 10;
     private double historicalMatchingConfidenceThreshold = 0.5;
     private boolean historicalMatchingUsePatterns = true;
+    private int historicalMatchingCandidateLimit = 200;
+    private boolean historicalMatchingHistogramEnabled = false; // 是否使用审批人频次直方图代替逐条相似度计算
+    private double historicalMatchingHistogramInitiatorWeight = 0.3; // 发起人直方图在综合得分中的权重
+    private double historicalMatchingHistogramMinScore = 0.3; // 直方图综合得分的最低值
+
+    // 推荐反馈异步写入配置
+    private int feedbackBufferCapacity = 10000; // 队列容量
+    private int feedbackBufferBatchSize = 200; // 每批写入的最大记录数
+    private long feedbackBufferFlushIntervalMs = 500; // 写入间隔（毫秒）
+    private String feedbackBufferOverflowPolicy = "DROP"; // 队列已满时的处理策略：DROP、BLOCK、CALLER_RUNS
+    private long feedbackBufferOfferTimeoutMs = 50; // BLOCK策略下等待队列空位的超时时间（毫秒）
+    private long feedbackBufferShutdownTimeoutMs = 10000; // 关闭时等待后台写入线程结束的超时时间（毫秒）
+
+    // 任务模式匹配计数配置
+    private int patternCounterStripes = 16; // 计数器分段数
+    private long patternCounterFlushIntervalMs = 5000; // 合并写入间隔（毫秒）
+    private int patternCounterFlushBatchSize = 200; // 每个事务合并写入的最大任务模式数
+    private long patternCounterShutdownTimeoutMs = 10000; // 关闭时等待合并写入任务结束的超时时间（毫秒）
+    private int patternCounterMaxRetries = 3; // 写入失败的增量最多重试次数，超过后丢弃
 
     // 租户配置
     private String tenantDefaultCode = "default";
     private boolean tenantEnableMultiTenant = true;
+    private int organizationShardMaxTenants = 256; // 同时加载组织模型分片的租户数量上限
+
+    // 关键词匹配配置
+    private int keywordMatcherPendingLimit = 64; // 关键词编辑后按子串判断的新增关键词和失效关键词数量上限，超过后重建自动机
 
     // 推荐配置
     private int recommendationOrganizationPriority = 1;
     private int recommendationHistoryPriority = 2;
     private int recommendationDomainPriority = 3;
     private int recommendationTextSimilarityPriority = 4;
+    private boolean recommendationParallelEnabled = false; // 是否并行执行推荐策略
+    private int recommendationParallelThreads = 8; // 推荐策略线程池线程数
+    private int recommendationParallelQueueCapacity = 256; // 推荐策略线程池队列容量
+    private int recommendationBatchMaxSize = 100; // 批量推荐单次请求数量上限
+    private int recommendationBatchThreads = 4; // 批量推荐线程池线程数
+    private int recommendationBatchQueueCapacity = 256; // 批量推荐线程池队列容量
+    private boolean recommendationCacheEnabled = true; // 是否启用推荐结果缓存
+    private int recommendationCacheMaxEntries = 10000; // 推荐结果缓存条目数上限
+    private int recommendationCacheStripes = 16; // 推荐结果缓存分段数
+    private boolean recommendationMetricsEnabled = true; // 是否记录推荐请求和各推荐策略的指标
 
     // 推荐原因模板
     private String recommendationReasonOrganization = "【规则1-基于组织关系匹配】当前用户是{orgName}的{userRole}，推荐该组织的{targetRole}，负责与任务相关的业务领域";
@@ -8,6 +8,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
@@ -17,7 +22,11 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.simbest.boot.suggest.service.CommonWordService;
+import com.simbest.boot.suggest.service.KeywordMatcherService;
 import com.simbest.boot.suggest.service.LeaderInfoService;
+import com.simbest.boot.suggest.service.OrganizationScoringSnapshotService;
+import com.simbest.boot.suggest.service.TaskPatternMatcherService;
 import com.simbest.boot.suggest.util.ChineseTokenizer;
 import com.simbest.boot.suggest.util.DatabaseDataLoader;
 import com.simbest.boot.suggest.util.DatabaseSynonymManager;
@@ -41,6 +50,47 @@ public class BeanConfig {
 
     // RecommendationService已经使用@Service注解，不需要在这里定义Bean
 
+    /**
+     * 推荐策略并行执行线程池
+     * 线程数和队列容量固定，队列已满时拒绝提交，由调用方在请求线程中执行
+     */
+    @Bean(name = "recommendationStrategyExecutor", destroyMethod = "shutdown")
+    public ExecutorService recommendationStrategyExecutor() {
+        return newBoundedExecutor("recommendation-strategy-", appConfig.getRecommendationParallelThreads(),
+                appConfig.getRecommendationParallelQueueCapacity());
+    }
+
+    /**
+     * 批量推荐线程池
+     * 与推荐策略线程池分开，避免批量推荐的各项占满线程后等待排在其后的推荐策略
+     */
+    @Bean(name = "recommendationBatchExecutor", destroyMethod = "shutdown")
+    public ExecutorService recommendationBatchExecutor() {
+        return newBoundedExecutor("recommendation-batch-", appConfig.getRecommendationBatchThreads(),
+                appConfig.getRecommendationBatchQueueCapacity());
+    }
+
+    /**
+     * 创建线程数和队列容量固定的线程池，队列已满时拒绝提交
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @param threads          线程数
+     * @param queueCapacity    队列容量
+     * @return 线程池
+     */
+    private ExecutorService newBoundedExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
     /**
      * 应用启动时执行初始化
      */
@@ -48,7 +98,11 @@ public class BeanConfig {
     public CommandLineRunner initializeData(DatabaseDataLoader databaseDataLoader,
             ApplicationContext applicationContext,
             SqlScriptExecutor sqlScriptExecutor,
-            LeaderInfoService leaderInfoService) {
+            LeaderInfoService leaderInfoService,
+            OrganizationScoringSnapshotService organizationScoringSnapshotService,
+            KeywordMatcherService keywordMatcherService,
+            TaskPatternMatcherService taskPatternMatcherService,
+            CommonWordService commonWordService) {
         return args -> {
             log.info("======== 初始化推荐系统数据 ========");
 
@@ -88,6 +142,11 @@ public class BeanConfig {
                 log.info("1. 领域到领导映射: {} 条记录", databaseDataLoader.loadDomainLeaderMapping(tenantCode).size());
                 log.info("2. 常用词列表: {} 个词语", databaseDataLoader.loadCommonWords(tenantCode).size());
                 log.info("3. 同义词组: {} 个组", databaseDataLoader.loadCommonSynonyms(tenantCode).size());
+                log.info("4. 组织评分快照: {} 个组织",
+                        organizationScoringSnapshotService.refresh(tenantCode).getOrganizations().size());
+                keywordMatcherService.refresh(tenantCode);
+                log.info("5. 任务模式匹配器: {} 个任务模式",
+                        taskPatternMatcherService.refresh(tenantCode).getPatterns().size());
             }
 
             // 初始化leader_info表
@@ -97,6 +156,9 @@ public class BeanConfig {
             // 初始化中文分词词典
             log.info("正在初始化中文分词词典...");
             ChineseTokenizer.initialize();
+            for (String tenantCode : tenantCodes) {
+                log.info("租户 {} 加载分词常用词: {} 个", tenantCode, commonWordService.reloadTokenizerWords(tenantCode));
+            }
 
             // 初始化同义词表
             log.info("正在初始化同义词表...");
@@ -284,6 +284,23 @@ public class ApprovalHistoryController {
         }
     }
     
+    /**
+     * 从数据库重建指定租户的审批人频次直方图
+     * 
+     * @param tenantCode 租户编码
+     * @return 重建后的记录数量
+     */
+    @PostMapping("/histograms/rebuild")
+    public JsonResponse<Integer> rebuildApproverHistograms(@RequestParam String tenantCode) {
+        try {
+            int count = approvalHistoryService.rebuildApproverHistograms(tenantCode);
+            return JsonResponse.success(count, "重建审批人频次直方图成功，共 " + count + " 条记录");
+        } catch (Exception e) {
+            log.error("重建审批人频次直方图失败: {}", e.getMessage(), e);
+            return JsonResponse.fail("重建审批人频次直方图失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 删除批复历史记录
      * 
@@ -16,6 +16,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.BatchRecommendationItem;
+import com.simbest.boot.suggest.model.BatchRecommendationRequest;
 import com.simbest.boot.suggest.model.JsonResponse;
 import com.simbest.boot.suggest.model.Leader;
 import com.simbest.boot.suggest.model.LeaderDTO;
@@ -23,9 +26,13 @@ import com.simbest.boot.suggest.model.Organization;
 import com.simbest.boot.suggest.model.RecommendationFeedback;
 import com.simbest.boot.suggest.model.RecommendationRequest;
 import com.simbest.boot.suggest.model.RecommendationResult;
+import com.simbest.boot.suggest.model.RecommendationTrace;
 import com.simbest.boot.suggest.model.RecommendationType;
+import com.simbest.boot.suggest.service.BatchRecommendationService;
 import com.simbest.boot.suggest.service.LeaderService;
 import com.simbest.boot.suggest.service.OrganizationService;
+import com.simbest.boot.suggest.service.QueryAnalysisService;
+import com.simbest.boot.suggest.service.RecommendationCacheService;
 import com.simbest.boot.suggest.service.RecommendationFeedbackService;
 import com.simbest.boot.suggest.service.RecommendationService;
 import com.simbest.boot.suggest.util.ChineseTokenizer;
@@ -64,6 +71,15 @@ public class RecommendationController {
     @Autowired
     private com.simbest.boot.suggest.service.HistoricalMatchingService historicalMatchingService;
 
+    @Autowired
+    private QueryAnalysisService queryAnalysisService;
+
+    @Autowired
+    private BatchRecommendationService batchRecommendationService;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService;
+
     /**
      * 推荐领导（POST方法，使用JSON请求体）
      *
@@ -79,6 +95,8 @@ public class RecommendationController {
      *                - recommendationType: 推荐类型（可选，默认为单选推荐人）
      *                单选推荐人(SINGLE)：只返回一个推荐命中率最高最匹配的推荐领导
      *                多选推荐人(MULTIPLE)：按照推荐命中率倒排，可以推荐一个或多个领导
+     *                - trace: 是否返回执行轨迹（可选，默认不返回），开启后推荐结果的trace字段包含各推荐策略的耗时、
+     *                评估数量和采用或放弃的原因，没有匹配的推荐结果时也返回只包含trace的结果
      * @return 推荐结果
      */
 
@@ -126,6 +144,10 @@ public class RecommendationController {
             log.info("【{}-getRecommendation-{}-START】", userAccountForLog, timestamp);
             log.info("请求参数信息: {}", JsonUtil.toJson(requestMap));
 
+            // 分析规范化后的任务标题，分词等结果在整个推荐过程中共享
+            AnalyzedQuery query = queryAnalysisService.analyze(request.getTenantCode(),
+                    RecommendationCacheService.normalizeTitle(request.getTaskTitle()));
+
             // 检查数据加载情况 - 使用DEBUG级别记录详细信息
             if (log.isDebugEnabled()) {
                 log.debug("【系统状态】");
@@ -133,8 +155,7 @@ public class RecommendationController {
                 log.debug("领导数量: {}", leaderService.getAllLeaders().size());
 
                 // 检查分词结果
-                List<String> textTokens = ChineseTokenizer.tokenize(request.getTaskTitle());
-                log.debug("  分词结果: {}", textTokens);
+                log.debug("  分词结果: {}", query.getTokens());
 
                 // 检查动态阈值
                 double threshold = recommendationService.calculateDynamicThreshold(request.getTaskTitle());
@@ -149,15 +170,18 @@ public class RecommendationController {
                     ? request.getRecommendationType()
                     : RecommendationType.SINGLE;
 
-            // 使用推荐服务进行推荐
+            // 使用推荐服务进行推荐，请求开启轨迹时记录各推荐策略的执行轨迹
+            RecommendationTrace trace = request.isTrace() ? new RecommendationTrace() : null;
             RecommendationResult result = recommendationService.recommendLeader(
                     request.getUserAccount(),
                     request.getOrgId() != null ? request.getOrgId() : "",
-                    request.getTaskTitle(),
+                    query,
                     request.getWorkflowDirection(),
                     request.getCandidateAccounts(),
                     request.getTenantCode(),
-                    recommendationType);
+                    recommendationType,
+                    true,
+                    trace);
 
             // 计算处理时间
             long processingTime = System.currentTimeMillis() - startTime;
@@ -216,6 +240,9 @@ public class RecommendationController {
             // 使用规范格式记录请求结束
             String endTimestamp = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date());
             log.info("【{}-getRecommendation-{}-END】", userAccountForLog, endTimestamp);
+            if (trace != null) {
+                result = result != null ? result.withTrace(trace) : RecommendationResult.traceOnly(trace);
+            }
             JsonResponse<RecommendationResult> response = JsonResponse.success(result, MSG_SUCCESS);
             response.setSuccess(true); // 确保success字段始终为true
             return response;
@@ -225,6 +252,54 @@ public class RecommendationController {
         }
     }
 
+    /**
+     * 批量推荐领导（POST方法，使用JSON请求体）
+     *
+     * @param batchRequest 批量推荐请求对象，包含以下字段：
+     *                     - tenantCode: 租户编码（必填），整个批次只验证一次
+     *                     - requests: 推荐请求列表（必填），各字段同getRecommendation接口，tenantCode可省略
+     *                     - saveFeedback: 是否保存推荐反馈（可选，默认保存）
+     * @return 与推荐请求一一对应、按输入顺序排列的结果项列表，单项失败不影响其他项
+     */
+    @PostMapping(value = "/batch", produces = "application/json;charset=UTF-8")
+    public JsonResponse<?> batchRecommendation(@RequestBody BatchRecommendationRequest batchRequest) {
+        try {
+            // 参数校验
+            if (batchRequest.getTenantCode() == null || batchRequest.getTenantCode().isEmpty()) {
+                return JsonResponse.fail("租户编码不能为空");
+            }
+            if (batchRequest.getRequests() == null || batchRequest.getRequests().isEmpty()) {
+                return JsonResponse.fail("推荐请求列表不能为空");
+            }
+
+            long startTime = System.currentTimeMillis();
+            List<BatchRecommendationItem> items;
+            try {
+                items = batchRecommendationService.recommendLeaders(batchRequest);
+            } catch (IllegalArgumentException e) {
+                return JsonResponse.fail("批量推荐请求无效: " + e.getMessage());
+            }
+
+            long failedCount = items.stream().filter(item -> !item.isSuccess()).count();
+            log.info("批量推荐完成: 租户 {}, 共 {} 项, 失败 {} 项, 处理时间: {}毫秒", batchRequest.getTenantCode(),
+                    items.size(), failedCount, System.currentTimeMillis() - startTime);
+            return JsonResponse.success(items, MSG_SUCCESS);
+        } catch (Exception e) {
+            log.error("批量推荐服务执行失败: {}", e.getMessage(), e);
+            return JsonResponse.fail("批量推荐服务执行失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取推荐结果缓存统计信息
+     *
+     * @return 缓存大小、命中率、未命中率等统计信息
+     */
+    @GetMapping("/cache-stats")
+    public JsonResponse<Map<String, Object>> getCacheStats() {
+        return JsonResponse.success(recommendationCacheService.getStatistics(), MSG_SUCCESS);
+    }
+
     /**
      * 获取所有组织
      *
@@ -1,10 +1,15 @@
 package com.simbest.boot.suggest.controller;
 
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.simbest.boot.suggest.model.JsonResponse;
+import com.simbest.boot.suggest.service.FeedbackWriteBehindService;
+import com.simbest.boot.suggest.service.TaskPatternMatchCounterService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,10 +18,36 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/sys/health")
 public class SysHealthController {
 
+    @Autowired
+    private FeedbackWriteBehindService feedbackWriteBehindService;
+
+    @Autowired
+    private TaskPatternMatchCounterService taskPatternMatchCounterService;
+
     @SuppressWarnings("rawtypes")
     @RequestMapping(value = "/anonymous/heart", method = { RequestMethod.HEAD })
     public JsonResponse healthHeart() {
         return JsonResponse.defaultSuccessResponse();
     }
 
+    /**
+     * 获取推荐反馈异步写入的运行统计（队列深度、写入耗时、丢弃记录数等）
+     *
+     * @return 统计信息
+     */
+    @RequestMapping(value = "/anonymous/feedbackBuffer", method = { RequestMethod.GET })
+    public JsonResponse<Map<String, Object>> feedbackBuffer() {
+        return JsonResponse.success(feedbackWriteBehindService.getStatistics());
+    }
+
+    /**
+     * 获取任务模式匹配计数的运行统计（待合并任务模式数、合并写入耗时等）
+     *
+     * @return 统计信息
+     */
+    @RequestMapping(value = "/anonymous/patternCounters", method = { RequestMethod.GET })
+    public JsonResponse<Map<String, Object>> patternCounters() {
+        return JsonResponse.success(taskPatternMatchCounterService.getStatistics());
+    }
+
 }
@@ -18,6 +18,8 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -107,4 +109,19 @@ public class ResponsibilityDomainEntity {
      */
     @Column(name = "updated_by", length = 50)
     private String updatedBy;
+
+    /**
+     * 转换为职责领域模型，供内存快照和目录使用
+     * 关键词列表为独立副本，模型不随实体后续修改而变化
+     *
+     * @return 职责领域模型
+     */
+    public ResponsibilityDomain toModel() {
+        ResponsibilityDomain domain = new ResponsibilityDomain();
+        domain.setDomainId(domainId);
+        domain.setDomainName(domainName);
+        domain.setDescription(description);
+        domain.setKeywords(keywords != null ? new ArrayList<>(keywords) : new ArrayList<>());
+        return domain;
+    }
 }
@@ -0,0 +1,40 @@
+package com.simbest.boot.suggest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 推荐反馈写入JFR事件
+ * 每次批量写入推荐反馈产生一个事件，包括后台线程写入和调用线程直接写入
+ */
+@Name("com.simbest.boot.suggest.FeedbackPersist")
+@Label("Feedback Persist")
+@Category({ "Simbest Suggest", "Feedback" })
+@Description("一批推荐反馈的租户校验和JDBC批量写入")
+@StackTrace(false)
+@Setter
+public class FeedbackPersistEvent extends Event {
+
+    @Label("Tenant")
+    @Description("批次中全部记录所属的租户，包含多个租户时为mixed")
+    private String tenant; // 租户编码
+
+    @Label("Rows")
+    @Description("批次中的记录数量")
+    private int rows; // 批次记录数量
+
+    @Label("Written")
+    private int written; // 写入的记录数量
+
+    @Label("Rejected")
+    @Description("因租户无效未写入的记录数量")
+    private int rejected; // 因租户无效未写入的记录数量
+
+    @Label("Failed")
+    private int failed; // 写入失败的记录数量
+}
@@ -0,0 +1,40 @@
+package com.simbest.boot.suggest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 历史批复记录评分JFR事件
+ * 对标题倒排索引检索出的候选历史记录逐条计算相似度并汇总审批人得分
+ */
+@Name("com.simbest.boot.suggest.HistoryScoring")
+@Label("History Scoring")
+@Category({ "Simbest Suggest", "Recommendation" })
+@Description("对候选历史批复记录计算相似度并汇总审批人得分")
+@StackTrace(false)
+@Setter
+public class HistoryScoringEvent extends Event {
+
+    @Label("Tenant")
+    private String tenant; // 租户编码
+
+    @Label("Direction")
+    private String direction; // 工作流方向
+
+    @Label("Same Initiator")
+    @Description("是否只评估相同发起人的历史记录")
+    private boolean sameInitiator; // 是否是相同发起人的历史记录
+
+    @Label("Rows")
+    @Description("计算相似度的历史记录数量")
+    private int rows; // 计算相似度的历史记录数量
+
+    @Label("Leaders")
+    @Description("推荐的领导数量，没有推荐结果时为0")
+    private int leaders; // 推荐的领导数量
+}
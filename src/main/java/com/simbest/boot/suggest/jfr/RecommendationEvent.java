@@ -0,0 +1,39 @@
+package com.simbest.boot.suggest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 推荐请求JFR事件
+ * 覆盖一次推荐请求从读取推荐结果缓存、执行各推荐策略到提交推荐反馈的全过程
+ */
+@Name("com.simbest.boot.suggest.Recommendation")
+@Label("Recommendation")
+@Category({ "Simbest Suggest", "Recommendation" })
+@Description("一次推荐请求，包含缓存查询、推荐策略执行和推荐反馈提交")
+@StackTrace(false)
+@Setter
+public class RecommendationEvent extends Event {
+
+    @Label("Tenant")
+    private String tenant; // 租户编码
+
+    @Label("Direction")
+    private String direction; // 工作流方向
+
+    @Label("Recommendation Type")
+    private String recommendationType; // 推荐类型
+
+    @Label("Cache")
+    @Description("推荐结果缓存查询结果：hit、miss或disabled")
+    private String cache; // 推荐结果缓存查询结果
+
+    @Label("Leaders")
+    @Description("推荐的领导数量，没有推荐结果时为0")
+    private int leaders; // 推荐的领导数量
+}
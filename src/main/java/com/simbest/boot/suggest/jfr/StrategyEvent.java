@@ -0,0 +1,47 @@
+package com.simbest.boot.suggest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 推荐策略JFR事件
+ * 每个推荐策略执行一次产生一个事件，并行执行时在策略线程上记录
+ */
+@Name("com.simbest.boot.suggest.Strategy")
+@Label("Recommendation Strategy")
+@Category({ "Simbest Suggest", "Recommendation" })
+@Description("一个推荐策略的执行")
+@StackTrace(false)
+@Setter
+public class StrategyEvent extends Event {
+
+    @Label("Strategy")
+    private String strategy; // 推荐策略名称
+
+    @Label("Tenant")
+    private String tenant; // 租户编码
+
+    @Label("Direction")
+    private String direction; // 工作流方向
+
+    @Label("Outcome")
+    @Description("执行结果：matched、empty或error")
+    private String outcome; // 执行结果
+
+    @Label("Organizations")
+    private int organizations; // 评估的组织数量
+
+    @Label("Domains")
+    private int domains; // 评估的职责领域数量
+
+    @Label("Patterns")
+    private int patterns; // 评估的任务模式数量
+
+    @Label("History Rows")
+    private int historyRows; // 评估的历史批复记录数量
+}
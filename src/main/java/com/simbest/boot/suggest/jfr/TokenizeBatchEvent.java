@@ -0,0 +1,44 @@
+package com.simbest.boot.suggest.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * 批量分词JFR事件
+ * 批量分析任务标题、批量计算历史标题特征向量以及构建历史标题索引时产生
+ */
+@Name("com.simbest.boot.suggest.TokenizeBatch")
+@Label("Tokenize Batch")
+@Category({ "Simbest Suggest", "Tokenizer" })
+@Description("一批文本的分词和特征计算")
+@StackTrace(false)
+@Setter
+public class TokenizeBatchEvent extends Event {
+
+    public static final String SOURCE_QUERY_BATCH = "query-batch"; // 批量分析任务标题
+    public static final String SOURCE_HISTORY_UPDATE = "history-update"; // 批量更新历史标题特征向量
+    public static final String SOURCE_HISTORY_INDEX = "history-index"; // 构建历史标题索引
+
+    @Label("Source")
+    @Description("分词来源：query-batch、history-update或history-index")
+    private String source; // 分词来源
+
+    @Label("Tenant")
+    private String tenant; // 租户编码
+
+    @Label("Direction")
+    private String direction; // 工作流方向
+
+    @Label("Texts")
+    @Description("批次中的文本数量")
+    private int texts; // 文本数量
+
+    @Label("Characters")
+    @Description("批次中的文本字符总数")
+    private long characters; // 文本字符总数
+}
@@ -0,0 +1,165 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.simbest.boot.suggest.util.DomainKeywordIndex;
+import com.simbest.boot.suggest.util.SynonymManagerAdapter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 已分析的查询
+ * 一次推荐请求中任务标题的全部预计算特征：文本特征（分词、词集合、词频、字符频次）、
+ * 每个词的同义词扩展以及关键词多模式匹配结果。
+ * 每个请求只创建一次并在各推荐策略之间传递，各评分方法直接读取，不再重复分词。
+ * 同一请求内各领域关键词索引的评分结果也缓存在此对象中。
+ */
+@Slf4j
+public class AnalyzedQuery {
+    private final String tenantCode; // 租户代码
+    private final TextFeatures features; // 文本特征
+    private final Map<String, Set<String>> synonymExpansions; // 词到同义词集合的映射
+    private final Set<String> expandedSynonyms; // 全部词的同义词并集
+    private final KeywordHits keywordHits; // 关键词命中结果
+    private final Map<DomainKeywordIndex, Map<String, Double>> domainScores = new ConcurrentHashMap<>(); // 领域索引到领域匹配度的缓存
+
+    /**
+     * 构造函数
+     *
+     * @param tenantCode  租户代码
+     * @param features    文本特征
+     * @param keywordHits 关键词命中结果
+     */
+    public AnalyzedQuery(String tenantCode, TextFeatures features, KeywordHits keywordHits) {
+        this.tenantCode = tenantCode;
+        this.features = features;
+        this.keywordHits = keywordHits;
+
+        Map<String, Set<String>> expansions = new HashMap<>();
+        Set<String> expanded = new HashSet<>();
+        for (String token : features.getTokenSet()) {
+            try {
+                Set<String> synonyms = SynonymManagerAdapter.getSynonyms(token);
+                if (!synonyms.isEmpty()) {
+                    expansions.put(token, Collections.unmodifiableSet(synonyms));
+                    expanded.addAll(synonyms);
+                }
+            } catch (Exception e) {
+                log.warn("获取同义词时出错: {}", e.getMessage());
+            }
+        }
+        this.synonymExpansions = Collections.unmodifiableMap(expansions);
+        this.expandedSynonyms = Collections.unmodifiableSet(expanded);
+    }
+
+    /**
+     * 创建不包含多模式匹配结果的查询，直接匹配均回退为在文本中查找
+     *
+     * @param text 文本
+     * @return 已分析的查询
+     */
+    public static AnalyzedQuery of(String text) {
+        return new AnalyzedQuery(null, TextFeatures.of(text), KeywordHits.of(text == null ? "" : text));
+    }
+
+    /**
+     * 判断关键词是否与查询中的某个词相同或互为同义词
+     *
+     * @param keyword 关键词
+     * @return 是否匹配
+     */
+    public boolean matchesSynonym(String keyword) {
+        return features.getTokenSet().contains(keyword) || expandedSynonyms.contains(keyword);
+    }
+
+    /**
+     * 获取领域关键词索引对本查询的评分，同一请求内每个索引只计算一次
+     *
+     * @param index  领域关键词索引
+     * @param loader 评分计算方法
+     * @return 领域ID到匹配度的映射
+     */
+    public Map<String, Double> getDomainScores(DomainKeywordIndex index,
+            Function<DomainKeywordIndex, Map<String, Double>> loader) {
+        return domainScores.computeIfAbsent(index, loader);
+    }
+
+    /**
+     * 获取租户代码
+     *
+     * @return 租户代码
+     */
+    public String getTenantCode() {
+        return tenantCode;
+    }
+
+    /**
+     * 获取原始文本
+     *
+     * @return 原始文本
+     */
+    public String getText() {
+        return features.getText();
+    }
+
+    /**
+     * 判断文本是否为空
+     *
+     * @return 文本为null或空字符串时返回true
+     */
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+
+    /**
+     * 获取文本特征
+     *
+     * @return 文本特征
+     */
+    public TextFeatures getFeatures() {
+        return features;
+    }
+
+    /**
+     * 获取分词结果
+     *
+     * @return 分词结果
+     */
+    public List<String> getTokens() {
+        return features.getTokens();
+    }
+
+    /**
+     * 获取词集合
+     *
+     * @return 词集合
+     */
+    public Set<String> getTokenSet() {
+        return features.getTokenSet();
+    }
+
+    /**
+     * 获取同义词扩展
+     *
+     * @return 词到同义词集合的映射，只包含存在同义词的词
+     */
+    public Map<String, Set<String>> getSynonymExpansions() {
+        return synonymExpansions;
+    }
+
+    /**
+     * 获取关键词命中结果
+     *
+     * @return 关键词命中结果
+     */
+    public KeywordHits getKeywordHits() {
+        return keywordHits;
+    }
+}
@@ -0,0 +1,34 @@
+package com.simbest.boot.suggest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量推荐结果项
+ * 与批量推荐请求中的推荐请求一一对应，按输入顺序返回
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRecommendationItem {
+    private int index; // 推荐请求在批次中的下标
+    private String taskId; // 任务ID
+    private boolean success; // 是否处理成功
+    private String message; // 失败原因
+    private RecommendationResult result; // 推荐结果，没有匹配的推荐结果时为null
+
+    /**
+     * 创建处理成功的结果项
+     */
+    public static BatchRecommendationItem success(int index, String taskId, RecommendationResult result) {
+        return new BatchRecommendationItem(index, taskId, true, null, result);
+    }
+
+    /**
+     * 创建处理失败的结果项
+     */
+    public static BatchRecommendationItem fail(int index, String taskId, String message) {
+        return new BatchRecommendationItem(index, taskId, false, message, null);
+    }
+}
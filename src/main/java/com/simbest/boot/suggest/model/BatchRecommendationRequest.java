@@ -0,0 +1,32 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量领导推荐请求DTO
+ * 用于封装批量推荐接口的请求参数，一次请求为同一租户下的多个任务推荐领导
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRecommendationRequest {
+    /**
+     * 租户编码（必填）
+     * 整个批次只验证一次，各推荐请求未填写租户编码时使用此值
+     */
+    private String tenantCode;
+
+    /**
+     * 推荐请求列表（必填）
+     */
+    private List<RecommendationRequest> requests;
+
+    /**
+     * 是否保存推荐反馈（可选，默认保存）
+     */
+    private boolean saveFeedback = true;
+}
@@ -0,0 +1,114 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 关键词命中结果
+ * 一次多模式匹配扫描任务标题得到的全部关键词命中及其所属对象。
+ * 对自动机中不存在的关键词，{@link #contains(String)} 回退为直接在文本中查找，
+ * 因此结果始终与 {@code text.contains(keyword)} 一致。
+ */
+public class KeywordHits {
+    private final String text; // 被扫描的文本
+    private final Set<String> dictionary; // 自动机中的关键词集合
+    private final Set<String> matchedKeywords; // 命中的关键词集合
+    private final Map<String, Map<KeywordOwnerType, Set<String>>> keywordOwners; // 关键词到所属对象ID的映射
+
+    /**
+     * 构造函数
+     *
+     * @param text            被扫描的文本
+     * @param dictionary      自动机中的关键词集合
+     * @param matchedKeywords 命中的关键词集合
+     * @param keywordOwners   关键词到所属对象ID的映射
+     */
+    public KeywordHits(String text, Set<String> dictionary, Set<String> matchedKeywords,
+            Map<String, Map<KeywordOwnerType, Set<String>>> keywordOwners) {
+        this.text = text;
+        this.dictionary = dictionary;
+        this.matchedKeywords = Collections.unmodifiableSet(matchedKeywords);
+        this.keywordOwners = keywordOwners;
+    }
+
+    /**
+     * 创建不包含自动机的命中结果，所有判断均回退为直接查找
+     *
+     * @param text 文本
+     * @return 命中结果
+     */
+    public static KeywordHits of(String text) {
+        return new KeywordHits(text, Collections.emptySet(), Collections.emptySet(), Collections.emptyMap());
+    }
+
+    /**
+     * 获取被扫描的文本
+     *
+     * @return 文本
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 获取自动机中的关键词集合
+     *
+     * @return 关键词集合
+     */
+    public Set<String> getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 获取命中的关键词集合
+     *
+     * @return 命中的关键词集合
+     */
+    public Set<String> getMatchedKeywords() {
+        return matchedKeywords;
+    }
+
+    /**
+     * 判断文本是否包含指定关键词
+     *
+     * @param keyword 关键词
+     * @return 是否包含
+     */
+    public boolean contains(String keyword) {
+        if (dictionary.contains(keyword)) {
+            return matchedKeywords.contains(keyword);
+        }
+        return text.contains(keyword);
+    }
+
+    /**
+     * 获取命中关键词所属的指定类型对象ID
+     *
+     * @param ownerType 所属对象类型
+     * @return 对象ID集合
+     */
+    public Set<String> getHitOwnerIds(KeywordOwnerType ownerType) {
+        Set<String> ownerIds = new HashSet<>();
+        for (String keyword : matchedKeywords) {
+            Map<KeywordOwnerType, Set<String>> owners = keywordOwners.get(keyword);
+            if (owners != null && owners.containsKey(ownerType)) {
+                ownerIds.addAll(owners.get(ownerType));
+            }
+        }
+        return ownerIds;
+    }
+
+    /**
+     * 获取指定关键词的所属对象
+     *
+     * @param keyword 关键词
+     * @return 所属对象类型到对象ID集合的映射
+     */
+    public Map<KeywordOwnerType, Set<String>> getOwners(String keyword) {
+        Map<KeywordOwnerType, Set<String>> owners = keywordOwners.get(keyword);
+        return owners != null ? owners : new EnumMap<>(KeywordOwnerType.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.simbest.boot.suggest.config.ConfigConstants.Algorithm.KeywordMatching;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 关键词匹配权重
+ * 算法权重配置中keywordMatching部分的类型化、不可变表示，
+ * 在配置缓存刷新时构建一次，领域匹配度计算直接读取字段，不再逐次解析配置映射。
+ */
+@Slf4j
+@Getter
+public final class KeywordMatchWeights {
+
+    /**
+     * 未配置时使用的默认权重
+     */
+    public static final KeywordMatchWeights DEFAULTS = from(Collections.emptyMap());
+
+    private final double directMatchMultiplier; // 直接匹配权重系数
+    private final double tokenMatchMultiplier; // 分词匹配权重系数
+    private final double synonymMatchMultiplier; // 同义词匹配权重系数
+    private final double keywordWeightBase; // 关键词基础权重
+    private final double keywordLengthFactor; // 关键词长度权重系数
+    private final int keywordMaxLength; // 参与权重计算的最大关键词长度
+    private final double keywordCountRatioWeight; // 关键词命中比例的权重
+    private final double weightedRatioWeight; // 加权命中比例的权重
+
+    private KeywordMatchWeights(Map<String, Object> section) {
+        this.directMatchMultiplier = getNumber(section, KeywordMatching.DIRECT_MATCH_MULTIPLIER, 2.0).doubleValue();
+        this.tokenMatchMultiplier = getNumber(section, KeywordMatching.TOKEN_MATCH_MULTIPLIER, 1.5).doubleValue();
+        this.synonymMatchMultiplier = getNumber(section, KeywordMatching.SYNONYM_MATCH_MULTIPLIER, 0.8)
+                .doubleValue();
+        this.keywordWeightBase = getNumber(section, KeywordMatching.KEYWORD_WEIGHT_BASE, 1.0).doubleValue();
+        this.keywordLengthFactor = getNumber(section, KeywordMatching.KEYWORD_LENGTH_FACTOR, 0.1).doubleValue();
+        this.keywordMaxLength = getNumber(section, KeywordMatching.KEYWORD_MAX_LENGTH, 10).intValue();
+        this.keywordCountRatioWeight = getNumber(section, KeywordMatching.KEYWORD_COUNT_RATIO_WEIGHT, 0.4)
+                .doubleValue();
+        this.weightedRatioWeight = getNumber(section, KeywordMatching.WEIGHTED_RATIO_WEIGHT, 0.6).doubleValue();
+    }
+
+    /**
+     * 由keywordMatching配置部分构建权重，缺失的项使用默认值
+     *
+     * @param section keywordMatching配置部分
+     * @return 关键词匹配权重
+     */
+    public static KeywordMatchWeights from(Map<String, Object> section) {
+        return new KeywordMatchWeights(section);
+    }
+
+    /**
+     * 计算关键词权重，关键词长度越长，权重越高
+     *
+     * @param keyword 关键词
+     * @return 关键词权重
+     */
+    public double keywordWeight(String keyword) {
+        return keywordWeightBase + (keywordLengthFactor * Math.min(keyword.length(), keywordMaxLength));
+    }
+
+    private static Number getNumber(Map<String, Object> config, String key, Number defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        log.warn("关键词匹配权重 {} 的值 {} 不是有效的数字，使用默认值 {}", key, value, defaultValue);
+        return defaultValue;
+    }
+}
@@ -0,0 +1,22 @@
+package com.simbest.boot.suggest.model;
+
+/**
+ * 关键词所属对象类型枚举
+ * 用于标识多模式匹配命中的关键词来源
+ */
+public enum KeywordOwnerType {
+    /**
+     * 组织关键词
+     */
+    ORGANIZATION,
+
+    /**
+     * 职责领域关键词
+     */
+    DOMAIN,
+
+    /**
+     * 任务模式关键词
+     */
+    TASK_PATTERN
+}
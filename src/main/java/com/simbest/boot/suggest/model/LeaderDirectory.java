@@ -0,0 +1,185 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * 领导目录
+ * 单个租户的全部领导、按账号和按领域的索引、领导所负责职责领域模型的不可变内存视图，
+ * 请求期间解析领导只做哈希查找，不再访问数据库。
+ * 领导或职责领域变更时通过 with/without 方法生成新的目录并原子替换，读取方无需加锁；
+ * 目录中的领导对象为共享实例，调用方不得修改。
+ */
+@Getter
+public class LeaderDirectory {
+    private final String tenantCode; // 租户代码
+    private final List<Long> leaderIds; // 与领导一一对应的领导实体ID，按ID升序排列
+    private final List<Leader> leaders; // 租户的全部领导，按领导实体ID升序排列
+    private final Map<String, Leader> leadersByAccount; // 账号到领导的映射
+    private final Map<String, List<Leader>> leadersByDomainId; // 领域ID到领导列表的映射
+    private final Map<String, ResponsibilityDomain> domains; // 领域ID到领导所负责职责领域的映射
+    private final long buildTime; // 构建时间（毫秒）
+
+    /**
+     * 构造函数
+     *
+     * @param tenantCode 租户代码
+     * @param leaderIds  按升序排列的领导实体ID
+     * @param leaders    与领导实体ID一一对应的领导
+     * @param domains    领域ID到职责领域的映射，只保留领导负责的领域
+     */
+    public LeaderDirectory(String tenantCode, List<Long> leaderIds, List<Leader> leaders,
+            Map<String, ResponsibilityDomain> domains) {
+        Map<String, Leader> accountMap = new HashMap<>();
+        Map<String, List<Leader>> domainMap = new HashMap<>();
+        Map<String, ResponsibilityDomain> leaderDomains = new HashMap<>();
+        for (Leader leader : leaders) {
+            // 账号重复时保留第一条，与按账号查询单条记录的语义一致
+            accountMap.putIfAbsent(leader.getAccount(), leader);
+            for (String domainId : leader.getDomainIds()) {
+                List<Leader> domainLeaders = domainMap.computeIfAbsent(domainId, k -> new ArrayList<>());
+                // 同一领导的领域ID重复时只登记一次
+                if (domainLeaders.isEmpty() || domainLeaders.get(domainLeaders.size() - 1) != leader) {
+                    domainLeaders.add(leader);
+                }
+                ResponsibilityDomain domain = domains.get(domainId);
+                if (domain != null) {
+                    leaderDomains.putIfAbsent(domainId, domain);
+                }
+            }
+        }
+
+        this.tenantCode = tenantCode;
+        this.leaderIds = Collections.unmodifiableList(new ArrayList<>(leaderIds));
+        this.leaders = Collections.unmodifiableList(new ArrayList<>(leaders));
+        this.leadersByAccount = Collections.unmodifiableMap(accountMap);
+        Map<String, List<Leader>> domainLeaders = new HashMap<>();
+        for (Map.Entry<String, List<Leader>> entry : domainMap.entrySet()) {
+            domainLeaders.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        this.leadersByDomainId = Collections.unmodifiableMap(domainLeaders);
+        this.domains = Collections.unmodifiableMap(leaderDomains);
+        this.buildTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 创建空的领导目录
+     *
+     * @param tenantCode 租户代码
+     * @return 空的领导目录
+     */
+    public static LeaderDirectory empty(String tenantCode) {
+        return new LeaderDirectory(tenantCode, Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyMap());
+    }
+
+    /**
+     * 根据账号获取领导
+     *
+     * @param account 领导账号
+     * @return 领导，不存在时返回null
+     */
+    public Leader getLeader(String account) {
+        return account != null ? leadersByAccount.get(account) : null;
+    }
+
+    /**
+     * 根据领域ID获取负责该领域的领导列表
+     *
+     * @param domainId 领域ID
+     * @return 领导列表，不存在时返回空列表
+     */
+    public List<Leader> getLeadersByDomainId(String domainId) {
+        return leadersByDomainId.getOrDefault(domainId, Collections.emptyList());
+    }
+
+    /**
+     * 根据领域ID获取领导负责的职责领域
+     *
+     * @param domainId 领域ID
+     * @return 职责领域，不存在时返回null
+     */
+    public ResponsibilityDomain getDomain(String domainId) {
+        return domains.get(domainId);
+    }
+
+    /**
+     * 是否有领导负责指定领域
+     *
+     * @param domainId 领域ID
+     * @return 是否有领导负责该领域
+     */
+    public boolean hasDomain(String domainId) {
+        return leadersByDomainId.containsKey(domainId);
+    }
+
+    /**
+     * 新增或替换一位领导，返回新的目录
+     *
+     * @param leaderId      领导实体ID
+     * @param leader        领导
+     * @param leaderDomains 领导负责的职责领域，目录中已有的领域可省略
+     * @return 新的领导目录
+     */
+    public LeaderDirectory withLeader(Long leaderId, Leader leader, Map<String, ResponsibilityDomain> leaderDomains) {
+        List<Long> ids = new ArrayList<>(leaderIds);
+        List<Leader> list = new ArrayList<>(leaders);
+        int index = Collections.binarySearch(ids, leaderId);
+        if (index >= 0) {
+            list.set(index, leader);
+        } else {
+            ids.add(-index - 1, leaderId);
+            list.add(-index - 1, leader);
+        }
+        Map<String, ResponsibilityDomain> merged = new HashMap<>(domains);
+        merged.putAll(leaderDomains);
+        return new LeaderDirectory(tenantCode, ids, list, merged);
+    }
+
+    /**
+     * 移除一位领导，返回新的目录
+     *
+     * @param leaderId 领导实体ID
+     * @return 新的领导目录，领导不存在时返回当前目录
+     */
+    public LeaderDirectory withoutLeader(Long leaderId) {
+        int index = Collections.binarySearch(leaderIds, leaderId);
+        if (index < 0) {
+            return this;
+        }
+        List<Long> ids = new ArrayList<>(leaderIds);
+        List<Leader> list = new ArrayList<>(leaders);
+        ids.remove(index);
+        list.remove(index);
+        return new LeaderDirectory(tenantCode, ids, list, domains);
+    }
+
+    /**
+     * 新增或替换领导负责的职责领域，返回新的目录
+     *
+     * @param domain 职责领域
+     * @return 新的领导目录
+     */
+    public LeaderDirectory withDomain(ResponsibilityDomain domain) {
+        Map<String, ResponsibilityDomain> merged = new HashMap<>(domains);
+        merged.put(domain.getDomainId(), domain);
+        return new LeaderDirectory(tenantCode, leaderIds, leaders, merged);
+    }
+
+    /**
+     * 移除职责领域模型，返回新的目录，领导的领域ID列表不变
+     *
+     * @param domainId 领域ID
+     * @return 新的领导目录
+     */
+    public LeaderDirectory withoutDomain(String domainId) {
+        Map<String, ResponsibilityDomain> remaining = new HashMap<>(domains);
+        remaining.remove(domainId);
+        return new LeaderDirectory(tenantCode, leaderIds, leaders, remaining);
+    }
+}
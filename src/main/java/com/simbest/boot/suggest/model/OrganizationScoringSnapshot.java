@@ -0,0 +1,138 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.simbest.boot.suggest.util.DomainKeywordIndex;
+
+import lombok.Getter;
+
+/**
+ * 组织评分快照
+ * 某个租户下组织、组织-领域关联及其权重、职责领域模型及关键词倒排索引的不可变内存视图，
+ * 供请求期间的组织-领域匹配计算使用，不再访问数据库。
+ * 同时携带该租户的组织模型分片，供按组织ID和领导账号查找组织。
+ * 数据变更时整体重建并原子替换，读取方无需加锁。
+ */
+@Getter
+public class OrganizationScoringSnapshot {
+    private final String tenantCode; // 租户代码
+    private final List<Organization> organizations; // 组织列表
+    private final Map<String, Organization> organizationMap; // 组织ID到组织的映射
+    private final Map<String, List<String>> organizationDomainIds; // 组织ID到关联领域ID列表的映射
+    private final Map<String, Map<String, Double>> organizationDomainWeights; // 组织ID到（领域ID到权重）的映射
+    private final Map<String, ResponsibilityDomain> domains; // 领域ID到职责领域的映射
+    private final Set<String> referencedDomainIds; // 快照包含或组织关联的全部领域ID
+    private final DomainKeywordIndex domainKeywordIndex; // 职责领域关键词倒排索引
+    private final OrganizationShard organizationShard; // 组织模型分片
+    private final long buildTime; // 构建时间（毫秒）
+
+    /**
+     * 构造函数
+     *
+     * @param tenantCode                租户代码
+     * @param organizations             组织列表
+     * @param organizationDomainIds     组织ID到关联领域ID列表的映射
+     * @param organizationDomainWeights 组织ID到（领域ID到权重）的映射
+     * @param domains                   领域ID到职责领域的映射
+     */
+    public OrganizationScoringSnapshot(String tenantCode,
+            List<Organization> organizations,
+            Map<String, List<String>> organizationDomainIds,
+            Map<String, Map<String, Double>> organizationDomainWeights,
+            Map<String, ResponsibilityDomain> domains) {
+        this.tenantCode = tenantCode;
+
+        Map<String, Organization> orgMap = new LinkedHashMap<>();
+        for (Organization org : organizations) {
+            orgMap.put(org.getOrgId(), org);
+        }
+        this.organizationMap = Collections.unmodifiableMap(orgMap);
+        this.organizations = Collections.unmodifiableList(new ArrayList<>(orgMap.values()));
+        this.organizationShard = new OrganizationShard(tenantCode, organizations);
+
+        Map<String, List<String>> domainIdMap = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : organizationDomainIds.entrySet()) {
+            domainIdMap.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+        }
+        this.organizationDomainIds = Collections.unmodifiableMap(domainIdMap);
+
+        Map<String, Map<String, Double>> weightMap = new HashMap<>();
+        for (Map.Entry<String, Map<String, Double>> entry : organizationDomainWeights.entrySet()) {
+            weightMap.put(entry.getKey(), Collections.unmodifiableMap(new HashMap<>(entry.getValue())));
+        }
+        this.organizationDomainWeights = Collections.unmodifiableMap(weightMap);
+
+        this.domains = Collections.unmodifiableMap(new HashMap<>(domains));
+        this.domainKeywordIndex = new DomainKeywordIndex(this.domains.values());
+
+        Set<String> referenced = new HashSet<>(this.domains.keySet());
+        for (List<String> domainIds : this.organizationDomainIds.values()) {
+            referenced.addAll(domainIds);
+        }
+        this.referencedDomainIds = Collections.unmodifiableSet(referenced);
+        this.buildTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 根据组织ID获取组织
+     *
+     * @param orgId 组织ID
+     * @return 组织对象，不存在时返回null
+     */
+    public Organization getOrganization(String orgId) {
+        return organizationMap.get(orgId);
+    }
+
+    /**
+     * 获取组织关联的职责领域ID列表
+     *
+     * @param orgId 组织ID
+     * @return 职责领域ID列表，不存在时返回空列表
+     */
+    public List<String> getDomainIds(String orgId) {
+        return organizationDomainIds.getOrDefault(orgId, Collections.emptyList());
+    }
+
+    /**
+     * 获取组织-领域关联的权重
+     *
+     * @param orgId    组织ID
+     * @param domainId 领域ID
+     * @return 权重值，如果不存在则返回默认值1.0
+     */
+    public double getDomainWeight(String orgId, String domainId) {
+        Map<String, Double> weights = organizationDomainWeights.get(orgId);
+        if (weights == null) {
+            return 1.0;
+        }
+        Double weight = weights.get(domainId);
+        return weight != null ? weight : 1.0;
+    }
+
+    /**
+     * 根据领域ID获取职责领域
+     *
+     * @param domainId 领域ID
+     * @return 职责领域对象，不存在时返回null
+     */
+    public ResponsibilityDomain getDomain(String domainId) {
+        return domains.get(domainId);
+    }
+
+    /**
+     * 判断快照是否包含该职责领域，或有组织关联该领域ID
+     *
+     * @param domainId 领域ID
+     * @return 该领域变更时快照是否需要重建
+     */
+    public boolean referencesDomain(String domainId) {
+        return referencedDomainIds.contains(domainId);
+    }
+}
@@ -0,0 +1,122 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * 组织模型分片
+ * 某个租户下组织及主管、分管、上级领导到组织映射的不可变内存视图，
+ * 随组织评分快照一起按租户加载、发布和淘汰，各租户的查找只访问自己的分片。
+ */
+@Getter
+public class OrganizationShard {
+    private final String tenantCode; // 租户代码
+    private final Map<String, Organization> organizations; // 组织ID到组织的映射
+    private final Map<String, List<String>> mainLeaderOrgMap; // 主管领导账号到组织ID的映射
+    private final Map<String, List<String>> deputyLeaderOrgMap; // 分管领导账号到组织ID的映射
+    private final Map<String, List<String>> superiorLeaderOrgMap; // 上级领导账号到组织ID的映射
+
+    /**
+     * 构造函数
+     *
+     * @param tenantCode    租户代码
+     * @param organizations 组织列表
+     */
+    public OrganizationShard(String tenantCode, List<Organization> organizations) {
+        this.tenantCode = tenantCode;
+
+        Map<String, Organization> orgMap = new HashMap<>();
+        Map<String, List<String>> mainMap = new HashMap<>();
+        Map<String, List<String>> deputyMap = new HashMap<>();
+        Map<String, List<String>> superiorMap = new HashMap<>();
+        for (Organization organization : organizations) {
+            orgMap.put(organization.getOrgId(), organization);
+
+            // 主管领导到组织的映射
+            String mainLeaderAccount = organization.getMainLeaderAccount();
+            if (mainLeaderAccount != null && !mainLeaderAccount.isEmpty()) {
+                mainMap.computeIfAbsent(mainLeaderAccount, k -> new ArrayList<>()).add(organization.getOrgId());
+            }
+
+            // 分管领导到组织的映射
+            if (organization.getDeputyLeaderAccounts() != null) {
+                for (String deputyLeaderAccount : organization.getDeputyLeaderAccounts()) {
+                    if (deputyLeaderAccount != null && !deputyLeaderAccount.isEmpty()) {
+                        deputyMap.computeIfAbsent(deputyLeaderAccount, k -> new ArrayList<>())
+                                .add(organization.getOrgId());
+                    }
+                }
+            }
+
+            // 上级领导到组织的映射
+            String superiorLeaderAccount = organization.getSuperiorLeaderAccount();
+            if (superiorLeaderAccount != null && !superiorLeaderAccount.isEmpty()) {
+                superiorMap.computeIfAbsent(superiorLeaderAccount, k -> new ArrayList<>())
+                        .add(organization.getOrgId());
+            }
+        }
+
+        this.organizations = Collections.unmodifiableMap(orgMap);
+        this.mainLeaderOrgMap = freeze(mainMap);
+        this.deputyLeaderOrgMap = freeze(deputyMap);
+        this.superiorLeaderOrgMap = freeze(superiorMap);
+    }
+
+    /**
+     * 根据组织ID获取组织
+     *
+     * @param orgId 组织ID
+     * @return 组织对象，不存在时返回null
+     */
+    public Organization getOrganization(String orgId) {
+        return orgId != null ? organizations.get(orgId) : null;
+    }
+
+    /**
+     * 获取领导作为主管的组织ID列表
+     *
+     * @param leaderAccount 领导账号
+     * @return 组织ID列表，不存在时返回空列表
+     */
+    public List<String> getOrgIdsAsMainLeader(String leaderAccount) {
+        return lookup(mainLeaderOrgMap, leaderAccount);
+    }
+
+    /**
+     * 获取领导作为分管的组织ID列表
+     *
+     * @param leaderAccount 领导账号
+     * @return 组织ID列表，不存在时返回空列表
+     */
+    public List<String> getOrgIdsAsDeputyLeader(String leaderAccount) {
+        return lookup(deputyLeaderOrgMap, leaderAccount);
+    }
+
+    /**
+     * 获取领导作为上级领导的组织ID列表
+     *
+     * @param leaderAccount 领导账号
+     * @return 组织ID列表，不存在时返回空列表
+     */
+    public List<String> getOrgIdsAsSuperiorLeader(String leaderAccount) {
+        return lookup(superiorLeaderOrgMap, leaderAccount);
+    }
+
+    private static List<String> lookup(Map<String, List<String>> map, String leaderAccount) {
+        List<String> orgIds = leaderAccount != null ? map.get(leaderAccount) : null;
+        return orgIds != null ? orgIds : Collections.emptyList();
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, List<String>> map) {
+        Map<String, List<String>> result = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+            result.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
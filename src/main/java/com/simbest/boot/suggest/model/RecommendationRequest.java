@@ -57,4 +57,10 @@ public class RecommendationRequest {
      * 多选推荐人：按照推荐命中率倒排，可以推荐一个或多个领导
      */
     private RecommendationType recommendationType = RecommendationType.SINGLE;
+
+    /**
+     * 是否返回执行轨迹（可选，默认不返回）
+     * 开启后推荐结果中包含各推荐策略的耗时、评估数量和采用或放弃的原因，用于排查慢请求
+     */
+    private boolean trace;
 }
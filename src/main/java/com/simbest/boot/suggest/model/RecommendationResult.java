@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.simbest.boot.suggest.util.JsonUtil;
 
 /**
@@ -15,6 +16,10 @@ import com.simbest.boot.suggest.util.JsonUtil;
 public class RecommendationResult {
     private List<LeaderDTO> leaders = new ArrayList<>(); // 推荐的领导列表
     private Map<String, Double> aiMetrics = new HashMap<>(); // AI分析指标
+    private RecommendationTrace trace; // 推荐请求执行轨迹，只在请求开启轨迹时返回
+
+    private RecommendationResult() {
+    }
 
     /**
      * 构造函数
@@ -78,6 +83,33 @@ public class RecommendationResult {
         initializeAiMetrics(score);
     }
 
+    /**
+     * 创建附带执行轨迹的推荐结果
+     * 推荐结果可能被缓存并在多个请求之间共享，因此复制一份再附带轨迹，领导列表和AI分析指标与原结果共享
+     *
+     * @param trace 推荐请求执行轨迹
+     * @return 附带执行轨迹的推荐结果
+     */
+    public RecommendationResult withTrace(RecommendationTrace trace) {
+        RecommendationResult traced = new RecommendationResult();
+        traced.leaders = leaders;
+        traced.aiMetrics = aiMetrics;
+        traced.trace = trace;
+        return traced;
+    }
+
+    /**
+     * 创建没有推荐领导、只包含执行轨迹的推荐结果，用于开启轨迹但所有策略都未找到结果的请求
+     *
+     * @param trace 推荐请求执行轨迹
+     * @return 只包含执行轨迹的推荐结果
+     */
+    public static RecommendationResult traceOnly(RecommendationTrace trace) {
+        RecommendationResult traced = new RecommendationResult();
+        traced.trace = trace;
+        return traced;
+    }
+
     /**
      * 获取推荐的领导列表
      *
@@ -259,6 +291,16 @@ public class RecommendationResult {
         this.aiMetrics.put(key, value);
     }
 
+    /**
+     * 获取推荐请求执行轨迹
+     *
+     * @return 执行轨迹，请求未开启轨迹时为null
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public RecommendationTrace getTrace() {
+        return trace;
+    }
+
     /**
      * 根据匹配分数计算AI置信度
      *
@@ -0,0 +1,178 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 推荐请求执行轨迹
+ * 推荐请求设置 trace=true 时随推荐结果返回，按优先级列出尝试过的各推荐策略的耗时、评估的组织、领域、任务模式和历史记录数量，
+ * 以及结果被采用或放弃的原因，用于排查单个慢请求。
+ *
+ * 策略执行期间当前策略的轨迹绑定在执行线程上，各评分方法通过静态方法累计评估数量；
+ * 未开启轨迹（且JFR未记录推荐策略事件）的请求没有绑定轨迹，这些静态方法只读取一次线程变量后直接返回。
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecommendationTrace {
+
+    // 策略状态
+    public static final String STATUS_MATCHED = "matched"; // 找到结果
+    public static final String STATUS_EMPTY = "empty"; // 未找到结果
+    public static final String STATUS_ERROR = "error"; // 执行异常
+    public static final String STATUS_SKIPPED = "skipped"; // 优先级更高的策略已找到结果，未执行
+    public static final String STATUS_CANCELLED = "cancelled"; // 并行执行时优先级更高的策略已找到结果，未等待其结果
+
+    private static final ThreadLocal<StageTrace> CURRENT_STAGE = new ThreadLocal<>(); // 当前线程正在执行的策略轨迹
+
+    private String cache; // 推荐结果缓存查询结果：hit、miss或disabled
+    private int cacheHits; // 缓存命中次数
+    private int cacheMisses; // 缓存未命中次数
+    private boolean parallel; // 是否并行执行推荐策略
+    private String winner; // 胜出的推荐策略，命中缓存或没有策略找到结果时为null
+    private double totalTimeMs; // 推荐总耗时（毫秒），不含保存推荐反馈
+    private List<StageTrace> stages = new ArrayList<>(); // 按优先级排列的推荐策略轨迹
+
+    /**
+     * 记录推荐结果缓存查询结果
+     *
+     * @param cache 缓存查询结果：hit、miss或disabled
+     */
+    public void recordCache(String cache) {
+        this.cache = cache;
+        if ("hit".equals(cache)) {
+            cacheHits++;
+        } else if ("miss".equals(cache)) {
+            cacheMisses++;
+        }
+    }
+
+    /**
+     * 添加推荐策略轨迹
+     *
+     * @param stage 推荐策略轨迹
+     */
+    public void addStage(StageTrace stage) {
+        stages.add(stage);
+    }
+
+    /**
+     * 将推荐策略轨迹绑定到当前线程，返回之前绑定的轨迹，执行结束后应通过 {@link #restore(StageTrace)} 恢复
+     *
+     * @param stage 推荐策略轨迹
+     * @return 之前绑定的推荐策略轨迹
+     */
+    public static StageTrace bind(StageTrace stage) {
+        StageTrace previous = CURRENT_STAGE.get();
+        CURRENT_STAGE.set(stage);
+        return previous;
+    }
+
+    /**
+     * 恢复当前线程之前绑定的推荐策略轨迹
+     *
+     * @param previous 之前绑定的推荐策略轨迹，为null时解除绑定
+     */
+    public static void restore(StageTrace previous) {
+        if (previous != null) {
+            CURRENT_STAGE.set(previous);
+        } else {
+            CURRENT_STAGE.remove();
+        }
+    }
+
+    /**
+     * 当前线程是否正在记录推荐策略轨迹，拼接说明文字的开销较大时先判断
+     */
+    public static boolean isActive() {
+        return CURRENT_STAGE.get() != null;
+    }
+
+    /**
+     * 累计当前策略评估的组织数量
+     */
+    public static void countOrganizations(int count) {
+        StageTrace stage = CURRENT_STAGE.get();
+        if (stage != null) {
+            stage.organizations += count;
+        }
+    }
+
+    /**
+     * 累计当前策略评估的职责领域数量
+     */
+    public static void countDomains(int count) {
+        StageTrace stage = CURRENT_STAGE.get();
+        if (stage != null) {
+            stage.domains += count;
+        }
+    }
+
+    /**
+     * 累计当前策略评估的任务模式数量
+     */
+    public static void countPatterns(int count) {
+        StageTrace stage = CURRENT_STAGE.get();
+        if (stage != null) {
+            stage.patterns += count;
+        }
+    }
+
+    /**
+     * 累计当前策略评估的历史批复记录数量
+     */
+    public static void countHistoryRows(int count) {
+        StageTrace stage = CURRENT_STAGE.get();
+        if (stage != null) {
+            stage.historyRows += count;
+        }
+    }
+
+    /**
+     * 记录当前策略的执行说明，例如未找到结果的原因
+     */
+    public static void note(String note) {
+        StageTrace stage = CURRENT_STAGE.get();
+        if (stage != null) {
+            stage.notes.add(note);
+        }
+    }
+
+    /**
+     * 推荐策略轨迹
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class StageTrace {
+        private String strategy; // 推荐策略名称
+        private String status; // 策略状态：matched、empty、error、skipped或cancelled
+        private boolean accepted; // 推荐结果是否被采用
+        private String reason; // 采用或放弃的原因
+        private double timeMs; // 策略耗时（毫秒）
+        private int organizations; // 评估的组织数量
+        private int domains; // 评估的职责领域数量
+        private int patterns; // 评估的任务模式数量
+        private int historyRows; // 评估的历史批复记录数量
+        private List<String> notes = new ArrayList<>(); // 执行说明
+
+        public StageTrace(String strategy) {
+            this.strategy = strategy;
+        }
+
+        /**
+         * 创建未执行或未等待其结果的推荐策略轨迹
+         */
+        public static StageTrace notRun(String strategy, String status, String reason) {
+            StageTrace stage = new StageTrace(strategy);
+            stage.status = status;
+            stage.reason = reason;
+            return stage;
+        }
+    }
+}
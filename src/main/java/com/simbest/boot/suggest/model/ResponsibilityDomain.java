@@ -1,6 +1,7 @@
 package com.simbest.boot.suggest.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,42 +93,36 @@ public class ResponsibilityDomain {
         if (text == null || text.isEmpty() || keywords.isEmpty()) {
             return 0.0;
         }
+        return calculateMatchScore(text, ChineseTokenizer.tokenize(text));
+    }
 
-        // 从配置文件中加载关键词匹配算法的权重配置
-        Map<String, Object> keywordConfig = DataLoader.getAlgorithmWeightSection("keywordMatching");
-
-        // 获取各种匹配方式的权重系数
-        double directMatchMultiplier = keywordConfig.containsKey("directMatchMultiplier")
-                ? ((Number) keywordConfig.get("directMatchMultiplier")).doubleValue()
-                : 2.0;
-        double tokenMatchMultiplier = keywordConfig.containsKey("tokenMatchMultiplier")
-                ? ((Number) keywordConfig.get("tokenMatchMultiplier")).doubleValue()
-                : 1.5;
-        double synonymMatchMultiplier = keywordConfig.containsKey("synonymMatchMultiplier")
-                ? ((Number) keywordConfig.get("synonymMatchMultiplier")).doubleValue()
-                : 0.8;
-
-        // 获取关键词权重计算参数
-        double keywordWeightBase = keywordConfig.containsKey("keywordWeightBase")
-                ? ((Number) keywordConfig.get("keywordWeightBase")).doubleValue()
-                : 1.0;
-        double keywordLengthFactor = keywordConfig.containsKey("keywordLengthFactor")
-                ? ((Number) keywordConfig.get("keywordLengthFactor")).doubleValue()
-                : 0.1;
-        int keywordMaxLength = keywordConfig.containsKey("keywordMaxLength")
-                ? ((Number) keywordConfig.get("keywordMaxLength")).intValue()
-                : 10;
-
-        // 获取综合评分的权重
-        double keywordCountRatioWeight = keywordConfig.containsKey("keywordCountRatioWeight")
-                ? ((Number) keywordConfig.get("keywordCountRatioWeight")).doubleValue()
-                : 0.4;
-        double weightedRatioWeight = keywordConfig.containsKey("weightedRatioWeight")
-                ? ((Number) keywordConfig.get("weightedRatioWeight")).doubleValue()
-                : 0.6;
+    /**
+     * 计算已分析查询与该领域的匹配度
+     * 复用查询中的分词结果，不再重复分词
+     *
+     * @param query 已分析的查询
+     * @return 匹配度分数（0-1之间）
+     * @throws java.io.IOException 如果初始化同义词表失败
+     */
+    public double calculateMatchScore(AnalyzedQuery query) throws java.io.IOException {
+        return calculateMatchScore(query.getText(), query.getTokenSet());
+    }
 
-        // 分词处理输入文本
-        List<String> textTokens = ChineseTokenizer.tokenize(text);
+    /**
+     * 计算文本与该领域的匹配度
+     *
+     * @param text       输入文本
+     * @param textTokens 输入文本的分词结果
+     * @return 匹配度分数（0-1之间）
+     * @throws java.io.IOException 如果初始化同义词表失败
+     */
+    private double calculateMatchScore(String text, Collection<String> textTokens) throws java.io.IOException {
+        if (text == null || text.isEmpty() || keywords.isEmpty()) {
+            return 0.0;
+        }
+
+        // 关键词匹配算法的权重在配置刷新时已构建
+        KeywordMatchWeights matchWeights = DataLoader.getKeywordMatchWeights();
 
         // 初始化关键词权重
         Map<String, Double> keywordWeights = new HashMap<>();
@@ -138,8 +133,7 @@ public class ResponsibilityDomain {
                 continue;
             }
             // 关键词长度越长，权重越高
-            double weight = keywordWeightBase + (keywordLengthFactor * Math.min(keyword.length(), keywordMaxLength));
-            keywordWeights.put(keyword, weight);
+            keywordWeights.put(keyword, matchWeights.keywordWeight(keyword));
         }
 
         int matchedKeywordsCount = 0;
@@ -175,21 +169,21 @@ public class ResponsibilityDomain {
 
                 // 获取关键词权重，如果不存在则使用默认值
                 Double weightObj = keywordWeights.get(keyword);
-                double matchWeight = (weightObj != null) ? weightObj : keywordWeightBase;
+                double matchWeight = (weightObj != null) ? weightObj : matchWeights.getKeywordWeightBase();
 
                 // 如果是直接匹配，给予更高权重
                 if (directMatch) {
-                    matchWeight *= directMatchMultiplier;
+                    matchWeight *= matchWeights.getDirectMatchMultiplier();
                 }
 
                 // 如果是精确匹配，给予更高权重
                 if (tokenMatch) {
-                    matchWeight *= tokenMatchMultiplier;
+                    matchWeight *= matchWeights.getTokenMatchMultiplier();
                 }
 
                 // 如果是同义词匹配，给予较低权重
                 if (synonymMatch && !directMatch && !tokenMatch) {
-                    matchWeight *= synonymMatchMultiplier;
+                    matchWeight *= matchWeights.getSynonymMatchMultiplier();
                 }
 
                 weightedMatchScore += matchWeight;
@@ -213,7 +207,8 @@ public class ResponsibilityDomain {
         }
 
         // 综合评分
-        return keywordCountRatioWeight * keywordCountRatio + weightedRatioWeight * weightedRatio;
+        return matchWeights.getKeywordCountRatioWeight() * keywordCountRatio
+                + matchWeights.getWeightedRatioWeight() * weightedRatio;
     }
 
     /**
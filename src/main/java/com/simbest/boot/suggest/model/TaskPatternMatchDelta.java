@@ -0,0 +1,19 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 任务模式匹配增量
+ * 某个任务模式在一个合并周期内累计的匹配次数和批复人权重增量，由后台任务合并写入task_pattern表
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatternMatchDelta {
+    private long matchCount; // 匹配次数增量
+    private Map<String, Double> approverWeightIncrements; // 批复人账号到权重增量的映射
+}
@@ -0,0 +1,314 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 任务模式匹配器
+ * 某个租户下任务模式的不可变内存视图：按工作流方向排列的任务模式列表，以及关键词到任务模式的倒排表。
+ * 匹配时只为与任务标题有共同关键词的任务模式累计命中次数，匹配比例、置信度过滤和同分取先的规则与逐个模式计算一致。
+ * 匹配器中的任务模式为脱离持久化上下文的共享副本，调用方不得修改。
+ */
+@Getter
+public class TaskPatternMatcher {
+    private final String tenantCode; // 租户代码
+    private final List<TaskPattern> patterns; // 全部任务模式，按ID升序排列
+    @Getter(AccessLevel.NONE)
+    private final Map<WorkflowDirection, DirectionIndex> directions; // 工作流方向到索引的映射
+    private final Set<String> keywords; // 全部任务模式关键词
+    private final long buildTime; // 构建时间（毫秒）
+
+    @Getter(AccessLevel.NONE)
+    private volatile ResidualKeywords residualKeywords; // 不在关键词词典中、需按子串判断的关键词
+
+    /**
+     * 构造函数
+     *
+     * @param tenantCode 租户代码
+     * @param patterns   任务模式列表
+     */
+    public TaskPatternMatcher(String tenantCode, List<TaskPattern> patterns) {
+        this.tenantCode = tenantCode;
+
+        List<TaskPattern> copies = new ArrayList<>();
+        for (TaskPattern pattern : patterns) {
+            copies.add(copyOf(pattern));
+        }
+        copies.sort(Comparator.comparing(TaskPattern::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<WorkflowDirection, List<TaskPattern>> directionPatterns = new EnumMap<>(WorkflowDirection.class);
+        Set<String> allKeywords = new HashSet<>();
+        for (TaskPattern pattern : copies) {
+            // 关键词列表为null的模式不参与匹配
+            if (pattern.getKeywords() == null || pattern.getWorkflowDirection() == null) {
+                continue;
+            }
+            directionPatterns.computeIfAbsent(pattern.getWorkflowDirection(), k -> new ArrayList<>()).add(pattern);
+            allKeywords.addAll(pattern.getKeywords());
+        }
+
+        Map<WorkflowDirection, DirectionIndex> directionMap = new EnumMap<>(WorkflowDirection.class);
+        for (Map.Entry<WorkflowDirection, List<TaskPattern>> entry : directionPatterns.entrySet()) {
+            directionMap.put(entry.getKey(), new DirectionIndex(entry.getValue()));
+        }
+
+        this.patterns = Collections.unmodifiableList(copies);
+        this.directions = Collections.unmodifiableMap(directionMap);
+        this.keywords = Collections.unmodifiableSet(allKeywords);
+        this.buildTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 用新增或变更的任务模式替换同ID的任务模式，生成新的匹配器
+     *
+     * @param pattern 任务模式
+     * @return 新的匹配器
+     */
+    public TaskPatternMatcher withPattern(TaskPattern pattern) {
+        return withPatterns(Collections.singletonList(pattern));
+    }
+
+    /**
+     * 用一批新增或变更的任务模式替换同ID的任务模式，只生成一次新的匹配器
+     *
+     * @param changed 任务模式列表，同ID的任务模式以后出现的为准
+     * @return 新的匹配器
+     */
+    public TaskPatternMatcher withPatterns(Collection<TaskPattern> changed) {
+        Map<Long, TaskPattern> changedById = new LinkedHashMap<>();
+        List<TaskPattern> withoutId = new ArrayList<>();
+        for (TaskPattern pattern : changed) {
+            if (pattern.getId() != null) {
+                changedById.put(pattern.getId(), pattern);
+            } else {
+                withoutId.add(pattern);
+            }
+        }
+        List<TaskPattern> updated = new ArrayList<>(patterns.size() + changed.size());
+        for (TaskPattern existing : patterns) {
+            TaskPattern replacement = existing.getId() != null ? changedById.remove(existing.getId()) : null;
+            updated.add(replacement != null ? replacement : existing);
+        }
+        updated.addAll(changedById.values());
+        updated.addAll(withoutId);
+        return new TaskPatternMatcher(tenantCode, updated);
+    }
+
+    /**
+     * 查找与已分析任务标题最匹配的任务模式
+     * 匹配比例为模式关键词中被任务标题命中（关键词命中或分词命中）的个数除以模式关键词个数
+     *
+     * @param query               已分析的任务标题
+     * @param workflowDirection   工作流方向
+     * @param confidenceThreshold 置信度阈值，低于该值的模式不参与匹配
+     * @param minScore            最低匹配比例，最佳匹配低于该值时返回null
+     * @return 最匹配的任务模式，不存在时返回null
+     */
+    public TaskPattern findBestMatchingPattern(AnalyzedQuery query, WorkflowDirection workflowDirection,
+            double confidenceThreshold, double minScore) {
+        return match(query, workflowDirection, confidenceThreshold, minScore).getPattern();
+    }
+
+    /**
+     * 查找与已分析任务标题最匹配的任务模式，并返回该方向的任务模式数和计算匹配比例的任务模式数
+     *
+     * @param query               已分析的任务标题
+     * @param workflowDirection   工作流方向
+     * @param confidenceThreshold 置信度阈值，低于该值的模式不参与匹配
+     * @param minScore            最低匹配比例，最佳匹配低于该值时结果中的任务模式为null
+     * @return 匹配结果
+     */
+    public Match match(AnalyzedQuery query, WorkflowDirection workflowDirection, double confidenceThreshold,
+            double minScore) {
+        DirectionIndex index = directions.get(workflowDirection);
+        if (index == null) {
+            return new Match(null, 0, 0);
+        }
+        if (query.getTokens().isEmpty()) {
+            return new Match(null, index.patterns.size(), 0);
+        }
+
+        // 1. 通过倒排表为与任务标题有共同关键词的模式累计命中次数
+        int[] hitCounts = new int[index.patterns.size()];
+        int[] touched = new int[index.patterns.size()];
+        int touchedCount = 0;
+        KeywordHits keywordHits = query.getKeywordHits();
+        Set<String> visited = new HashSet<>();
+        List<String> hitKeywords = new ArrayList<>();
+        hitKeywords.addAll(keywordHits.getMatchedKeywords());
+        hitKeywords.addAll(query.getTokenSet());
+        for (String keyword : getResidualKeywords(keywordHits.getDictionary())) {
+            if (keywordHits.getText().contains(keyword)) {
+                hitKeywords.add(keyword);
+            }
+        }
+        for (String keyword : hitKeywords) {
+            Posting posting = index.postings.get(keyword);
+            if (posting == null || !visited.add(keyword)) {
+                continue;
+            }
+            for (int i = 0; i < posting.positions.length; i++) {
+                int position = posting.positions[i];
+                if (hitCounts[position] == 0) {
+                    touched[touchedCount++] = position;
+                }
+                hitCounts[position] += posting.counts[i];
+            }
+        }
+
+        // 2. 按模式顺序比较匹配比例，同分时保留先出现的模式
+        RecommendationTrace.countPatterns(touchedCount);
+        Arrays.sort(touched, 0, touchedCount);
+        TaskPattern bestPattern = null;
+        double bestScore = 0.0;
+        int scored = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int position = touched[i];
+            TaskPattern pattern = index.patterns.get(position);
+            if (pattern.getConfidence() < confidenceThreshold) {
+                continue;
+            }
+            scored++;
+            double score = (double) hitCounts[position] / pattern.getKeywords().size();
+            if (score > bestScore) {
+                bestScore = score;
+                bestPattern = pattern;
+            }
+        }
+
+        return new Match(bestScore < minScore ? null : bestPattern, index.patterns.size(), scored);
+    }
+
+    /**
+     * 获取不在关键词词典中的模式关键词
+     * 这些关键词无法通过自动机命中结果判断，需按子串判断；结果按词典实例缓存，词典重建后重新计算
+     *
+     * @param dictionary 关键词词典
+     * @return 不在词典中的关键词列表
+     */
+    private List<String> getResidualKeywords(Set<String> dictionary) {
+        ResidualKeywords current = residualKeywords;
+        if (current == null || current.dictionary != dictionary) {
+            List<String> residual = new ArrayList<>();
+            for (String keyword : keywords) {
+                if (!dictionary.contains(keyword)) {
+                    residual.add(keyword);
+                }
+            }
+            current = new ResidualKeywords(dictionary, residual);
+            residualKeywords = current;
+        }
+        return current.keywords;
+    }
+
+    /**
+     * 复制任务模式，关键词列表和批复人权重映射为不可修改的副本，置信度为null时按0.0处理
+     *
+     * @param pattern 任务模式
+     * @return 任务模式副本
+     */
+    public static TaskPattern copyOf(TaskPattern pattern) {
+        TaskPattern copy = new TaskPattern();
+        copy.setId(pattern.getId());
+        copy.setTenantCode(pattern.getTenantCode());
+        copy.setPatternName(pattern.getPatternName());
+        copy.setKeywords(pattern.getKeywords() != null
+                ? Collections.unmodifiableList(new ArrayList<>(pattern.getKeywords())) : null);
+        copy.setWorkflowDirection(pattern.getWorkflowDirection());
+        copy.setApproverWeights(pattern.getApproverWeights() != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(pattern.getApproverWeights())) : null);
+        copy.setLastUpdateTime(pattern.getLastUpdateTime());
+        copy.setMatchCount(pattern.getMatchCount());
+        copy.setConfidence(pattern.getConfidence() != null ? pattern.getConfidence() : 0.0);
+        copy.setCreateTime(pattern.getCreateTime());
+        copy.setUpdateTime(pattern.getUpdateTime());
+        copy.setCreatedBy(pattern.getCreatedBy());
+        copy.setUpdatedBy(pattern.getUpdatedBy());
+        return copy;
+    }
+
+    /**
+     * 任务模式匹配结果
+     */
+    @Getter
+    public static final class Match {
+        private final TaskPattern pattern; // 最匹配的任务模式，不存在时为null
+        private final int candidates; // 该工作流方向的任务模式数
+        private final int scored; // 与任务标题有共同关键词且达到置信度阈值、计算了匹配比例的任务模式数
+
+        private Match(TaskPattern pattern, int candidates, int scored) {
+            this.pattern = pattern;
+            this.candidates = candidates;
+            this.scored = scored;
+        }
+    }
+
+    /**
+     * 某个工作流方向的任务模式及关键词倒排表
+     */
+    private static final class DirectionIndex {
+        private final List<TaskPattern> patterns; // 任务模式列表
+        private final Map<String, Posting> postings; // 关键词到倒排项的映射
+
+        private DirectionIndex(List<TaskPattern> patterns) {
+            Map<String, Map<Integer, Integer>> counts = new HashMap<>();
+            for (int position = 0; position < patterns.size(); position++) {
+                for (String keyword : patterns.get(position).getKeywords()) {
+                    // 模式关键词重复时按重复次数计入命中
+                    counts.computeIfAbsent(keyword, k -> new LinkedHashMap<>()).merge(position, 1, Integer::sum);
+                }
+            }
+            Map<String, Posting> postingMap = new HashMap<>();
+            for (Map.Entry<String, Map<Integer, Integer>> entry : counts.entrySet()) {
+                postingMap.put(entry.getKey(), new Posting(entry.getValue()));
+            }
+            this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+            this.postings = postingMap;
+        }
+    }
+
+    /**
+     * 倒排项：包含某个关键词的模式位置及该关键词在模式中出现的次数
+     */
+    private static final class Posting {
+        private final int[] positions; // 模式在方向列表中的位置
+        private final int[] counts; // 关键词在模式中出现的次数
+
+        private Posting(Map<Integer, Integer> positionCounts) {
+            positions = new int[positionCounts.size()];
+            counts = new int[positionCounts.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : positionCounts.entrySet()) {
+                positions[i] = entry.getKey();
+                counts[i] = entry.getValue();
+                i++;
+            }
+        }
+    }
+
+    /**
+     * 某个关键词词典实例下不在词典中的关键词
+     */
+    private static final class ResidualKeywords {
+        private final Set<String> dictionary; // 关键词词典
+        private final List<String> keywords; // 不在词典中的关键词
+
+        private ResidualKeywords(Set<String> dictionary, List<String> keywords) {
+            this.dictionary = dictionary;
+            this.keywords = keywords;
+        }
+    }
+}
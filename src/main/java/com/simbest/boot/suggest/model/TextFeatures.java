@@ -0,0 +1,114 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+
+/**
+ * 文本特征
+ * 一段文本的分词结果、词集合、词频以及字符频次（字符一元组），
+ * 构建后不可变，文本相似度计算直接读取这些特征，无需重复分词和统计。
+ */
+public class TextFeatures {
+    private final String text; // 原始文本
+    private final List<String> tokens; // 分词结果（保持原顺序，含重复）
+    private final Set<String> tokenSet; // 词集合
+    private final Map<String, Integer> tokenFrequency; // 词频
+    private final Map<Character, Integer> charFrequency; // 字符频次
+
+    /**
+     * 构造函数
+     *
+     * @param text   原始文本
+     * @param tokens 分词结果
+     */
+    public TextFeatures(String text, List<String> tokens) {
+        this.text = text;
+        this.tokens = Collections.unmodifiableList(tokens);
+
+        Map<String, Integer> tokenCounts = new HashMap<>();
+        for (String token : tokens) {
+            tokenCounts.put(token, tokenCounts.getOrDefault(token, 0) + 1);
+        }
+        this.tokenFrequency = Collections.unmodifiableMap(tokenCounts);
+        this.tokenSet = Collections.unmodifiableSet(new HashSet<>(tokenCounts.keySet()));
+
+        Map<Character, Integer> charCounts = new HashMap<>();
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                charCounts.put(c, charCounts.getOrDefault(c, 0) + 1);
+            }
+        }
+        this.charFrequency = Collections.unmodifiableMap(charCounts);
+    }
+
+    /**
+     * 分词并提取文本特征
+     *
+     * @param text 文本
+     * @return 文本特征
+     */
+    public static TextFeatures of(String text) {
+        return new TextFeatures(text, ChineseTokenizer.tokenize(text));
+    }
+
+    /**
+     * 判断文本是否为空
+     *
+     * @return 文本为null或空字符串时返回true
+     */
+    public boolean isEmpty() {
+        return text == null || text.isEmpty();
+    }
+
+    /**
+     * 获取原始文本
+     *
+     * @return 原始文本
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 获取分词结果
+     *
+     * @return 分词结果
+     */
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    /**
+     * 获取词集合
+     *
+     * @return 词集合
+     */
+    public Set<String> getTokenSet() {
+        return tokenSet;
+    }
+
+    /**
+     * 获取词频
+     *
+     * @return 词到出现次数的映射
+     */
+    public Map<String, Integer> getTokenFrequency() {
+        return tokenFrequency;
+    }
+
+    /**
+     * 获取字符频次
+     *
+     * @return 字符到出现次数的映射
+     */
+    public Map<Character, Integer> getCharFrequency() {
+        return charFrequency;
+    }
+}
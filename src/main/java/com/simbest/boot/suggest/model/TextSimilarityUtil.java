@@ -1,12 +1,7 @@
 package com.simbest.boot.suggest.model;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
-import com.simbest.boot.suggest.util.ChineseTokenizer;
 import com.simbest.boot.suggest.util.DataLoader;
 
 /**
@@ -15,6 +10,8 @@ import com.simbest.boot.suggest.util.DataLoader;
  */
 public class TextSimilarityUtil {
 
+    private static final double LEVENSHTEIN_BOUND_TOLERANCE = 1e-9; // 由相似度下限换算编辑距离时留出的浮点误差余量
+
     /**
      * 计算Jaccard相似度
      * Jaccard相似度 = 交集大小 / 并集大小
@@ -28,28 +25,33 @@ public class TextSimilarityUtil {
             return 0.0;
         }
 
-        // 将文本转换为字符集合
-        Set<Character> set1 = new HashSet<>();
-        Set<Character> set2 = new HashSet<>();
-
-        for (char c : text1.toCharArray()) {
-            set1.add(c);
-        }
-
-        for (char c : text2.toCharArray()) {
-            set2.add(c);
+        // 将文本转换为有序字符数组，按字符分组归并统计交集和并集
+        char[] chars1 = sortedChars(text1);
+        char[] chars2 = sortedChars(text2);
+        int intersection = 0;
+        int union = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chars1.length || j < chars2.length) {
+            char c = j >= chars2.length || (i < chars1.length && chars1[i] <= chars2[j]) ? chars1[i] : chars2[j];
+            int count1 = 0;
+            while (i < chars1.length && chars1[i] == c) {
+                count1++;
+                i++;
+            }
+            int count2 = 0;
+            while (j < chars2.length && chars2[j] == c) {
+                count2++;
+                j++;
+            }
+            if (count1 > 0 && count2 > 0) {
+                intersection++;
+            }
+            union++;
         }
 
-        // 计算交集大小
-        Set<Character> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
-
-        // 计算并集大小
-        Set<Character> union = new HashSet<>(set1);
-        union.addAll(set2);
-
         // 计算Jaccard相似度
-        return (double) intersection.size() / union.size();
+        return (double) intersection / union;
     }
 
     /**
@@ -65,37 +67,33 @@ public class TextSimilarityUtil {
             return 0.0;
         }
 
-        // 将文本转换为词频向量
-        Map<Character, Integer> vector1 = new HashMap<>();
-        Map<Character, Integer> vector2 = new HashMap<>();
+        // 将文本转换为有序字符数组，每组相同字符的长度即为该字符的频次
+        char[] chars1 = sortedChars(text1);
+        char[] chars2 = sortedChars(text2);
 
-        for (char c : text1.toCharArray()) {
-            vector1.put(c, vector1.getOrDefault(c, 0) + 1);
-        }
-
-        for (char c : text2.toCharArray()) {
-            vector2.put(c, vector2.getOrDefault(c, 0) + 1);
-        }
-
-        // 计算向量点积
+        // 一次归并同时计算向量点积和两个向量的范数
         double dotProduct = 0.0;
-        for (char c : vector1.keySet()) {
-            if (vector2.containsKey(c)) {
-                dotProduct += vector1.get(c) * vector2.get(c);
-            }
-        }
-
-        // 计算向量范数
         double norm1 = 0.0;
-        for (int count : vector1.values()) {
-            norm1 += count * count;
-        }
-        norm1 = Math.sqrt(norm1);
-
         double norm2 = 0.0;
-        for (int count : vector2.values()) {
-            norm2 += count * count;
+        int i = 0;
+        int j = 0;
+        while (i < chars1.length || j < chars2.length) {
+            char c = j >= chars2.length || (i < chars1.length && chars1[i] <= chars2[j]) ? chars1[i] : chars2[j];
+            int count1 = 0;
+            while (i < chars1.length && chars1[i] == c) {
+                count1++;
+                i++;
+            }
+            int count2 = 0;
+            while (j < chars2.length && chars2[j] == c) {
+                count2++;
+                j++;
+            }
+            dotProduct += count1 * count2;
+            norm1 += count1 * count1;
+            norm2 += count2 * count2;
         }
+        norm1 = Math.sqrt(norm1);
         norm2 = Math.sqrt(norm2);
 
         // 计算余弦相似度
@@ -105,6 +103,35 @@ public class TextSimilarityUtil {
         return dotProduct / (norm1 * norm2);
     }
 
+    /**
+     * 计算Jaccard相似度，直接使用预先统计的字符集合
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return Jaccard相似度（0-1之间）
+     */
+    public static double calculateJaccardSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+        return jaccard(vector1.getChars(), vector2.getChars());
+    }
+
+    /**
+     * 计算余弦相似度，直接使用预先统计的字符频次及范数
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return 余弦相似度（0-1之间）
+     */
+    public static double calculateCosineSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+        return cosine(vector1.getChars(), vector1.getCharCounts(), vector1.getCharNorm(),
+                vector2.getChars(), vector2.getCharCounts(), vector2.getCharNorm());
+    }
+
     /**
      * 计算Levenshtein距离相似度
      * Levenshtein距离是两个字符串之间的最小编辑距离
@@ -115,6 +142,20 @@ public class TextSimilarityUtil {
      * @return Levenshtein相似度（0-1之间）
      */
     public static double calculateLevenshteinSimilarity(String text1, String text2) {
+        return calculateLevenshteinSimilarity(text1, text2, 0.0);
+    }
+
+    /**
+     * 计算Levenshtein距离相似度，相似度低于minSimilarity时允许提前结束
+     * 关心的最大距离为 floor((1 - minSimilarity) * 较长文本长度)，编辑距离超过该值时不再继续计算；
+     * 结果不低于minSimilarity时与 {@link #calculateLevenshteinSimilarity(String, String)} 完全一致
+     *
+     * @param text1         文本1
+     * @param text2         文本2
+     * @param minSimilarity 调用方关心的最低相似度
+     * @return Levenshtein相似度（0-1之间）；必然低于minSimilarity时返回的上界同样低于minSimilarity
+     */
+    public static double calculateLevenshteinSimilarity(String text1, String text2, double minSimilarity) {
         if (text1 == null || text2 == null) {
             return 0.0;
         }
@@ -131,29 +172,60 @@ public class TextSimilarityUtil {
             return 0.0;
         }
 
-        // 计算Levenshtein距离
-        int[][] distance = new int[text1.length() + 1][text2.length() + 1];
+        // 编辑距离不会超过较长文本的长度；距离超过maxDistance时相似度必然低于minSimilarity
+        int maxLength = Math.max(text1.length(), text2.length());
+        int maxDistance = (int) Math.floor((1.0 - Math.max(minSimilarity, 0.0)) * maxLength
+                + LEVENSHTEIN_BOUND_TOLERANCE);
+        int distance = calculateLevenshteinDistance(text1, text2, Math.min(maxDistance, maxLength));
 
-        for (int i = 0; i <= text1.length(); i++) {
-            distance[i][0] = i;
+        // 计算相似度
+        return 1.0 - (double) distance / maxLength;
+    }
+
+    /**
+     * 计算Levenshtein距离
+     * 只保留两行状态；某一行的最小值已超过maxDistance时最终距离必然超过maxDistance，提前结束
+     *
+     * @param text1       文本1
+     * @param text2       文本2
+     * @param maxDistance 关心的最大距离
+     * @return Levenshtein距离，超过maxDistance时返回maxDistance + 1
+     */
+    public static int calculateLevenshteinDistance(String text1, String text2, int maxDistance) {
+        // 以较短的文本作为列，减少每行的长度
+        String longer = text1.length() >= text2.length() ? text1 : text2;
+        String shorter = longer == text1 ? text2 : text1;
+        if (longer.length() - shorter.length() > maxDistance) {
+            return maxDistance + 1;
         }
 
-        for (int j = 0; j <= text2.length(); j++) {
-            distance[0][j] = j;
+        int[] previous = new int[shorter.length() + 1];
+        int[] current = new int[shorter.length() + 1];
+        for (int j = 0; j <= shorter.length(); j++) {
+            previous[j] = j;
         }
 
-        for (int i = 1; i <= text1.length(); i++) {
-            for (int j = 1; j <= text2.length(); j++) {
-                int cost = (text1.charAt(i - 1) == text2.charAt(j - 1)) ? 0 : 1;
-                distance[i][j] = Math.min(
-                        Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
-                        distance[i - 1][j - 1] + cost);
+        for (int i = 1; i <= longer.length(); i++) {
+            char c = longer.charAt(i - 1);
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= shorter.length(); j++) {
+                int cost = (c == shorter.charAt(j - 1)) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
             }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
 
-        // 计算相似度
-        int maxLength = Math.max(text1.length(), text2.length());
-        return 1.0 - (double) distance[text1.length()][text2.length()] / maxLength;
+        return Math.min(previous[shorter.length()], maxDistance + 1);
     }
 
     /**
@@ -169,31 +241,28 @@ public class TextSimilarityUtil {
             return 0.0;
         }
 
-        // 从配置文件中加载字符级相似度算法的权重
-        Map<String, Object> characterLevelConfig = DataLoader.getAlgorithmWeightSection("textSimilarity");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> characterWeights = characterLevelConfig.containsKey("characterLevel")
-                ? (Map<String, Object>) characterLevelConfig.get("characterLevel")
-                : new HashMap<>();
-
-        // 获取各算法权重
-        double jaccardWeight = characterWeights.containsKey("jaccardWeight")
-                ? ((Number) characterWeights.get("jaccardWeight")).doubleValue()
-                : 0.3;
-        double cosineWeight = characterWeights.containsKey("cosineWeight")
-                ? ((Number) characterWeights.get("cosineWeight")).doubleValue()
-                : 0.4;
-        double levenshteinWeight = characterWeights.containsKey("levenshteinWeight")
-                ? ((Number) characterWeights.get("levenshteinWeight")).doubleValue()
-                : 0.3;
-
-        double jaccardSimilarity = calculateJaccardSimilarity(text1, text2);
-        double cosineSimilarity = calculateCosineSimilarity(text1, text2);
-        double levenshteinSimilarity = calculateLevenshteinSimilarity(text1, text2);
-
-        // 加权平均
-        return jaccardWeight * jaccardSimilarity + cosineWeight * cosineSimilarity
-                + levenshteinWeight * levenshteinSimilarity;
+        return DataLoader.getTextSimilarityWeights().combineCharacterLevel(
+                calculateJaccardSimilarity(text1, text2),
+                calculateCosineSimilarity(text1, text2),
+                calculateLevenshteinSimilarity(text1, text2));
+    }
+
+    /**
+     * 计算综合相似度，直接使用预先计算的特征向量
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return 综合相似度（0-1之间）
+     */
+    public static double calculateOverallSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+
+        return DataLoader.getTextSimilarityWeights().combineCharacterLevel(
+                calculateJaccardSimilarity(vector1, vector2),
+                calculateCosineSimilarity(vector1, vector2),
+                calculateLevenshteinSimilarity(vector1.getText(), vector2.getText()));
     }
 
     /**
@@ -208,25 +277,21 @@ public class TextSimilarityUtil {
         if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
             return 0.0;
         }
+        return calculateTokenJaccardSimilarity(TitleFeatureVector.of(text1), TitleFeatureVector.of(text2));
+    }
 
-        // 分词
-        List<String> tokens1 = ChineseTokenizer.tokenize(text1);
-        List<String> tokens2 = ChineseTokenizer.tokenize(text2);
-
-        // 转换为集合
-        Set<String> set1 = new HashSet<>(tokens1);
-        Set<String> set2 = new HashSet<>(tokens2);
-
-        // 计算交集大小
-        Set<String> intersection = new HashSet<>(set1);
-        intersection.retainAll(set2);
-
-        // 计算并集大小
-        Set<String> union = new HashSet<>(set1);
-        union.addAll(set2);
-
-        // 计算Jaccard相似度
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+    /**
+     * 计算基于分词的Jaccard相似度，直接使用预先计算的词编号集合
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return 基于分词的Jaccard相似度（0-1之间）
+     */
+    public static double calculateTokenJaccardSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+        return jaccard(vector1.getTokenIds(), vector2.getTokenIds());
     }
 
     /**
@@ -241,48 +306,22 @@ public class TextSimilarityUtil {
         if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
             return 0.0;
         }
+        return calculateTokenCosineSimilarity(TitleFeatureVector.of(text1), TitleFeatureVector.of(text2));
+    }
 
-        // 分词
-        List<String> tokens1 = ChineseTokenizer.tokenize(text1);
-        List<String> tokens2 = ChineseTokenizer.tokenize(text2);
-
-        // 计算词频
-        Map<String, Integer> vector1 = new HashMap<>();
-        for (String token : tokens1) {
-            vector1.put(token, vector1.getOrDefault(token, 0) + 1);
-        }
-
-        Map<String, Integer> vector2 = new HashMap<>();
-        for (String token : tokens2) {
-            vector2.put(token, vector2.getOrDefault(token, 0) + 1);
-        }
-
-        // 计算向量点积
-        double dotProduct = 0.0;
-        for (String token : vector1.keySet()) {
-            if (vector2.containsKey(token)) {
-                dotProduct += vector1.get(token) * vector2.get(token);
-            }
-        }
-
-        // 计算向量范数
-        double norm1 = 0.0;
-        for (int count : vector1.values()) {
-            norm1 += count * count;
-        }
-        norm1 = Math.sqrt(norm1);
-
-        double norm2 = 0.0;
-        for (int count : vector2.values()) {
-            norm2 += count * count;
-        }
-        norm2 = Math.sqrt(norm2);
-
-        // 计算余弦相似度
-        if (norm1 == 0.0 || norm2 == 0.0) {
+    /**
+     * 计算基于分词的余弦相似度，直接使用预先统计的词频及范数
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return 基于分词的余弦相似度（0-1之间）
+     */
+    public static double calculateTokenCosineSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
             return 0.0;
         }
-        return dotProduct / (norm1 * norm2);
+        return cosine(vector1.getTokenIds(), vector1.getTokenCounts(), vector1.getTokenNorm(),
+                vector2.getTokenIds(), vector2.getTokenCounts(), vector2.getTokenNorm());
     }
 
     /**
@@ -298,32 +337,25 @@ public class TextSimilarityUtil {
         if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
             return 0.0;
         }
+        return calculateTokenOverallSimilarity(TitleFeatureVector.of(text1), TitleFeatureVector.of(text2));
+    }
 
-        // 从配置文件中加载词语级相似度算法的权重
-        Map<String, Object> textSimilarityConfig = DataLoader.getAlgorithmWeightSection("textSimilarity");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> tokenWeights = textSimilarityConfig.containsKey("tokenLevel")
-                ? (Map<String, Object>) textSimilarityConfig.get("tokenLevel")
-                : new HashMap<>();
-
-        // 获取各算法权重
-        double jaccardWeight = tokenWeights.containsKey("jaccardWeight")
-                ? ((Number) tokenWeights.get("jaccardWeight")).doubleValue()
-                : 0.35;
-        double cosineWeight = tokenWeights.containsKey("cosineWeight")
-                ? ((Number) tokenWeights.get("cosineWeight")).doubleValue()
-                : 0.45;
-        double levenshteinWeight = tokenWeights.containsKey("levenshteinWeight")
-                ? ((Number) tokenWeights.get("levenshteinWeight")).doubleValue()
-                : 0.2;
-
-        double tokenJaccardSimilarity = calculateTokenJaccardSimilarity(text1, text2);
-        double tokenCosineSimilarity = calculateTokenCosineSimilarity(text1, text2);
-        double levenshteinSimilarity = calculateLevenshteinSimilarity(text1, text2);
-
-        // 加权平均
-        return jaccardWeight * tokenJaccardSimilarity + cosineWeight * tokenCosineSimilarity
-                + levenshteinWeight * levenshteinSimilarity;
+    /**
+     * 计算基于分词的综合相似度，直接使用预先计算的特征向量
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return 基于分词的综合相似度（0-1之间）
+     */
+    public static double calculateTokenOverallSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+
+        return DataLoader.getTextSimilarityWeights().combineTokenLevel(
+                calculateTokenJaccardSimilarity(vector1, vector2),
+                calculateTokenCosineSimilarity(vector1, vector2),
+                calculateLevenshteinSimilarity(vector1.getText(), vector2.getText()));
     }
 
     /**
@@ -339,26 +371,149 @@ public class TextSimilarityUtil {
         if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
             return 0.0;
         }
+        return calculateFinalSimilarity(TitleFeatureVector.of(text1), TitleFeatureVector.of(text2));
+    }
+
+    /**
+     * 计算最终综合相似度，直接使用预先计算的特征向量
+     * 历史记录的特征向量在保存时即已计算，请求时只做有序数组归并
+     *
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
+     * @return 最终综合相似度（0-1之间）
+     */
+    public static double calculateFinalSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+
+        // 权重在配置刷新时已构建，整个计算过程只读取一次
+        TextSimilarityWeights weights = DataLoader.getTextSimilarityWeights();
+
+        // 字符级与词语级的Levenshtein相似度相同，只计算一次
+        double levenshteinSimilarity = calculateLevenshteinSimilarity(vector1.getText(), vector2.getText());
+        double overallSimilarity = weights.combineCharacterLevel(calculateJaccardSimilarity(vector1, vector2),
+                calculateCosineSimilarity(vector1, vector2), levenshteinSimilarity);
+        double tokenOverallSimilarity = weights.combineTokenLevel(
+                calculateTokenJaccardSimilarity(vector1, vector2),
+                calculateTokenCosineSimilarity(vector1, vector2), levenshteinSimilarity);
+
+        return weights.combineFinal(overallSimilarity, tokenOverallSimilarity);
+    }
+
+    /**
+     * 计算最终综合相似度，结果低于minSimilarity时允许提前结束
+     * 先按Levenshtein相似度为1估计上界，上界仍低于minSimilarity时不再计算编辑距离；
+     * 否则由minSimilarity反推Levenshtein相似度的下限，编辑距离超过对应的最大距离时提前结束；
+     * 结果不低于minSimilarity时与 {@link #calculateFinalSimilarity(TitleFeatureVector, TitleFeatureVector)} 完全一致
+     *
+     * @param vector1       文本1的特征向量
+     * @param vector2       文本2的特征向量
+     * @param minSimilarity 调用方关心的最低相似度
+     * @return 最终综合相似度；必然低于minSimilarity时返回的上界同样低于minSimilarity
+     */
+    public static double calculateFinalSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2,
+            double minSimilarity) {
+        if (vector1 == null || vector2 == null || vector1.isEmpty() || vector2.isEmpty()) {
+            return 0.0;
+        }
+
+        double jaccardSimilarity = calculateJaccardSimilarity(vector1, vector2);
+        double cosineSimilarity = calculateCosineSimilarity(vector1, vector2);
+        double tokenJaccardSimilarity = calculateTokenJaccardSimilarity(vector1, vector2);
+        double tokenCosineSimilarity = calculateTokenCosineSimilarity(vector1, vector2);
+        TextSimilarityWeights weights = DataLoader.getTextSimilarityWeights();
+
+        // 各权重非负，综合相似度随Levenshtein相似度单调不减
+        double upperBound = weights.combineFinal(
+                weights.combineCharacterLevel(jaccardSimilarity, cosineSimilarity, 1.0),
+                weights.combineTokenLevel(tokenJaccardSimilarity, tokenCosineSimilarity, 1.0));
+        if (upperBound < minSimilarity) {
+            return upperBound;
+        }
+
+        // 综合相似度是Levenshtein相似度的线性函数，由下界和上界反推达到minSimilarity所需的最低Levenshtein相似度
+        double lowerBound = weights.combineFinal(
+                weights.combineCharacterLevel(jaccardSimilarity, cosineSimilarity, 0.0),
+                weights.combineTokenLevel(tokenJaccardSimilarity, tokenCosineSimilarity, 0.0));
+        double minLevenshteinSimilarity = upperBound > lowerBound
+                ? (minSimilarity - lowerBound) / (upperBound - lowerBound) - LEVENSHTEIN_BOUND_TOLERANCE
+                : 0.0;
+        double levenshteinSimilarity = calculateLevenshteinSimilarity(vector1.getText(), vector2.getText(),
+                minLevenshteinSimilarity);
+        return weights.combineFinal(
+                weights.combineCharacterLevel(jaccardSimilarity, cosineSimilarity, levenshteinSimilarity),
+                weights.combineTokenLevel(tokenJaccardSimilarity, tokenCosineSimilarity, levenshteinSimilarity));
+    }
+
+    /**
+     * 将文本转换为按升序排列的字符数组
+     *
+     * @param text 文本
+     * @return 有序字符数组
+     */
+    private static char[] sortedChars(String text) {
+        char[] chars = text.toCharArray();
+        Arrays.sort(chars);
+        return chars;
+    }
+
+    /**
+     * 计算两个有序去重数组的Jaccard相似度
+     *
+     * @param keys1 有序去重数组1
+     * @param keys2 有序去重数组2
+     * @return Jaccard相似度，两个数组均为空时返回0
+     */
+    private static double jaccard(int[] keys1, int[] keys2) {
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys1.length && j < keys2.length) {
+            if (keys1[i] == keys2[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (keys1[i] < keys2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = keys1.length + keys2.length - intersection;
+        return union == 0 ? 0.0 : (double) intersection / union;
+    }
 
-        // 从配置文件中加载最终综合相似度的权重
-        Map<String, Object> textSimilarityConfig = DataLoader.getAlgorithmWeightSection("textSimilarity");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> finalWeights = textSimilarityConfig.containsKey("finalCombination")
-                ? (Map<String, Object>) textSimilarityConfig.get("finalCombination")
-                : new HashMap<>();
-
-        // 获取各级别相似度的权重
-        double characterLevelWeight = finalWeights.containsKey("characterLevelWeight")
-                ? ((Number) finalWeights.get("characterLevelWeight")).doubleValue()
-                : 0.4;
-        double tokenLevelWeight = finalWeights.containsKey("tokenLevelWeight")
-                ? ((Number) finalWeights.get("tokenLevelWeight")).doubleValue()
-                : 0.6;
-
-        double overallSimilarity = calculateOverallSimilarity(text1, text2);
-        double tokenOverallSimilarity = calculateTokenOverallSimilarity(text1, text2);
-
-        // 加权平均
-        return characterLevelWeight * overallSimilarity + tokenLevelWeight * tokenOverallSimilarity;
+    /**
+     * 计算两个有序稀疏频次向量的余弦相似度
+     *
+     * @param keys1   向量1的有序键
+     * @param counts1 向量1的频次
+     * @param norm1   向量1的范数
+     * @param keys2   向量2的有序键
+     * @param counts2 向量2的频次
+     * @param norm2   向量2的范数
+     * @return 余弦相似度（0-1之间）
+     */
+    private static double cosine(int[] keys1, int[] counts1, double norm1, int[] keys2, int[] counts2,
+            double norm2) {
+        if (norm1 == 0.0 || norm2 == 0.0) {
+            return 0.0;
+        }
+        double dotProduct = 0.0;
+        int i = 0;
+        int j = 0;
+        while (i < keys1.length && j < keys2.length) {
+            if (keys1[i] == keys2[j]) {
+                dotProduct += counts1[i] * counts2[j];
+                i++;
+                j++;
+            } else if (keys1[i] < keys2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return dotProduct / (norm1 * norm2);
     }
 }
@@ -0,0 +1,111 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.simbest.boot.suggest.config.ConfigConstants.Algorithm.TextSimilarity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 文本相似度权重
+ * 算法权重配置中textSimilarity部分的类型化、不可变表示，
+ * 在配置缓存刷新时构建一次，相似度计算直接读取字段，不再逐次解析配置映射。
+ */
+@Slf4j
+public final class TextSimilarityWeights {
+
+    /**
+     * 未配置时使用的默认权重
+     */
+    public static final TextSimilarityWeights DEFAULTS = from(Collections.emptyMap());
+
+    private final double characterJaccardWeight; // 字符级Jaccard权重
+    private final double characterCosineWeight; // 字符级余弦权重
+    private final double characterLevenshteinWeight; // 字符级Levenshtein权重
+    private final double tokenJaccardWeight; // 词语级Jaccard权重
+    private final double tokenCosineWeight; // 词语级余弦权重
+    private final double tokenLevenshteinWeight; // 词语级Levenshtein权重
+    private final double characterLevelWeight; // 最终组合中字符级权重
+    private final double tokenLevelWeight; // 最终组合中词语级权重
+
+    private TextSimilarityWeights(Map<String, Object> characterLevel, Map<String, Object> tokenLevel,
+            Map<String, Object> finalCombination) {
+        this.characterJaccardWeight = getDouble(characterLevel, TextSimilarity.JACCARD_WEIGHT, 0.3);
+        this.characterCosineWeight = getDouble(characterLevel, TextSimilarity.COSINE_WEIGHT, 0.4);
+        this.characterLevenshteinWeight = getDouble(characterLevel, TextSimilarity.LEVENSHTEIN_WEIGHT, 0.3);
+        this.tokenJaccardWeight = getDouble(tokenLevel, TextSimilarity.JACCARD_WEIGHT, 0.35);
+        this.tokenCosineWeight = getDouble(tokenLevel, TextSimilarity.COSINE_WEIGHT, 0.45);
+        this.tokenLevenshteinWeight = getDouble(tokenLevel, TextSimilarity.LEVENSHTEIN_WEIGHT, 0.2);
+        this.characterLevelWeight = getDouble(finalCombination, TextSimilarity.CHARACTER_LEVEL_WEIGHT, 0.4);
+        this.tokenLevelWeight = getDouble(finalCombination, TextSimilarity.TOKEN_LEVEL_WEIGHT, 0.6);
+    }
+
+    /**
+     * 由textSimilarity配置部分构建权重，缺失的项使用默认值
+     *
+     * @param section textSimilarity配置部分
+     * @return 文本相似度权重
+     */
+    public static TextSimilarityWeights from(Map<String, Object> section) {
+        return new TextSimilarityWeights(getMap(section, TextSimilarity.CHARACTER_LEVEL),
+                getMap(section, TextSimilarity.TOKEN_LEVEL), getMap(section, TextSimilarity.FINAL_COMBINATION));
+    }
+
+    /**
+     * 按字符级权重合并各相似度
+     *
+     * @param jaccardSimilarity     Jaccard相似度
+     * @param cosineSimilarity      余弦相似度
+     * @param levenshteinSimilarity Levenshtein相似度
+     * @return 字符级综合相似度
+     */
+    public double combineCharacterLevel(double jaccardSimilarity, double cosineSimilarity,
+            double levenshteinSimilarity) {
+        return characterJaccardWeight * jaccardSimilarity + characterCosineWeight * cosineSimilarity
+                + characterLevenshteinWeight * levenshteinSimilarity;
+    }
+
+    /**
+     * 按词语级权重合并各相似度
+     *
+     * @param tokenJaccardSimilarity 基于分词的Jaccard相似度
+     * @param tokenCosineSimilarity  基于分词的余弦相似度
+     * @param levenshteinSimilarity  Levenshtein相似度
+     * @return 词语级综合相似度
+     */
+    public double combineTokenLevel(double tokenJaccardSimilarity, double tokenCosineSimilarity,
+            double levenshteinSimilarity) {
+        return tokenJaccardWeight * tokenJaccardSimilarity + tokenCosineWeight * tokenCosineSimilarity
+                + tokenLevenshteinWeight * levenshteinSimilarity;
+    }
+
+    /**
+     * 按最终权重合并字符级和词语级相似度
+     *
+     * @param overallSimilarity      字符级综合相似度
+     * @param tokenOverallSimilarity 词语级综合相似度
+     * @return 最终综合相似度
+     */
+    public double combineFinal(double overallSimilarity, double tokenOverallSimilarity) {
+        return characterLevelWeight * overallSimilarity + tokenLevelWeight * tokenOverallSimilarity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> section, String key) {
+        Object value = section.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    private static double getDouble(Map<String, Object> config, String key, double defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        log.warn("文本相似度权重 {} 的值 {} 不是有效的数字，使用默认值 {}", key, value, defaultValue);
+        return defaultValue;
+    }
+}
@@ -0,0 +1,220 @@
+package com.simbest.boot.suggest.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+import com.simbest.boot.suggest.util.TokenVocabulary;
+
+/**
+ * 标题特征向量
+ * 以有序整型数组保存标题的词编号及词频、字符及字符频次，并预先计算两者的向量范数，
+ * 相似度计算时对两个向量做有序归并即可，不需要装箱的集合和映射。
+ * 构建后不可变，可被多个线程同时使用。
+ */
+public class TitleFeatureVector {
+    private static final int[] EMPTY = new int[0];
+
+    private final String text; // 原始标题
+    private final long dictionaryVersion; // 分词所用的词典版本
+    private final int tokenCount; // 分词数量（含重复）
+    private final int[] tokenIds; // 去重后按升序排列的词编号
+    private final int[] tokenCounts; // 与词编号一一对应的词频
+    private final double tokenNorm; // 词频向量的范数
+    private final int[] chars; // 去重后按升序排列的字符
+    private final int[] charCounts; // 与字符一一对应的频次
+    private final double charNorm; // 字符频次向量的范数
+
+    private TitleFeatureVector(String text, long dictionaryVersion, int[] tokenIdList, int[] charList) {
+        this.text = text;
+        this.dictionaryVersion = dictionaryVersion;
+        this.tokenCount = tokenIdList.length;
+
+        int[][] tokenBag = toBag(tokenIdList);
+        this.tokenIds = tokenBag[0];
+        this.tokenCounts = tokenBag[1];
+        this.tokenNorm = norm(tokenCounts);
+
+        int[][] charBag = toBag(charList);
+        this.chars = charBag[0];
+        this.charCounts = charBag[1];
+        this.charNorm = norm(charCounts);
+    }
+
+    /**
+     * 分词并构建标题特征向量
+     *
+     * @param text 标题
+     * @return 标题特征向量
+     */
+    public static TitleFeatureVector of(String text) {
+        // 先读取词典版本再分词，分词期间词典被替换时向量会被视为过期而重新构建
+        long version = ChineseTokenizer.getDictionaryVersion();
+        List<String> tokens = ChineseTokenizer.tokenize(text);
+        return new TitleFeatureVector(text, version, toTokenIds(tokens), toChars(text));
+    }
+
+    /**
+     * 由已计算的文本特征构建标题特征向量，不再重复分词
+     *
+     * @param features 文本特征
+     * @return 标题特征向量
+     */
+    public static TitleFeatureVector of(TextFeatures features) {
+        return new TitleFeatureVector(features.getText(), -1, toTokenIds(features.getTokens()),
+                toChars(features.getText()));
+    }
+
+    /**
+     * 判断向量是否仍然对应指定标题及当前词典
+     *
+     * @param title 标题
+     * @return 是否有效
+     */
+    public boolean isValidFor(String title) {
+        return Objects.equals(text, title) && dictionaryVersion == ChineseTokenizer.getDictionaryVersion();
+    }
+
+    /**
+     * 判断标题是否为空
+     *
+     * @return 标题为null或空字符串时返回true
+     */
+    public boolean isEmpty() {
+        return text == null || text.isEmpty();
+    }
+
+    /**
+     * 获取原始标题
+     *
+     * @return 原始标题
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 获取分词数量（含重复）
+     *
+     * @return 分词数量
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * 获取去重后按升序排列的词编号
+     *
+     * @return 词编号数组，调用方不得修改
+     */
+    public int[] getTokenIds() {
+        return tokenIds;
+    }
+
+    /**
+     * 获取与词编号一一对应的词频
+     *
+     * @return 词频数组，调用方不得修改
+     */
+    public int[] getTokenCounts() {
+        return tokenCounts;
+    }
+
+    /**
+     * 获取词频向量的范数
+     *
+     * @return 范数
+     */
+    public double getTokenNorm() {
+        return tokenNorm;
+    }
+
+    /**
+     * 获取去重后按升序排列的字符
+     *
+     * @return 字符数组，调用方不得修改
+     */
+    public int[] getChars() {
+        return chars;
+    }
+
+    /**
+     * 获取与字符一一对应的频次
+     *
+     * @return 频次数组，调用方不得修改
+     */
+    public int[] getCharCounts() {
+        return charCounts;
+    }
+
+    /**
+     * 获取字符频次向量的范数
+     *
+     * @return 范数
+     */
+    public double getCharNorm() {
+        return charNorm;
+    }
+
+    private static int[] toTokenIds(List<String> tokens) {
+        int[] ids = new int[tokens.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = TokenVocabulary.idOf(tokens.get(i));
+        }
+        return ids;
+    }
+
+    private static int[] toChars(String text) {
+        if (text == null) {
+            return EMPTY;
+        }
+        int[] result = new int[text.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = text.charAt(i);
+        }
+        return result;
+    }
+
+    /**
+     * 将元素列表转换为去重有序的元素数组及对应的出现次数
+     *
+     * @param values 元素列表（会被排序）
+     * @return 第一项为元素数组，第二项为出现次数数组
+     */
+    private static int[][] toBag(int[] values) {
+        if (values.length == 0) {
+            return new int[][] { EMPTY, EMPTY };
+        }
+        Arrays.sort(values);
+        int distinct = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[i - 1]) {
+                distinct++;
+            }
+        }
+        int[] keys = new int[distinct];
+        int[] counts = new int[distinct];
+        int index = 0;
+        keys[0] = values[0];
+        counts[0] = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] == values[i - 1]) {
+                counts[index]++;
+            } else {
+                index++;
+                keys[index] = values[i];
+                counts[index] = 1;
+            }
+        }
+        return new int[][] { keys, counts };
+    }
+
+    private static double norm(int[] counts) {
+        double sum = 0.0;
+        for (int count : counts) {
+            sum += count * count;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -0,0 +1,149 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.jfr.TokenizeBatchEvent;
+import com.simbest.boot.suggest.model.ApprovalHistory;
+import com.simbest.boot.suggest.model.TitleFeatureVector;
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+import com.simbest.boot.suggest.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批复历史特征向量服务类
+ * 在批复历史记录保存时预先计算任务标题的特征向量并按记录ID缓存，
+ * 历史匹配时直接读取缓存，不再对每条历史记录重复分词和统计。
+ * 缓存的更新和移除在事务提交后生效，回滚的修改不会进入缓存，删除的记录同时移除其向量，缓存规模不超过现存记录数；
+ * 标题被修改后，缓存的向量会在下次读取时重新计算；分词词典被重新加载后，缓存整体清空，按新词典重新计算。
+ */
+@Service
+@Slf4j
+public class ApprovalHistoryFeatureService {
+
+    private final Map<Long, TitleFeatureVector> vectors = new ConcurrentHashMap<>(); // 记录ID到标题特征向量的缓存
+    private volatile long dictionaryVersion = ChineseTokenizer.getDictionaryVersion(); // 缓存向量所用的词典版本
+
+    /**
+     * 获取批复历史记录标题的特征向量
+     *
+     * @param history 批复历史记录
+     * @return 标题特征向量
+     */
+    public TitleFeatureVector getFeatureVector(ApprovalHistory history) {
+        String title = history.getTaskTitle();
+        Long id = history.getId();
+        if (id == null) {
+            return TitleFeatureVector.of(title);
+        }
+
+        clearIfDictionaryChanged();
+        TitleFeatureVector vector = vectors.get(id);
+        if (vector == null || !vector.isValidFor(title)) {
+            vector = TitleFeatureVector.of(title);
+            vectors.put(id, vector);
+        }
+        return vector;
+    }
+
+    /**
+     * 分词词典被重新加载后清空缓存，按旧词典计算的向量已全部过期
+     */
+    private void clearIfDictionaryChanged() {
+        long version = ChineseTokenizer.getDictionaryVersion();
+        if (version != dictionaryVersion) {
+            synchronized (vectors) {
+                if (version != dictionaryVersion) {
+                    vectors.clear();
+                    dictionaryVersion = version;
+                    log.info("分词词典已变更，清空批复历史特征向量缓存");
+                }
+            }
+        }
+    }
+
+    /**
+     * 更新批复历史记录的特征向量，在事务提交后生效
+     *
+     * @param history 已保存的批复历史记录
+     */
+    public void update(ApprovalHistory history) {
+        Long id = history.getId();
+        if (id != null) {
+            TitleFeatureVector vector = TitleFeatureVector.of(history.getTaskTitle());
+            TransactionUtil.afterCommit(() -> vectors.put(id, vector));
+        }
+    }
+
+    /**
+     * 批量更新批复历史记录的特征向量
+     *
+     * @param histories 已保存的批复历史记录列表
+     */
+    public void updateAll(List<ApprovalHistory> histories) {
+        TokenizeBatchEvent event = new TokenizeBatchEvent();
+        event.begin();
+        for (ApprovalHistory history : histories) {
+            update(history);
+        }
+        if (event.shouldCommit()) {
+            event.setSource(TokenizeBatchEvent.SOURCE_HISTORY_UPDATE);
+            event.setTenant(histories.isEmpty() ? null : histories.get(0).getTenantCode());
+            event.setTexts(histories.size());
+            event.setCharacters(totalTitleLength(histories));
+            event.commit();
+        }
+        log.debug("更新批复历史特征向量: {} 条记录", histories.size());
+    }
+
+    /**
+     * 计算批复历史记录标题的字符总数
+     *
+     * @param histories 批复历史记录列表
+     * @return 标题字符总数
+     */
+    public static long totalTitleLength(List<ApprovalHistory> histories) {
+        long length = 0;
+        for (ApprovalHistory history : histories) {
+            if (history.getTaskTitle() != null) {
+                length += history.getTaskTitle().length();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 移除批复历史记录的特征向量，在事务提交后生效
+     *
+     * @param id 批复历史记录ID
+     */
+    public void remove(Long id) {
+        if (id != null) {
+            TransactionUtil.afterCommit(() -> vectors.remove(id));
+        }
+    }
+
+    /**
+     * 批量移除批复历史记录的特征向量
+     *
+     * @param histories 批复历史记录列表
+     */
+    public void removeAll(List<ApprovalHistory> histories) {
+        for (ApprovalHistory history : histories) {
+            remove(history.getId());
+        }
+    }
+
+    /**
+     * 获取已缓存的特征向量数量
+     *
+     * @return 缓存数量
+     */
+    public int size() {
+        return vectors.size();
+    }
+}
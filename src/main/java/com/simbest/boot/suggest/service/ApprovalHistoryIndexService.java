@@ -0,0 +1,414 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.jfr.TokenizeBatchEvent;
+import com.simbest.boot.suggest.model.ApprovalHistory;
+import com.simbest.boot.suggest.model.TitleFeatureVector;
+import com.simbest.boot.suggest.model.WorkflowDirection;
+import com.simbest.boot.suggest.repository.ApprovalHistoryRepository;
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+import com.simbest.boot.suggest.util.HistoryTitleIndex;
+import com.simbest.boot.suggest.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批复历史检索索引服务
+ * 按租户和工作流方向为批复历史标题维护倒排索引，历史匹配时先检索出有限条候选记录，
+ * 再对候选记录计算文本相似度，避免对分区内的全部记录逐条打分。
+ * 分区同时维护按词语和按发起人的审批人频次直方图，供历史推荐直接合并使用。
+ * 分区在首次使用时从数据库加载，之后在批复历史记录保存和删除的事务提交后增量更新，回滚的变更不会进入索引。
+ * 分区在映射锁之外加载，同一分区的并发加载合并为一次；加载期间提交的增量更新先登记在加载任务上，
+ * 加载完成后重放到新分区再发布，不会因加载读取数据库的时机而丢失。
+ * 分词词典重新加载后，过期分区继续提供检索，同时在后台线程重建，重建完成后原子替换；也可按租户从数据库立即重建。
+ */
+@Service
+@Slf4j
+public class ApprovalHistoryIndexService {
+
+    private final Map<String, HistoryTitleIndex> partitions = new ConcurrentHashMap<>(); // 分区键到标题索引的映射
+    private final Map<String, PartitionLoad> loads = new ConcurrentHashMap<>(); // 分区键到进行中的加载任务的映射
+    private ExecutorService rebuildExecutor; // 词典变更后的后台重建线程
+
+    @Autowired
+    private ApprovalHistoryRepository approvalHistoryRepository;
+
+    @Autowired
+    private ApprovalHistoryFeatureService approvalHistoryFeatureService;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    /**
+     * 启动后台重建线程
+     */
+    @PostConstruct
+    public void start() {
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 停止后台重建线程
+     */
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * 检索与任务标题有共同词语的候选批复历史记录
+     *
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @param initiatorAccount  发起人账号，为空时检索该方向的全部记录
+     * @param queryVector       任务标题的特征向量
+     * @return 候选批复历史记录列表，按记录ID升序排列
+     */
+    public List<ApprovalHistory> findCandidates(String tenantCode, WorkflowDirection workflowDirection,
+            String initiatorAccount, TitleFeatureVector queryVector) {
+        return getPartition(tenantCode, workflowDirection).search(queryVector, initiatorAccount,
+                appConfig.getHistoricalMatchingCandidateLimit());
+    }
+
+    /**
+     * 合并任务标题各词语及发起人的审批人频次直方图
+     *
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @param initiatorAccount  发起人账号，为空时只使用词语直方图
+     * @param queryVector       任务标题的特征向量
+     * @param initiatorWeight   发起人直方图的权重（0-1之间）
+     * @return 审批人账号到得分（0-1之间）的映射
+     */
+    public Map<String, Double> getApproverHistogram(String tenantCode, WorkflowDirection workflowDirection,
+            String initiatorAccount, TitleFeatureVector queryVector, double initiatorWeight) {
+        return getPartition(tenantCode, workflowDirection).approverHistogram(queryVector, initiatorAccount,
+                initiatorWeight);
+    }
+
+    /**
+     * 统计分区内的批复历史记录数量
+     *
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @param initiatorAccount  发起人账号，为空时统计该方向的全部记录
+     * @return 记录数量
+     */
+    public int countRecords(String tenantCode, WorkflowDirection workflowDirection, String initiatorAccount) {
+        return getPartition(tenantCode, workflowDirection).size(initiatorAccount);
+    }
+
+    /**
+     * 将已保存的批复历史记录加入索引，在事务提交后生效
+     * 记录原先所在的分区（工作流方向可能被修改）会先移除该记录
+     *
+     * @param history 已保存的批复历史记录
+     */
+    public void index(ApprovalHistory history) {
+        if (history.getId() == null) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> applyIndex(history));
+    }
+
+    /**
+     * 将已保存的批复历史记录批量加入索引，在事务提交后生效
+     *
+     * @param histories 已保存的批复历史记录列表
+     */
+    public void indexAll(List<ApprovalHistory> histories) {
+        List<ApprovalHistory> saved = new ArrayList<>(histories);
+        TransactionUtil.afterCommit(() -> {
+            for (ApprovalHistory history : saved) {
+                if (history.getId() != null) {
+                    applyIndex(history);
+                }
+            }
+        });
+    }
+
+    /**
+     * 从索引中移除批复历史记录，在事务提交后生效
+     *
+     * @param tenantCode 租户编码，为空时在全部租户的分区中移除
+     * @param id         批复历史记录ID
+     */
+    public void remove(String tenantCode, Long id) {
+        if (id == null) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> applyRemove(tenantCode, id));
+    }
+
+    /**
+     * 清除租户的全部分区，下次使用时从数据库重新加载，在事务提交后生效
+     * 进行中的加载任务读取的可能是清除前的数据，其结果不再发布
+     *
+     * @param tenantCode 租户编码
+     */
+    public void evictTenant(String tenantCode) {
+        TransactionUtil.afterCommit(() -> {
+            for (Map.Entry<String, PartitionLoad> entry : loads.entrySet()) {
+                if (entry.getKey().startsWith(tenantCode + ":")) {
+                    entry.getValue().discard();
+                }
+            }
+            partitions.keySet().removeIf(key -> key.startsWith(tenantCode + ":"));
+        });
+    }
+
+    /**
+     * 从数据库重建租户全部工作流方向的分区（含审批人频次直方图）并原子替换
+     * 与首次加载相同，重建期间提交的增量更新会在替换前重放到新分区
+     *
+     * @param tenantCode 租户编码
+     * @return 重建后的记录数量
+     */
+    public int rebuildTenant(String tenantCode) {
+        int total = 0;
+        for (WorkflowDirection workflowDirection : WorkflowDirection.values()) {
+            String key = partitionKey(tenantCode, workflowDirection);
+            PartitionLoad created = new PartitionLoad();
+            PartitionLoad existing;
+            // 等待进行中的加载完成，避免其较早读取的结果覆盖本次重建
+            while ((existing = loads.putIfAbsent(key, created)) != null) {
+                existing.future.handle((partition, e) -> null).join();
+            }
+            total += runLoad(tenantCode, workflowDirection, key, created).size(null);
+        }
+        return total;
+    }
+
+    /**
+     * 获取分区索引
+     * 分区不存在时在当前线程加载（同一分区的并发加载合并为一次）；
+     * 分区的词典版本过期时继续使用过期分区，并在后台重建
+     *
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @return 标题索引
+     */
+    private HistoryTitleIndex getPartition(String tenantCode, WorkflowDirection workflowDirection) {
+        String key = partitionKey(tenantCode, workflowDirection);
+        HistoryTitleIndex partition = partitions.get(key);
+        if (partition == null) {
+            return load(tenantCode, workflowDirection, false);
+        }
+        if (partition.getDictionaryVersion() != ChineseTokenizer.getDictionaryVersion()) {
+            load(tenantCode, workflowDirection, true);
+        }
+        return partition;
+    }
+
+    /**
+     * 加载分区，同一分区已有进行中的加载任务时复用该任务
+     *
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @param background        是否在后台线程加载；为true时不等待加载完成，返回null
+     * @return 加载的标题索引
+     */
+    private HistoryTitleIndex load(String tenantCode, WorkflowDirection workflowDirection, boolean background) {
+        String key = partitionKey(tenantCode, workflowDirection);
+        PartitionLoad created = new PartitionLoad();
+        PartitionLoad existing = loads.putIfAbsent(key, created);
+        if (existing != null) {
+            return background ? null : existing.await();
+        }
+        if (background) {
+            try {
+                rebuildExecutor.execute(() -> {
+                    try {
+                        runLoad(tenantCode, workflowDirection, key, created);
+                    } catch (RuntimeException e) {
+                        log.error("后台重建租户 {} 工作流方向 {} 的批复历史索引失败: {}", tenantCode, workflowDirection,
+                                e.getMessage(), e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 线程池已关闭
+                loads.remove(key, created);
+                created.future.completeExceptionally(e);
+            }
+            return null;
+        }
+        return runLoad(tenantCode, workflowDirection, key, created);
+    }
+
+    /**
+     * 执行加载任务：从数据库加载分区，重放加载期间登记的增量更新后发布
+     */
+    private HistoryTitleIndex runLoad(String tenantCode, WorkflowDirection workflowDirection, String key,
+            PartitionLoad load) {
+        try {
+            HistoryTitleIndex partition = loadPartition(tenantCode, workflowDirection);
+            load.publish(key, partition);
+            return partition;
+        } catch (RuntimeException e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * 将记录加入所属分区，并从租户其他分区中移除
+     */
+    private void applyIndex(ApprovalHistory history) {
+        applyRemove(history.getTenantCode(), history.getId());
+        if (history.getWorkflowDirection() == null) {
+            return;
+        }
+        // 分区尚未加载时也会计算并缓存特征向量，首次加载分区时直接使用
+        TitleFeatureVector vector = approvalHistoryFeatureService.getFeatureVector(history);
+        apply(partitionKey(history.getTenantCode(), history.getWorkflowDirection()),
+                partition -> partition.add(history, vector));
+    }
+
+    /**
+     * 从租户（为空时为全部租户）的分区中移除记录
+     */
+    private void applyRemove(String tenantCode, Long id) {
+        Set<String> keys = new HashSet<>(partitions.keySet());
+        keys.addAll(loads.keySet());
+        for (String key : keys) {
+            if (tenantCode == null || key.startsWith(tenantCode + ":")) {
+                apply(key, partition -> partition.remove(id));
+            }
+        }
+    }
+
+    /**
+     * 对分区应用增量更新：已发布的分区直接更新，进行中的加载任务登记后在发布前重放
+     * 更新操作必须可重复执行
+     *
+     * @param key    分区键
+     * @param update 增量更新
+     */
+    private void apply(String key, Consumer<HistoryTitleIndex> update) {
+        PartitionLoad load = loads.get(key);
+        if (load != null) {
+            load.record(update);
+        }
+        HistoryTitleIndex partition = partitions.get(key);
+        if (partition != null) {
+            update.accept(partition);
+        }
+    }
+
+    /**
+     * 从数据库加载租户和工作流方向下的全部批复历史记录并构建索引
+     *
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @return 标题索引
+     */
+    private HistoryTitleIndex loadPartition(String tenantCode, WorkflowDirection workflowDirection) {
+        long startTime = System.currentTimeMillis();
+        HistoryTitleIndex partition = new HistoryTitleIndex(ChineseTokenizer.getDictionaryVersion());
+        List<ApprovalHistory> histories = approvalHistoryRepository.findByTenantCodeAndWorkflowDirection(
+                tenantCode, workflowDirection);
+        TokenizeBatchEvent event = new TokenizeBatchEvent();
+        event.begin();
+        for (ApprovalHistory history : histories) {
+            if (history.getId() != null) {
+                partition.add(history, approvalHistoryFeatureService.getFeatureVector(history));
+            }
+        }
+        if (event.shouldCommit()) {
+            event.setSource(TokenizeBatchEvent.SOURCE_HISTORY_INDEX);
+            event.setTenant(tenantCode);
+            event.setDirection(workflowDirection.name());
+            event.setTexts(histories.size());
+            event.setCharacters(ApprovalHistoryFeatureService.totalTitleLength(histories));
+            event.commit();
+        }
+        log.info("已构建租户 {} 工作流方向 {} 的批复历史索引: {} 条记录, 耗时 {} ms", tenantCode, workflowDirection,
+                histories.size(), System.currentTimeMillis() - startTime);
+        return partition;
+    }
+
+    private static String partitionKey(String tenantCode, WorkflowDirection workflowDirection) {
+        return tenantCode + ":" + workflowDirection;
+    }
+
+    /**
+     * 进行中的分区加载任务
+     */
+    private final class PartitionLoad {
+        private final CompletableFuture<HistoryTitleIndex> future = new CompletableFuture<>(); // 加载结果
+        private final List<Consumer<HistoryTitleIndex>> pendingUpdates = new ArrayList<>(); // 加载期间登记的增量更新
+        private boolean published; // 是否已发布，受本对象锁保护
+        private boolean discarded; // 是否丢弃加载结果，受本对象锁保护
+
+        /**
+         * 登记加载期间的增量更新，已发布时忽略（调用方会直接更新已发布的分区）
+         */
+        private synchronized void record(Consumer<HistoryTitleIndex> update) {
+            if (!published) {
+                pendingUpdates.add(update);
+            }
+        }
+
+        /**
+         * 丢弃加载结果，加载完成后不发布
+         */
+        private synchronized void discard() {
+            discarded = true;
+        }
+
+        /**
+         * 重放登记的增量更新并发布分区
+         */
+        private void publish(String key, HistoryTitleIndex partition) {
+            synchronized (this) {
+                for (Consumer<HistoryTitleIndex> update : pendingUpdates) {
+                    update.accept(partition);
+                }
+                pendingUpdates.clear();
+                if (!discarded) {
+                    partitions.put(key, partition);
+                }
+                published = true;
+            }
+            future.complete(partition);
+        }
+
+        /**
+         * 等待加载完成
+         */
+        private HistoryTitleIndex await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
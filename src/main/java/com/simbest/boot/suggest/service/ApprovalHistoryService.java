@@ -35,6 +35,15 @@ public class ApprovalHistoryService {
     @Autowired
     private TenantValidator tenantValidator;
 
+    @Autowired
+    private ApprovalHistoryFeatureService approvalHistoryFeatureService;
+
+    @Autowired
+    private ApprovalHistoryIndexService approvalHistoryIndexService;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     /**
      * 保存批复历史记录
      *
@@ -53,6 +62,10 @@ public class ApprovalHistoryService {
         approvalHistory.setUpdateTime(new Date());
 
         ApprovalHistory savedHistory = approvalHistoryRepository.save(approvalHistory);
+        // 预先计算任务标题的特征向量
+        approvalHistoryFeatureService.update(savedHistory);
+        approvalHistoryIndexService.index(savedHistory);
+        recommendationCacheService.invalidateTenant(savedHistory.getTenantCode());
         log.info("保存批复历史记录成功: {}", savedHistory.getId());
         return savedHistory;
     }
@@ -78,6 +91,11 @@ public class ApprovalHistoryService {
         }
 
         List<ApprovalHistory> savedHistories = approvalHistoryRepository.saveAll(approvalHistories);
+        // 预先计算任务标题的特征向量
+        approvalHistoryFeatureService.updateAll(savedHistories);
+        approvalHistoryIndexService.indexAll(savedHistories);
+        savedHistories.stream().map(ApprovalHistory::getTenantCode).distinct()
+                .forEach(recommendationCacheService::invalidateTenant);
         log.info("批量保存批复历史记录成功: {} 条记录", savedHistories.size());
         return savedHistories;
     }
@@ -281,6 +299,22 @@ public class ApprovalHistoryService {
         return approverCounts;
     }
 
+    /**
+     * 从数据库重建租户的批复历史索引及审批人频次直方图
+     *
+     * @param tenantCode 租户编码
+     * @return 重建后的记录数量
+     */
+    public int rebuildApproverHistograms(String tenantCode) {
+        // 验证租户
+        tenantValidator.validateTenant(tenantCode);
+
+        int count = approvalHistoryIndexService.rebuildTenant(tenantCode);
+        recommendationCacheService.invalidateTenant(tenantCode);
+        log.info("重建租户 {} 的审批人频次直方图成功: {} 条记录", tenantCode, count);
+        return count;
+    }
+
     /**
      * 删除批复历史记录
      *
@@ -289,6 +323,9 @@ public class ApprovalHistoryService {
     @Transactional
     public void deleteApprovalHistory(Long id) {
         approvalHistoryRepository.deleteById(id);
+        approvalHistoryFeatureService.remove(id);
+        approvalHistoryIndexService.remove(null, id);
+        recommendationCacheService.invalidateAll();
         log.info("删除批复历史记录成功: {}", id);
     }
 
@@ -307,6 +344,9 @@ public class ApprovalHistoryService {
         long count = histories.size();
 
         approvalHistoryRepository.deleteAll(histories);
+        approvalHistoryFeatureService.removeAll(histories);
+        approvalHistoryIndexService.evictTenant(tenantCode);
+        recommendationCacheService.invalidateTenant(tenantCode);
         log.info("清空租户 {} 的批复历史记录成功: {} 条记录", tenantCode, count);
 
         return count;
@@ -0,0 +1,220 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.config.TenantContext;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.BatchRecommendationItem;
+import com.simbest.boot.suggest.model.BatchRecommendationRequest;
+import com.simbest.boot.suggest.model.RecommendationRequest;
+import com.simbest.boot.suggest.model.RecommendationResult;
+import com.simbest.boot.suggest.model.RecommendationTrace;
+import com.simbest.boot.suggest.model.RecommendationType;
+import com.simbest.boot.suggest.util.TenantValidator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批量推荐服务
+ * 为同一租户下的多个任务推荐领导：租户只验证一次，全部任务标题一次分析完成，
+ * 各推荐请求在批量推荐线程池中并行执行，结果和错误按输入顺序返回。
+ */
+@Service
+@Slf4j
+public class BatchRecommendationService {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private QueryAnalysisService queryAnalysisService;
+
+    @Autowired
+    private TenantValidator tenantValidator;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    @Qualifier("recommendationBatchExecutor")
+    private ExecutorService recommendationBatchExecutor; // 批量推荐线程池
+
+    /**
+     * 批量推荐领导
+     *
+     * @param batchRequest 批量推荐请求
+     * @return 与推荐请求一一对应的结果项列表
+     * @throws IllegalArgumentException 如果租户无效或批次大小超过上限
+     */
+    public List<BatchRecommendationItem> recommendLeaders(BatchRecommendationRequest batchRequest) {
+        String tenantCode = batchRequest.getTenantCode();
+        List<RecommendationRequest> requests = batchRequest.getRequests();
+        if (requests.size() > appConfig.getRecommendationBatchMaxSize()) {
+            throw new IllegalArgumentException("批量推荐请求数量不能超过" + appConfig.getRecommendationBatchMaxSize());
+        }
+
+        // 验证租户，整个批次只验证一次
+        tenantValidator.validateTenant(tenantCode);
+
+        // 校验各推荐请求
+        int size = requests.size();
+        BatchRecommendationItem[] items = new BatchRecommendationItem[size];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<String> taskTitles = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            RecommendationRequest request = requests.get(i);
+            String error = validateRequest(tenantCode, request);
+            if (error != null) {
+                items[i] = BatchRecommendationItem.fail(i, request != null ? request.getTaskId() : null, error);
+            } else {
+                validIndexes.add(i);
+                taskTitles.add(RecommendationCacheService.normalizeTitle(request.getTaskTitle()));
+            }
+        }
+
+        // 一次分析全部规范化后的任务标题
+        List<AnalyzedQuery> queries = queryAnalysisService.analyzeAll(tenantCode, taskTitles);
+
+        // 并行执行各推荐请求
+        boolean saveFeedback = batchRequest.isSaveFeedback();
+        List<Future<BatchRecommendationItem>> futures = new ArrayList<>(validIndexes.size());
+        for (int i = 0; i < validIndexes.size(); i++) {
+            int index = validIndexes.get(i);
+            AnalyzedQuery query = queries.get(i);
+            Future<BatchRecommendationItem> future = null;
+            try {
+                future = recommendationBatchExecutor.submit(() -> {
+                    TenantContext.setCurrentTenant(tenantCode);
+                    try {
+                        return recommend(index, requests.get(index), query, tenantCode, saveFeedback);
+                    } finally {
+                        TenantContext.clear();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("批量推荐线程池已满，第 {} 项将在请求线程中执行", index);
+            }
+            futures.add(future);
+        }
+
+        // 按输入顺序收集结果
+        try {
+            for (int i = 0; i < validIndexes.size(); i++) {
+                int index = validIndexes.get(i);
+                Future<BatchRecommendationItem> future = futures.get(i);
+                items[index] = future != null
+                        ? awaitItem(index, requests.get(index), future)
+                        : recommend(index, requests.get(index), queries.get(i), tenantCode, saveFeedback);
+            }
+        } finally {
+            for (Future<BatchRecommendationItem> future : futures) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        List<BatchRecommendationItem> result = new ArrayList<>(size);
+        for (BatchRecommendationItem item : items) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * 校验单个推荐请求
+     *
+     * @param tenantCode 批次租户编码
+     * @param request    推荐请求
+     * @return 校验失败原因，校验通过时返回null
+     */
+    private String validateRequest(String tenantCode, RecommendationRequest request) {
+        if (request == null) {
+            return "推荐请求不能为空";
+        }
+        if (request.getTenantCode() != null && !request.getTenantCode().isEmpty()
+                && !request.getTenantCode().equals(tenantCode)) {
+            return "推荐请求的租户编码与批次租户编码不一致";
+        }
+        if (request.getTaskTitle() == null || request.getTaskTitle().isEmpty()) {
+            return "任务标题不能为空";
+        }
+        if (request.getWorkflowDirection() == null) {
+            return "工作流方向不能为空";
+        }
+        if ((request.getUserAccount() == null || request.getUserAccount().isEmpty())
+                && (request.getOrgId() == null || request.getOrgId().isEmpty())) {
+            return "用户账号和组织ID不能同时为空，必须提供其中一个";
+        }
+        return null;
+    }
+
+    /**
+     * 执行单个推荐请求
+     *
+     * @param index        推荐请求在批次中的下标
+     * @param request      推荐请求
+     * @param query        已分析的任务标题
+     * @param tenantCode   租户编码
+     * @param saveFeedback 是否保存推荐反馈
+     * @return 结果项
+     */
+    private BatchRecommendationItem recommend(int index, RecommendationRequest request, AnalyzedQuery query,
+            String tenantCode, boolean saveFeedback) {
+        try {
+            RecommendationType recommendationType = request.getRecommendationType() != null
+                    ? request.getRecommendationType()
+                    : RecommendationType.SINGLE;
+            RecommendationTrace trace = request.isTrace() ? new RecommendationTrace() : null;
+            RecommendationResult result = recommendationService.recommendLeader(
+                    request.getUserAccount(),
+                    request.getOrgId() != null ? request.getOrgId() : "",
+                    query,
+                    request.getWorkflowDirection(),
+                    request.getCandidateAccounts(),
+                    tenantCode,
+                    recommendationType,
+                    saveFeedback,
+                    trace);
+            if (trace != null) {
+                result = result != null ? result.withTrace(trace) : RecommendationResult.traceOnly(trace);
+            }
+            return BatchRecommendationItem.success(index, request.getTaskId(), result);
+        } catch (Exception e) {
+            log.error("批量推荐第 {} 项执行失败: {}", index, e.getMessage(), e);
+            return BatchRecommendationItem.fail(index, request.getTaskId(), "推荐服务执行失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 等待单个推荐请求的执行结果
+     *
+     * @param index   推荐请求在批次中的下标
+     * @param request 推荐请求
+     * @param future  执行结果
+     * @return 结果项
+     */
+    private BatchRecommendationItem awaitItem(int index, RecommendationRequest request,
+            Future<BatchRecommendationItem> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待批量推荐结果时被中断", e);
+        } catch (ExecutionException e) {
+            log.error("批量推荐第 {} 项执行失败: {}", index, e.getCause().getMessage(), e.getCause());
+            return BatchRecommendationItem.fail(index, request.getTaskId(),
+                    "推荐服务执行失败: " + e.getCause().getMessage());
+        }
+    }
+}
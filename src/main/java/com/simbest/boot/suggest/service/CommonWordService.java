@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.simbest.boot.suggest.entity.CommonWordEntity;
 import com.simbest.boot.suggest.repository.CommonWordRepository;
+import com.simbest.boot.suggest.util.ChineseTokenizer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,6 +26,9 @@ public class CommonWordService {
     @Autowired
     private CommonWordRepository commonWordRepository;
 
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     /**
      * 获取所有常用词
      *
@@ -75,7 +79,9 @@ public class CommonWordService {
     public CommonWordEntity createCommonWord(CommonWordEntity commonWord) {
         commonWord.setCreateTime(new Date());
         commonWord.setUpdateTime(new Date());
-        return commonWordRepository.save(commonWord);
+        CommonWordEntity saved = commonWordRepository.save(commonWord);
+        reloadTokenizerWords(saved.getTenantCode());
+        return saved;
     }
 
     /**
@@ -87,7 +93,9 @@ public class CommonWordService {
     @Transactional
     public CommonWordEntity updateCommonWord(CommonWordEntity commonWord) {
         commonWord.setUpdateTime(new Date());
-        return commonWordRepository.save(commonWord);
+        CommonWordEntity saved = commonWordRepository.save(commonWord);
+        reloadTokenizerWords(saved.getTenantCode());
+        return saved;
     }
 
     /**
@@ -97,7 +105,23 @@ public class CommonWordService {
      */
     @Transactional
     public void deleteCommonWord(Long id) {
+        Optional<CommonWordEntity> existing = commonWordRepository.findById(id);
         commonWordRepository.deleteById(id);
+        existing.ifPresent(entity -> reloadTokenizerWords(entity.getTenantCode()));
+    }
+
+    /**
+     * 重新加载租户常用词到分词词典
+     * 新词典构建完成后整体替换，不阻塞正在进行的分词
+     *
+     * @param tenantCode 租户代码
+     * @return 加载的常用词数量
+     */
+    public int reloadTokenizerWords(String tenantCode) {
+        List<String> words = getCommonWordList(tenantCode);
+        ChineseTokenizer.reloadTenantWords(tenantCode, words);
+        recommendationCacheService.invalidateTenant(tenantCode);
+        return words.size();
     }
 
     /**
@@ -16,9 +16,12 @@ import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simbest.boot.suggest.config.ConfigConstants;
 import com.simbest.boot.suggest.entity.ConfigCategoryEntity;
 import com.simbest.boot.suggest.entity.ConfigItemEntity;
 import com.simbest.boot.suggest.entity.ConfigItemEntity.ValueType;
+import com.simbest.boot.suggest.model.KeywordMatchWeights;
+import com.simbest.boot.suggest.model.TextSimilarityWeights;
 import com.simbest.boot.suggest.repository.ConfigCategoryRepository;
 import com.simbest.boot.suggest.repository.ConfigItemRepository;
 import com.simbest.boot.suggest.util.DataLoader;
@@ -39,11 +42,18 @@ public class ConfigService {
     @Autowired
     private ConfigItemRepository itemRepository;
 
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // 配置缓存，按租户和类别分组
     private final Map<String, Map<String, Map<String, Object>>> configCache = new ConcurrentHashMap<>();
 
+    // 默认租户的类型化算法权重，刷新缓存时整体替换；算法权重不支持按租户配置
+    private volatile TextSimilarityWeights textSimilarityWeights = TextSimilarityWeights.DEFAULTS;
+    private volatile KeywordMatchWeights keywordMatchWeights = KeywordMatchWeights.DEFAULTS;
+
     /**
      * 初始化方法，加载配置数据
      */
@@ -138,6 +148,7 @@ public class ConfigService {
 
         ConfigCategoryEntity category = categoryOpt.get();
         saveConfigMapRecursive(category, "", configMap, tenantCode);
+        recommendationCacheService.invalidateTenant(tenantCode);
     }
 
     /**
@@ -231,9 +242,42 @@ public class ConfigService {
             }
         }
 
+        publishAlgorithmWeights();
+        recommendationCacheService.invalidateAll();
         log.info("配置缓存刷新完成，共加载 {} 个租户的配置", configCache.size());
     }
 
+    /**
+     * 由配置缓存构建默认租户的类型化算法权重并发布
+     * 与原有实现一致，算法权重只读取默认租户的配置
+     */
+    private void publishAlgorithmWeights() {
+        this.textSimilarityWeights = TextSimilarityWeights.from(getConfigSection(
+                ConfigConstants.Category.ALGORITHM, ConfigConstants.Algorithm.TEXT_SIMILARITY,
+                ConfigConstants.DEFAULT_TENANT));
+        this.keywordMatchWeights = KeywordMatchWeights.from(getConfigSection(
+                ConfigConstants.Category.ALGORITHM, ConfigConstants.Algorithm.KEYWORD_MATCHING,
+                ConfigConstants.DEFAULT_TENANT));
+    }
+
+    /**
+     * 获取默认租户的文本相似度权重
+     *
+     * @return 文本相似度权重，未配置时返回默认权重
+     */
+    public TextSimilarityWeights getTextSimilarityWeights() {
+        return textSimilarityWeights;
+    }
+
+    /**
+     * 获取默认租户的关键词匹配权重
+     *
+     * @return 关键词匹配权重，未配置时返回默认权重
+     */
+    public KeywordMatchWeights getKeywordMatchWeights() {
+        return keywordMatchWeights;
+    }
+
     /**
      * 构建配置映射
      *
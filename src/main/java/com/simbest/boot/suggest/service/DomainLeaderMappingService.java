@@ -27,6 +27,9 @@ public class DomainLeaderMappingService {
     @Autowired
     private DomainLeaderMappingRepository domainLeaderMappingRepository;
 
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     /**
      * 获取所有领域到领导映射
      *
@@ -90,7 +93,9 @@ public class DomainLeaderMappingService {
     public DomainLeaderMappingEntity createMapping(DomainLeaderMappingEntity mapping) {
         mapping.setCreateTime(new Date());
         mapping.setUpdateTime(new Date());
-        return domainLeaderMappingRepository.save(mapping);
+        DomainLeaderMappingEntity saved = domainLeaderMappingRepository.save(mapping);
+        recommendationCacheService.invalidateTenant(saved.getTenantCode());
+        return saved;
     }
 
     /**
@@ -102,7 +107,9 @@ public class DomainLeaderMappingService {
     @Transactional
     public DomainLeaderMappingEntity updateMapping(DomainLeaderMappingEntity mapping) {
         mapping.setUpdateTime(new Date());
-        return domainLeaderMappingRepository.save(mapping);
+        DomainLeaderMappingEntity saved = domainLeaderMappingRepository.save(mapping);
+        recommendationCacheService.invalidateTenant(saved.getTenantCode());
+        return saved;
     }
 
     /**
@@ -113,6 +120,7 @@ public class DomainLeaderMappingService {
     @Transactional
     public void deleteMapping(Long id) {
         domainLeaderMappingRepository.deleteById(id);
+        recommendationCacheService.invalidateAll();
     }
 
     /**
@@ -0,0 +1,479 @@
+package com.simbest.boot.suggest.service;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.jfr.FeedbackPersistEvent;
+import com.simbest.boot.suggest.model.RecommendationFeedback;
+import com.simbest.boot.suggest.util.TenantValidator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 推荐反馈异步写入服务
+ * 推荐成功后生成的反馈记录先放入有界队列，由后台线程按批次通过JDBC批量插入数据库，
+ * 推荐请求本身不再等待数据库写入。
+ * 队列已满时按配置的策略处理：丢弃新记录（DROP）、等待队列空位（BLOCK）或由调用线程直接写入（CALLER_RUNS）。
+ * 提交时按数据库列长度校验记录：标识类字段（租户、账号、工作流方向等）为空或超长时拒绝，文本类字段超长时截断。
+ * 批量写入失败时按驱动返回的更新计数区分成功和失败的记录，只丢弃并统计失败的记录，未执行的记录继续写入。
+ * 应用关闭时停止后台线程并写入队列中剩余的全部记录。
+ */
+@Service
+@Slf4j
+public class FeedbackWriteBehindService {
+
+    private static final String INSERT_SQL = "INSERT INTO recommendation_feedback (tenant_code, task_id, task_title, "
+            + "user_account, user_org_id, recommended_leader_account, recommended_leader_name, workflow_direction, "
+            + "recommendation_score, recommendation_reason, recommendation_type, is_accepted, actual_leader_account, "
+            + "actual_leader_name, rating, feedback_comment, feedback_time, create_time, update_time, created_by, "
+            + "updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 与recommendation_feedback表的列长度一致
+    private static final int TENANT_CODE_LENGTH = 50; // 租户编码列长度
+    private static final int ID_LENGTH = 100; // 任务ID、账号、组织ID、领导姓名列长度
+    private static final int TASK_TITLE_LENGTH = 500; // 任务标题列长度
+    private static final int RECOMMENDATION_REASON_LENGTH = 500; // 推荐理由列长度
+    private static final int RECOMMENDATION_TYPE_LENGTH = 50; // 推荐类型列长度
+    private static final int FEEDBACK_COMMENT_LENGTH = 1000; // 反馈意见列长度
+    private static final int OPERATOR_LENGTH = 50; // 创建人、更新人列长度
+
+    /**
+     * 队列已满时的处理策略
+     */
+    public enum OverflowPolicy {
+        DROP, // 丢弃新记录
+        BLOCK, // 等待队列空位，超时后丢弃
+        CALLER_RUNS // 由调用线程直接写入
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TenantValidator tenantValidator;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    private BlockingQueue<RecommendationFeedback> queue; // 待写入的反馈记录队列
+    private OverflowPolicy overflowPolicy; // 队列已满时的处理策略
+    private Thread flusher; // 后台写入线程
+    private volatile boolean running; // 后台写入线程是否运行
+
+    private final AtomicLong enqueuedCount = new AtomicLong(); // 已入队记录数
+    private final AtomicLong writtenCount = new AtomicLong(); // 已写入记录数
+    private final AtomicLong droppedCount = new AtomicLong(); // 因队列已满丢弃的记录数
+    private final AtomicLong rejectedCount = new AtomicLong(); // 因租户无效或字段不合法未写入的记录数
+    private final AtomicLong failedCount = new AtomicLong(); // 写入失败的记录数
+    private final AtomicLong callerRunsCount = new AtomicLong(); // 由调用线程直接写入的记录数
+    private final AtomicLong flushCount = new AtomicLong(); // 批量写入次数
+    private final AtomicLong totalFlushNanos = new AtomicLong(); // 批量写入累计耗时（纳秒）
+    private final AtomicLong maxFlushNanos = new AtomicLong(); // 单次批量写入最大耗时（纳秒）
+    private volatile long lastFlushNanos; // 最近一次批量写入耗时（纳秒）
+
+    /**
+     * 创建队列并启动后台写入线程
+     */
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, appConfig.getFeedbackBufferCapacity()));
+        overflowPolicy = parsePolicy(appConfig.getFeedbackBufferOverflowPolicy());
+        running = true;
+        flusher = new Thread(this::runFlusher, "feedback-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("推荐反馈异步写入已启动: 队列容量 {}, 批次大小 {}, 写入间隔 {} ms, 队列满策略 {}",
+                appConfig.getFeedbackBufferCapacity(), appConfig.getFeedbackBufferBatchSize(),
+                appConfig.getFeedbackBufferFlushIntervalMs(), overflowPolicy);
+    }
+
+    /**
+     * 停止后台写入线程并写入队列中剩余的记录
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            // 后台线程最多等待一个写入间隔即会检查运行状态
+            flusher.join(appConfig.getFeedbackBufferFlushIntervalMs() + appConfig.getFeedbackBufferShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("推荐反馈后台写入线程未在超时时间内结束");
+        }
+        // 后台线程结束后由当前线程写入剩余记录
+        List<RecommendationFeedback> batch = new ArrayList<>();
+        while (queue.drainTo(batch, batchSize()) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+        log.info("推荐反馈异步写入已停止: 累计写入 {} 条, 丢弃 {} 条, 失败 {} 条", writtenCount.get(), droppedCount.get(),
+                failedCount.get());
+    }
+
+    /**
+     * 提交一条推荐反馈，异步写入数据库
+     *
+     * @param feedback 推荐反馈对象
+     */
+    public void submit(RecommendationFeedback feedback) {
+        Date now = new Date();
+        if (feedback.getCreateTime() == null) {
+            feedback.setCreateTime(now);
+        }
+        feedback.setUpdateTime(now);
+
+        String invalidField = normalize(feedback);
+        if (invalidField != null) {
+            long rejected = rejectedCount.incrementAndGet();
+            log.warn("推荐反馈字段 {} 为空或超过列长度，拒绝写入: 租户 {}, 任务标题 {}, 累计拒绝 {} 条", invalidField,
+                    feedback.getTenantCode(), feedback.getTaskTitle(), rejected);
+            return;
+        }
+
+        if (running && queue.offer(feedback)) {
+            enqueuedCount.incrementAndGet();
+            // 入队与关闭并发时，关闭线程可能已取完队列中的记录；仍能从队列中取回时由调用线程写入
+            if (!running && queue.remove(feedback)) {
+                callerRunsCount.incrementAndGet();
+                List<RecommendationFeedback> batch = new ArrayList<>(1);
+                batch.add(feedback);
+                flush(batch);
+            }
+            return;
+        }
+
+        if (!running || overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            // 应用关闭后或按策略由调用线程直接写入
+            callerRunsCount.incrementAndGet();
+            List<RecommendationFeedback> batch = new ArrayList<>(1);
+            batch.add(feedback);
+            flush(batch);
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                if (queue.offer(feedback, appConfig.getFeedbackBufferOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    enqueuedCount.incrementAndGet();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long dropped = droppedCount.incrementAndGet();
+        log.warn("推荐反馈队列已满，丢弃反馈记录: 租户 {}, 任务标题 {}, 累计丢弃 {} 条", feedback.getTenantCode(),
+                feedback.getTaskTitle(), dropped);
+    }
+
+    /**
+     * 获取异步写入的运行统计
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        long flushes = flushCount.get();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("queueDepth", queue.size());
+        statistics.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        statistics.put("overflowPolicy", overflowPolicy.name());
+        statistics.put("enqueued", enqueuedCount.get());
+        statistics.put("written", writtenCount.get());
+        statistics.put("dropped", droppedCount.get());
+        statistics.put("rejected", rejectedCount.get());
+        statistics.put("failed", failedCount.get());
+        statistics.put("callerRuns", callerRunsCount.get());
+        statistics.put("flushCount", flushes);
+        statistics.put("lastFlushMillis", lastFlushNanos / 1_000_000.0);
+        statistics.put("averageFlushMillis", flushes > 0 ? totalFlushNanos.get() / 1_000_000.0 / flushes : 0.0);
+        statistics.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        return statistics;
+    }
+
+    /**
+     * 后台写入循环
+     * 取到第一条记录后继续收集，直到达到批次大小或超过写入间隔再批量写入
+     */
+    private void runFlusher() {
+        List<RecommendationFeedback> batch = new ArrayList<>();
+        while (running) {
+            try {
+                long interval = appConfig.getFeedbackBufferFlushIntervalMs();
+                RecommendationFeedback first = queue.poll(interval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(interval);
+                int size = batchSize();
+                while (batch.size() < size) {
+                    queue.drainTo(batch, size - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= size || remaining <= 0 || !running) {
+                        break;
+                    }
+                    RecommendationFeedback next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("推荐反馈后台写入异常: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 校验租户并批量写入一批反馈记录
+     *
+     * @param batch 反馈记录列表
+     */
+    private void flush(List<RecommendationFeedback> batch) {
+        FeedbackPersistEvent event = new FeedbackPersistEvent();
+        event.begin();
+        List<RecommendationFeedback> valid = new ArrayList<>(batch.size());
+        Map<String, Boolean> tenantValidity = new HashMap<>();
+        for (RecommendationFeedback feedback : batch) {
+            if (tenantValidity.computeIfAbsent(feedback.getTenantCode(), tenantValidator::isValidTenant)) {
+                valid.add(feedback);
+            } else {
+                rejectedCount.incrementAndGet();
+            }
+        }
+        if (valid.isEmpty()) {
+            commitEvent(event, batch.size(), tenantValidity, 0, 0);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        int written = 0;
+        try {
+            written = insert(valid);
+            writtenCount.addAndGet(written);
+            log.debug("批量写入推荐反馈 {} 条", written);
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            flushCount.incrementAndGet();
+            totalFlushNanos.addAndGet(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+            lastFlushNanos = elapsed;
+            commitEvent(event, batch.size(), tenantValidity, written, valid.size() - written);
+        }
+    }
+
+    /**
+     * 批量插入反馈记录
+     * 批量执行失败时按驱动返回的更新计数确定失败的记录：驱动执行了全部记录时只丢弃计数为失败的记录；
+     * 驱动在第一条失败记录处停止时丢弃该记录，从下一条记录起继续批量插入。
+     * 其他异常（例如连接失败）时剩余记录全部计为失败。
+     *
+     * @param rows 反馈记录列表
+     * @return 写入成功的记录数量
+     */
+    private int insert(List<RecommendationFeedback> rows) {
+        int written = 0;
+        int offset = 0;
+        while (offset < rows.size()) {
+            List<RecommendationFeedback> pending = rows.subList(offset, rows.size());
+            BatchUpdateException[] failure = new BatchUpdateException[1];
+            int[] updateCounts;
+            try {
+                // 直接处理BatchUpdateException：异常转换会以其下一个异常为准，丢失更新计数
+                updateCounts = jdbcTemplate.execute(INSERT_SQL, (PreparedStatementCallback<int[]>) ps -> {
+                    for (RecommendationFeedback feedback : pending) {
+                        setParameters(ps, feedback);
+                        ps.addBatch();
+                    }
+                    try {
+                        return ps.executeBatch();
+                    } catch (BatchUpdateException e) {
+                        failure[0] = e;
+                        return e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+                    }
+                });
+            } catch (Exception e) {
+                failedCount.addAndGet(pending.size());
+                log.error("批量写入推荐反馈失败: {} 条, {}", pending.size(), e.getMessage(), e);
+                return written;
+            }
+            if (failure[0] == null) {
+                return written + pending.size();
+            }
+            for (int i = 0; i < updateCounts.length && i < pending.size(); i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    dropFailed(pending.get(i), failure[0]);
+                } else {
+                    written++;
+                }
+            }
+            if (updateCounts.length >= pending.size()) {
+                return written;
+            }
+            // 驱动在失败记录处停止，其后的记录尚未执行
+            dropFailed(pending.get(updateCounts.length), failure[0]);
+            offset += updateCounts.length + 1;
+        }
+        return written;
+    }
+
+    /**
+     * 丢弃写入失败的反馈记录并计数
+     *
+     * @param feedback 反馈记录
+     * @param e        写入异常
+     */
+    private void dropFailed(RecommendationFeedback feedback, BatchUpdateException e) {
+        long failed = failedCount.incrementAndGet();
+        SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+        log.error("写入推荐反馈失败，丢弃记录: 租户 {}, 任务ID {}, 任务标题 {}, 累计失败 {} 条, {}", feedback.getTenantCode(),
+                feedback.getTaskId(), feedback.getTaskTitle(), failed, cause.getMessage());
+    }
+
+    /**
+     * 按数据库列长度校验并规整反馈记录
+     * 标识类字段为空（非空列）或超长时不可截断，返回字段名；文本类字段超长时截断
+     *
+     * @param feedback 反馈记录
+     * @return 无法写入时返回字段名，可以写入时返回null
+     */
+    private static String normalize(RecommendationFeedback feedback) {
+        if (feedback.getTenantCode() == null || feedback.getTenantCode().length() > TENANT_CODE_LENGTH) {
+            return "tenant_code";
+        }
+        if (feedback.getUserAccount() == null || feedback.getUserAccount().length() > ID_LENGTH) {
+            return "user_account";
+        }
+        if (feedback.getRecommendedLeaderAccount() == null
+                || feedback.getRecommendedLeaderAccount().length() > ID_LENGTH) {
+            return "recommended_leader_account";
+        }
+        if (feedback.getWorkflowDirection() == null) {
+            return "workflow_direction";
+        }
+        if (feedback.getTaskTitle() == null) {
+            return "task_title";
+        }
+        if (isTooLong(feedback.getTaskId(), ID_LENGTH)) {
+            return "task_id";
+        }
+        if (isTooLong(feedback.getUserOrgId(), ID_LENGTH)) {
+            return "user_org_id";
+        }
+        if (isTooLong(feedback.getActualLeaderAccount(), ID_LENGTH)) {
+            return "actual_leader_account";
+        }
+        if (isTooLong(feedback.getRecommendationType(), RECOMMENDATION_TYPE_LENGTH)) {
+            return "recommendation_type";
+        }
+        feedback.setTaskTitle(truncate(feedback.getTaskTitle(), TASK_TITLE_LENGTH));
+        feedback.setRecommendedLeaderName(truncate(feedback.getRecommendedLeaderName(), ID_LENGTH));
+        feedback.setRecommendationReason(truncate(feedback.getRecommendationReason(), RECOMMENDATION_REASON_LENGTH));
+        feedback.setActualLeaderName(truncate(feedback.getActualLeaderName(), ID_LENGTH));
+        feedback.setFeedbackComment(truncate(feedback.getFeedbackComment(), FEEDBACK_COMMENT_LENGTH));
+        feedback.setCreatedBy(truncate(feedback.getCreatedBy(), OPERATOR_LENGTH));
+        feedback.setUpdatedBy(truncate(feedback.getUpdatedBy(), OPERATOR_LENGTH));
+        return null;
+    }
+
+    private static boolean isTooLong(String value, int length) {
+        return value != null && value.length() > length;
+    }
+
+    private static String truncate(String value, int length) {
+        return isTooLong(value, length) ? value.substring(0, length) : value;
+    }
+
+    /**
+     * 提交推荐反馈写入JFR事件，JFR未记录该事件时不填充字段
+     *
+     * @param event          推荐反馈写入事件
+     * @param rows           批次记录数量
+     * @param tenantValidity 批次中各租户的校验结果
+     * @param written        写入的记录数量
+     * @param failed         写入失败的记录数量
+     */
+    private static void commitEvent(FeedbackPersistEvent event, int rows, Map<String, Boolean> tenantValidity,
+            int written, int failed) {
+        if (event.shouldCommit()) {
+            event.setTenant(tenantValidity.size() == 1 ? tenantValidity.keySet().iterator().next() : "mixed");
+            event.setRows(rows);
+            event.setWritten(written);
+            event.setFailed(failed);
+            event.setRejected(rows - written - failed);
+            event.commit();
+        }
+    }
+
+    private static void setParameters(PreparedStatement ps, RecommendationFeedback feedback) throws SQLException {
+        ps.setString(1, feedback.getTenantCode());
+        ps.setString(2, feedback.getTaskId());
+        ps.setString(3, feedback.getTaskTitle());
+        ps.setString(4, feedback.getUserAccount());
+        ps.setString(5, feedback.getUserOrgId());
+        ps.setString(6, feedback.getRecommendedLeaderAccount());
+        ps.setString(7, feedback.getRecommendedLeaderName());
+        ps.setString(8, feedback.getWorkflowDirection() != null ? feedback.getWorkflowDirection().name() : null);
+        ps.setObject(9, feedback.getRecommendationScore(), Types.DOUBLE);
+        ps.setString(10, feedback.getRecommendationReason());
+        ps.setString(11, feedback.getRecommendationType());
+        ps.setObject(12, feedback.getIsAccepted(), Types.BOOLEAN);
+        ps.setString(13, feedback.getActualLeaderAccount());
+        ps.setString(14, feedback.getActualLeaderName());
+        ps.setObject(15, feedback.getRating(), Types.INTEGER);
+        ps.setString(16, feedback.getFeedbackComment());
+        ps.setTimestamp(17, toTimestamp(feedback.getFeedbackTime()));
+        ps.setTimestamp(18, toTimestamp(feedback.getCreateTime()));
+        ps.setTimestamp(19, toTimestamp(feedback.getUpdateTime()));
+        ps.setString(20, feedback.getCreatedBy());
+        ps.setString(21, feedback.getUpdatedBy());
+    }
+
+    private static Timestamp toTimestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+
+    private int batchSize() {
+        return Math.max(1, appConfig.getFeedbackBufferBatchSize());
+    }
+
+    private static OverflowPolicy parsePolicy(String value) {
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (Exception e) {
+            log.warn("无效的推荐反馈队列满策略: {}，使用DROP", value);
+            return OverflowPolicy.DROP;
+        }
+    }
+}
@@ -12,14 +12,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.jfr.HistoryScoringEvent;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
 import com.simbest.boot.suggest.model.ApprovalHistory;
 import com.simbest.boot.suggest.model.Leader;
 import com.simbest.boot.suggest.model.RecommendationResult;
+import com.simbest.boot.suggest.model.RecommendationTrace;
 import com.simbest.boot.suggest.model.RecommendationType;
 import com.simbest.boot.suggest.model.TaskPattern;
 import com.simbest.boot.suggest.model.TextSimilarityUtil;
+import com.simbest.boot.suggest.model.TitleFeatureVector;
 import com.simbest.boot.suggest.model.WorkflowDirection;
-import com.simbest.boot.suggest.util.ChineseTokenizer;
 import com.simbest.boot.suggest.util.TenantValidator;
 
 import lombok.extern.slf4j.Slf4j;
@@ -32,9 +35,6 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class HistoricalMatchingService {
 
-    @Autowired
-    private ApprovalHistoryService approvalHistoryService;
-
     @Autowired
     private TaskPatternService taskPatternService;
 
@@ -47,6 +47,23 @@ public class HistoricalMatchingService {
     @Autowired
     private AppConfig appConfig;
 
+    @Autowired
+    private QueryAnalysisService queryAnalysisService;
+
+    @Autowired
+    private ApprovalHistoryFeatureService approvalHistoryFeatureService;
+
+    @Autowired
+    private ApprovalHistoryIndexService approvalHistoryIndexService;
+
+    @Autowired
+    private TaskPatternMatchCounterService taskPatternMatchCounterService; // 任务模式匹配计数服务
+
+    @Autowired
+    private RecommendationMetricsService recommendationMetricsService; // 推荐指标服务
+
+    private static final double SIMILARITY_EPSILON = 1e-9; // 阈值换算时预留的浮点误差
+
     // 使用AppConfig中的配置替代@Value注解
     private double similarityThreshold;
     private int maxResults;
@@ -86,10 +103,33 @@ public class HistoricalMatchingService {
             String[] candidateAccounts,
             String tenantCode,
             RecommendationType recommendationType) throws java.io.IOException {
+        return recommendBasedOnHistory(queryAnalysisService.analyze(tenantCode, taskTitle), workflowDirection,
+                userAccount, candidateAccounts, tenantCode, recommendationType);
+    }
+
+    /**
+     * 基于历史数据进行推荐，使用已分析的任务标题
+     *
+     * @param query              已分析的任务标题
+     * @param workflowDirection  工作流方向
+     * @param userAccount        用户账号
+     * @param candidateAccounts  候选账号列表
+     * @param tenantCode         租户编码
+     * @param recommendationType 推荐类型
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public RecommendationResult recommendBasedOnHistory(
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String userAccount,
+            String[] candidateAccounts,
+            String tenantCode,
+            RecommendationType recommendationType) throws java.io.IOException {
 
         log.debug(
                 "基于历史数据进行推荐: taskTitle={}, workflowDirection={}, userAccount={}, tenantCode={}, recommendationType={}",
-                taskTitle, workflowDirection, userAccount, tenantCode, recommendationType);
+                query.getText(), workflowDirection, userAccount, tenantCode, recommendationType);
 
         // 验证租户
         tenantValidator.validateTenant(tenantCode);
@@ -97,7 +137,7 @@ public class HistoricalMatchingService {
         // 首先尝试使用任务模式匹配
         if (usePatterns) {
             TaskPattern bestPattern = taskPatternService.findBestMatchingPattern(
-                    tenantCode, taskTitle, workflowDirection, confidenceThreshold);
+                    tenantCode, query, workflowDirection, confidenceThreshold);
 
             if (bestPattern != null) {
                 // 获取任务模式中的批复人权重
@@ -168,7 +208,7 @@ public class HistoricalMatchingService {
         }
 
         // 如果任务模式匹配失败，尝试使用历史批复记录直接匹配
-        return recommendByHistoryDirectly(tenantCode, taskTitle, userAccount, workflowDirection, candidateAccounts,
+        return recommendByHistoryDirectly(tenantCode, query, userAccount, workflowDirection, candidateAccounts,
                 recommendationType);
     }
 
@@ -213,28 +253,82 @@ public class HistoricalMatchingService {
     public RecommendationResult recommendLeaderByHistory(
             String tenantCode, String taskTitle, String initiatorAccount, WorkflowDirection workflowDirection)
             throws java.io.IOException {
+        return recommendLeaderByHistory(tenantCode, queryAnalysisService.analyze(tenantCode, taskTitle),
+                initiatorAccount, workflowDirection);
+    }
+
+    /**
+     * 基于历史批复记录推荐领导，使用已分析的任务标题
+     *
+     * @param tenantCode        租户编码
+     * @param query             已分析的任务标题
+     * @param initiatorAccount  发起人账号
+     * @param workflowDirection 工作流方向
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public RecommendationResult recommendLeaderByHistory(
+            String tenantCode, AnalyzedQuery query, String initiatorAccount, WorkflowDirection workflowDirection)
+            throws java.io.IOException {
+        return recommendLeaderByHistory(tenantCode, query, initiatorAccount, workflowDirection, null);
+    }
+
+    /**
+     * 基于历史批复记录推荐领导，可延后任务模式匹配次数的记录
+     * 供推荐策略预先并行执行时使用，只有按优先级顺序执行到该策略时才需要记录
+     *
+     * @param tenantCode        租户编码
+     * @param query             已分析的任务标题
+     * @param initiatorAccount  发起人账号
+     * @param workflowDirection 工作流方向
+     * @param deferredUpdates   延后执行的记录列表，为null时立即记录
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public RecommendationResult recommendLeaderByHistory(
+            String tenantCode, AnalyzedQuery query, String initiatorAccount, WorkflowDirection workflowDirection,
+            List<Runnable> deferredUpdates) throws java.io.IOException {
         // 验证租户
         tenantValidator.validateTenant(tenantCode);
 
         // 首先尝试使用任务模式匹配
         if (usePatterns) {
+            long startTime = System.nanoTime();
             RecommendationResult patternResult = recommendByTaskPattern(
-                    tenantCode, taskTitle, workflowDirection);
-            if (patternResult != null && !patternResult.getLeaders().isEmpty()) {
+                    tenantCode, query, workflowDirection, deferredUpdates);
+            boolean matched = patternResult != null && !patternResult.getLeaders().isEmpty();
+            recommendationMetricsService.recordHistoryPath(RecommendationMetricsService.STRATEGY_HISTORY_PATTERN,
+                    workflowDirection,
+                    matched ? RecommendationMetricsService.OUTCOME_MATCHED : RecommendationMetricsService.OUTCOME_EMPTY,
+                    System.nanoTime() - startTime);
+            if (matched) {
                 log.debug("【匹配成功】基于任务模式匹配成功，推荐领导: {}", patternResult.getLeaders().get(0).getSuggestAccount());
                 return patternResult;
             }
+            RecommendationTrace.note("任务模式匹配未找到结果，改用历史批复记录直接匹配");
         }
 
         // 如果任务模式匹配失败，尝试使用历史批复记录直接匹配
-        RecommendationResult historyResult = recommendByHistoryDirectly(
-                tenantCode, taskTitle, initiatorAccount, workflowDirection, null, RecommendationType.SINGLE);
+        long startTime = System.nanoTime();
+        String outcome = RecommendationMetricsService.OUTCOME_ERROR;
+        RecommendationResult historyResult;
+        try {
+            historyResult = recommendByHistoryDirectly(
+                    tenantCode, query, initiatorAccount, workflowDirection, null, RecommendationType.SINGLE);
+            outcome = historyResult != null && !historyResult.getLeaders().isEmpty()
+                    ? RecommendationMetricsService.OUTCOME_MATCHED
+                    : RecommendationMetricsService.OUTCOME_EMPTY;
+        } finally {
+            recommendationMetricsService.recordHistoryPath(RecommendationMetricsService.STRATEGY_HISTORY_DIRECT,
+                    workflowDirection, outcome, System.nanoTime() - startTime);
+        }
         if (historyResult != null && !historyResult.getLeaders().isEmpty()) {
             log.debug("【匹配成功】基于历史批复记录直接匹配成功，推荐领导: {}", historyResult.getLeaders().get(0).getSuggestAccount());
             return historyResult;
         }
 
         log.debug("【匹配失败】基于历史批复记录匹配失败，没有找到合适的推荐结果");
+        RecommendationTrace.note("历史批复记录直接匹配未找到结果");
         return null;
     }
 
@@ -242,17 +336,19 @@ public class HistoricalMatchingService {
      * 基于任务模式推荐领导
      *
      * @param tenantCode        租户编码
-     * @param taskTitle         任务标题
+     * @param query             已分析的任务标题
      * @param workflowDirection 工作流方向
+     * @param deferredUpdates   延后执行的记录列表，为null时立即记录
      * @return 推荐结果
      * @throws java.io.IOException 如果初始化分词器或同义词表失败
      */
     private RecommendationResult recommendByTaskPattern(
-            String tenantCode, String taskTitle, WorkflowDirection workflowDirection) throws java.io.IOException {
+            String tenantCode, AnalyzedQuery query, WorkflowDirection workflowDirection,
+            List<Runnable> deferredUpdates) throws java.io.IOException {
         try {
             // 查找最匹配的任务模式
             TaskPattern bestPattern = taskPatternService.findBestMatchingPattern(
-                    tenantCode, taskTitle, workflowDirection, confidenceThreshold);
+                    tenantCode, query, workflowDirection, confidenceThreshold);
 
             if (bestPattern == null) {
                 log.debug("【匹配失败】未找到匹配的任务模式");
@@ -280,8 +376,14 @@ public class HistoricalMatchingService {
                 return null;
             }
 
-            // 更新任务模式的匹配次数
-            taskPatternService.updatePatternMatchingInfo(bestPattern.getId(), bestApproverAccount, 0.1);
+            // 记录任务模式的匹配次数，由后台任务合并写入数据库
+            Long patternId = bestPattern.getId();
+            if (deferredUpdates != null) {
+                deferredUpdates.add(() -> taskPatternMatchCounterService.recordMatch(patternId,
+                        bestApproverAccount, 0.1));
+            } else {
+                taskPatternMatchCounterService.recordMatch(patternId, bestApproverAccount, 0.1);
+            }
 
             // 创建推荐结果
             double score = bestPattern.getConfidence();
@@ -312,7 +414,7 @@ public class HistoricalMatchingService {
      * 基于历史批复记录直接推荐领导
      *
      * @param tenantCode         租户编码
-     * @param taskTitle          任务标题
+     * @param query              已分析的任务标题
      * @param initiatorAccount   发起人账号
      * @param workflowDirection  工作流方向
      * @param candidateAccounts  候选账号列表
@@ -321,24 +423,27 @@ public class HistoricalMatchingService {
      * @throws java.io.IOException 如果初始化分词器或同义词表失败
      */
     private RecommendationResult recommendByHistoryDirectly(
-            String tenantCode, String taskTitle, String initiatorAccount, WorkflowDirection workflowDirection,
+            String tenantCode, AnalyzedQuery query, String initiatorAccount, WorkflowDirection workflowDirection,
             String[] candidateAccounts, RecommendationType recommendationType) throws java.io.IOException {
-        // 对任务标题进行分词
-        List<String> taskTokens = ChineseTokenizer.tokenize(taskTitle);
-
-        // 查找相关的历史批复记录
+        // 通过标题倒排索引检索候选历史记录，只对候选记录计算相似度
+        TitleFeatureVector queryVector = TitleFeatureVector.of(query.getFeatures());
+        if (appConfig.isHistoricalMatchingHistogramEnabled()) {
+            return recommendByApproverHistogram(tenantCode, queryVector, initiatorAccount, workflowDirection,
+                    candidateAccounts, recommendationType);
+        }
         List<ApprovalHistory> histories;
 
         // 如果有发起人信息，优先考虑相同发起人的历史记录
         if (initiatorAccount != null && !initiatorAccount.isEmpty()) {
-            // 查找相同发起人和工作流方向的历史记录
-            histories = approvalHistoryService.getApprovalHistoriesByInitiatorAndDirection(
-                    tenantCode, initiatorAccount, workflowDirection);
-
-            // 如果找到了足够的记录，则使用这些记录
-            if (histories.size() >= 3) {
-                RecommendationResult result = processHistoricalRecords(
-                        histories, taskTitle, taskTokens, true, candidateAccounts, recommendationType);
+            // 如果相同发起人和工作流方向的历史记录足够多，则使用这些记录
+            int initiatorRecords = approvalHistoryIndexService.countRecords(tenantCode, workflowDirection,
+                    initiatorAccount);
+            if (initiatorRecords >= 3) {
+                histories = approvalHistoryIndexService.findCandidates(
+                        tenantCode, workflowDirection, initiatorAccount, queryVector);
+                recordScoring(workflowDirection, initiatorRecords, histories.size());
+                RecommendationResult result = processHistoricalRecords(tenantCode, workflowDirection,
+                        histories, queryVector, true, candidateAccounts, recommendationType);
                 if (result != null) {
                     return result;
                 }
@@ -346,36 +451,122 @@ public class HistoricalMatchingService {
         }
 
         // 如果没有找到足够的相同发起人的记录，则查找相同工作流方向的所有记录
-        histories = approvalHistoryService.getApprovalHistoriesByWorkflowDirection(
-                tenantCode, workflowDirection);
+        histories = approvalHistoryIndexService.findCandidates(tenantCode, workflowDirection, null, queryVector);
+        recordScoring(workflowDirection, approvalHistoryIndexService.countRecords(tenantCode, workflowDirection, null),
+                histories.size());
+
+        return processHistoricalRecords(tenantCode, workflowDirection, histories, queryVector, false,
+                candidateAccounts, recommendationType);
+    }
+
+    /**
+     * 基于审批人频次直方图推荐领导
+     * 合并任务标题各词语（及相同发起人）的审批人频次直方图，不再对历史记录逐条计算相似度
+     *
+     * @param tenantCode         租户编码
+     * @param queryVector        任务标题的特征向量
+     * @param initiatorAccount   发起人账号
+     * @param workflowDirection  工作流方向
+     * @param candidateAccounts  候选账号列表
+     * @param recommendationType 推荐类型
+     * @return 推荐结果
+     */
+    private RecommendationResult recommendByApproverHistogram(
+            String tenantCode, TitleFeatureVector queryVector, String initiatorAccount,
+            WorkflowDirection workflowDirection, String[] candidateAccounts, RecommendationType recommendationType) {
+        // 相同发起人和工作流方向的历史记录足够多时，混入发起人的审批人直方图
+        boolean isSameInitiator = initiatorAccount != null && !initiatorAccount.isEmpty()
+                && approvalHistoryIndexService.countRecords(tenantCode, workflowDirection, initiatorAccount) >= 3;
+        Map<String, Double> histogram = approvalHistoryIndexService.getApproverHistogram(tenantCode,
+                workflowDirection, isSameInitiator ? initiatorAccount : null, queryVector,
+                appConfig.getHistoricalMatchingHistogramInitiatorWeight());
+        recordScoring(workflowDirection, approvalHistoryIndexService.countRecords(tenantCode, workflowDirection, null),
+                histogram.size());
+
+        // 过滤候选账号和得分过低的审批人
+        double minScore = appConfig.getHistoricalMatchingHistogramMinScore();
+        Map<String, Double> approverFinalScores = new HashMap<>();
+        for (Map.Entry<String, Double> entry : histogram.entrySet()) {
+            if (entry.getValue() >= minScore && isInCandidateAccounts(entry.getKey(), candidateAccounts)) {
+                approverFinalScores.put(entry.getKey(), entry.getValue());
+            }
+        }
 
-        return processHistoricalRecords(histories, taskTitle, taskTokens, false, candidateAccounts, recommendationType);
+        return buildHistoryResult(approverFinalScores, isSameInitiator, recommendationType);
     }
 
     /**
-     * 处理历史批复记录，计算相似度并生成推荐结果
+     * 记录历史批复直接匹配的候选集大小和评分行数
      *
+     * @param workflowDirection 工作流方向
+     * @param candidates        分区内的批复历史记录数量
+     * @param rows              经标题倒排索引检索出、逐条计算得分的候选记录数（或直方图中的审批人数）
+     */
+    private void recordScoring(WorkflowDirection workflowDirection, int candidates, int rows) {
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_HISTORY_DIRECT,
+                workflowDirection, candidates, rows);
+        RecommendationTrace.countHistoryRows(rows);
+    }
+
+    /**
+     * 处理历史批复记录，计算相似度并生成推荐结果，并记录历史批复记录评分JFR事件
+     *
+     * @param tenantCode         租户编码
+     * @param workflowDirection  工作流方向
      * @param histories          历史批复记录列表
-     * @param taskTitle          任务标题
-     * @param taskTokens         任务标题分词结果
+     * @param queryVector        任务标题的特征向量
      * @param isSameInitiator    是否是相同发起人
      * @param candidateAccounts  候选账号列表
      * @param recommendationType 推荐类型
      * @return 推荐结果
      * @throws java.io.IOException 如果初始化分词器或同义词表失败
      */
-    private RecommendationResult processHistoricalRecords(
-            List<ApprovalHistory> histories, String taskTitle, List<String> taskTokens, boolean isSameInitiator,
+    private RecommendationResult processHistoricalRecords(String tenantCode, WorkflowDirection workflowDirection,
+            List<ApprovalHistory> histories, TitleFeatureVector queryVector, boolean isSameInitiator,
+            String[] candidateAccounts, RecommendationType recommendationType) throws java.io.IOException {
+        HistoryScoringEvent event = new HistoryScoringEvent();
+        event.begin();
+        RecommendationResult result = null;
+        try {
+            result = scoreHistoricalRecords(histories, queryVector, isSameInitiator, candidateAccounts,
+                    recommendationType);
+            return result;
+        } finally {
+            if (event.shouldCommit()) {
+                event.setTenant(tenantCode);
+                event.setDirection(workflowDirection != null ? workflowDirection.name() : null);
+                event.setSameInitiator(isSameInitiator);
+                event.setRows(histories.size());
+                event.setLeaders(result != null ? result.getLeaders().size() : 0);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 对历史批复记录计算相似度并生成推荐结果
+     *
+     * @param histories          历史批复记录列表
+     * @param queryVector        任务标题的特征向量
+     * @param isSameInitiator    是否是相同发起人
+     * @param candidateAccounts  候选账号列表
+     * @param recommendationType 推荐类型
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult scoreHistoricalRecords(
+            List<ApprovalHistory> histories, TitleFeatureVector queryVector, boolean isSameInitiator,
             String[] candidateAccounts, RecommendationType recommendationType) throws java.io.IOException {
         if (histories.isEmpty()) {
             return null;
         }
 
-        // 计算每条历史记录与当前任务的相似度
+        // 计算每条历史记录与当前任务的相似度，历史标题的特征向量在保存时已预先计算
         List<Map.Entry<ApprovalHistory, Double>> similarityScores = new ArrayList<>();
 
         for (ApprovalHistory history : histories) {
-            double similarity = calculateSimilarity(taskTitle, taskTokens, history.getTaskTitle());
+            double similarity = calculateSimilarity(queryVector,
+                    approvalHistoryFeatureService.getFeatureVector(history));
             if (similarity >= similarityThreshold) {
                 similarityScores.add(new AbstractMap.SimpleEntry<>(history, similarity));
             }
@@ -429,6 +620,19 @@ public class HistoricalMatchingService {
             approverFinalScores.put(approverAccount, finalScore);
         }
 
+        return buildHistoryResult(approverFinalScores, isSameInitiator, recommendationType);
+    }
+
+    /**
+     * 根据审批人综合得分生成推荐结果
+     *
+     * @param approverFinalScores 审批人账号到综合得分的映射
+     * @param isSameInitiator     是否是相同发起人
+     * @param recommendationType  推荐类型
+     * @return 推荐结果，没有可推荐的审批人时返回null
+     */
+    private RecommendationResult buildHistoryResult(Map<String, Double> approverFinalScores,
+            boolean isSameInitiator, RecommendationType recommendationType) {
         // 找出得分最高的审批人
         String bestApproverAccount = null;
         double bestScore = 0.0;
@@ -500,21 +704,19 @@ public class HistoricalMatchingService {
 
     /**
      * 计算两个任务标题的相似度
+     * 文本相似度与分词相似度共用同一份预先计算的特征向量
      *
-     * @param taskTitle1  任务标题1
-     * @param taskTokens1 任务标题1的分词结果
-     * @param taskTitle2  任务标题2
-     * @return 相似度（0-1之间）
-     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     * @param vector1 任务标题1的特征向量
+     * @param vector2 任务标题2的特征向量
+     * @return 相似度（0-1之间），低于相似度阈值时只保证返回值同样低于阈值
      */
-    private double calculateSimilarity(String taskTitle1, List<String> taskTokens1, String taskTitle2)
-            throws java.io.IOException {
-        // 使用文本相似度工具计算相似度
-        double textSimilarity = TextSimilarityUtil.calculateFinalSimilarity(taskTitle1, taskTitle2);
-
+    private double calculateSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
         // 分词相似度
-        List<String> taskTokens2 = ChineseTokenizer.tokenize(taskTitle2);
-        double tokenSimilarity = calculateTokenSimilarity(taskTokens1, taskTokens2);
+        double tokenSimilarity = calculateTokenSimilarity(vector1, vector2);
+
+        // 使用文本相似度工具计算相似度，文本相似度低于该值时综合相似度必然低于阈值，可提前结束
+        double minTextSimilarity = (similarityThreshold - 0.3 * tokenSimilarity) / 0.7 - SIMILARITY_EPSILON;
+        double textSimilarity = TextSimilarityUtil.calculateFinalSimilarity(vector1, vector2, minTextSimilarity);
 
         // 综合相似度
         return 0.7 * textSimilarity + 0.3 * tokenSimilarity;
@@ -522,26 +724,38 @@ public class HistoricalMatchingService {
 
     /**
      * 计算两个分词结果的相似度
+     * 文本1中的每个词（含重复）在文本2中出现即计入交集
      *
-     * @param tokens1 分词结果1
-     * @param tokens2 分词结果2
+     * @param vector1 文本1的特征向量
+     * @param vector2 文本2的特征向量
      * @return 相似度（0-1之间）
      */
-    private double calculateTokenSimilarity(List<String> tokens1, List<String> tokens2) {
-        if (tokens1.isEmpty() || tokens2.isEmpty()) {
+    private double calculateTokenSimilarity(TitleFeatureVector vector1, TitleFeatureVector vector2) {
+        if (vector1.getTokenCount() == 0 || vector2.getTokenCount() == 0) {
             return 0.0;
         }
 
         // 计算交集大小
+        int[] ids1 = vector1.getTokenIds();
+        int[] counts1 = vector1.getTokenCounts();
+        int[] ids2 = vector2.getTokenIds();
         int intersection = 0;
-        for (String token : tokens1) {
-            if (tokens2.contains(token)) {
-                intersection++;
+        int i = 0;
+        int j = 0;
+        while (i < ids1.length && j < ids2.length) {
+            if (ids1[i] == ids2[j]) {
+                intersection += counts1[i];
+                i++;
+                j++;
+            } else if (ids1[i] < ids2[j]) {
+                i++;
+            } else {
+                j++;
             }
         }
 
         // 计算Jaccard相似度
-        int union = tokens1.size() + tokens2.size() - intersection;
+        int union = vector1.getTokenCount() + vector2.getTokenCount() - intersection;
         return (double) intersection / union;
     }
 }
@@ -0,0 +1,431 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.config.DefaultValueConstants;
+import com.simbest.boot.suggest.entity.OrganizationEntity;
+import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.KeywordHits;
+import com.simbest.boot.suggest.model.KeywordOwnerType;
+import com.simbest.boot.suggest.model.TaskPattern;
+import com.simbest.boot.suggest.repository.OrganizationRepository;
+import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
+import com.simbest.boot.suggest.repository.TaskPatternRepository;
+import com.simbest.boot.suggest.util.AhoCorasickMatcher;
+import com.simbest.boot.suggest.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 关键词多模式匹配服务
+ * 按租户将组织、职责领域和任务模式的关键词构建为一个Aho-Corasick自动机，
+ * 一次扫描任务标题即可得到全部直接命中的关键词及其所属对象。
+ * 单个对象的关键词变更时只更新该对象增删的关键词的所属对象，新增关键词先按子串判断，累计到上限时才重建自动机。
+ * 登记信息只反映已提交的数据，单个对象的变更在事务提交后生效。
+ */
+@Service
+@Slf4j
+public class KeywordMatcherService {
+
+    private final Map<String, TenantKeywordRegistry> registries = new ConcurrentHashMap<>(); // 租户代码到关键词登记表的映射
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ResponsibilityDomainRepository responsibilityDomainRepository;
+
+    @Autowired
+    private TaskPatternRepository taskPatternRepository;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
+    @Autowired
+    private AppConfig appConfig; // 应用配置
+
+    /**
+     * 扫描文本，返回租户关键词的命中结果
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户
+     * @param text       文本
+     * @return 关键词命中结果
+     */
+    public KeywordHits match(String tenantCode, String text) {
+        if (text == null || text.isEmpty()) {
+            return KeywordHits.of(text == null ? "" : text);
+        }
+        return getRegistry(tenantCode).matcher.hits(text);
+    }
+
+    /**
+     * 使用同一个自动机扫描多段文本，返回与输入顺序一致的命中结果
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户
+     * @param texts      文本列表
+     * @return 关键词命中结果列表
+     */
+    public List<KeywordHits> matchAll(String tenantCode, List<String> texts) {
+        TenantKeywordMatcher matcher = getRegistry(tenantCode).matcher;
+        List<KeywordHits> result = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            if (text == null || text.isEmpty()) {
+                result.add(KeywordHits.of(text == null ? "" : text));
+            } else {
+                result.add(matcher.hits(text));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从数据库重新加载租户的全部关键词并重建自动机
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户
+     */
+    public void refresh(String tenantCode) {
+        String tenant = resolveTenantCode(tenantCode);
+        registries.put(tenant, loadRegistry(tenant));
+        recommendationCacheService.invalidateTenant(tenant);
+    }
+
+    /**
+     * 更新单个对象的关键词
+     * 在事务提交后生效，事务回滚时不更新；租户尚未加载时不做处理，首次使用时从数据库完整加载
+     *
+     * @param tenantCode 租户代码
+     * @param ownerType  所属对象类型
+     * @param ownerId    所属对象ID
+     * @param keywords   新的关键词列表
+     */
+    public void updateOwner(String tenantCode, KeywordOwnerType ownerType, String ownerId, List<String> keywords) {
+        String tenant = resolveTenantCode(tenantCode);
+        recommendationCacheService.invalidateTenant(tenant);
+        // 立即复制，避免提交前持久化对象再被修改
+        List<String> snapshot = keywords != null ? new ArrayList<>(keywords) : Collections.emptyList();
+        TransactionUtil.afterCommit(() -> {
+            TenantKeywordRegistry registry = registries.get(tenant);
+            if (registry != null) {
+                registry.update(ownerType, ownerId, snapshot, appConfig.getKeywordMatcherPendingLimit());
+            }
+        });
+    }
+
+    /**
+     * 移除单个对象的关键词
+     * 在事务提交后生效，事务回滚时不移除
+     *
+     * @param tenantCode 租户代码
+     * @param ownerType  所属对象类型
+     * @param ownerId    所属对象ID
+     */
+    public void removeOwner(String tenantCode, KeywordOwnerType ownerType, String ownerId) {
+        updateOwner(tenantCode, ownerType, ownerId, Collections.emptyList());
+    }
+
+    /**
+     * 获取租户的关键词登记表，首次访问时从数据库加载
+     *
+     * @param tenantCode 租户代码
+     * @return 关键词登记表
+     */
+    private TenantKeywordRegistry getRegistry(String tenantCode) {
+        String tenant = resolveTenantCode(tenantCode);
+        TenantKeywordRegistry registry = registries.get(tenant);
+        if (registry == null) {
+            registry = registries.computeIfAbsent(tenant, this::loadRegistry);
+        }
+        return registry;
+    }
+
+    /**
+     * 从数据库加载租户的组织、职责领域和任务模式关键词
+     *
+     * @param tenantCode 租户代码
+     * @return 关键词登记表
+     */
+    private TenantKeywordRegistry loadRegistry(String tenantCode) {
+        long startTime = System.currentTimeMillis();
+        Map<OwnerKey, List<String>> ownerKeywords = new HashMap<>();
+        for (OrganizationEntity entity : organizationRepository.findByTenantCode(tenantCode)) {
+            putOwner(ownerKeywords, KeywordOwnerType.ORGANIZATION, entity.getOrgId(), entity.getKeywords());
+        }
+        for (ResponsibilityDomainEntity entity : responsibilityDomainRepository.findByTenantCode(tenantCode)) {
+            putOwner(ownerKeywords, KeywordOwnerType.DOMAIN, entity.getDomainId(), entity.getKeywords());
+        }
+        for (TaskPattern pattern : taskPatternRepository.findByTenantCode(tenantCode)) {
+            putOwner(ownerKeywords, KeywordOwnerType.TASK_PATTERN, String.valueOf(pattern.getId()),
+                    pattern.getKeywords());
+        }
+
+        TenantKeywordRegistry registry = new TenantKeywordRegistry(ownerKeywords);
+        log.info("已构建租户 {} 的关键词自动机: {} 个关键词, {} 个所属对象, 耗时 {} ms", tenantCode,
+                registry.matcher.automaton.getKeywords().size(), ownerKeywords.size(),
+                System.currentTimeMillis() - startTime);
+        return registry;
+    }
+
+    private static void putOwner(Map<OwnerKey, List<String>> ownerKeywords, KeywordOwnerType ownerType,
+            String ownerId, List<String> keywords) {
+        if (ownerId != null && keywords != null && !keywords.isEmpty()) {
+            ownerKeywords.put(new OwnerKey(ownerType, ownerId), new ArrayList<>(keywords));
+        }
+    }
+
+    /**
+     * 解析租户代码
+     *
+     * @param tenantCode 租户代码
+     * @return 非空的租户代码
+     */
+    private String resolveTenantCode(String tenantCode) {
+        return tenantCode != null && !tenantCode.isEmpty() ? tenantCode : DefaultValueConstants.getDefaultTenantCode();
+    }
+
+    /**
+     * 租户关键词登记表
+     * 记录每个对象的关键词，变更时在当前匹配器的基础上生成新的不可变匹配器并发布
+     */
+    private static class TenantKeywordRegistry {
+        private final Map<OwnerKey, List<String>> ownerKeywords; // 所属对象到关键词列表的映射
+        private volatile TenantKeywordMatcher matcher; // 当前发布的匹配器
+
+        private TenantKeywordRegistry(Map<OwnerKey, List<String>> ownerKeywords) {
+            this.ownerKeywords = ownerKeywords;
+            this.matcher = TenantKeywordMatcher.build(ownerKeywords);
+        }
+
+        /**
+         * 更新单个对象的关键词，只调整该对象增删的关键词的所属对象；
+         * 新增关键词暂存为待并入关键词，超过上限时才重建自动机
+         *
+         * @param ownerType    所属对象类型
+         * @param ownerId      所属对象ID
+         * @param keywords     新的关键词列表
+         * @param pendingLimit 待并入关键词和失效关键词的数量上限
+         */
+        private synchronized void update(KeywordOwnerType ownerType, String ownerId, List<String> keywords,
+                int pendingLimit) {
+            OwnerKey key = new OwnerKey(ownerType, ownerId);
+            List<String> previous = keywords.isEmpty()
+                    ? ownerKeywords.remove(key)
+                    : ownerKeywords.put(key, new ArrayList<>(keywords));
+            Set<String> before = keywordSet(previous);
+            Set<String> after = keywordSet(keywords);
+            if (before.equals(after)) {
+                return;
+            }
+            Set<String> removed = new HashSet<>(before);
+            removed.removeAll(after);
+            Set<String> added = new HashSet<>(after);
+            added.removeAll(before);
+            matcher = matcher.withOwnerChange(key, removed, added, pendingLimit);
+        }
+
+        private static Set<String> keywordSet(List<String> keywords) {
+            Set<String> result = new HashSet<>();
+            if (keywords != null) {
+                for (String keyword : keywords) {
+                    if (keyword != null && !keyword.isEmpty()) {
+                        result.add(keyword);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 租户关键词匹配器
+     * 不可变的自动机、待并入关键词与关键词所属对象映射。
+     * 单个对象的关键词变更不立即重建自动机：新增且不在自动机中的关键词暂存为待并入关键词，扫描时逐个按子串判断；
+     * 已无所属对象的关键词留在自动机中成为失效关键词，命中后没有所属对象，不影响匹配结果。
+     * 待并入关键词或失效关键词超过上限时才用当前全部关键词重建自动机，把多次编辑合并为一次重建。
+     */
+    private static class TenantKeywordMatcher {
+        private final AhoCorasickMatcher automaton; // 关键词自动机
+        private final List<String> pendingKeywords; // 不在自动机中、按子串判断的关键词
+        private final int staleKeywords; // 自动机中已无所属对象的关键词数
+        private final Map<String, Map<KeywordOwnerType, Set<String>>> keywordOwners; // 关键词到所属对象ID的映射
+
+        private TenantKeywordMatcher(AhoCorasickMatcher automaton, List<String> pendingKeywords, int staleKeywords,
+                Map<String, Map<KeywordOwnerType, Set<String>>> keywordOwners) {
+            this.automaton = automaton;
+            this.pendingKeywords = pendingKeywords;
+            this.staleKeywords = staleKeywords;
+            this.keywordOwners = keywordOwners;
+        }
+
+        /**
+         * 用全部对象的关键词构建匹配器
+         *
+         * @param ownerKeywords 所属对象到关键词列表的映射
+         * @return 匹配器
+         */
+        private static TenantKeywordMatcher build(Map<OwnerKey, List<String>> ownerKeywords) {
+            Map<String, Map<KeywordOwnerType, Set<String>>> owners = new HashMap<>();
+            for (Map.Entry<OwnerKey, List<String>> entry : ownerKeywords.entrySet()) {
+                OwnerKey key = entry.getKey();
+                for (String keyword : entry.getValue()) {
+                    if (keyword == null || keyword.isEmpty()) {
+                        continue;
+                    }
+                    owners.computeIfAbsent(keyword, k -> new EnumMap<>(KeywordOwnerType.class))
+                            .computeIfAbsent(key.ownerType, k -> new HashSet<>())
+                            .add(key.ownerId);
+                }
+            }
+            return rebuild(owners);
+        }
+
+        /**
+         * 用关键词所属对象映射中的全部关键词重建自动机
+         *
+         * @param owners 关键词到所属对象ID的映射
+         * @return 匹配器
+         */
+        private static TenantKeywordMatcher rebuild(Map<String, Map<KeywordOwnerType, Set<String>>> owners) {
+            return new TenantKeywordMatcher(new AhoCorasickMatcher(owners.keySet()), Collections.emptyList(), 0,
+                    Collections.unmodifiableMap(owners));
+        }
+
+        /**
+         * 在当前匹配器的基础上应用单个对象的关键词增删，生成新的匹配器
+         * 只复制关键词所属对象映射的外层映射，并替换增删关键词的所属对象
+         *
+         * @param key          所属对象
+         * @param removed      该对象移除的关键词
+         * @param added        该对象新增的关键词
+         * @param pendingLimit 待并入关键词和失效关键词的数量上限
+         * @return 新的匹配器
+         */
+        private TenantKeywordMatcher withOwnerChange(OwnerKey key, Set<String> removed, Set<String> added,
+                int pendingLimit) {
+            Map<String, Map<KeywordOwnerType, Set<String>>> owners = new HashMap<>(keywordOwners);
+            Set<String> dictionary = automaton.getKeywords();
+            int stale = staleKeywords;
+            List<String> pending = new ArrayList<>(pendingKeywords);
+            for (String keyword : removed) {
+                Map<KeywordOwnerType, Set<String>> keywordOwner = withoutOwner(owners.get(keyword), key);
+                if (keywordOwner != null) {
+                    owners.put(keyword, keywordOwner);
+                } else {
+                    owners.remove(keyword);
+                    if (dictionary.contains(keyword)) {
+                        stale++;
+                    } else {
+                        pending.remove(keyword);
+                    }
+                }
+            }
+            for (String keyword : added) {
+                Map<KeywordOwnerType, Set<String>> previous = owners.put(keyword, withOwner(owners.get(keyword), key));
+                if (previous == null) {
+                    if (dictionary.contains(keyword)) {
+                        stale--;
+                    } else {
+                        pending.add(keyword);
+                    }
+                }
+            }
+            if (pending.size() > pendingLimit || stale > pendingLimit) {
+                return rebuild(owners);
+            }
+            return new TenantKeywordMatcher(automaton, Collections.unmodifiableList(pending), stale,
+                    Collections.unmodifiableMap(owners));
+        }
+
+        /**
+         * 扫描文本，自动机命中结果加上按子串判断命中的待并入关键词
+         *
+         * @param text 文本
+         * @return 关键词命中结果
+         */
+        private KeywordHits hits(String text) {
+            Set<String> matched = automaton.findAll(text);
+            for (String keyword : pendingKeywords) {
+                if (text.contains(keyword)) {
+                    matched.add(keyword);
+                }
+            }
+            return new KeywordHits(text, automaton.getKeywords(), matched, keywordOwners);
+        }
+
+        private static Map<KeywordOwnerType, Set<String>> withOwner(Map<KeywordOwnerType, Set<String>> owners,
+                OwnerKey key) {
+            Map<KeywordOwnerType, Set<String>> copy = new EnumMap<>(KeywordOwnerType.class);
+            if (owners != null) {
+                copy.putAll(owners);
+            }
+            Set<String> ownerIds = new HashSet<>(copy.getOrDefault(key.ownerType, Collections.emptySet()));
+            ownerIds.add(key.ownerId);
+            copy.put(key.ownerType, ownerIds);
+            return copy;
+        }
+
+        /**
+         * 移除关键词的一个所属对象
+         *
+         * @return 移除后的所属对象映射，没有剩余所属对象时返回null
+         */
+        private static Map<KeywordOwnerType, Set<String>> withoutOwner(Map<KeywordOwnerType, Set<String>> owners,
+                OwnerKey key) {
+            if (owners == null) {
+                return null;
+            }
+            Map<KeywordOwnerType, Set<String>> copy = new EnumMap<>(KeywordOwnerType.class);
+            copy.putAll(owners);
+            Set<String> ownerIds = new HashSet<>(copy.getOrDefault(key.ownerType, Collections.emptySet()));
+            ownerIds.remove(key.ownerId);
+            if (ownerIds.isEmpty()) {
+                copy.remove(key.ownerType);
+            } else {
+                copy.put(key.ownerType, ownerIds);
+            }
+            return copy.isEmpty() ? null : copy;
+        }
+    }
+
+    /**
+     * 关键词所属对象标识
+     */
+    private static class OwnerKey {
+        private final KeywordOwnerType ownerType; // 所属对象类型
+        private final String ownerId; // 所属对象ID
+
+        private OwnerKey(KeywordOwnerType ownerType, String ownerId) {
+            this.ownerType = ownerType;
+            this.ownerId = ownerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OwnerKey)) {
+                return false;
+            }
+            OwnerKey other = (OwnerKey) o;
+            return ownerType == other.ownerType && ownerId.equals(other.ownerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerType, ownerId);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.entity.LeaderEntity;
+import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.Leader;
+import com.simbest.boot.suggest.model.LeaderDirectory;
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+import com.simbest.boot.suggest.repository.LeaderRepository;
+import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
+import com.simbest.boot.suggest.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 领导目录服务
+ * 按租户构建并发布领导目录，请求期间按账号或领域解析领导只读取目录。
+ * 首次访问时一次性加载全部租户；之后领导或职责领域变更的事务提交后，只替换受影响租户的目录中变更的领导或领域，
+ * 不再访问全表，并只使受影响租户的推荐结果缓存失效。
+ * 不区分租户的查询（全部领导、按账号、按领域ID）读取由各租户目录合并的视图，合并视图在目录变更后首次读取时重新生成。
+ * 仅依赖数据访问层，避免与领导服务、领域服务形成循环依赖。
+ */
+@Service
+@Slf4j
+public class LeaderDirectoryService {
+
+    private final Map<String, LeaderDirectory> directories = new ConcurrentHashMap<>(); // 租户代码到领导目录的映射
+    private volatile boolean loaded; // 是否已加载全部租户的领导目录
+    private volatile MergedView mergedView; // 各租户目录的合并视图，目录变更后置空
+
+    @Autowired
+    private LeaderRepository leaderRepository;
+
+    @Autowired
+    private ResponsibilityDomainRepository responsibilityDomainRepository;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
+    /**
+     * 获取租户的领导目录
+     *
+     * @param tenantCode 租户代码
+     * @return 领导目录，租户没有领导时返回空目录
+     */
+    public LeaderDirectory getDirectory(String tenantCode) {
+        ensureLoaded();
+        LeaderDirectory directory = directories.get(key(tenantCode));
+        return directory != null ? directory : LeaderDirectory.empty(tenantCode);
+    }
+
+    /**
+     * 获取全部租户的领导，按领导实体ID升序排列
+     *
+     * @return 领导列表
+     */
+    public List<Leader> getLeaders() {
+        return getMergedView().leaders;
+    }
+
+    /**
+     * 不区分租户按账号获取领导，账号重复时返回领导实体ID最小的一条
+     *
+     * @param account 领导账号
+     * @return 领导，不存在时返回null
+     */
+    public Leader getLeader(String account) {
+        return account != null ? getMergedView().leadersByAccount.get(account) : null;
+    }
+
+    /**
+     * 不区分租户按领域ID获取领导负责的职责领域
+     *
+     * @param domainId 领域ID
+     * @return 职责领域，不存在时返回null
+     */
+    public ResponsibilityDomain getDomain(String domainId) {
+        return domainId != null ? getMergedView().domains.get(domainId) : null;
+    }
+
+    /**
+     * 从数据库重新加载租户的领导目录，在事务提交后生效
+     * 用于绕过领导服务批量写入数据后的同步
+     *
+     * @param tenantCode 租户代码
+     */
+    public void refresh(String tenantCode) {
+        TransactionUtil.afterCommit(() -> applyRefresh(tenantCode));
+    }
+
+    /**
+     * 领导新增或变更后更新所属租户的目录，在事务提交后生效
+     *
+     * @param previousTenantCode 变更前的租户代码，新增时为null
+     * @param saved              新增或变更后的领导实体
+     */
+    public void leaderSaved(String previousTenantCode, LeaderEntity saved) {
+        // 立即复制，避免提交前持久化对象再被修改
+        Long leaderId = saved.getId();
+        String tenantCode = saved.getTenantCode();
+        Leader leader = convertLeader(saved);
+        TransactionUtil.afterCommit(() -> applyLeaderSaved(previousTenantCode, leaderId, tenantCode, leader));
+    }
+
+    /**
+     * 领导删除后从所属租户的目录中移除，在事务提交后生效
+     *
+     * @param tenantCode 领导所属租户代码
+     * @param leaderId   领导实体ID
+     */
+    public void leaderRemoved(String tenantCode, Long leaderId) {
+        TransactionUtil.afterCommit(() -> applyLeaderRemoved(tenantCode, leaderId));
+    }
+
+    /**
+     * 职责领域新增或变更后更新负责该领域的租户目录，在事务提交后生效
+     *
+     * @param previousDomainId 变更前的领域ID，新增时为null
+     * @param saved            新增或变更后的职责领域实体
+     */
+    public void domainSaved(String previousDomainId, ResponsibilityDomainEntity saved) {
+        ResponsibilityDomain domain = saved.toModel();
+        TransactionUtil.afterCommit(() -> applyDomainSaved(previousDomainId, domain));
+    }
+
+    /**
+     * 职责领域删除后从负责该领域的租户目录中移除领域模型，在事务提交后生效
+     *
+     * @param domainId 领域ID
+     */
+    public void domainRemoved(String domainId) {
+        TransactionUtil.afterCommit(() -> applyDomainRemoved(domainId));
+    }
+
+    private synchronized void applyRefresh(String tenantCode) {
+        if (!loaded) {
+            return;
+        }
+        replace(tenantCode, loadTenant(tenantCode));
+        invalidate(Collections.singleton(tenantCode));
+    }
+
+    private synchronized void applyLeaderSaved(String previousTenantCode, Long leaderId, String tenantCode,
+            Leader leader) {
+        if (!loaded) {
+            // 尚未加载，首次访问时从数据库完整加载
+            return;
+        }
+        Set<String> changedTenants = new HashSet<>();
+        if (previousTenantCode != null && !key(previousTenantCode).equals(key(tenantCode))) {
+            replace(previousTenantCode, getDirectory(previousTenantCode).withoutLeader(leaderId));
+            changedTenants.add(previousTenantCode);
+        }
+
+        LeaderDirectory directory = getDirectory(tenantCode);
+        Map<String, ResponsibilityDomain> leaderDomains = new HashMap<>();
+        for (String domainId : leader.getDomainIds()) {
+            if (directory.getDomain(domainId) == null && !leaderDomains.containsKey(domainId)) {
+                responsibilityDomainRepository.findByDomainId(domainId)
+                        .ifPresent(entity -> leaderDomains.put(domainId, entity.toModel()));
+            }
+        }
+        replace(tenantCode, directory.withLeader(leaderId, leader, leaderDomains));
+        changedTenants.add(tenantCode);
+        invalidate(changedTenants);
+    }
+
+    private synchronized void applyLeaderRemoved(String tenantCode, Long leaderId) {
+        if (!loaded || leaderId == null) {
+            return;
+        }
+        replace(tenantCode, getDirectory(tenantCode).withoutLeader(leaderId));
+        invalidate(Collections.singleton(tenantCode));
+    }
+
+    private synchronized void applyDomainSaved(String previousDomainId, ResponsibilityDomain domain) {
+        if (!loaded) {
+            return;
+        }
+        Set<String> changedTenants = new HashSet<>();
+        for (LeaderDirectory directory : new ArrayList<>(directories.values())) {
+            LeaderDirectory updated = directory;
+            if (previousDomainId != null && !previousDomainId.equals(domain.getDomainId())
+                    && updated.getDomain(previousDomainId) != null) {
+                updated = updated.withoutDomain(previousDomainId);
+            }
+            if (updated.hasDomain(domain.getDomainId())) {
+                updated = updated.withDomain(domain);
+            }
+            if (updated != directory) {
+                replace(directory.getTenantCode(), updated);
+                changedTenants.add(directory.getTenantCode());
+            }
+        }
+        invalidate(changedTenants);
+    }
+
+    private synchronized void applyDomainRemoved(String domainId) {
+        if (!loaded || domainId == null) {
+            return;
+        }
+        Set<String> changedTenants = new HashSet<>();
+        for (LeaderDirectory directory : new ArrayList<>(directories.values())) {
+            if (directory.getDomain(domainId) != null) {
+                replace(directory.getTenantCode(), directory.withoutDomain(domainId));
+                changedTenants.add(directory.getTenantCode());
+            }
+        }
+        invalidate(changedTenants);
+    }
+
+    private void replace(String tenantCode, LeaderDirectory directory) {
+        directories.put(key(tenantCode), directory);
+        mergedView = null;
+    }
+
+    private void invalidate(Set<String> tenantCodes) {
+        for (String tenantCode : tenantCodes) {
+            recommendationCacheService.invalidateTenant(tenantCode);
+        }
+    }
+
+    /**
+     * 首次访问时从数据库加载全部租户的领导目录
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                loadAll();
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * 从数据库构建全部租户的领导目录
+     */
+    private void loadAll() {
+        long startTime = System.currentTimeMillis();
+
+        // 1. 加载领导，按租户分组
+        List<LeaderEntity> entities = new ArrayList<>(leaderRepository.findAll());
+        entities.sort(Comparator.comparing(LeaderEntity::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        Map<String, List<Long>> tenantLeaderIds = new LinkedHashMap<>();
+        Map<String, List<Leader>> tenantLeaders = new LinkedHashMap<>();
+        Map<String, String> tenantCodes = new HashMap<>();
+        Set<String> domainIds = new HashSet<>();
+        for (LeaderEntity entity : entities) {
+            Leader leader = convertLeader(entity);
+            String tenant = key(entity.getTenantCode());
+            tenantCodes.putIfAbsent(tenant, entity.getTenantCode());
+            tenantLeaderIds.computeIfAbsent(tenant, k -> new ArrayList<>()).add(entity.getId());
+            tenantLeaders.computeIfAbsent(tenant, k -> new ArrayList<>()).add(leader);
+            domainIds.addAll(leader.getDomainIds());
+        }
+
+        // 2. 预先转换领导负责的职责领域
+        Map<String, ResponsibilityDomain> domains = new HashMap<>();
+        for (ResponsibilityDomainEntity entity : responsibilityDomainRepository.findAll()) {
+            if (domainIds.contains(entity.getDomainId())) {
+                domains.putIfAbsent(entity.getDomainId(), entity.toModel());
+            }
+        }
+
+        for (Map.Entry<String, List<Leader>> entry : tenantLeaders.entrySet()) {
+            String tenant = entry.getKey();
+            directories.put(tenant, new LeaderDirectory(tenantCodes.get(tenant), tenantLeaderIds.get(tenant),
+                    entry.getValue(), domains));
+        }
+        mergedView = null;
+        log.info("已构建领导目录: {} 个租户, {} 位领导, {} 个职责领域, 耗时 {} ms", directories.size(), entities.size(),
+                domains.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 从数据库构建单个租户的领导目录
+     *
+     * @param tenantCode 租户代码
+     * @return 领导目录
+     */
+    private LeaderDirectory loadTenant(String tenantCode) {
+        List<LeaderEntity> entities = new ArrayList<>(leaderRepository.findByTenantCode(tenantCode));
+        entities.sort(Comparator.comparing(LeaderEntity::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<Long> leaderIds = new ArrayList<>();
+        List<Leader> leaders = new ArrayList<>();
+        Set<String> domainIds = new HashSet<>();
+        for (LeaderEntity entity : entities) {
+            Leader leader = convertLeader(entity);
+            leaderIds.add(entity.getId());
+            leaders.add(leader);
+            domainIds.addAll(leader.getDomainIds());
+        }
+
+        // 先加载本租户的领域，领导负责其他租户的领域时按领域ID补充加载
+        Map<String, ResponsibilityDomain> domains = new HashMap<>();
+        for (ResponsibilityDomainEntity entity : responsibilityDomainRepository.findByTenantCode(tenantCode)) {
+            if (domainIds.contains(entity.getDomainId())) {
+                domains.putIfAbsent(entity.getDomainId(), entity.toModel());
+            }
+        }
+        for (String domainId : domainIds) {
+            if (domainId != null && !domains.containsKey(domainId)) {
+                responsibilityDomainRepository.findByDomainId(domainId)
+                        .ifPresent(entity -> domains.put(domainId, entity.toModel()));
+            }
+        }
+        return new LeaderDirectory(tenantCode, leaderIds, leaders, domains);
+    }
+
+    /**
+     * 获取各租户目录的合并视图，目录变更后首次读取时重新生成
+     *
+     * @return 合并视图
+     */
+    private MergedView getMergedView() {
+        MergedView view = mergedView;
+        if (view == null) {
+            ensureLoaded();
+            synchronized (this) {
+                view = mergedView;
+                if (view == null) {
+                    view = new MergedView(directories.values());
+                    mergedView = view;
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * 将领导实体转换为领导模型，领域ID列表不可修改
+     *
+     * @param entity 领导实体
+     * @return 领导模型
+     */
+    private Leader convertLeader(LeaderEntity entity) {
+        Leader model = new Leader();
+        model.setAccount(entity.getAccount());
+        model.setName(entity.getName());
+        model.setDomainIds(entity.getDomainIds() != null
+                ? Collections.unmodifiableList(new ArrayList<>(entity.getDomainIds()))
+                : Collections.emptyList());
+        return model;
+    }
+
+    /**
+     * 目录映射的键，租户代码为空的领导归入空字符串键
+     */
+    private static String key(String tenantCode) {
+        return tenantCode != null ? tenantCode : "";
+    }
+
+    /**
+     * 各租户目录的合并视图
+     */
+    private static final class MergedView {
+        private final List<Leader> leaders; // 全部领导，按领导实体ID升序排列
+        private final Map<String, Leader> leadersByAccount; // 账号到领导的映射，账号重复时保留ID最小的一条
+        private final Map<String, ResponsibilityDomain> domains; // 领域ID到职责领域的映射
+
+        private MergedView(Iterable<LeaderDirectory> directories) {
+            List<Long> ids = new ArrayList<>();
+            List<Leader> all = new ArrayList<>();
+            Map<String, ResponsibilityDomain> domainMap = new HashMap<>();
+            for (LeaderDirectory directory : directories) {
+                ids.addAll(directory.getLeaderIds());
+                all.addAll(directory.getLeaders());
+                directory.getDomains().forEach(domainMap::putIfAbsent);
+            }
+            Integer[] order = new Integer[all.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(ids::get));
+
+            List<Leader> sorted = new ArrayList<>(all.size());
+            Map<String, Leader> accountMap = new HashMap<>();
+            for (Integer index : order) {
+                Leader leader = all.get(index);
+                sorted.add(leader);
+                accountMap.putIfAbsent(leader.getAccount(), leader);
+            }
+            this.leaders = Collections.unmodifiableList(sorted);
+            this.leadersByAccount = Collections.unmodifiableMap(accountMap);
+            this.domains = Collections.unmodifiableMap(domainMap);
+        }
+    }
+}
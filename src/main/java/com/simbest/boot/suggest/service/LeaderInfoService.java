@@ -24,6 +24,9 @@ public class LeaderInfoService {
     @Autowired
     private LeaderInfoRepository leaderInfoRepository;
 
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     /**
      * 获取所有领导信息
      *
@@ -85,7 +88,9 @@ public class LeaderInfoService {
         if (leaderInfo.getCreateTime() == null) {
             leaderInfo.setCreateTime(new Date());
         }
-        return leaderInfoRepository.save(leaderInfo);
+        LeaderInfoEntity saved = leaderInfoRepository.save(leaderInfo);
+        recommendationCacheService.invalidateTenant(saved.getTenantCode());
+        return saved;
     }
 
     /**
@@ -97,7 +102,9 @@ public class LeaderInfoService {
     @Transactional
     public LeaderInfoEntity updateLeaderInfo(LeaderInfoEntity leaderInfo) {
         leaderInfo.setUpdateTime(new Date());
-        return leaderInfoRepository.save(leaderInfo);
+        LeaderInfoEntity saved = leaderInfoRepository.save(leaderInfo);
+        recommendationCacheService.invalidateTenant(saved.getTenantCode());
+        return saved;
     }
 
     /**
@@ -108,6 +115,7 @@ public class LeaderInfoService {
     @Transactional
     public void deleteLeaderInfo(Long id) {
         leaderInfoRepository.deleteById(id);
+        recommendationCacheService.invalidateAll();
     }
 
     /**
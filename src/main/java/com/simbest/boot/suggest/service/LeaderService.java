@@ -1,7 +1,9 @@
 package com.simbest.boot.suggest.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -10,11 +12,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.simbest.boot.suggest.entity.LeaderEntity;
-import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
 import com.simbest.boot.suggest.model.Leader;
+import com.simbest.boot.suggest.model.OrganizationScoringSnapshot;
 import com.simbest.boot.suggest.model.ResponsibilityDomain;
 import com.simbest.boot.suggest.repository.LeaderRepository;
-import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,7 +32,13 @@ public class LeaderService {
     private LeaderRepository leaderRepository;
 
     @Autowired
-    private ResponsibilityDomainRepository responsibilityDomainRepository;
+    private OrganizationScoringSnapshotService organizationScoringSnapshotService; // 组织评分快照服务
+
+    @Autowired
+    private QueryAnalysisService queryAnalysisService; // 查询分析服务
+
+    @Autowired
+    private LeaderDirectoryService leaderDirectoryService; // 领导目录服务
 
     /**
      * 获取所有领导
@@ -43,11 +51,12 @@ public class LeaderService {
 
     /**
      * 获取所有领导
+     * 从领导目录读取，返回的领导对象为目录中的共享实例，调用方不得修改
      *
      * @return 领导列表
      */
     public List<Leader> getAllLeaders() {
-        return convertToModelList(getAllLeadersEntities());
+        return new ArrayList<>(leaderDirectoryService.getLeaders());
     }
 
     /**
@@ -82,13 +91,25 @@ public class LeaderService {
 
     /**
      * 根据账号获取领导
+     * 从领导目录读取，返回的领导对象为目录中的共享实例，调用方不得修改
      *
      * @param account 领导账号
      * @return 领导
      */
     public Leader getLeaderByAccountModel(String account) {
-        Optional<LeaderEntity> leaderOpt = getLeaderByAccount(account);
-        return leaderOpt.map(this::convertToModel).orElse(null);
+        return leaderDirectoryService.getLeader(account);
+    }
+
+    /**
+     * 根据租户代码和账号获取领导
+     * 从领导目录读取，返回的领导对象为目录中的共享实例，调用方不得修改
+     *
+     * @param tenantCode 租户代码
+     * @param account    领导账号
+     * @return 领导
+     */
+    public Leader getLeaderByAccountModel(String tenantCode, String account) {
+        return leaderDirectoryService.getDirectory(tenantCode).getLeader(account);
     }
 
     /**
@@ -112,6 +133,18 @@ public class LeaderService {
         return leaderRepository.findByTenantCodeAndDomainId(tenantCode, domainId);
     }
 
+    /**
+     * 根据租户代码和领域ID获取负责该领域的领导列表
+     * 从领导目录读取，返回的领导对象为目录中的共享实例，调用方不得修改
+     *
+     * @param tenantCode 租户代码
+     * @param domainId   领域ID
+     * @return 领导列表
+     */
+    public List<Leader> getLeadersByTenantCodeAndDomainIdModel(String tenantCode, String domainId) {
+        return leaderDirectoryService.getDirectory(tenantCode).getLeadersByDomainId(domainId);
+    }
+
     /**
      * 创建领导
      *
@@ -122,7 +155,9 @@ public class LeaderService {
     public LeaderEntity createLeader(LeaderEntity leader) {
         leader.setCreateTime(new Date());
         leader.setUpdateTime(new Date());
-        return leaderRepository.save(leader);
+        LeaderEntity saved = leaderRepository.save(leader);
+        leaderDirectoryService.leaderSaved(null, saved);
+        return saved;
     }
 
     /**
@@ -133,8 +168,14 @@ public class LeaderService {
      */
     @Transactional
     public LeaderEntity updateLeader(LeaderEntity leader) {
+        // 保存前记录变更前的租户，租户被修改时需要从原租户的目录中移除
+        String previousTenantCode = leader.getId() != null
+                ? leaderRepository.findById(leader.getId()).map(LeaderEntity::getTenantCode).orElse(null)
+                : null;
         leader.setUpdateTime(new Date());
-        return leaderRepository.save(leader);
+        LeaderEntity saved = leaderRepository.save(leader);
+        leaderDirectoryService.leaderSaved(previousTenantCode, saved);
+        return saved;
     }
 
     /**
@@ -144,7 +185,9 @@ public class LeaderService {
      */
     @Transactional
     public void deleteLeader(Long id) {
+        String tenantCode = leaderRepository.findById(id).map(LeaderEntity::getTenantCode).orElse(null);
         leaderRepository.deleteById(id);
+        leaderDirectoryService.leaderRemoved(tenantCode, id);
     }
 
     /**
@@ -212,6 +255,23 @@ public class LeaderService {
                 leader.getDomainIds() == null || leader.getDomainIds().isEmpty()) {
             return 0.0;
         }
+        return calculateDomainMatchScore(leader, queryAnalysisService.analyze(null, taskTitle));
+    }
+
+    /**
+     * 计算领导的职责领域与已分析任务标题的匹配度
+     * 同一请求内对多个领导评分时，领域关键词索引的评分结果只计算一次
+     *
+     * @param leader 领导对象
+     * @param query  已分析的任务标题
+     * @return 匹配度分数
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public double calculateDomainMatchScore(Leader leader, AnalyzedQuery query) throws java.io.IOException {
+        if (leader == null || query.isEmpty() ||
+                leader.getDomainIds() == null || leader.getDomainIds().isEmpty()) {
+            return 0.0;
+        }
 
         // 删除了为测试用例提供的特殊处理逻辑
         // 现在使用通用算法计算匹配度，不再为特定测试用例硬编码结果
@@ -227,24 +287,30 @@ public class LeaderService {
         // 计算每个领域与任务标题的匹配度，取最高分
         double maxScore = 0.0;
 
+        // 优先使用默认租户评分快照中的关键词倒排索引，只计算有命中的领域
+        OrganizationScoringSnapshot snapshot = organizationScoringSnapshotService.getSnapshot(null);
+        Map<String, Double> indexedScores = null;
+
         for (String domainId : domainIds) {
-            // 获取领域实体
-            Optional<ResponsibilityDomainEntity> domainOpt = responsibilityDomainRepository.findByDomainId(domainId);
-            if (!domainOpt.isPresent()) {
+            if (snapshot.getDomain(domainId) != null) {
+                if (indexedScores == null) {
+                    indexedScores = snapshot.getDomainKeywordIndex().calculateMatchScores(query);
+                }
+                double score = indexedScores.getOrDefault(domainId, 0.0);
+                if (score > maxScore) {
+                    maxScore = score;
+                }
                 continue;
             }
 
-            ResponsibilityDomainEntity domainEntity = domainOpt.get();
-
-            // 将实体转换为模型
-            ResponsibilityDomain domain = new ResponsibilityDomain();
-            domain.setDomainId(domainEntity.getDomainId());
-            domain.setDomainName(domainEntity.getDomainName());
-            domain.setDescription(domainEntity.getDescription());
-            domain.setKeywords(domainEntity.getKeywords());
+            // 快照中不存在的领域（如其他租户的领域），使用领导目录中预先转换的领域模型
+            ResponsibilityDomain domain = leaderDirectoryService.getDomain(domainId);
+            if (domain == null) {
+                continue;
+            }
 
             // 计算该领域与任务标题的匹配度
-            double score = domain.calculateMatchScore(taskTitle);
+            double score = domain.calculateMatchScore(query);
 
             // 更新最高分
             if (score > maxScore) {
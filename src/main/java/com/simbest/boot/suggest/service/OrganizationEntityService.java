@@ -1,8 +1,12 @@
 package com.simbest.boot.suggest.service;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,14 +14,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.simbest.boot.suggest.entity.OrganizationEntity;
+import com.simbest.boot.suggest.model.KeywordOwnerType;
 import com.simbest.boot.suggest.model.Organization;
 import com.simbest.boot.suggest.repository.OrganizationRepository;
+import com.simbest.boot.suggest.util.TransactionUtil;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 组织服务类
  * 提供组织相关的业务逻辑处理
+ * 组织的新增、更新和删除统一由本服务完成，事务提交后刷新变更前后所属租户的组织评分快照和组织关键词，
+ * 回滚的变更不会进入内存模型。
  */
 @Service
 @Slf4j
@@ -26,6 +34,12 @@ public class OrganizationEntityService {
     @Autowired
     private OrganizationRepository organizationRepository;
 
+    @Autowired
+    private OrganizationScoringSnapshotService organizationScoringSnapshotService; // 组织评分快照服务
+
+    @Autowired
+    private KeywordMatcherService keywordMatcherService; // 关键词多模式匹配服务
+
     /**
      * 获取所有组织
      *
@@ -106,7 +120,9 @@ public class OrganizationEntityService {
     public OrganizationEntity createOrganization(OrganizationEntity organization) {
         organization.setCreateTime(new Date());
         organization.setUpdateTime(new Date());
-        return organizationRepository.save(organization);
+        OrganizationEntity saved = organizationRepository.save(organization);
+        refreshAfterCommit(null, null, saved);
+        return saved;
     }
 
     /**
@@ -117,8 +133,20 @@ public class OrganizationEntityService {
      */
     @Transactional
     public OrganizationEntity updateOrganization(OrganizationEntity organization) {
+        // 保存前记录变更前的租户和组织ID，租户或组织ID被修改时需要同时刷新原租户
+        String previousTenantCode = null;
+        String previousOrgId = null;
+        if (organization.getId() != null) {
+            Optional<OrganizationEntity> previous = organizationRepository.findById(organization.getId());
+            if (previous.isPresent()) {
+                previousTenantCode = previous.get().getTenantCode();
+                previousOrgId = previous.get().getOrgId();
+            }
+        }
         organization.setUpdateTime(new Date());
-        return organizationRepository.save(organization);
+        OrganizationEntity saved = organizationRepository.save(organization);
+        refreshAfterCommit(previousTenantCode, previousOrgId, saved);
+        return saved;
     }
 
     /**
@@ -128,7 +156,47 @@ public class OrganizationEntityService {
      */
     @Transactional
     public void deleteOrganization(Long id) {
+        Optional<OrganizationEntity> existing = organizationRepository.findById(id);
+        String previousTenantCode = existing.map(OrganizationEntity::getTenantCode).orElse(null);
+        String previousOrgId = existing.map(OrganizationEntity::getOrgId).orElse(null);
         organizationRepository.deleteById(id);
+        refreshAfterCommit(previousTenantCode, previousOrgId, null);
+    }
+
+    /**
+     * 组织变更提交后刷新变更前后所属租户的组织评分快照和组织关键词
+     *
+     * @param previousTenantCode 变更前的租户代码，新增时为null
+     * @param previousOrgId      变更前的组织ID，新增时为null
+     * @param saved              变更后的组织实体，删除时为null
+     */
+    private void refreshAfterCommit(String previousTenantCode, String previousOrgId, OrganizationEntity saved) {
+        // 立即复制变更后的值，避免提交前持久化对象再被修改
+        String tenantCode = saved != null ? saved.getTenantCode() : null;
+        String orgId = saved != null ? saved.getOrgId() : null;
+        List<String> keywords = saved != null && saved.getKeywords() != null ? new ArrayList<>(saved.getKeywords())
+                : new ArrayList<>();
+        boolean moved = previousOrgId != null
+                && (!previousOrgId.equals(orgId) || !Objects.equals(previousTenantCode, tenantCode));
+
+        Set<String> tenants = new LinkedHashSet<>();
+        if (previousOrgId != null) {
+            tenants.add(previousTenantCode);
+        }
+        if (saved != null) {
+            tenants.add(tenantCode);
+        }
+        TransactionUtil.afterCommit(() -> {
+            if (moved) {
+                keywordMatcherService.removeOwner(previousTenantCode, KeywordOwnerType.ORGANIZATION, previousOrgId);
+            }
+            if (saved != null) {
+                keywordMatcherService.updateOwner(tenantCode, KeywordOwnerType.ORGANIZATION, orgId, keywords);
+            }
+            for (String tenant : tenants) {
+                organizationScoringSnapshotService.refresh(tenant);
+            }
+        });
     }
 
     /**
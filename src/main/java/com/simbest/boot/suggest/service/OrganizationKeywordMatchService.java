@@ -8,9 +8,8 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.simbest.boot.suggest.model.AnalyzedQuery;
 import com.simbest.boot.suggest.model.Organization;
-import com.simbest.boot.suggest.util.ChineseTokenizer;
-import com.simbest.boot.suggest.util.SynonymManagerAdapter;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,6 +24,9 @@ public class OrganizationKeywordMatchService {
     @Autowired
     private OrganizationService organizationService;
 
+    @Autowired
+    private QueryAnalysisService queryAnalysisService;
+
     /**
      * 计算组织与任务标题的匹配度
      *
@@ -34,18 +36,30 @@ public class OrganizationKeywordMatchService {
      * @throws IOException 如果分词器初始化失败
      */
     public double calculateOrganizationMatchScore(Organization organization, String taskTitle) throws IOException {
-        if (organization == null || taskTitle == null || taskTitle.isEmpty() ||
-                organization.getKeywords() == null || organization.getKeywords().isEmpty()) {
+        if (taskTitle == null || taskTitle.isEmpty()) {
             return 0.0;
         }
+        return calculateOrganizationMatchScore(organization, queryAnalysisService.analyze(null, taskTitle));
+    }
 
-        // 分词处理任务标题
-        List<String> taskTokens = ChineseTokenizer.tokenize(taskTitle);
+    /**
+     * 计算组织与任务标题的匹配度
+     * 直接读取已分析查询中的分词、同义词扩展和关键词命中结果
+     *
+     * @param organization 组织
+     * @param query        已分析的任务标题
+     * @return 匹配度分数
+     * @throws IOException 如果分词器初始化失败
+     */
+    public double calculateOrganizationMatchScore(Organization organization, AnalyzedQuery query) throws IOException {
+        if (organization == null || query.isEmpty() ||
+                organization.getKeywords() == null || organization.getKeywords().isEmpty()) {
+            return 0.0;
+        }
 
         // 计算匹配分数
         double score = calculateKeywordMatchScore(organization.getKeywords(), organization.getKeywordWeights(),
-                taskTokens,
-                taskTitle);
+                query);
 
         // 应用组织层级权重
         // 部门级别权重高于科室级别
@@ -64,13 +78,12 @@ public class OrganizationKeywordMatchService {
      *
      * @param keywords       关键字列表
      * @param keywordWeights 关键字权重列表
-     * @param taskTokens     任务标题分词结果
-     * @param taskTitle      原始任务标题
+     * @param query          已分析的任务标题
      * @return 匹配分数
      */
     private double calculateKeywordMatchScore(List<String> keywords, List<Double> keywordWeights,
-            List<String> taskTokens, String taskTitle) {
-        if (keywords == null || keywords.isEmpty() || taskTokens == null || taskTokens.isEmpty()) {
+            AnalyzedQuery query) {
+        if (keywords == null || keywords.isEmpty() || query.getTokens().isEmpty()) {
             return 0.0;
         }
 
@@ -93,23 +106,13 @@ public class OrganizationKeywordMatchService {
             }
 
             // 直接匹配
-            boolean directMatch = taskTitle.contains(keyword);
+            boolean directMatch = query.getKeywordHits().contains(keyword);
 
             // 分词匹配
-            boolean tokenMatch = taskTokens.contains(keyword);
+            boolean tokenMatch = query.getTokenSet().contains(keyword);
 
             // 同义词匹配
-            boolean synonymMatch = false;
-            try {
-                for (String token : taskTokens) {
-                    if (SynonymManagerAdapter.areSynonyms(keyword, token)) {
-                        synonymMatch = true;
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("获取同义词时出错: {}", e.getMessage());
-            }
+            boolean synonymMatch = query.matchesSynonym(keyword);
 
             // 如果任一方式匹配成功
             if (directMatch || tokenMatch || synonymMatch) {
@@ -148,11 +151,12 @@ public class OrganizationKeywordMatchService {
         }
 
         List<Organization> allOrganizations = organizationService.getAllOrganizations();
+        AnalyzedQuery query = queryAnalysisService.analyze(null, taskTitle);
         Organization bestOrganization = null;
         double bestScore = 0.0;
 
         for (Organization org : allOrganizations) {
-            double score = calculateOrganizationMatchScore(org, taskTitle);
+            double score = calculateOrganizationMatchScore(org, query);
             if (score > bestScore) {
                 bestScore = score;
                 bestOrganization = org;
@@ -178,12 +182,26 @@ public class OrganizationKeywordMatchService {
         if (taskTitle == null || taskTitle.isEmpty()) {
             return new HashMap<>();
         }
+        return getAllOrganizationMatchScores(queryAnalysisService.analyze(null, taskTitle));
+    }
+
+    /**
+     * 获取所有组织的匹配分数
+     *
+     * @param query 已分析的任务标题
+     * @return 组织ID到匹配分数的映射
+     * @throws IOException 如果分词器初始化失败
+     */
+    public Map<String, Double> getAllOrganizationMatchScores(AnalyzedQuery query) throws IOException {
+        if (query.isEmpty()) {
+            return new HashMap<>();
+        }
 
         List<Organization> allOrganizations = organizationService.getAllOrganizations();
         Map<String, Double> scoreMap = new HashMap<>();
 
         for (Organization org : allOrganizations) {
-            double score = calculateOrganizationMatchScore(org, taskTitle);
+            double score = calculateOrganizationMatchScore(org, query);
             scoreMap.put(org.getOrgId(), score);
         }
 
@@ -0,0 +1,284 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.config.DefaultValueConstants;
+import com.simbest.boot.suggest.entity.OrganizationDomainEntity;
+import com.simbest.boot.suggest.entity.OrganizationEntity;
+import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.Organization;
+import com.simbest.boot.suggest.model.OrganizationScoringSnapshot;
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+import com.simbest.boot.suggest.repository.OrganizationDomainRepository;
+import com.simbest.boot.suggest.repository.OrganizationRepository;
+import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 组织评分快照服务
+ * 按租户构建并发布组织评分快照，请求期间的组织-领域匹配只读取快照。
+ * 组织、组织-领域关联或职责领域变更的事务提交后重建快照并原子替换，回滚的变更不会被发布；
+ * 职责领域变更只重建领域所属租户以及包含或关联该领域的已加载租户。
+ * 快照在映射锁之外构建，同一租户的并发首次加载合并为一次；每次构建前领取租户内递增的序号，
+ * 只有序号更新的快照才会替换已发布的快照，并发刷新时不会用旧快照覆盖新快照。
+ * 已加载的租户数量超过上限时淘汰最久未访问的租户（默认租户除外），淘汰的租户在下次访问时重新加载。
+ * 仅依赖数据访问层，避免与组织服务、领域服务形成循环依赖。
+ */
+@Service
+@Slf4j
+public class OrganizationScoringSnapshotService {
+
+    private final Map<String, PublishedSnapshot> snapshots = new ConcurrentHashMap<>(); // 租户代码到已发布快照的映射
+    private final Map<String, AtomicLong> buildSequences = new ConcurrentHashMap<>(); // 租户代码到快照构建序号的映射
+    private final Map<String, CompletableFuture<OrganizationScoringSnapshot>> pendingLoads = new ConcurrentHashMap<>(); // 租户代码到进行中的首次加载的映射
+    private final Map<String, Long> lastAccessTimes = new ConcurrentHashMap<>(); // 租户代码到最近访问时间的映射
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationDomainRepository organizationDomainRepository;
+
+    @Autowired
+    private ResponsibilityDomainRepository responsibilityDomainRepository;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
+    /**
+     * 获取租户的组织评分快照，首次访问时构建
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户
+     * @return 组织评分快照
+     */
+    public OrganizationScoringSnapshot getSnapshot(String tenantCode) {
+        String tenant = resolveTenantCode(tenantCode);
+        lastAccessTimes.put(tenant, System.nanoTime());
+        PublishedSnapshot published = snapshots.get(tenant);
+        return published != null ? published.snapshot : load(tenant);
+    }
+
+    /**
+     * 重建租户的组织评分快照并发布
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户
+     * @return 当前发布的组织评分快照，并发刷新时可能是其他线程构建的更新的快照
+     */
+    public OrganizationScoringSnapshot refresh(String tenantCode) {
+        String tenant = resolveTenantCode(tenantCode);
+        OrganizationScoringSnapshot snapshot = buildAndPublish(tenant);
+        recommendationCacheService.invalidateTenant(tenant);
+        return snapshot;
+    }
+
+    /**
+     * 首次加载租户的组织评分快照，同一租户的并发加载只构建一次
+     *
+     * @param tenant 租户代码
+     * @return 组织评分快照
+     */
+    private OrganizationScoringSnapshot load(String tenant) {
+        CompletableFuture<OrganizationScoringSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<OrganizationScoringSnapshot> loading = pendingLoads.putIfAbsent(tenant, created);
+        if (loading != null) {
+            return loading.join();
+        }
+        try {
+            OrganizationScoringSnapshot snapshot = buildAndPublish(tenant);
+            created.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingLoads.remove(tenant, created);
+        }
+    }
+
+    /**
+     * 领取构建序号，在映射锁之外构建快照，仅当序号比已发布快照更新时发布
+     *
+     * @param tenant 租户代码
+     * @return 当前发布的组织评分快照
+     */
+    private OrganizationScoringSnapshot buildAndPublish(String tenant) {
+        long sequence = buildSequences.computeIfAbsent(tenant, k -> new AtomicLong()).incrementAndGet();
+        OrganizationScoringSnapshot snapshot = buildSnapshot(tenant);
+        lastAccessTimes.putIfAbsent(tenant, System.nanoTime());
+        boolean[] added = new boolean[1];
+        PublishedSnapshot published = snapshots.compute(tenant, (k, current) -> {
+            if (current == null) {
+                added[0] = true;
+                return new PublishedSnapshot(sequence, snapshot);
+            }
+            return current.sequence < sequence ? new PublishedSnapshot(sequence, snapshot) : current;
+        });
+        if (added[0]) {
+            evictIfNecessary();
+        }
+        return published.snapshot;
+    }
+
+    /**
+     * 职责领域变更后重建受影响租户的组织评分快照
+     * 只重建领域所属租户以及快照中包含或有组织关联这些领域ID的已加载租户；未加载的租户在下次访问时构建
+     *
+     * @param tenantCode 领域所属租户代码，为空时使用默认租户
+     * @param domainIds  变更的领域ID，领域ID被修改时应同时包含修改前后的领域ID
+     */
+    public void refreshDomains(String tenantCode, Collection<String> domainIds) {
+        String owner = resolveTenantCode(tenantCode);
+        for (Map.Entry<String, PublishedSnapshot> entry : new ArrayList<>(snapshots.entrySet())) {
+            String tenant = entry.getKey();
+            boolean affected = tenant.equals(owner);
+            for (String domainId : domainIds) {
+                if (affected) {
+                    break;
+                }
+                affected = domainId != null && entry.getValue().snapshot.referencesDomain(domainId);
+            }
+            if (affected) {
+                refresh(tenant);
+            }
+        }
+    }
+
+    /**
+     * 从数据库构建租户的组织评分快照
+     *
+     * @param tenantCode 租户代码
+     * @return 组织评分快照
+     */
+    public OrganizationScoringSnapshot buildSnapshot(String tenantCode) {
+        long startTime = System.currentTimeMillis();
+
+        // 1. 加载组织
+        List<Organization> organizations = new ArrayList<>();
+        for (OrganizationEntity entity : organizationRepository.findByTenantCode(tenantCode)) {
+            organizations.add(convertOrganization(entity));
+        }
+
+        // 2. 加载组织-领域关联，按组织分组
+        Map<String, List<String>> organizationDomainIds = new HashMap<>();
+        Map<String, Map<String, Double>> organizationDomainWeights = new HashMap<>();
+        for (OrganizationDomainEntity relation : organizationDomainRepository.findByTenantCode(tenantCode)) {
+            String orgId = relation.getOrganizationId();
+            organizationDomainIds.computeIfAbsent(orgId, k -> new ArrayList<>()).add(relation.getDomainId());
+            if (relation.getDomainWeight() != null) {
+                organizationDomainWeights.computeIfAbsent(orgId, k -> new HashMap<>())
+                        .putIfAbsent(relation.getDomainId(), relation.getDomainWeight());
+            }
+        }
+
+        // 3. 加载职责领域并预先转换为模型
+        Map<String, ResponsibilityDomain> domains = new LinkedHashMap<>();
+        for (ResponsibilityDomainEntity entity : responsibilityDomainRepository.findByTenantCode(tenantCode)) {
+            domains.putIfAbsent(entity.getDomainId(), entity.toModel());
+        }
+
+        // 领域ID全局唯一，关联到其他租户领域时按领域ID补充加载
+        for (List<String> domainIds : organizationDomainIds.values()) {
+            for (String domainId : domainIds) {
+                if (domainId != null && !domains.containsKey(domainId)) {
+                    Optional<ResponsibilityDomainEntity> entityOpt = responsibilityDomainRepository.findByDomainId(domainId);
+                    entityOpt.ifPresent(entity -> domains.put(domainId, entity.toModel()));
+                }
+            }
+        }
+
+        OrganizationScoringSnapshot snapshot = new OrganizationScoringSnapshot(tenantCode, organizations,
+                organizationDomainIds, organizationDomainWeights, domains);
+        log.info("已构建租户 {} 的组织评分快照: {} 个组织, {} 个职责领域, 耗时 {} ms", tenantCode,
+                snapshot.getOrganizations().size(), snapshot.getDomains().size(),
+                System.currentTimeMillis() - startTime);
+        return snapshot;
+    }
+
+    /**
+     * 已加载的租户数量超过上限时淘汰最久未访问的租户，默认租户不淘汰
+     */
+    private synchronized void evictIfNecessary() {
+        int maxTenants = Math.max(1, appConfig.getOrganizationShardMaxTenants());
+        String defaultTenant = DefaultValueConstants.getDefaultTenantCode();
+        while (snapshots.size() > maxTenants) {
+            String eldest = null;
+            long eldestTime = Long.MAX_VALUE;
+            for (String tenant : snapshots.keySet()) {
+                if (tenant.equals(defaultTenant)) {
+                    continue;
+                }
+                long accessTime = lastAccessTimes.getOrDefault(tenant, Long.MIN_VALUE);
+                if (eldest == null || accessTime < eldestTime) {
+                    eldest = tenant;
+                    eldestTime = accessTime;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            snapshots.remove(eldest);
+            lastAccessTimes.remove(eldest);
+            log.info("已淘汰租户 {} 的组织评分快照，当前已加载 {} 个租户", eldest, snapshots.size());
+        }
+    }
+
+    /**
+     * 解析租户代码
+     *
+     * @param tenantCode 租户代码
+     * @return 非空的租户代码
+     */
+    private String resolveTenantCode(String tenantCode) {
+        return tenantCode != null && !tenantCode.isEmpty() ? tenantCode : DefaultValueConstants.getDefaultTenantCode();
+    }
+
+    /**
+     * 将组织实体转换为组织模型
+     *
+     * @param entity 组织实体
+     * @return 组织模型
+     */
+    private Organization convertOrganization(OrganizationEntity entity) {
+        Organization model = new Organization();
+        model.setOrgId(entity.getOrgId());
+        model.setOrgName(entity.getOrgName());
+        model.setParentOrgId(entity.getParentOrgId());
+        model.setMainLeaderAccount(entity.getMainLeaderAccount());
+        model.setDeputyLeaderAccounts(entity.getDeputyLeaderAccounts() != null
+                ? new ArrayList<>(entity.getDeputyLeaderAccounts())
+                : new ArrayList<>());
+        model.setSuperiorLeaderAccount(entity.getSuperiorLeaderAccount());
+        model.setOrgType(entity.getOrgType());
+        return model;
+    }
+
+    /**
+     * 已发布的组织评分快照及其构建序号
+     */
+    private static final class PublishedSnapshot {
+        private final long sequence; // 构建序号
+        private final OrganizationScoringSnapshot snapshot; // 组织评分快照
+
+        private PublishedSnapshot(long sequence, OrganizationScoringSnapshot snapshot) {
+            this.sequence = sequence;
+            this.snapshot = snapshot;
+        }
+    }
+}
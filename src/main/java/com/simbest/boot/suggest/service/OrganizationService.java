@@ -1,8 +1,6 @@
 package com.simbest.boot.suggest.service;
 
 import java.util.ArrayList;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,18 +9,22 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.config.TenantContext;
 import com.simbest.boot.suggest.entity.OrganizationDomainEntity;
 import com.simbest.boot.suggest.entity.OrganizationEntity;
 import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.KeywordHits;
 import com.simbest.boot.suggest.model.Leader;
 import com.simbest.boot.suggest.model.Organization;
+import com.simbest.boot.suggest.model.OrganizationScoringSnapshot;
+import com.simbest.boot.suggest.model.OrganizationShard;
 import com.simbest.boot.suggest.model.ResponsibilityDomain;
 import com.simbest.boot.suggest.repository.OrganizationDomainRepository;
 import com.simbest.boot.suggest.repository.OrganizationRepository;
 import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
-import com.simbest.boot.suggest.util.DatabaseDataLoader;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,21 +32,16 @@ import lombok.extern.slf4j.Slf4j;
  * 组织管理服务
  * 提供组织相关的操作
  * 整合了OrganizationService和OrganizationEntityService的功能
+ * 组织模型按租户分片，随组织评分快照懒加载、不可变发布并按上限淘汰；
+ * 未指定租户的方法使用当前请求的租户上下文。
  */
 @Service
 @Slf4j
 public class OrganizationService {
-    private Map<String, Organization> organizations; // 组织ID到组织的映射
-    private Map<String, List<String>> mainLeaderOrgMap; // 主管领导账号到组织ID的映射
-    private Map<String, List<String>> deputyLeaderOrgMap; // 分管领导账号到组织ID的映射
-    private Map<String, List<String>> superiorLeaderOrgMap; // 上级领导账号到组织ID的映射
 
     @Autowired
     private LeaderService leaderService; // 领导服务
 
-    @Autowired
-    private DatabaseDataLoader databaseDataLoader;
-
     @Autowired
     private OrganizationRepository organizationRepository;
 
@@ -54,19 +51,24 @@ public class OrganizationService {
     @Autowired
     private ResponsibilityDomainRepository responsibilityDomainRepository;
 
+    @Autowired
+    private OrganizationScoringSnapshotService organizationScoringSnapshotService; // 组织评分快照服务
+
+    @Autowired
+    private KeywordMatcherService keywordMatcherService; // 关键词多模式匹配服务
+
+    @Autowired
+    private OrganizationEntityService organizationEntityService; // 组织写入服务，统一处理提交后的内存模型刷新
+
+    @Autowired
+    private QueryAnalysisService queryAnalysisService; // 查询分析服务
+
+    @Autowired
+    private AppConfig appConfig;
+
     @Value("${app.tenantDefaultCode:default}")
     private String tenantCode; // 默认租户代码
 
-    /**
-     * 构造函数
-     */
-    public OrganizationService() {
-        this.organizations = new HashMap<>();
-        this.mainLeaderOrgMap = new HashMap<>();
-        this.deputyLeaderOrgMap = new HashMap<>();
-        this.superiorLeaderOrgMap = new HashMap<>();
-    }
-
     /**
      * 初始化方法，由Spring在注入依赖后调用
      */
@@ -77,48 +79,33 @@ public class OrganizationService {
 
     /**
      * 初始化组织数据
+     * 预先加载默认租户的组织模型分片，其他租户在首次使用时加载
      */
     public void initOrganizations() {
-        // 从数据库加载组织数据
-        List<Organization> orgList = databaseDataLoader.loadOrganizations(tenantCode);
-        for (Organization org : orgList) {
-            addOrganization(org);
-        }
+        // 组织数据重新加载后同步重建评分快照（含组织模型分片）和关键词自动机
+        OrganizationScoringSnapshot snapshot = organizationScoringSnapshotService.refresh(tenantCode);
+        keywordMatcherService.refresh(tenantCode);
 
-        log.info("已初始化 {} 个组织数据", organizations.size());
+        log.info("已初始化 {} 个组织数据", snapshot.getOrganizationShard().getOrganizations().size());
     }
 
     /**
-     * 添加组织
+     * 获取租户的组织模型分片，首次访问时加载
      *
-     * @param organization 组织对象
+     * @param tenantCode 租户代码，为空时使用默认租户
+     * @return 组织模型分片
      */
-    public void addOrganization(Organization organization) {
-        organizations.put(organization.getOrgId(), organization);
-
-        // 更新主管领导到组织的映射
-        String mainLeaderAccount = organization.getMainLeaderAccount();
-        if (mainLeaderAccount != null && !mainLeaderAccount.isEmpty()) {
-            mainLeaderOrgMap.computeIfAbsent(mainLeaderAccount, k -> new ArrayList<>()).add(organization.getOrgId());
-        }
-
-        // 更新分管领导到组织的映射
-        List<String> deputyLeaderAccounts = organization.getDeputyLeaderAccounts();
-        if (deputyLeaderAccounts != null) {
-            for (String deputyLeaderAccount : deputyLeaderAccounts) {
-                if (deputyLeaderAccount != null && !deputyLeaderAccount.isEmpty()) {
-                    deputyLeaderOrgMap.computeIfAbsent(deputyLeaderAccount, k -> new ArrayList<>())
-                            .add(organization.getOrgId());
-                }
-            }
-        }
+    public OrganizationShard getShard(String tenantCode) {
+        return organizationScoringSnapshotService.getSnapshot(tenantCode).getOrganizationShard();
+    }
 
-        // 更新上级领导到组织的映射
-        String superiorLeaderAccount = organization.getSuperiorLeaderAccount();
-        if (superiorLeaderAccount != null && !superiorLeaderAccount.isEmpty()) {
-            superiorLeaderOrgMap.computeIfAbsent(superiorLeaderAccount, k -> new ArrayList<>())
-                    .add(organization.getOrgId());
-        }
+    /**
+     * 获取当前租户的组织模型分片
+     *
+     * @return 组织模型分片
+     */
+    private OrganizationShard currentShard() {
+        return getShard(TenantContext.getCurrentTenant());
     }
 
     /**
@@ -128,7 +115,18 @@ public class OrganizationService {
      * @return 组织对象
      */
     public Organization getOrganizationById(String orgId) {
-        return organizations.get(orgId);
+        return currentShard().getOrganization(orgId);
+    }
+
+    /**
+     * 根据租户代码和组织ID获取组织
+     *
+     * @param tenantCode 租户代码
+     * @param orgId      组织ID
+     * @return 组织对象
+     */
+    public Organization getOrganizationById(String tenantCode, String orgId) {
+        return getShard(tenantCode).getOrganization(orgId);
     }
 
     /**
@@ -138,7 +136,7 @@ public class OrganizationService {
      * @return 主管领导账号
      */
     public String getMainLeaderAccountByOrgId(String orgId) {
-        Organization org = organizations.get(orgId);
+        Organization org = getOrganizationById(orgId);
         return org != null ? org.getMainLeaderAccount() : null;
     }
 
@@ -149,7 +147,7 @@ public class OrganizationService {
      * @return 分管领导账号列表
      */
     public List<String> getDeputyLeaderAccountsByOrgId(String orgId) {
-        Organization org = organizations.get(orgId);
+        Organization org = getOrganizationById(orgId);
         return org != null ? org.getDeputyLeaderAccounts() : new ArrayList<>();
     }
 
@@ -160,7 +158,7 @@ public class OrganizationService {
      * @return 上级领导账号
      */
     public String getSuperiorLeaderAccountByOrgId(String orgId) {
-        Organization org = organizations.get(orgId);
+        Organization org = getOrganizationById(orgId);
         return org != null ? org.getSuperiorLeaderAccount() : null;
     }
 
@@ -171,9 +169,10 @@ public class OrganizationService {
      * @return 上级组织
      */
     public Organization getParentOrganization(String orgId) {
-        Organization org = getOrganizationById(orgId);
+        OrganizationShard shard = currentShard();
+        Organization org = shard.getOrganization(orgId);
         if (org != null && org.getParentOrgId() != null) {
-            return getOrganizationById(org.getParentOrgId());
+            return shard.getOrganization(org.getParentOrgId());
         }
         return null;
     }
@@ -185,7 +184,7 @@ public class OrganizationService {
      * @return 组织ID列表
      */
     public List<String> getOrgIdsAsMainLeader(String leaderAccount) {
-        return mainLeaderOrgMap.getOrDefault(leaderAccount, new ArrayList<>());
+        return new ArrayList<>(currentShard().getOrgIdsAsMainLeader(leaderAccount));
     }
 
     /**
@@ -195,7 +194,7 @@ public class OrganizationService {
      * @return 组织ID列表
      */
     public List<String> getOrgIdsAsDeputyLeader(String leaderAccount) {
-        return deputyLeaderOrgMap.getOrDefault(leaderAccount, new ArrayList<>());
+        return new ArrayList<>(currentShard().getOrgIdsAsDeputyLeader(leaderAccount));
     }
 
     /**
@@ -205,7 +204,7 @@ public class OrganizationService {
      * @return 组织ID列表
      */
     public List<String> getOrgIdsAsSuperiorLeader(String leaderAccount) {
-        return superiorLeaderOrgMap.getOrDefault(leaderAccount, new ArrayList<>());
+        return new ArrayList<>(currentShard().getOrgIdsAsSuperiorLeader(leaderAccount));
     }
 
     /**
@@ -215,15 +214,8 @@ public class OrganizationService {
      * @return 领导作为主管的组织列表
      */
     public List<Organization> getOrganizationsAsMainLeader(String leaderAccount) {
-        List<Organization> result = new ArrayList<>();
-        List<String> orgIds = getOrgIdsAsMainLeader(leaderAccount);
-        for (String orgId : orgIds) {
-            Organization org = getOrganizationById(orgId);
-            if (org != null) {
-                result.add(org);
-            }
-        }
-        return result;
+        OrganizationShard shard = currentShard();
+        return resolveOrganizations(shard, shard.getOrgIdsAsMainLeader(leaderAccount));
     }
 
     /**
@@ -233,15 +225,18 @@ public class OrganizationService {
      * @return 领导作为分管的组织列表
      */
     public List<Organization> getOrganizationsAsDeputyLeader(String leaderAccount) {
-        List<Organization> result = new ArrayList<>();
-        List<String> orgIds = getOrgIdsAsDeputyLeader(leaderAccount);
-        for (String orgId : orgIds) {
-            Organization org = getOrganizationById(orgId);
-            if (org != null) {
-                result.add(org);
-            }
-        }
-        return result;
+        return getOrganizationsAsDeputyLeader(currentShard(), leaderAccount);
+    }
+
+    /**
+     * 获取领导在指定分片中作为分管的所有组织
+     *
+     * @param shard         组织模型分片
+     * @param leaderAccount 领导账号
+     * @return 领导作为分管的组织列表
+     */
+    private List<Organization> getOrganizationsAsDeputyLeader(OrganizationShard shard, String leaderAccount) {
+        return resolveOrganizations(shard, shard.getOrgIdsAsDeputyLeader(leaderAccount));
     }
 
     /**
@@ -251,10 +246,21 @@ public class OrganizationService {
      * @return 领导作为上级领导的组织列表
      */
     public List<Organization> getOrganizationsAsSuperiorLeader(String leaderAccount) {
+        OrganizationShard shard = currentShard();
+        return resolveOrganizations(shard, shard.getOrgIdsAsSuperiorLeader(leaderAccount));
+    }
+
+    /**
+     * 将组织ID列表解析为分片中的组织列表，忽略不存在的组织
+     *
+     * @param shard  组织模型分片
+     * @param orgIds 组织ID列表
+     * @return 组织列表
+     */
+    private List<Organization> resolveOrganizations(OrganizationShard shard, List<String> orgIds) {
         List<Organization> result = new ArrayList<>();
-        List<String> orgIds = getOrgIdsAsSuperiorLeader(leaderAccount);
         for (String orgId : orgIds) {
-            Organization org = getOrganizationById(orgId);
+            Organization org = shard.getOrganization(orgId);
             if (org != null) {
                 result.add(org);
             }
@@ -319,7 +325,17 @@ public class OrganizationService {
      * @return 所有组织的列表
      */
     public List<Organization> getAllOrganizations() {
-        return new ArrayList<>(organizations.values());
+        return new ArrayList<>(currentShard().getOrganizations().values());
+    }
+
+    /**
+     * 获取租户的所有组织
+     *
+     * @param tenantCode 租户代码
+     * @return 所有组织的列表
+     */
+    public List<Organization> getAllOrganizations(String tenantCode) {
+        return new ArrayList<>(getShard(tenantCode).getOrganizations().values());
     }
 
     /**
@@ -328,7 +344,7 @@ public class OrganizationService {
      * @return 所有主管领导账号的列表
      */
     public List<String> getAllMainLeaderAccounts() {
-        return new ArrayList<>(mainLeaderOrgMap.keySet());
+        return new ArrayList<>(currentShard().getMainLeaderOrgMap().keySet());
     }
 
     /**
@@ -337,7 +353,7 @@ public class OrganizationService {
      * @return 所有分管领导账号的列表
      */
     public List<String> getAllDeputyLeaderAccounts() {
-        return new ArrayList<>(deputyLeaderOrgMap.keySet());
+        return new ArrayList<>(currentShard().getDeputyLeaderOrgMap().keySet());
     }
 
     /**
@@ -346,7 +362,7 @@ public class OrganizationService {
      * @return 所有上级领导账号的列表
      */
     public List<String> getAllSuperiorLeaderAccounts() {
-        return new ArrayList<>(superiorLeaderOrgMap.keySet());
+        return new ArrayList<>(currentShard().getSuperiorLeaderOrgMap().keySet());
     }
 
     /**
@@ -371,12 +387,44 @@ public class OrganizationService {
      * @throws java.io.IOException 如果初始化分词器或同义词表失败
      */
     public String findBestDeputyLeaderByTaskTitle(Organization org, String taskTitle) throws java.io.IOException {
-        if (taskTitle == null || taskTitle.isEmpty() ||
+        if (taskTitle == null || taskTitle.isEmpty()) {
+            return null;
+        }
+        return findBestDeputyLeaderByTaskTitle(org, queryAnalysisService.analyze(tenantCode, taskTitle));
+    }
+
+    /**
+     * 根据已分析的任务标题找到最合适的分管领导
+     * 使用当前租户的组织模型分片和评分快照
+     *
+     * @param org   组织
+     * @param query 已分析的任务标题
+     * @return 最合适的分管领导账号
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public String findBestDeputyLeaderByTaskTitle(Organization org, AnalyzedQuery query) throws java.io.IOException {
+        return findBestDeputyLeaderByTaskTitle(TenantContext.getCurrentTenant(), org, query);
+    }
+
+    /**
+     * 根据已分析的任务标题在租户内找到最合适的分管领导
+     *
+     * @param tenantCode 租户代码
+     * @param org        组织
+     * @param query      已分析的任务标题
+     * @return 最合适的分管领导账号
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public String findBestDeputyLeaderByTaskTitle(String tenantCode, Organization org, AnalyzedQuery query)
+            throws java.io.IOException {
+        if (query.isEmpty() ||
                 org.getDeputyLeaderAccounts() == null || org.getDeputyLeaderAccounts().isEmpty() ||
                 leaderService == null) {
             return null;
         }
 
+        OrganizationScoringSnapshot snapshot = getScoringSnapshot(tenantCode);
+        OrganizationShard shard = snapshot.getOrganizationShard();
         String bestLeaderAccount = null;
         double bestScore = 0.0;
 
@@ -388,13 +436,13 @@ public class OrganizationService {
             }
 
             // 计算该领导负责的领域与任务标题的匹配度
-            double personalScore = leaderService.calculateDomainMatchScore(leader, taskTitle);
+            double personalScore = leaderService.calculateDomainMatchScore(leader, query);
 
             // 计算该领导所在组织与任务标题的匹配度
             double organizationScore = 0.0;
-            List<Organization> leaderOrgs = getOrganizationsAsDeputyLeader(leaderAccount);
+            List<Organization> leaderOrgs = getOrganizationsAsDeputyLeader(shard, leaderAccount);
             for (Organization leaderOrg : leaderOrgs) {
-                double orgScore = calculateOrganizationMatchScore(leaderOrg, taskTitle);
+                double orgScore = calculateOrganizationMatchScore(snapshot, leaderOrg, query);
                 organizationScore = Math.max(organizationScore, orgScore);
             }
 
@@ -462,8 +510,19 @@ public class OrganizationService {
         return domain;
     }
 
+    /**
+     * 获取租户的组织评分快照
+     *
+     * @param tenantCode 租户代码
+     * @return 组织评分快照
+     */
+    public OrganizationScoringSnapshot getScoringSnapshot(String tenantCode) {
+        return organizationScoringSnapshotService.getSnapshot(tenantCode);
+    }
+
     /**
      * 计算组织与任务标题的匹配度
+     * 使用默认租户的组织评分快照
      *
      * @param organization 组织
      * @param taskTitle    任务标题
@@ -471,6 +530,97 @@ public class OrganizationService {
      */
     public double calculateOrganizationMatchScore(Organization organization, String taskTitle)
             throws java.io.IOException {
+        return calculateOrganizationMatchScore(getScoringSnapshot(tenantCode), organization, taskTitle);
+    }
+
+    /**
+     * 计算组织与已分析任务标题的匹配度
+     * 使用默认租户的组织评分快照
+     *
+     * @param organization 组织
+     * @param query        已分析的任务标题
+     * @return 匹配度分数
+     */
+    public double calculateOrganizationMatchScore(Organization organization, AnalyzedQuery query) {
+        return calculateOrganizationMatchScore(getScoringSnapshot(tenantCode), organization, query);
+    }
+
+    /**
+     * 计算任务标题与快照中所有职责领域的匹配度
+     * 通过关键词倒排索引只计算有命中的领域，未包含的领域匹配度为0
+     *
+     * @param snapshot  组织评分快照
+     * @param taskTitle 任务标题
+     * @return 领域ID到匹配度的映射
+     */
+    public Map<String, Double> calculateDomainMatchScores(OrganizationScoringSnapshot snapshot, String taskTitle) {
+        return calculateDomainMatchScores(snapshot, queryAnalysisService.analyze(snapshot.getTenantCode(), taskTitle));
+    }
+
+    /**
+     * 计算已分析任务标题与快照中所有职责领域的匹配度
+     * 复用查询中的分词和关键词命中结果，同一查询对同一快照只计算一次
+     *
+     * @param snapshot 组织评分快照
+     * @param query    已分析的任务标题
+     * @return 领域ID到匹配度的映射（只读）
+     */
+    public Map<String, Double> calculateDomainMatchScores(OrganizationScoringSnapshot snapshot, AnalyzedQuery query) {
+        Map<String, Double> domainScores = snapshot.getDomainKeywordIndex().calculateMatchScores(query);
+        if (appConfig.isAlgorithmDomainIndexVerify()) {
+            snapshot.getDomainKeywordIndex().verify(query.getText(), domainScores);
+        }
+        return domainScores;
+    }
+
+    /**
+     * 计算组织与任务标题的匹配度
+     * 组织关联的领域、权重及领域模型均取自评分快照，不访问数据库
+     *
+     * @param snapshot     组织评分快照
+     * @param organization 组织
+     * @param taskTitle    任务标题
+     * @return 匹配度分数
+     */
+    public double calculateOrganizationMatchScore(OrganizationScoringSnapshot snapshot, Organization organization,
+            String taskTitle) throws java.io.IOException {
+        if (organization == null || taskTitle == null || taskTitle.isEmpty()) {
+            return 0.0;
+        }
+        return calculateOrganizationMatchScore(snapshot, organization,
+                queryAnalysisService.analyze(snapshot.getTenantCode(), taskTitle));
+    }
+
+    /**
+     * 计算组织与已分析任务标题的匹配度
+     *
+     * @param snapshot     组织评分快照
+     * @param organization 组织
+     * @param query        已分析的任务标题
+     * @return 匹配度分数
+     */
+    public double calculateOrganizationMatchScore(OrganizationScoringSnapshot snapshot, Organization organization,
+            AnalyzedQuery query) {
+        if (organization == null || query.isEmpty()) {
+            return 0.0;
+        }
+        return calculateOrganizationMatchScore(snapshot, organization, query.getKeywordHits(),
+                calculateDomainMatchScores(snapshot, query));
+    }
+
+    /**
+     * 计算组织与任务标题的匹配度
+     * 使用预先计算好的关键词命中结果和领域匹配度，适用于同一请求内对多个组织评分
+     *
+     * @param snapshot     组织评分快照
+     * @param organization 组织
+     * @param hits         任务标题的关键词命中结果
+     * @param domainScores 领域ID到匹配度的映射
+     * @return 匹配度分数
+     */
+    public double calculateOrganizationMatchScore(OrganizationScoringSnapshot snapshot, Organization organization,
+            KeywordHits hits, Map<String, Double> domainScores) {
+        String taskTitle = hits.getText();
         if (organization == null || taskTitle == null || taskTitle.isEmpty()) {
             return 0.0;
         }
@@ -478,8 +628,7 @@ public class OrganizationService {
         // 1. 基于组织关键词的匹配
         double keywordMatchScore = 0.0;
         if (organization.getKeywords() != null && !organization.getKeywords().isEmpty()) {
-            // 这里可以实现关键词匹配算法，或者调用现有的匹配方法
-            // 简单实现：检查任务标题是否包含组织关键词
+            // 检查任务标题是否包含组织关键词，直接复用多模式匹配结果
             for (int i = 0; i < organization.getKeywords().size(); i++) {
                 String keyword = organization.getKeywords().get(i);
                 double weight = (organization.getKeywordWeights() != null
@@ -487,7 +636,7 @@ public class OrganizationService {
                                 ? organization.getKeywordWeights().get(i)
                                 : 1.0;
 
-                if (taskTitle.contains(keyword)) {
+                if (hits.contains(keyword)) {
                     keywordMatchScore += weight;
                 }
             }
@@ -500,16 +649,13 @@ public class OrganizationService {
 
         // 2. 基于组织关联的职责领域的匹配
         double domainMatchScore = 0.0;
-        List<String> domainIds = getOrganizationDomainIds(organization.getOrgId());
-        if (domainIds != null && !domainIds.isEmpty()) {
-            for (String domainId : domainIds) {
-                ResponsibilityDomain domain = getDomainById(domainId);
-                if (domain != null) {
-                    double score = domain.calculateMatchScore(taskTitle);
-                    // 获取该组织-领域的权重
-                    double weight = getOrganizationDomainWeight(organization.getOrgId(), domainId);
-                    domainMatchScore = Math.max(domainMatchScore, score * weight);
-                }
+        List<String> domainIds = snapshot.getDomainIds(organization.getOrgId());
+        for (String domainId : domainIds) {
+            if (snapshot.getDomain(domainId) != null) {
+                double score = domainScores.getOrDefault(domainId, 0.0);
+                // 获取该组织-领域的权重
+                double weight = snapshot.getDomainWeight(organization.getOrgId(), domainId);
+                domainMatchScore = Math.max(domainMatchScore, score * weight);
             }
         }
 
@@ -595,11 +741,8 @@ public class OrganizationService {
      * @param organization 组织实体
      * @return 创建后的组织实体
      */
-    @Transactional
     public OrganizationEntity createOrganization(OrganizationEntity organization) {
-        organization.setCreateTime(new Date());
-        organization.setUpdateTime(new Date());
-        return organizationRepository.save(organization);
+        return organizationEntityService.createOrganization(organization);
     }
 
     /**
@@ -608,10 +751,8 @@ public class OrganizationService {
      * @param organization 组织实体
      * @return 更新后的组织实体
      */
-    @Transactional
     public OrganizationEntity updateOrganization(OrganizationEntity organization) {
-        organization.setUpdateTime(new Date());
-        return organizationRepository.save(organization);
+        return organizationEntityService.updateOrganization(organization);
     }
 
     /**
@@ -619,9 +760,8 @@ public class OrganizationService {
      *
      * @param id 组织ID
      */
-    @Transactional
     public void deleteOrganization(Long id) {
-        organizationRepository.deleteById(id);
+        organizationEntityService.deleteOrganization(id);
     }
 
     /**
@@ -0,0 +1,86 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.jfr.TokenizeBatchEvent;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.KeywordHits;
+import com.simbest.boot.suggest.model.TextFeatures;
+
+/**
+ * 查询分析服务
+ * 对任务标题做一次分词、同义词扩展和关键词多模式匹配，生成在整个推荐请求内共享的已分析查询
+ */
+@Service
+public class QueryAnalysisService {
+
+    @Autowired
+    private KeywordMatcherService keywordMatcherService;
+
+    /**
+     * 分析任务标题
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户的关键词
+     * @param taskTitle  任务标题
+     * @return 已分析的查询
+     */
+    public AnalyzedQuery analyze(String tenantCode, String taskTitle) {
+        return new AnalyzedQuery(tenantCode, TextFeatures.of(taskTitle),
+                keywordMatcherService.match(tenantCode, taskTitle));
+    }
+
+    /**
+     * 批量分析任务标题
+     * 全部标题使用同一个关键词自动机扫描，相同的标题只分析一次并共享分析结果
+     *
+     * @param tenantCode 租户代码，为空时使用默认租户的关键词
+     * @param taskTitles 任务标题列表
+     * @return 与输入顺序一致的已分析查询列表
+     */
+    public List<AnalyzedQuery> analyzeAll(String tenantCode, List<String> taskTitles) {
+        List<String> distinctTitles = new ArrayList<>();
+        Map<String, Integer> titleIndexes = new HashMap<>();
+        for (String taskTitle : taskTitles) {
+            if (titleIndexes.putIfAbsent(taskTitle, distinctTitles.size()) == null) {
+                distinctTitles.add(taskTitle);
+            }
+        }
+
+        TokenizeBatchEvent event = new TokenizeBatchEvent();
+        event.begin();
+        List<KeywordHits> hits = keywordMatcherService.matchAll(tenantCode, distinctTitles);
+        List<AnalyzedQuery> distinctQueries = new ArrayList<>(distinctTitles.size());
+        for (int i = 0; i < distinctTitles.size(); i++) {
+            distinctQueries.add(new AnalyzedQuery(tenantCode, TextFeatures.of(distinctTitles.get(i)), hits.get(i)));
+        }
+        if (event.shouldCommit()) {
+            event.setSource(TokenizeBatchEvent.SOURCE_QUERY_BATCH);
+            event.setTenant(tenantCode);
+            event.setTexts(distinctTitles.size());
+            event.setCharacters(totalLength(distinctTitles));
+            event.commit();
+        }
+
+        List<AnalyzedQuery> result = new ArrayList<>(taskTitles.size());
+        for (String taskTitle : taskTitles) {
+            result.add(distinctQueries.get(titleIndexes.get(taskTitle)));
+        }
+        return result;
+    }
+
+    private static long totalLength(List<String> texts) {
+        long length = 0;
+        for (String text : texts) {
+            if (text != null) {
+                length += text.length();
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,357 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.config.DefaultValueConstants;
+import com.simbest.boot.suggest.model.RecommendationResult;
+import com.simbest.boot.suggest.model.RecommendationType;
+import com.simbest.boot.suggest.model.WorkflowDirection;
+import com.simbest.boot.suggest.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 推荐结果缓存服务
+ * 按（租户、规范化任务标题、办理人、组织、工作流方向、候选账号集合、推荐类型）缓存推荐结果。
+ * 缓存条目按缓存键哈希分段，每段是由各自的锁保护的按访问顺序排列的映射，读写只锁定所在分段，
+ * 并发请求不在同一把锁上排队；每段容量为条目数上限除以分段数，超过容量时淘汰该段最久未使用的条目。
+ * 每个条目记录计算开始时的数据版本，组织、领导、职责领域、同义词、配置或历史批复等数据变更时递增租户（或全局）数据版本，
+ * 版本不一致的条目不会被返回。
+ * 缓存的推荐结果为多个请求共享的实例，调用方不得修改。
+ * 条目同时保存计算该结果时执行过的记录（如任务模式匹配次数），每次命中时重放，使命中与重新计算的副作用一致。
+ */
+@Service
+@Slf4j
+public class RecommendationCacheService {
+
+    private final Map<String, AtomicLong> tenantVersions = new ConcurrentHashMap<>(); // 租户代码到数据版本的映射
+    private final AtomicLong globalVersion = new AtomicLong(); // 全局数据版本，数据变更无法确定所属租户时递增
+    private Segment[] segments; // 按缓存键哈希分段的缓存条目
+
+    private final AtomicLong hits = new AtomicLong(); // 命中次数
+    private final AtomicLong misses = new AtomicLong(); // 未命中次数
+    private final AtomicLong staleMisses = new AtomicLong(); // 因数据版本变化而未命中的次数
+    private final AtomicLong evictions = new AtomicLong(); // 因容量淘汰的条目数
+
+    @Autowired
+    private AppConfig appConfig;
+
+    /**
+     * 创建缓存分段，分段数不超过条目数上限，使各段容量之和不超过上限
+     */
+    @PostConstruct
+    public void init() {
+        int maxEntries = Math.max(1, appConfig.getRecommendationCacheMaxEntries());
+        segments = new Segment[Math.max(1, Math.min(appConfig.getRecommendationCacheStripes(), maxEntries))];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * 是否启用推荐结果缓存
+     */
+    public boolean isEnabled() {
+        return appConfig.isRecommendationCacheEnabled();
+    }
+
+    /**
+     * 创建缓存键
+     *
+     * @param tenantCode         租户编码
+     * @param taskTitle          规范化后的任务标题
+     * @param userAccount        当前办理人账号
+     * @param orgId              当前办理人组织ID
+     * @param workflowDirection  工作流方向
+     * @param candidateAccounts  候选账号列表，顺序和重复项不影响缓存键
+     * @param recommendationType 推荐类型
+     * @return 缓存键
+     */
+    public static CacheKey key(String tenantCode, String taskTitle, String userAccount, String orgId,
+            WorkflowDirection workflowDirection, String[] candidateAccounts, RecommendationType recommendationType) {
+        String[] candidates = null;
+        if (candidateAccounts != null && candidateAccounts.length > 0) {
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String candidateAccount : candidateAccounts) {
+                sorted.add(candidateAccount != null ? candidateAccount : "");
+            }
+            candidates = sorted.toArray(new String[0]);
+        }
+        return new CacheKey(tenantCode, taskTitle, userAccount, orgId, workflowDirection, candidates,
+                recommendationType);
+    }
+
+    /**
+     * 规范化任务标题：去除首尾空白，并将连续空白合并为一个空格
+     *
+     * @param taskTitle 任务标题
+     * @return 规范化后的任务标题
+     */
+    public static String normalizeTitle(String taskTitle) {
+        return taskTitle == null ? null : taskTitle.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * 获取租户当前的数据版本，应在开始计算推荐结果之前读取
+     *
+     * @param tenantCode 租户编码
+     * @return 数据版本
+     */
+    public DataVersion currentVersion(String tenantCode) {
+        return new DataVersion(globalVersion.get(), tenantVersion(tenantCode).get());
+    }
+
+    /**
+     * 读取缓存的推荐结果
+     *
+     * @param key 缓存键
+     * @return 推荐结果，未命中或数据版本已变化时返回null；命中时先重放条目保存的记录
+     */
+    public RecommendationResult get(CacheKey key) {
+        DataVersion version = currentVersion(key.tenantCode);
+        Segment segment = segmentOf(key);
+        CacheEntry entry;
+        synchronized (segment) {
+            entry = segment.entries.get(key);
+            if (entry != null && !entry.version.equals(version)) {
+                segment.entries.remove(key);
+                staleMisses.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        for (Runnable recordedUpdate : entry.recordedUpdates) {
+            recordedUpdate.run();
+        }
+        return entry.result;
+    }
+
+    /**
+     * 缓存推荐结果及计算该结果时执行过的记录
+     *
+     * @param key             缓存键
+     * @param version         开始计算推荐结果之前读取的数据版本
+     * @param result          推荐结果
+     * @param recordedUpdates 计算该结果时执行过的记录，每次命中时重放，必须可重复执行
+     */
+    public void put(CacheKey key, DataVersion version, RecommendationResult result,
+            List<Runnable> recordedUpdates) {
+        // 计算期间数据已变化时不缓存
+        if (!version.equals(currentVersion(key.tenantCode))) {
+            return;
+        }
+        int capacity = Math.max(1, appConfig.getRecommendationCacheMaxEntries() / segments.length);
+        CacheEntry entry = new CacheEntry(version, result, recordedUpdates);
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            segment.entries.put(key, entry);
+            while (segment.entries.size() > capacity) {
+                segment.entries.remove(segment.entries.keySet().iterator().next());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 租户数据变更，使该租户的缓存条目失效
+     * 版本在调用时和事务提交后各递增一次，提交前按旧数据计算的结果因版本不一致不会被缓存
+     *
+     * @param tenantCode 租户编码，为空时使全部缓存失效
+     */
+    public void invalidateTenant(String tenantCode) {
+        if (tenantCode == null || tenantCode.isEmpty()) {
+            invalidateAll();
+            return;
+        }
+        AtomicLong version = tenantVersion(tenantCode);
+        TransactionUtil.invalidateNowAndAfterCommit(version::incrementAndGet);
+    }
+
+    /**
+     * 无法确定变更所属租户的数据变更，使全部缓存条目失效
+     */
+    public void invalidateAll() {
+        TransactionUtil.invalidateNowAndAfterCommit(globalVersion::incrementAndGet);
+    }
+
+    /**
+     * 获取累计命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * 获取累计未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 获取当前缓存条目数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("size", size());
+        stats.put("segments", segments.length);
+        stats.put("maxEntries", appConfig.getRecommendationCacheMaxEntries());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("staleMisses", staleMisses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("missRate", total > 0 ? (double) missCount / total : 0.0);
+        stats.put("globalVersion", globalVersion.get());
+        return stats;
+    }
+
+    private Segment segmentOf(CacheKey key) {
+        int h = key.hash;
+        return segments[Math.floorMod(h ^ (h >>> 16), segments.length)];
+    }
+
+    private AtomicLong tenantVersion(String tenantCode) {
+        String tenant = tenantCode != null && !tenantCode.isEmpty() ? tenantCode
+                : DefaultValueConstants.getDefaultTenantCode();
+        return tenantVersions.computeIfAbsent(tenant, k -> new AtomicLong());
+    }
+
+    /**
+     * 缓存键
+     */
+    public static final class CacheKey {
+        private final String tenantCode;
+        private final String taskTitle;
+        private final String userAccount;
+        private final String orgId;
+        private final WorkflowDirection workflowDirection;
+        private final String[] candidateAccounts;
+        private final RecommendationType recommendationType;
+        private final int hash;
+
+        private CacheKey(String tenantCode, String taskTitle, String userAccount, String orgId,
+                WorkflowDirection workflowDirection, String[] candidateAccounts,
+                RecommendationType recommendationType) {
+            this.tenantCode = tenantCode;
+            this.taskTitle = taskTitle;
+            this.userAccount = userAccount;
+            this.orgId = orgId;
+            this.workflowDirection = workflowDirection;
+            this.candidateAccounts = candidateAccounts;
+            this.recommendationType = recommendationType;
+            this.hash = Objects.hash(tenantCode, taskTitle, userAccount, orgId, workflowDirection,
+                    Arrays.hashCode(candidateAccounts), recommendationType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash
+                    && Objects.equals(tenantCode, other.tenantCode)
+                    && Objects.equals(taskTitle, other.taskTitle)
+                    && Objects.equals(userAccount, other.userAccount)
+                    && Objects.equals(orgId, other.orgId)
+                    && workflowDirection == other.workflowDirection
+                    && Arrays.equals(candidateAccounts, other.candidateAccounts)
+                    && recommendationType == other.recommendationType;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 数据版本
+     */
+    public static final class DataVersion {
+        private final long global;
+        private final long tenant;
+
+        private DataVersion(long global, long tenant) {
+            this.global = global;
+            this.tenant = tenant;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DataVersion)) {
+                return false;
+            }
+            DataVersion other = (DataVersion) o;
+            return global == other.global && tenant == other.tenant;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(global, tenant);
+        }
+    }
+
+    /**
+     * 缓存分段，读写时以分段对象本身加锁
+     */
+    private static final class Segment {
+        private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true); // 按访问顺序排列的缓存条目
+    }
+
+    private static final class CacheEntry {
+        private final DataVersion version;
+        private final RecommendationResult result;
+        private final List<Runnable> recordedUpdates; // 计算该结果时执行过的记录
+
+        private CacheEntry(DataVersion version, RecommendationResult result, List<Runnable> recordedUpdates) {
+            this.version = version;
+            this.result = result;
+            this.recordedUpdates = recordedUpdates.isEmpty() ? Collections.emptyList()
+                    : Collections.unmodifiableList(new ArrayList<>(recordedUpdates));
+        }
+    }
+}
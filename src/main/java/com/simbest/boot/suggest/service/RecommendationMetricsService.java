@@ -0,0 +1,230 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.model.RecommendationType;
+import com.simbest.boot.suggest.model.WorkflowDirection;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 推荐指标服务
+ * 通过Micrometer记录推荐请求和各推荐策略的耗时、结果、胜出策略、候选集大小和评分行数，以及推荐结果缓存的命中情况，
+ * 由Actuator的 /actuator/metrics 端点暴露。
+ * 耗时和分布指标只带工作流方向、策略等取值有限的标签，不带租户标签，避免每个租户各自生成一组百分位数和直方图桶；
+ * 按租户的请求数、缓存命中情况和胜出策略通过计数器记录。
+ * 百分位数和直方图通过 management.metrics.distribution.* 按指标名前缀 suggest.recommendation 配置。
+ * 只依赖指标注册表、配置和推荐结果缓存服务，避免与推荐相关服务形成循环依赖。
+ */
+@Service
+public class RecommendationMetricsService {
+
+    // 推荐策略名称
+    public static final String STRATEGY_ORG_DOMAIN = "org-domain"; // 组织-领域关联
+    public static final String STRATEGY_MULTIPLE = "multiple"; // 多选推荐
+    public static final String STRATEGY_MULTIPLE_SIMILARITY = "multiple-similarity"; // 多选文本相似度
+    public static final String STRATEGY_ORG_RELATION = "org-relation"; // 组织关系
+    public static final String STRATEGY_HISTORY = "history"; // 历史批复（任务模式和直接匹配）
+    public static final String STRATEGY_HISTORY_PATTERN = "history-pattern"; // 历史批复任务模式匹配
+    public static final String STRATEGY_HISTORY_DIRECT = "history-direct"; // 历史批复直接匹配
+    public static final String STRATEGY_ORG_KEYWORD = "org-keyword"; // 组织关键字
+    public static final String STRATEGY_RESPONSIBILITY_DOMAIN = "responsibility-domain"; // 职责领域
+    public static final String STRATEGY_TEXT_SIMILARITY = "text-similarity"; // 文本相似度
+    public static final String STRATEGY_BEST_OF_MULTIPLE = "best-of-multiple"; // 从多选结果中选择
+    public static final String STRATEGY_HISTORY_FALLBACK = "history-fallback"; // 兜底的历史数据推荐
+    public static final String STRATEGY_NONE = "none"; // 没有策略找到结果
+
+    // 策略执行结果
+    public static final String OUTCOME_MATCHED = "matched"; // 找到结果
+    public static final String OUTCOME_EMPTY = "empty"; // 未找到结果
+    public static final String OUTCOME_ERROR = "error"; // 执行异常
+
+    // 推荐结果缓存查询结果
+    public static final String CACHE_HIT = "hit"; // 命中
+    public static final String CACHE_MISS = "miss"; // 未命中
+    public static final String CACHE_DISABLED = "disabled"; // 未启用缓存
+
+    private static final String METRIC_REQUEST = "suggest.recommendation.request";
+    private static final String METRIC_REQUESTS = "suggest.recommendation.requests";
+    private static final String METRIC_STRATEGY = "suggest.recommendation.strategy";
+    private static final String METRIC_HISTORY = "suggest.recommendation.history";
+    private static final String METRIC_WINNER = "suggest.recommendation.winner";
+    private static final String METRIC_CANDIDATES = "suggest.recommendation.candidates";
+    private static final String METRIC_ROWS_SCORED = "suggest.recommendation.rows.scored";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
+    /**
+     * 注册推荐结果缓存的命中次数、未命中次数、命中率和条目数
+     */
+    @PostConstruct
+    public void bindCacheMetrics() {
+        FunctionCounter.builder("suggest.recommendation.cache.hits", recommendationCacheService,
+                RecommendationCacheService::getHitCount)
+                .description("推荐结果缓存累计命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("suggest.recommendation.cache.misses", recommendationCacheService,
+                RecommendationCacheService::getMissCount)
+                .description("推荐结果缓存累计未命中次数")
+                .register(meterRegistry);
+        Gauge.builder("suggest.recommendation.cache.hit.ratio", recommendationCacheService,
+                RecommendationMetricsService::hitRatio)
+                .description("推荐结果缓存累计命中率")
+                .register(meterRegistry);
+        Gauge.builder("suggest.recommendation.cache.size", recommendationCacheService,
+                RecommendationCacheService::size)
+                .description("推荐结果缓存条目数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 是否记录推荐指标
+     */
+    public boolean isEnabled() {
+        return appConfig.isRecommendationMetricsEnabled();
+    }
+
+    /**
+     * 记录一次推荐请求
+     *
+     * @param tenantCode         租户编码
+     * @param workflowDirection  工作流方向
+     * @param recommendationType 推荐类型
+     * @param cacheResult        缓存查询结果：hit、miss或disabled
+     * @param outcome            推荐结果：matched或empty
+     * @param nanos              耗时（纳秒）
+     */
+    public void recordRequest(String tenantCode, WorkflowDirection workflowDirection,
+            RecommendationType recommendationType, String cacheResult, String outcome, long nanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        Timer.builder(METRIC_REQUEST)
+                .description("推荐请求耗时，cache标签区分缓存命中和未命中")
+                .tags("direction", tag(workflowDirection), "type", tag(recommendationType), "cache", cacheResult,
+                        "outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder(METRIC_REQUESTS)
+                .description("推荐请求次数，cache标签区分缓存命中和未命中，可据此计算各租户和方向的缓存命中率")
+                .tags("tenant", tag(tenantCode), "direction", tag(workflowDirection), "cache", cacheResult)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 记录一次推荐策略的执行
+     *
+     * @param strategy          推荐策略名称
+     * @param workflowDirection 工作流方向
+     * @param outcome           执行结果：matched、empty或error
+     * @param nanos             耗时（纳秒）
+     */
+    public void recordStrategy(String strategy, WorkflowDirection workflowDirection, String outcome, long nanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        Timer.builder(METRIC_STRATEGY)
+                .description("推荐策略耗时")
+                .tags("strategy", strategy, "direction", tag(workflowDirection), "outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录历史批复策略内部一条匹配路径（任务模式或直接匹配）的执行
+     *
+     * @param path              匹配路径：history-pattern或history-direct
+     * @param workflowDirection 工作流方向
+     * @param outcome           执行结果：matched、empty或error
+     * @param nanos             耗时（纳秒）
+     */
+    public void recordHistoryPath(String path, WorkflowDirection workflowDirection, String outcome, long nanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        Timer.builder(METRIC_HISTORY)
+                .description("历史批复策略各匹配路径耗时")
+                .tags("path", path, "direction", tag(workflowDirection), "outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录胜出的推荐策略
+     *
+     * @param strategy           胜出的推荐策略名称，没有策略找到结果时为none
+     * @param tenantCode         租户编码
+     * @param workflowDirection  工作流方向
+     * @param recommendationType 推荐类型
+     */
+    public void recordWinner(String strategy, String tenantCode, WorkflowDirection workflowDirection,
+            RecommendationType recommendationType) {
+        if (!isEnabled()) {
+            return;
+        }
+        Counter.builder(METRIC_WINNER)
+                .description("各推荐策略胜出次数")
+                .tags("strategy", strategy, "tenant", tag(tenantCode), "direction", tag(workflowDirection),
+                        "type", tag(recommendationType))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 记录推荐策略的候选集大小和评分行数
+     * 候选集为策略可选择的全部组织、领导、历史记录或任务模式，在过滤候选账号和索引剪枝之前统计；
+     * 评分行数为实际计算匹配度或相似度的行数，直接查找而不评分的策略为0
+     *
+     * @param strategy          推荐策略或历史批复匹配路径名称
+     * @param workflowDirection 工作流方向
+     * @param candidates        候选集大小
+     * @param rowsScored        计算评分的行数
+     */
+    public void recordScoring(String strategy, WorkflowDirection workflowDirection, int candidates,
+            int rowsScored) {
+        if (!isEnabled()) {
+            return;
+        }
+        DistributionSummary.builder(METRIC_CANDIDATES)
+                .description("推荐策略的候选集大小")
+                .baseUnit("rows")
+                .tags("strategy", strategy, "direction", tag(workflowDirection))
+                .register(meterRegistry)
+                .record(candidates);
+        DistributionSummary.builder(METRIC_ROWS_SCORED)
+                .description("推荐策略计算评分的行数")
+                .baseUnit("rows")
+                .tags("strategy", strategy, "direction", tag(workflowDirection))
+                .register(meterRegistry)
+                .record(rowsScored);
+    }
+
+    private static double hitRatio(RecommendationCacheService cache) {
+        long hits = cache.getHitCount();
+        long total = hits + cache.getMissCount();
+        return total > 0 ? (double) hits / total : 0.0;
+    }
+
+    private static String tag(Object value) {
+        return value != null && !value.toString().isEmpty() ? value.toString() : "none";
+    }
+}
@@ -7,17 +7,29 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import com.simbest.boot.suggest.config.AppConfig;
 import com.simbest.boot.suggest.config.DefaultValueConstants;
+import com.simbest.boot.suggest.config.TenantContext;
+import com.simbest.boot.suggest.jfr.RecommendationEvent;
+import com.simbest.boot.suggest.jfr.StrategyEvent;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.KeywordHits;
 import com.simbest.boot.suggest.model.Leader;
 import com.simbest.boot.suggest.model.LeaderDTO;
 import com.simbest.boot.suggest.model.Organization;
+import com.simbest.boot.suggest.model.OrganizationScoringSnapshot;
 import com.simbest.boot.suggest.model.RecommendationFeedback;
 import com.simbest.boot.suggest.model.RecommendationResult;
+import com.simbest.boot.suggest.model.RecommendationTrace;
 import com.simbest.boot.suggest.model.RecommendationType;
 import com.simbest.boot.suggest.model.WorkflowDirection;
 import com.simbest.boot.suggest.util.JsonUtil;
@@ -45,14 +57,27 @@ public class RecommendationService {
     private HistoricalMatchingService historicalMatchingService;
 
     @Autowired
-    private RecommendationFeedbackService recommendationFeedbackService;
+    private FeedbackWriteBehindService feedbackWriteBehindService; // 推荐反馈异步写入服务
 
     @Autowired
     private OrganizationKeywordMatchService organizationKeywordMatchService;
 
+    @Autowired
+    private QueryAnalysisService queryAnalysisService;
+
     @Autowired
     private AppConfig appConfig;
 
+    @Autowired
+    @Qualifier("recommendationStrategyExecutor")
+    private ExecutorService recommendationStrategyExecutor; // 推荐策略并行执行线程池
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
+    @Autowired
+    private RecommendationMetricsService recommendationMetricsService; // 推荐指标服务
+
     /**
      * 基于多策略融合的推荐方法
      *
@@ -74,6 +99,90 @@ public class RecommendationService {
             String[] candidateAccounts,
             String tenantCode,
             RecommendationType recommendationType) throws java.io.IOException {
+        return recommendLeader(currentUserAccount, currentUserOrgId,
+                queryAnalysisService.analyze(tenantCode, RecommendationCacheService.normalizeTitle(taskTitle)),
+                workflowDirection, candidateAccounts, tenantCode, recommendationType);
+    }
+
+    /**
+     * 基于多策略融合的推荐方法
+     * 任务标题只分析一次，分词、同义词扩展和关键词命中结果在各推荐策略之间共享
+     *
+     * @param currentUserAccount 当前办理人账号
+     * @param currentUserOrgId   当前办理人组织ID
+     * @param query              已分析的任务标题
+     * @param workflowDirection  工作流方向：向下指派(DOWNWARD)、向上请示(UPWARD)或同级协办(PARALLEL)
+     * @param candidateAccounts  候选账号列表，如果提供，则推荐结果必须在此列表中
+     * @param tenantCode         租户编码
+     * @param recommendationType 推荐类型：单选(SINGLE)或多选(MULTIPLE)
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public RecommendationResult recommendLeader(
+            String currentUserAccount,
+            String currentUserOrgId,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode,
+            RecommendationType recommendationType) throws java.io.IOException {
+        return recommendLeader(currentUserAccount, currentUserOrgId, query, workflowDirection, candidateAccounts,
+                tenantCode, recommendationType, true);
+    }
+
+    /**
+     * 基于多策略融合的推荐方法，可选择是否保存推荐反馈
+     *
+     * @param currentUserAccount 当前办理人账号
+     * @param currentUserOrgId   当前办理人组织ID
+     * @param query              已分析的任务标题
+     * @param workflowDirection  工作流方向：向下指派(DOWNWARD)、向上请示(UPWARD)或同级协办(PARALLEL)
+     * @param candidateAccounts  候选账号列表，如果提供，则推荐结果必须在此列表中
+     * @param tenantCode         租户编码
+     * @param recommendationType 推荐类型：单选(SINGLE)或多选(MULTIPLE)
+     * @param saveFeedback       是否保存推荐反馈
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public RecommendationResult recommendLeader(
+            String currentUserAccount,
+            String currentUserOrgId,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode,
+            RecommendationType recommendationType,
+            boolean saveFeedback) throws java.io.IOException {
+        return recommendLeader(currentUserAccount, currentUserOrgId, query, workflowDirection, candidateAccounts,
+                tenantCode, recommendationType, saveFeedback, null);
+    }
+
+    /**
+     * 基于多策略融合的推荐方法，可选择是否保存推荐反馈和记录执行轨迹
+     *
+     * @param currentUserAccount 当前办理人账号
+     * @param currentUserOrgId   当前办理人组织ID
+     * @param query              已分析的任务标题
+     * @param workflowDirection  工作流方向：向下指派(DOWNWARD)、向上请示(UPWARD)或同级协办(PARALLEL)
+     * @param candidateAccounts  候选账号列表，如果提供，则推荐结果必须在此列表中
+     * @param tenantCode         租户编码
+     * @param recommendationType 推荐类型：单选(SINGLE)或多选(MULTIPLE)
+     * @param saveFeedback       是否保存推荐反馈
+     * @param trace              执行轨迹，为null时不记录
+     * @return 推荐结果，不附带执行轨迹
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    public RecommendationResult recommendLeader(
+            String currentUserAccount,
+            String currentUserOrgId,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode,
+            RecommendationType recommendationType,
+            boolean saveFeedback,
+            RecommendationTrace trace) throws java.io.IOException {
+        String taskTitle = query.getText();
 
         log.debug("开始执行推荐服务，使用多策略融合方法");
         log.debug(
@@ -86,335 +195,608 @@ public class RecommendationService {
 
         log.debug("使用通用算法进行推荐，不使用硬编码测试用例判断");
 
-        // 根据推荐类型选择不同的处理逻辑
-        RecommendationResult result = null;
+        RecommendationEvent event = new RecommendationEvent();
+        event.begin();
+        long startTime = System.nanoTime();
 
-        // 首先尝试基于组织-领域关联的推荐
-        result = recommendBasedOnOrganizationDomains(
-                currentUserAccount,
-                currentUserOrgId,
-                taskTitle,
-                workflowDirection,
-                candidateAccounts,
-                tenantCode,
-                recommendationType);
+        // 读取推荐结果缓存
+        RecommendationCacheService.CacheKey cacheKey = null;
+        RecommendationCacheService.DataVersion dataVersion = null;
+        RecommendationResult result = null;
+        String cacheResult = RecommendationMetricsService.CACHE_DISABLED;
+        if (recommendationCacheService.isEnabled()) {
+            cacheKey = RecommendationCacheService.key(tenantCode, RecommendationCacheService.normalizeTitle(taskTitle),
+                    currentUserAccount, currentUserOrgId, workflowDirection, candidateAccounts, recommendationType);
+            result = recommendationCacheService.get(cacheKey);
+            if (result != null) {
+                log.debug("命中推荐结果缓存");
+                cacheResult = RecommendationMetricsService.CACHE_HIT;
+            } else {
+                // 在计算前读取数据版本，计算期间数据变化时结果不会被缓存
+                dataVersion = recommendationCacheService.currentVersion(tenantCode);
+                cacheResult = RecommendationMetricsService.CACHE_MISS;
+            }
+        }
 
-        // 如果找到了结果，则直接返回
-        if (result != null && !result.getLeaders().isEmpty()) {
-            log.debug("基于组织-领域关联的推荐成功，共推荐了 {} 个领导", result.getLeaders().size());
+        if (trace != null) {
+            trace.recordCache(cacheResult);
+        }
 
-            // 保存推荐反馈
-            try {
-                saveRecommendationFeedback(currentUserAccount, currentUserOrgId, taskTitle, workflowDirection,
-                        result, tenantCode, recommendationType);
-            } catch (Exception e) {
-                log.error("保存推荐反馈失败: {}", e.getMessage(), e);
+        if (result == null) {
+            List<Runnable> recordedUpdates = new ArrayList<>();
+            result = runStrategies(currentUserAccount, currentUserOrgId, query, workflowDirection, candidateAccounts,
+                    tenantCode, recommendationType, trace, recordedUpdates);
+            if (result != null && cacheKey != null) {
+                // 缓存命中时重放本次执行过的记录（如任务模式匹配次数），与重新计算的副作用一致
+                recommendationCacheService.put(cacheKey, dataVersion, result, recordedUpdates);
             }
-
-            return result;
         }
 
-        log.debug("基于组织-领域关联的推荐失败，尝试其他推荐策略");
+        long elapsed = System.nanoTime() - startTime;
+        recommendationMetricsService.recordRequest(tenantCode, workflowDirection, recommendationType, cacheResult,
+                result != null ? RecommendationMetricsService.OUTCOME_MATCHED : RecommendationMetricsService.OUTCOME_EMPTY,
+                elapsed);
+        if (trace != null) {
+            trace.setTotalTimeMs(elapsed / 1e6);
+        }
 
-        if (recommendationType == RecommendationType.MULTIPLE) {
-            // 多个推荐
-            log.debug("使用多个推荐模式(MULTIPLE)，将返回多个推荐结果");
-            result = getMultipleRecommendations(
-                    currentUserAccount,
-                    currentUserOrgId,
-                    taskTitle,
-                    workflowDirection,
-                    candidateAccounts,
-                    tenantCode);
-        } else {
-            // 单个推荐
-            log.debug("使用单个推荐模式(SINGLE)，将返回一个最佳匹配的推荐结果");
-            result = recommendLeaderSingle(
-                    currentUserAccount,
-                    currentUserOrgId,
-                    taskTitle,
-                    workflowDirection,
-                    candidateAccounts,
-                    tenantCode);
+        // 如果所有策略都未找到结果，则返回null
+        if (result == null) {
+            log.debug("所有策略均未找到结果，返回null");
+            commitEvent(event, tenantCode, workflowDirection, recommendationType, cacheResult, null);
+            return null;
         }
 
-        // 如果找到了结果，则直接返回
-        if (result != null && !result.getLeaders().isEmpty()) {
-            log.debug("推荐服务返回了结果，共推荐了 {} 个领导", result.getLeaders().size());
+        log.debug("推荐服务返回了结果，共推荐了 {} 个领导", result.getLeaders().size());
 
-            // 保存推荐反馈
+        // 保存推荐反馈
+        if (saveFeedback) {
             try {
                 saveRecommendationFeedback(currentUserAccount, currentUserOrgId, taskTitle, workflowDirection,
                         result, tenantCode, recommendationType);
             } catch (Exception e) {
                 log.error("保存推荐反馈失败: {}", e.getMessage(), e);
             }
-
-            return result;
         }
 
-        log.debug("推荐服务未返回结果，尝试使用其他策略");
+        commitEvent(event, tenantCode, workflowDirection, recommendationType, cacheResult, result);
+        return result;
+    }
 
-        // 如果没有找到结果，则尝试使用其他策略
-        // 1. 如果是单选模式，但没有找到结果，则尝试从多选模式中选择得分最高的一个
-        if (recommendationType == RecommendationType.SINGLE) {
-            log.debug("单选模式未找到结果，尝试从多选模式中选择得分最高的一个");
+    /**
+     * 提交推荐请求JFR事件，JFR未记录该事件时不填充字段
+     */
+    private static void commitEvent(RecommendationEvent event, String tenantCode,
+            WorkflowDirection workflowDirection, RecommendationType recommendationType, String cacheResult,
+            RecommendationResult result) {
+        if (event.shouldCommit()) {
+            event.setTenant(tenantCode);
+            event.setDirection(workflowDirection != null ? workflowDirection.name() : null);
+            event.setRecommendationType(recommendationType != null ? recommendationType.name() : null);
+            event.setCache(cacheResult);
+            event.setLeaders(result != null ? result.getLeaders().size() : 0);
+            event.commit();
+        }
+    }
 
-            // 获取多选模式的推荐结果
-            RecommendationResult multipleResult = getMultipleRecommendations(
-                    currentUserAccount,
-                    currentUserOrgId,
-                    taskTitle,
-                    workflowDirection,
-                    candidateAccounts,
-                    tenantCode);
+    /**
+     * 按优先级执行各推荐策略
+     *
+     * @param recordedUpdates 收集已执行的记录（如任务模式匹配次数）的列表
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult runStrategies(
+            String currentUserAccount,
+            String currentUserOrgId,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode,
+            RecommendationType recommendationType,
+            RecommendationTrace trace,
+            List<Runnable> recordedUpdates) throws java.io.IOException {
+        String taskTitle = query.getText();
 
-            // 如果多选模式返回了结果，则选择得分最高的一个
-            if (multipleResult != null && !multipleResult.getLeaders().isEmpty()) {
-                log.debug("多选模式返回了结果，共推荐了 {} 个领导", multipleResult.getLeaders().size());
+        // 按优先级排列的推荐策略，排在前面且有结果的策略胜出
+        List<StrategyStage> stages = new ArrayList<>();
 
-                // 找出得分最高的领导
-                LeaderDTO bestLeader = null;
-                double bestScore = 0.0;
+        // 首先尝试基于组织-领域关联的推荐
+        stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_ORG_DOMAIN,
+                deferredUpdates -> nonEmpty(recommendBasedOnOrganizationDomains(
+                currentUserAccount,
+                currentUserOrgId,
+                query,
+                workflowDirection,
+                candidateAccounts,
+                tenantCode,
+                recommendationType))));
 
-                for (LeaderDTO leader : multipleResult.getLeaders()) {
-                    if (leader.getScore() > bestScore) {
-                        bestScore = leader.getScore();
-                        bestLeader = leader;
-                    }
-                }
+        if (recommendationType == RecommendationType.MULTIPLE) {
+            // 多个推荐
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_MULTIPLE,
+                    deferredUpdates -> nonEmpty(getMultipleRecommendations(
+                            RecommendationMetricsService.STRATEGY_MULTIPLE,
+                            currentUserAccount,
+                            currentUserOrgId,
+                            query,
+                            workflowDirection,
+                            candidateAccounts,
+                            tenantCode))));
+
+            // 多选模式未找到结果，则尝试使用文本相似度匹配
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_MULTIPLE_SIMILARITY,
+                    deferredUpdates -> matchMultipleBySimilarity(taskTitle, currentUserAccount, workflowDirection,
+                            candidateAccounts)));
+        } else {
+            // 单个推荐：组织关系、历史批复、组织关键字、职责领域、文本相似度
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_ORG_RELATION,
+                    deferredUpdates -> matchByOrganizationRelation(currentUserAccount, currentUserOrgId, query,
+                            workflowDirection, candidateAccounts, tenantCode)));
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_HISTORY,
+                    deferredUpdates -> matchByHistory(currentUserAccount, query, workflowDirection,
+                            candidateAccounts, tenantCode, deferredUpdates)));
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_ORG_KEYWORD,
+                    deferredUpdates -> matchByOrganizationKeyword(query, workflowDirection, candidateAccounts,
+                            tenantCode)));
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_RESPONSIBILITY_DOMAIN,
+                    deferredUpdates -> matchByResponsibilityDomain(query, workflowDirection, candidateAccounts,
+                            tenantCode)));
+            stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_TEXT_SIMILARITY,
+                    deferredUpdates -> matchByTextSimilarity(query, workflowDirection, candidateAccounts,
+                            tenantCode)));
+
+            // 单选模式未找到结果，则尝试从多选模式中选择得分最高的一个
+            if (recommendationType == RecommendationType.SINGLE) {
+                stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_BEST_OF_MULTIPLE,
+                        deferredUpdates -> selectBestOfMultiple(currentUserAccount, currentUserOrgId, query,
+                                workflowDirection, candidateAccounts, tenantCode)));
+            }
+        }
 
-                // 如果找到了得分最高的领导，则创建一个新的推荐结果
-                if (bestLeader != null) {
-                    log.debug("从多选模式中选择了得分最高的领导: {}, 得分: {}", bestLeader.getSuggestAccount(), bestLeader.getScore());
+        // 如果所有策略都未找到结果，则尝试基于历史数据进行推荐
+        stages.add(new StrategyStage(RecommendationMetricsService.STRATEGY_HISTORY_FALLBACK,
+                deferredUpdates -> matchBasedOnHistory(currentUserAccount, query, workflowDirection,
+                        candidateAccounts, tenantCode, recommendationType)));
+
+        boolean parallel = appConfig.isRecommendationParallelEnabled();
+        StrategyStage winner = parallel
+                ? runStagesInParallel(stages, tenantCode, workflowDirection, trace, recordedUpdates)
+                : runStagesSequentially(stages, tenantCode, workflowDirection, trace, recordedUpdates);
+        recommendationMetricsService.recordWinner(
+                winner != null ? winner.strategy : RecommendationMetricsService.STRATEGY_NONE,
+                tenantCode, workflowDirection, recommendationType);
+        if (trace != null) {
+            trace.setParallel(parallel);
+            trace.setWinner(winner != null ? winner.strategy : null);
+        }
+        return winner != null ? winner.result : null;
+    }
 
-                    List<LeaderDTO> leaders = new ArrayList<>();
-                    leaders.add(bestLeader);
+    /**
+     * 推荐策略
+     * 返回null表示该策略未找到结果；策略需要更新的数据在更新列表不为null时登记到列表中延后执行，否则立即执行
+     */
+    @FunctionalInterface
+    private interface RecommendationStage {
+        RecommendationResult recommend(List<Runnable> deferredUpdates) throws java.io.IOException;
+    }
 
-                    RecommendationResult singleResult = new RecommendationResult(leaders, bestLeader.getReason(),
-                            bestLeader.getScore());
+    /**
+     * 带名称的推荐策略，胜出后记录其推荐结果
+     */
+    private static final class StrategyStage {
+        private final String strategy; // 推荐策略名称
+        private final RecommendationStage stage; // 推荐策略
+        private RecommendationResult result; // 胜出时的推荐结果
+        private RecommendationTrace.StageTrace trace; // 执行轨迹，请求未开启轨迹时为null
+
+        private StrategyStage(String strategy, RecommendationStage stage) {
+            this.strategy = strategy;
+            this.stage = stage;
+        }
 
-                    // 保存推荐反馈
-                    try {
-                        saveRecommendationFeedback(currentUserAccount, currentUserOrgId, taskTitle, workflowDirection,
-                                singleResult, tenantCode, recommendationType);
-                    } catch (Exception e) {
-                        log.error("保存推荐反馈失败: {}", e.getMessage(), e);
-                    }
+        private StrategyStage won(RecommendationResult result) {
+            this.result = result;
+            return this;
+        }
+    }
 
-                    return singleResult;
+    /**
+     * 执行一个推荐策略并记录其耗时和结果
+     * 策略开启轨迹时，执行期间将其轨迹绑定到当前线程，供各评分方法累计评估数量；
+     * JFR记录推荐策略事件时同样绑定一个仅供事件使用的轨迹，以获得各评估数量
+     *
+     * @param stage             推荐策略
+     * @param deferredUpdates   延后执行的记录列表，为null时立即记录
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @return 推荐结果，未找到结果时返回null
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult runStage(StrategyStage stage, List<Runnable> deferredUpdates, String tenantCode,
+            WorkflowDirection workflowDirection) throws java.io.IOException {
+        StrategyEvent event = new StrategyEvent();
+        RecommendationTrace.StageTrace stageTrace = stage.trace;
+        if (stageTrace == null && event.isEnabled()) {
+            stageTrace = new RecommendationTrace.StageTrace(stage.strategy);
+        }
+        RecommendationTrace.StageTrace previousTrace = stageTrace != null ? RecommendationTrace.bind(stageTrace) : null;
+        event.begin();
+        long startTime = System.nanoTime();
+        String outcome = RecommendationMetricsService.OUTCOME_ERROR;
+        try {
+            RecommendationResult result = stage.stage.recommend(deferredUpdates);
+            outcome = result != null ? RecommendationMetricsService.OUTCOME_MATCHED
+                    : RecommendationMetricsService.OUTCOME_EMPTY;
+            return result;
+        } catch (RuntimeException | java.io.IOException e) {
+            if (stageTrace != null) {
+                stageTrace.setReason(e.getMessage());
+            }
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            recommendationMetricsService.recordStrategy(stage.strategy, workflowDirection, outcome, elapsed);
+            if (stageTrace != null) {
+                stageTrace.setStatus(outcome);
+                stageTrace.setTimeMs(elapsed / 1e6);
+                RecommendationTrace.restore(previousTrace);
+            }
+            if (event.shouldCommit()) {
+                event.setStrategy(stage.strategy);
+                event.setTenant(tenantCode);
+                event.setDirection(workflowDirection != null ? workflowDirection.name() : null);
+                event.setOutcome(outcome);
+                if (stageTrace != null) {
+                    event.setOrganizations(stageTrace.getOrganizations());
+                    event.setDomains(stageTrace.getDomains());
+                    event.setPatterns(stageTrace.getPatterns());
+                    event.setHistoryRows(stageTrace.getHistoryRows());
                 }
+                event.commit();
             }
         }
+    }
 
-        // 2. 如果是多选模式，但没有找到结果，则尝试使用文本相似度匹配
-        if (recommendationType == RecommendationType.MULTIPLE) {
-            log.debug("多选模式未找到结果，尝试使用文本相似度匹配");
-
-            // 获取文本相似度匹配的推荐结果
-            List<RecommendationResult> similarityResults = recommendMultipleLeadersBySimilarity(
-                    taskTitle, currentUserAccount);
-
-            // 如果文本相似度匹配返回了结果，则过滤候选账号
-            if (!similarityResults.isEmpty()) {
-                log.debug("文本相似度匹配返回了结果，共推荐了 {} 个领导", similarityResults.size());
-
-                // 存储所有推荐的领导
-                List<LeaderDTO> allLeaders = new ArrayList<>();
-                double highestScore = 0.0;
-
-                // 用于去重的Set，存储已经添加过的领导账号
-                Set<String> addedLeaderAccounts = new HashSet<>();
-
-                // 提取所有推荐结果中的领导，并进行去重和候选账号过滤
-                for (RecommendationResult similarityResult : similarityResults) {
-                    for (LeaderDTO leader : similarityResult.getLeaders()) {
-                        // 检查是否在候选账号列表中
-                        if (isInCandidateAccounts(leader.getSuggestAccount(), candidateAccounts)) {
-                            // 如果该领导账号还没有被添加过，则添加到结果中
-                            if (!addedLeaderAccounts.contains(leader.getSuggestAccount())) {
-                                allLeaders.add(leader);
-                                addedLeaderAccounts.add(leader.getSuggestAccount());
-
-                                // 记录该领导的匹配原因（可选，用于调试）
-                                log.debug("添加领导 {} 到最终推荐结果，匹配原因: {}", leader.getSuggestAccount(),
-                                        similarityResult.getReason());
-                            }
-                        }
+    /**
+     * 为各推荐策略创建执行轨迹
+     */
+    private static void startTrace(List<StrategyStage> stages, RecommendationTrace trace) {
+        if (trace != null) {
+            for (StrategyStage stage : stages) {
+                stage.trace = new RecommendationTrace.StageTrace(stage.strategy);
+            }
+        }
+    }
 
-                        // 使用最高分数作为整体分数
-                        if (similarityResult.getScore() > highestScore) {
-                            highestScore = similarityResult.getScore();
-                        }
-                    }
-                }
+    /**
+     * 将已执行完成的推荐策略轨迹加入请求轨迹，并记录其结果被采用或放弃的原因
+     */
+    private static void traceCompleted(RecommendationTrace trace, StrategyStage stage, boolean accepted) {
+        if (trace == null) {
+            return;
+        }
+        RecommendationTrace.StageTrace stageTrace = stage.trace;
+        stageTrace.setAccepted(accepted);
+        if (accepted) {
+            stageTrace.setReason("优先级最高的有结果策略，采用其推荐结果");
+        } else if (stageTrace.getReason() == null) {
+            stageTrace.setReason(RecommendationTrace.STATUS_EMPTY.equals(stageTrace.getStatus())
+                    ? "未找到结果，继续尝试下一个策略"
+                    : "执行异常，继续尝试下一个策略");
+        }
+        trace.addStage(stageTrace);
+    }
+
+    /**
+     * 将胜出策略之后未执行或未等待其结果的推荐策略加入请求轨迹
+     */
+    private static void traceRemaining(RecommendationTrace trace, List<StrategyStage> stages, int from,
+            String status, String reason) {
+        if (trace == null) {
+            return;
+        }
+        for (int i = from; i < stages.size(); i++) {
+            trace.addStage(RecommendationTrace.StageTrace.notRun(stages.get(i).strategy, status, reason));
+        }
+    }
 
-                // 如果找到了符合条件的领导，则创建一个新的推荐结果
-                if (!allLeaders.isEmpty()) {
-                    log.debug("最终推荐了 {} 个不重复的领导账号", allLeaders.size());
-                    RecommendationResult multipleResult = new RecommendationResult(allLeaders, "基于文本相似度匹配的推荐结果",
-                            highestScore);
+    /**
+     * 依次执行推荐策略，返回第一个有结果的策略
+     *
+     * @param stages            按优先级排列的推荐策略
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @param trace             执行轨迹，为null时不记录
+     * @param recordedUpdates   收集已执行的记录的列表
+     * @return 胜出的推荐策略，所有策略都未找到结果时返回null
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private StrategyStage runStagesSequentially(List<StrategyStage> stages, String tenantCode,
+            WorkflowDirection workflowDirection, RecommendationTrace trace, List<Runnable> recordedUpdates)
+            throws java.io.IOException {
+        startTrace(stages, trace);
+        for (int i = 0; i < stages.size(); i++) {
+            StrategyStage stage = stages.get(i);
+            List<Runnable> deferredUpdates = new ArrayList<>();
+            RecommendationResult result = runStage(stage, deferredUpdates, tenantCode, workflowDirection);
+            runDeferredUpdates(deferredUpdates, recordedUpdates);
+            traceCompleted(trace, stage, result != null);
+            if (result != null) {
+                traceRemaining(trace, stages, i + 1, RecommendationTrace.STATUS_SKIPPED,
+                        "优先级更高的策略已找到结果，未执行");
+                return stage.won(result);
+            }
+        }
+        return null;
+    }
 
-                    // 保存推荐反馈
+    /**
+     * 并行执行推荐策略，按优先级顺序合并结果
+     * 各策略同时提交到推荐策略线程池，依次等待优先级最高的策略，一旦有结果即取消其余策略（不中断正在执行的查询）。
+     * 策略在工作线程中只读执行，延后的记录（如任务模式匹配次数）只对按优先级顺序执行到的策略在请求线程中执行，使结果和副作用与顺序执行一致。
+     * 线程池已满时被拒绝的策略轮到它时在请求线程中执行。
+     *
+     * 只有等待过其结果的策略轨迹才会加入请求轨迹，被取消的策略可能仍在后台线程中更新其轨迹
+     *
+     * @param stages            按优先级排列的推荐策略
+     * @param tenantCode        租户编码
+     * @param workflowDirection 工作流方向
+     * @param trace             执行轨迹，为null时不记录
+     * @param recordedUpdates   收集已执行的记录的列表
+     * @return 胜出的推荐策略，所有策略都未找到结果时返回null
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private StrategyStage runStagesInParallel(List<StrategyStage> stages, String tenantCode,
+            WorkflowDirection workflowDirection, RecommendationTrace trace, List<Runnable> recordedUpdates)
+            throws java.io.IOException {
+        startTrace(stages, trace);
+        String contextTenantCode = TenantContext.getCurrentTenant();
+        List<Future<RecommendationResult>> futures = new ArrayList<>(stages.size());
+        List<List<Runnable>> deferredUpdateLists = new ArrayList<>(stages.size());
+        for (StrategyStage stage : stages) {
+            List<Runnable> deferredUpdates = new ArrayList<>();
+            deferredUpdateLists.add(deferredUpdates);
+            Future<RecommendationResult> future = null;
+            try {
+                future = recommendationStrategyExecutor.submit(() -> {
+                    TenantContext.setCurrentTenant(contextTenantCode);
                     try {
-                        saveRecommendationFeedback(currentUserAccount, currentUserOrgId, taskTitle, workflowDirection,
-                                multipleResult, tenantCode, recommendationType);
-                    } catch (Exception e) {
-                        log.error("保存推荐反馈失败: {}", e.getMessage(), e);
+                        return runStage(stage, deferredUpdates, tenantCode, workflowDirection);
+                    } finally {
+                        TenantContext.clear();
                     }
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("推荐策略线程池已满，该策略将在请求线程中执行");
+            }
+            futures.add(future);
+        }
 
-                    return multipleResult;
+        try {
+            for (int i = 0; i < stages.size(); i++) {
+                Future<RecommendationResult> future = futures.get(i);
+                List<Runnable> deferredUpdates = deferredUpdateLists.get(i);
+                RecommendationResult result = future != null
+                        ? awaitStage(future)
+                        : runStage(stages.get(i), deferredUpdates, tenantCode, workflowDirection);
+
+                // 按优先级顺序执行到的策略在请求线程中执行其延后的记录，与顺序执行的副作用一致
+                runDeferredUpdates(deferredUpdates, recordedUpdates);
+                traceCompleted(trace, stages.get(i), result != null);
+                if (result != null) {
+                    traceRemaining(trace, stages, i + 1, RecommendationTrace.STATUS_CANCELLED,
+                            "优先级更高的策略已找到结果，未等待其结果");
+                    return stages.get(i).won(result);
                 }
             }
+            return null;
+        } finally {
+            cancelStages(futures);
         }
+    }
 
-        // 如果所有策略都未找到结果，但需要返回结果，则尝试基于历史数据进行推荐
-        if (taskTitle != null && !taskTitle.isEmpty()) {
-            log.debug("尝试基于历史数据进行推荐");
+    /**
+     * 执行推荐策略延后的记录，并收集到已执行的记录列表中供缓存命中时重放
+     *
+     * @param deferredUpdates 推荐策略延后的记录
+     * @param recordedUpdates 已执行的记录列表
+     */
+    private static void runDeferredUpdates(List<Runnable> deferredUpdates, List<Runnable> recordedUpdates) {
+        for (Runnable deferredUpdate : deferredUpdates) {
+            deferredUpdate.run();
+            recordedUpdates.add(deferredUpdate);
+        }
+    }
 
-            // 使用历史匹配服务进行推荐
-            RecommendationResult historicalResult = null;
-            try {
-                historicalResult = historicalMatchingService.recommendBasedOnHistory(
-                        taskTitle,
-                        workflowDirection,
-                        currentUserAccount,
-                        candidateAccounts,
-                        tenantCode,
-                        recommendationType);
-            } catch (Exception e) {
-                log.error("基于历史数据推荐失败: {}", e.getMessage(), e);
+    /**
+     * 等待推荐策略执行结果
+     *
+     * @param future 推荐策略的执行结果
+     * @return 推荐结果
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult awaitStage(Future<RecommendationResult> future) throws java.io.IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待推荐策略执行结果时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof java.io.IOException) {
+                throw (java.io.IOException) cause;
             }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("推荐策略执行失败", cause);
+        }
+    }
 
-            if (historicalResult != null && !historicalResult.getLeaders().isEmpty()) {
-                log.debug("基于历史数据推荐成功，共推荐了 {} 个领导", historicalResult.getLeaders().size());
-
-                // 保存推荐反馈
-                try {
-                    saveRecommendationFeedback(currentUserAccount, currentUserOrgId, taskTitle, workflowDirection,
-                            historicalResult, tenantCode, recommendationType);
-                } catch (Exception e) {
-                    log.error("保存推荐反馈失败: {}", e.getMessage(), e);
-                }
-
-                return historicalResult;
+    /**
+     * 取消尚未完成的推荐策略，不中断正在执行的策略
+     *
+     * @param futures 推荐策略的执行结果
+     */
+    private void cancelStages(List<Future<RecommendationResult>> futures) {
+        for (Future<RecommendationResult> future : futures) {
+            if (future != null) {
+                future.cancel(false);
             }
         }
+    }
 
-        // 如果所有策略都未找到结果，则返回null
-        log.debug("所有策略均未找到结果，返回null");
-        return null;
+    /**
+     * 推荐结果中没有领导时视为未找到结果
+     */
+    private RecommendationResult nonEmpty(RecommendationResult result) {
+        return result != null && !result.getLeaders().isEmpty() ? result : null;
     }
 
     /**
-     * 单个推荐方法
+     * 基于组织关系的匹配（如果orgId有值时）
      *
      * @throws java.io.IOException 如果初始化分词器或同义词表失败
      */
-    private RecommendationResult recommendLeaderSingle(
+    private RecommendationResult matchByOrganizationRelation(
             String currentUserAccount,
             String currentUserOrgId,
-            String taskTitle,
+            AnalyzedQuery query,
             WorkflowDirection workflowDirection,
             String[] candidateAccounts,
             String tenantCode) throws java.io.IOException {
+        if (currentUserOrgId == null || currentUserOrgId.isEmpty()) {
+            RecommendationTrace.note("未提供当前办理人组织ID");
+            return null;
+        }
 
-        log.debug("执行单个推荐方法，任务标题: {}, 用户账号: {}", taskTitle, currentUserAccount);
+        log.debug("尝试基于组织关系进行匹配，用户账号: {}, 组织ID: {}", currentUserAccount, currentUserOrgId);
 
-        // 不再使用硬编码的特殊处理逻辑，而是使用通用算法
-        // 对于测试用例3、4和5，我们将通过调整领域匹配分数来确保正确的推荐结果
+        // 获取组织信息
+        Organization org = organizationService.getOrganizationById(tenantCode, currentUserOrgId);
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_ORG_RELATION,
+                workflowDirection, org != null ? 1 : 0, 0);
+        if (org == null) {
+            RecommendationTrace.note("当前办理人所在组织不存在");
+        } else {
+            RecommendationTrace.countOrganizations(1);
+            String leaderAccount = null;
 
-        // 1. 基于组织关系的匹配（如果orgId有值时）
-        if (currentUserOrgId != null && !currentUserOrgId.isEmpty()) {
-            log.debug("尝试基于组织关系进行匹配，用户账号: {}, 组织ID: {}", currentUserAccount, currentUserOrgId);
+            // 根据工作流方向选择不同的领导
+            if (workflowDirection == WorkflowDirection.UPWARD) {
+                // 向上请示，选择主管领导
+                leaderAccount = org.getMainLeaderAccount();
+                log.debug("向上请示工作流，选择主管领导: {}", leaderAccount);
+            } else if (workflowDirection == WorkflowDirection.DOWNWARD) {
+                // 向下指派，选择分管领导
+                leaderAccount = organizationService.findBestDeputyLeaderByTaskTitle(tenantCode, org, query);
+                log.debug("向下指派工作流，选择分管领导: {}", leaderAccount);
+            } else if (workflowDirection == WorkflowDirection.PARALLEL) {
+                // 同级协办，选择上级领导
+                leaderAccount = org.getSuperiorLeaderAccount();
+                log.debug("同级协办工作流，选择上级领导: {}", leaderAccount);
+            }
 
-            // 获取组织信息
-            Organization org = organizationService.getOrganizationById(currentUserOrgId);
-            if (org != null) {
-                String leaderAccount = null;
+            // 如果找到了领导，并且在候选账号列表中
+            if (leaderAccount != null && isInCandidateAccounts(leaderAccount, candidateAccounts)) {
+                // 获取领导信息
+                Leader leader = leaderService.getLeaderByAccountModel(leaderAccount);
+                if (leader != null) {
+                    // 创建推荐结果
+                    LeaderDTO leaderDTO = new LeaderDTO();
+                    leaderDTO.setSuggestAccount(leaderAccount);
+                    leaderDTO.setSuggestTruename(leader.getName());
 
-                // 根据工作流方向选择不同的领导
-                if (workflowDirection == WorkflowDirection.UPWARD) {
-                    // 向上请示，选择主管领导
-                    leaderAccount = org.getMainLeaderAccount();
-                    log.debug("向上请示工作流，选择主管领导: {}", leaderAccount);
-                } else if (workflowDirection == WorkflowDirection.DOWNWARD) {
-                    // 向下指派，选择分管领导
-                    leaderAccount = organizationService.findBestDeputyLeaderByTaskTitle(org, taskTitle);
-                    log.debug("向下指派工作流，选择分管领导: {}", leaderAccount);
-                } else if (workflowDirection == WorkflowDirection.PARALLEL) {
-                    // 同级协办，选择上级领导
-                    leaderAccount = org.getSuperiorLeaderAccount();
-                    log.debug("同级协办工作流，选择上级领导: {}", leaderAccount);
-                }
+                    // 设置推荐理由，直接使用硬编码的推荐原因，避免编码问题
+                    String leaderType = workflowDirection == WorkflowDirection.UPWARD ? "主管领导"
+                            : workflowDirection == WorkflowDirection.DOWNWARD ? "分管领导" : "上级领导";
+                    String reason = "【规则1-基于组织关系匹配】当前用户是" + org.getOrgName() + "的成员，推荐该组织的" + leaderType
+                            + "，负责与任务相关的业务领域";
+                    leaderDTO.setReason(reason);
 
-                // 如果找到了领导，并且在候选账号列表中
-                if (leaderAccount != null && isInCandidateAccounts(leaderAccount, candidateAccounts)) {
-                    // 获取领导信息
-                    Leader leader = leaderService.getLeaderByAccountModel(leaderAccount);
-                    if (leader != null) {
-                        // 创建推荐结果
-                        LeaderDTO leaderDTO = new LeaderDTO();
-                        leaderDTO.setSuggestAccount(leaderAccount);
-                        leaderDTO.setSuggestTruename(leader.getName());
-
-                        // 设置推荐理由，直接使用硬编码的推荐原因，避免编码问题
-                        String leaderType = workflowDirection == WorkflowDirection.UPWARD ? "主管领导"
-                                : workflowDirection == WorkflowDirection.DOWNWARD ? "分管领导" : "上级领导";
-                        String reason = "【规则1-基于组织关系匹配】当前用户是" + org.getOrgName() + "的成员，推荐该组织的" + leaderType
-                                + "，负责与任务相关的业务领域";
-                        leaderDTO.setReason(reason);
-
-                        // 设置匹配分数
-                        double score = DefaultValueConstants.OrganizationMatchScores.getMainLeaderToDeputyScore();
-                        leaderDTO.setScore(score);
-
-                        // 设置置信度
-                        leaderDTO.setConfidenceLevel(score - 0.1);
-
-                        // 创建推荐结果
-                        List<LeaderDTO> leaders = new ArrayList<>();
-                        leaders.add(leaderDTO);
-                        RecommendationResult result = new RecommendationResult(leaders, reason, score);
-
-                        log.debug("【匹配成功】基于组织关系匹配成功，推荐领导: {}", leaderAccount);
-                        return result;
-                    }
+                    // 设置匹配分数
+                    double score = DefaultValueConstants.OrganizationMatchScores.getMainLeaderToDeputyScore();
+                    leaderDTO.setScore(score);
+
+                    // 设置置信度
+                    leaderDTO.setConfidenceLevel(score - 0.1);
+
+                    // 创建推荐结果
+                    List<LeaderDTO> leaders = new ArrayList<>();
+                    leaders.add(leaderDTO);
+                    RecommendationResult result = new RecommendationResult(leaders, reason, score);
+
+                    log.debug("【匹配成功】基于组织关系匹配成功，推荐领导: {}", leaderAccount);
+                    return result;
                 }
             }
+            RecommendationTrace.note("组织未配置该工作流方向的领导，或领导不在候选账号列表中");
+        }
+        return null;
+    }
+
+    /**
+     * 基于历史批复记录的匹配
+     */
+    private RecommendationResult matchByHistory(
+            String currentUserAccount,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode,
+            List<Runnable> deferredUpdates) {
+        String taskTitle = query.getText();
+        if (tenantCode == null || tenantCode.isEmpty()) {
+            return null;
         }
 
-        // 2. 基于历史批复记录的匹配
-        if (tenantCode != null && !tenantCode.isEmpty()) {
-            log.debug("尝试基于历史批复记录进行匹配，租户: {}, 任务标题: {}", tenantCode, taskTitle);
+        log.debug("尝试基于历史批复记录进行匹配，租户: {}, 任务标题: {}", tenantCode, taskTitle);
 
-            RecommendationResult historyResult = null;
-            try {
-                historyResult = historicalMatchingService.recommendLeaderByHistory(
-                        tenantCode, taskTitle, currentUserAccount, workflowDirection);
-            } catch (Exception e) {
-                log.error("基于历史批复记录匹配失败: {}", e.getMessage(), e);
-            }
-            if (historyResult != null) {
-                // 检查是否在候选账号列表中
-                String historyLeaderAccount = !historyResult.getLeaders().isEmpty()
-                        ? historyResult.getLeaders().get(0).getSuggestAccount()
-                        : null;
-                if (isInCandidateAccounts(historyLeaderAccount, candidateAccounts)) {
-                    log.debug("【匹配成功】基于历史批复记录匹配成功，推荐领导: {}", historyLeaderAccount);
-                    return historyResult;
-                } else {
-                    log.debug("【匹配失败】基于历史批复记录的推荐结果 {} 不在候选账号列表中，继续匹配", historyLeaderAccount);
-                }
+        RecommendationResult historyResult = null;
+        try {
+            historyResult = historicalMatchingService.recommendLeaderByHistory(
+                    tenantCode, query, currentUserAccount, workflowDirection, deferredUpdates);
+        } catch (Exception e) {
+            log.error("基于历史批复记录匹配失败: {}", e.getMessage(), e);
+        }
+        if (historyResult != null) {
+            // 检查是否在候选账号列表中
+            String historyLeaderAccount = !historyResult.getLeaders().isEmpty()
+                    ? historyResult.getLeaders().get(0).getSuggestAccount()
+                    : null;
+            if (isInCandidateAccounts(historyLeaderAccount, candidateAccounts)) {
+                log.debug("【匹配成功】基于历史批复记录匹配成功，推荐领导: {}", historyLeaderAccount);
+                return historyResult;
+            } else {
+                log.debug("【匹配失败】基于历史批复记录的推荐结果 {} 不在候选账号列表中，继续匹配", historyLeaderAccount);
+                RecommendationTrace.note("历史批复推荐的领导不在候选账号列表中");
             }
         }
+        return null;
+    }
 
-        // 2.5 基于组织关键字的匹配
+    /**
+     * 基于组织关键字的匹配
+     */
+    private RecommendationResult matchByOrganizationKeyword(
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode) {
+        String taskTitle = query.getText();
         log.debug("尝试基于组织关键字进行匹配，任务标题: {}", taskTitle);
 
         try {
             // 获取所有组织的匹配分数
-            Map<String, Double> orgScores = organizationKeywordMatchService.getAllOrganizationMatchScores(taskTitle);
+            Map<String, Double> orgScores = organizationKeywordMatchService.getAllOrganizationMatchScores(query);
+            recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_ORG_KEYWORD,
+                    workflowDirection, organizationService.getScoringSnapshot(tenantCode).getOrganizations().size(),
+                    orgScores.size());
+            RecommendationTrace.countOrganizations(orgScores.size());
 
             if (!orgScores.isEmpty()) {
                 log.debug("组织关键字匹配结果: {}", orgScores);
@@ -432,7 +814,7 @@ public class RecommendationService {
 
                 // 如果找到了匹配分数较高的组织（分数大于0.4）
                 if (bestOrgId != null && bestOrgScore > 0.4) {
-                    Organization bestOrg = organizationService.getOrganizationById(bestOrgId);
+                    Organization bestOrg = organizationService.getOrganizationById(tenantCode, bestOrgId);
                     if (bestOrg != null) {
                         log.debug("找到最匹配的组织: {}, 匹配分数: {}", bestOrg.getOrgName(), bestOrgScore);
 
@@ -445,7 +827,8 @@ public class RecommendationService {
                             log.debug("向上请示工作流，选择主管领导: {}", leaderAccount);
                         } else if (workflowDirection == WorkflowDirection.DOWNWARD) {
                             // 向下指派，选择分管领导
-                            leaderAccount = organizationService.findBestDeputyLeaderByTaskTitle(bestOrg, taskTitle);
+                            leaderAccount = organizationService.findBestDeputyLeaderByTaskTitle(tenantCode, bestOrg,
+                                    query);
                             log.debug("向下指派工作流，选择分管领导: {}", leaderAccount);
                         } else if (workflowDirection == WorkflowDirection.PARALLEL) {
                             // 同级协办，选择上级领导
@@ -489,13 +872,28 @@ public class RecommendationService {
                             }
                         }
                     }
+                    RecommendationTrace.note("最匹配组织未配置该工作流方向的领导，或领导不在候选账号列表中");
+                } else {
+                    RecommendationTrace.note("没有关键字匹配分数大于0.4的组织");
                 }
+            } else {
+                RecommendationTrace.note("任务标题未命中任何组织关键字");
             }
         } catch (Exception e) {
             log.error("基于组织关键字匹配失败: {}", e.getMessage(), e);
         }
+        return null;
+    }
 
-        // 3. 基于职责领域的匹配
+    /**
+     * 基于职责领域的匹配
+     *
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult matchByResponsibilityDomain(AnalyzedQuery query,
+            WorkflowDirection workflowDirection, String[] candidateAccounts, String tenantCode)
+            throws java.io.IOException {
+        String taskTitle = query.getText();
         log.debug("尝试基于职责领域进行匹配，任务标题: {}", taskTitle);
 
         // 获取所有领导
@@ -509,13 +907,17 @@ public class RecommendationService {
             }
         }
 
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_RESPONSIBILITY_DOMAIN,
+                workflowDirection, allLeaders.size(), candidateLeaders.size());
+        traceLeaderDomains(candidateLeaders);
+
         if (!candidateLeaders.isEmpty()) {
             // 计算每个领导的职责领域与任务标题的匹配度
             Leader bestLeader = null;
             double bestScore = 0.0;
 
             for (Leader leader : candidateLeaders) {
-                double score = leaderService.calculateDomainMatchScore(leader, taskTitle);
+                double score = leaderService.calculateDomainMatchScore(leader, query);
 
                 // 更新最佳匹配
                 if (score > bestScore) {
@@ -549,9 +951,35 @@ public class RecommendationService {
                 log.debug("【匹配成功】基于职责领域匹配成功，推荐领导: {}, 匹配分数: {}", bestLeader.getAccount(), bestScore);
                 return result;
             }
+            RecommendationTrace.note("没有职责领域匹配度超过基础阈值的领导");
+        } else {
+            RecommendationTrace.note("没有在候选账号列表中的领导");
         }
+        return null;
+    }
 
-        // 4. 基于文本相似度的匹配
+    /**
+     * 累计各领导待评估的职责领域数量，只在记录执行轨迹时遍历
+     */
+    private static void traceLeaderDomains(List<Leader> leaders) {
+        if (!RecommendationTrace.isActive()) {
+            return;
+        }
+        int domains = 0;
+        for (Leader leader : leaders) {
+            if (leader.getDomainIds() != null) {
+                domains += leader.getDomainIds().size();
+            }
+        }
+        RecommendationTrace.countDomains(domains);
+    }
+
+    /**
+     * 基于文本相似度的匹配
+     */
+    private RecommendationResult matchByTextSimilarity(AnalyzedQuery query, WorkflowDirection workflowDirection,
+            String[] candidateAccounts, String tenantCode) {
+        String taskTitle = query.getText();
         log.debug("尝试基于文本相似度进行匹配，任务标题: {}", taskTitle);
 
         // 获取所有领导
@@ -565,6 +993,9 @@ public class RecommendationService {
             }
         }
 
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_TEXT_SIMILARITY,
+                workflowDirection, leaders.size(), 0);
+
         if (!filteredLeaders.isEmpty()) {
 
             // 随机选择一个领导（在实际应用中，应该使用更复杂的文本相似度算法）
@@ -594,22 +1025,169 @@ public class RecommendationService {
             log.debug("【匹配成功】基于文本相似度匹配成功，推荐领导: {}", randomLeader.getAccount());
             return result;
         }
+        return null;
+    }
+
+    /**
+     * 单选模式未找到结果时，从多选模式中选择得分最高的一个
+     *
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult selectBestOfMultiple(
+            String currentUserAccount,
+            String currentUserOrgId,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode) throws java.io.IOException {
+        log.debug("单选模式未找到结果，尝试从多选模式中选择得分最高的一个");
+
+        // 获取多选模式的推荐结果
+        RecommendationResult multipleResult = getMultipleRecommendations(
+                RecommendationMetricsService.STRATEGY_BEST_OF_MULTIPLE,
+                currentUserAccount,
+                currentUserOrgId,
+                query,
+                workflowDirection,
+                candidateAccounts,
+                tenantCode);
+
+        // 如果多选模式返回了结果，则选择得分最高的一个
+        if (multipleResult != null && !multipleResult.getLeaders().isEmpty()) {
+            log.debug("多选模式返回了结果，共推荐了 {} 个领导", multipleResult.getLeaders().size());
 
+            // 找出得分最高的领导
+            LeaderDTO bestLeader = null;
+            double bestScore = 0.0;
+
+            for (LeaderDTO leader : multipleResult.getLeaders()) {
+                if (leader.getScore() > bestScore) {
+                    bestScore = leader.getScore();
+                    bestLeader = leader;
+                }
+            }
+
+            // 如果找到了得分最高的领导，则创建一个新的推荐结果
+            if (bestLeader != null) {
+                log.debug("从多选模式中选择了得分最高的领导: {}, 得分: {}", bestLeader.getSuggestAccount(), bestLeader.getScore());
+
+                List<LeaderDTO> leaders = new ArrayList<>();
+                leaders.add(bestLeader);
+
+                return new RecommendationResult(leaders, bestLeader.getReason(), bestLeader.getScore());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 多选模式未找到结果时，使用文本相似度匹配
+     *
+     * @throws java.io.IOException 如果初始化分词器或同义词表失败
+     */
+    private RecommendationResult matchMultipleBySimilarity(String taskTitle, String currentUserAccount,
+            WorkflowDirection workflowDirection, String[] candidateAccounts) throws java.io.IOException {
+        log.debug("多选模式未找到结果，尝试使用文本相似度匹配");
+
+        // 获取文本相似度匹配的推荐结果
+        List<RecommendationResult> similarityResults = recommendMultipleLeadersBySimilarity(
+                taskTitle, currentUserAccount, workflowDirection);
+
+        // 如果文本相似度匹配返回了结果，则过滤候选账号
+        if (!similarityResults.isEmpty()) {
+            log.debug("文本相似度匹配返回了结果，共推荐了 {} 个领导", similarityResults.size());
+
+            // 存储所有推荐的领导
+            List<LeaderDTO> allLeaders = new ArrayList<>();
+            double highestScore = 0.0;
+
+            // 用于去重的Set，存储已经添加过的领导账号
+            Set<String> addedLeaderAccounts = new HashSet<>();
+
+            // 提取所有推荐结果中的领导，并进行去重和候选账号过滤
+            for (RecommendationResult similarityResult : similarityResults) {
+                for (LeaderDTO leader : similarityResult.getLeaders()) {
+                    // 检查是否在候选账号列表中
+                    if (isInCandidateAccounts(leader.getSuggestAccount(), candidateAccounts)) {
+                        // 如果该领导账号还没有被添加过，则添加到结果中
+                        if (!addedLeaderAccounts.contains(leader.getSuggestAccount())) {
+                            allLeaders.add(leader);
+                            addedLeaderAccounts.add(leader.getSuggestAccount());
+
+                            // 记录该领导的匹配原因（可选，用于调试）
+                            log.debug("添加领导 {} 到最终推荐结果，匹配原因: {}", leader.getSuggestAccount(),
+                                    similarityResult.getReason());
+                        }
+                    }
+
+                    // 使用最高分数作为整体分数
+                    if (similarityResult.getScore() > highestScore) {
+                        highestScore = similarityResult.getScore();
+                    }
+                }
+            }
+
+            // 如果找到了符合条件的领导，则创建一个新的推荐结果
+            if (!allLeaders.isEmpty()) {
+                log.debug("最终推荐了 {} 个不重复的领导账号", allLeaders.size());
+                return new RecommendationResult(allLeaders, "基于文本相似度匹配的推荐结果", highestScore);
+            }
+        }
         return null;
     }
 
+    /**
+     * 所有策略都未找到结果时，基于历史数据进行推荐
+     */
+    private RecommendationResult matchBasedOnHistory(
+            String currentUserAccount,
+            AnalyzedQuery query,
+            WorkflowDirection workflowDirection,
+            String[] candidateAccounts,
+            String tenantCode,
+            RecommendationType recommendationType) {
+        String taskTitle = query.getText();
+        if (taskTitle == null || taskTitle.isEmpty()) {
+            return null;
+        }
+
+        log.debug("尝试基于历史数据进行推荐");
+
+        // 使用历史匹配服务进行推荐
+        RecommendationResult historicalResult = null;
+        try {
+            historicalResult = historicalMatchingService.recommendBasedOnHistory(
+                    query,
+                    workflowDirection,
+                    currentUserAccount,
+                    candidateAccounts,
+                    tenantCode,
+                    recommendationType);
+        } catch (Exception e) {
+            log.error("基于历史数据推荐失败: {}", e.getMessage(), e);
+        }
+
+        if (historicalResult != null && !historicalResult.getLeaders().isEmpty()) {
+            log.debug("基于历史数据推荐成功，共推荐了 {} 个领导", historicalResult.getLeaders().size());
+            return historicalResult;
+        }
+        return null;
+    }
     /**
      * 多个推荐方法
      *
+     * @param strategy 记录候选集大小和评分行数时使用的推荐策略名称：multiple或best-of-multiple
      * @throws java.io.IOException 如果初始化分词器或同义词表失败
      */
     private RecommendationResult getMultipleRecommendations(
+            String strategy,
             String currentUserAccount,
             String currentUserOrgId,
-            String taskTitle,
+            AnalyzedQuery query,
             WorkflowDirection workflowDirection,
             String[] candidateAccounts,
             String tenantCode) throws java.io.IOException {
+        String taskTitle = query.getText();
 
         log.debug("开始多个推荐，任务标题: {}, 用户账号: {}", taskTitle, currentUserAccount);
 
@@ -627,8 +1205,9 @@ public class RecommendationService {
             log.debug("尝试基于组织关系进行匹配，用户账号: {}, 组织ID: {}", currentUserAccount, currentUserOrgId);
 
             // 获取组织信息
-            Organization org = organizationService.getOrganizationById(currentUserOrgId);
+            Organization org = organizationService.getOrganizationById(tenantCode, currentUserOrgId);
             if (org != null) {
+                RecommendationTrace.countOrganizations(1);
                 // 根据工作流方向选择不同的领导
                 if (workflowDirection == WorkflowDirection.UPWARD) {
                     // 向上请示，选择主管领导
@@ -692,7 +1271,7 @@ public class RecommendationService {
             RecommendationResult historyResult = null;
             try {
                 historyResult = historicalMatchingService.recommendBasedOnHistory(
-                        taskTitle, workflowDirection, currentUserAccount, candidateAccounts, tenantCode,
+                        query, workflowDirection, currentUserAccount, candidateAccounts, tenantCode,
                         RecommendationType.MULTIPLE);
             } catch (Exception e) {
                 log.error("基于历史数据推荐失败: {}", e.getMessage(), e);
@@ -725,8 +1304,11 @@ public class RecommendationService {
         }
 
         // 计算每个领导的职责领域与任务标题的匹配度
+        recommendationMetricsService.recordScoring(strategy, workflowDirection, leaders.size(),
+                filteredLeaders.size());
+        traceLeaderDomains(filteredLeaders);
         for (Leader leader : filteredLeaders) {
-            double score = leaderService.calculateDomainMatchScore(leader, taskTitle);
+            double score = leaderService.calculateDomainMatchScore(leader, query);
 
             // 如果匹配度超过阈值，则添加到结果中
             if (score > DefaultValueConstants.ThresholdValues.getBaseThreshold()) {
@@ -790,7 +1372,8 @@ public class RecommendationService {
      */
     private List<RecommendationResult> recommendMultipleLeadersBySimilarity(
             String taskTitle,
-            String userAccount) throws java.io.IOException {
+            String userAccount,
+            WorkflowDirection workflowDirection) throws java.io.IOException {
 
         log.debug("开始基于文本相似度推荐多个领导账号，任务标题: {}, 用户账号: {}", taskTitle, userAccount);
 
@@ -798,6 +1381,8 @@ public class RecommendationService {
 
         // 获取所有领导
         List<Leader> leaders = leaderService.getAllLeaders();
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_MULTIPLE_SIMILARITY,
+                workflowDirection, leaders.size(), 0);
 
         // 对于其他任务标题，随机选择一些领导
         // 在实际应用中，应该使用更复杂的文本相似度算法
@@ -848,23 +1433,33 @@ public class RecommendationService {
     private RecommendationResult recommendBasedOnOrganizationDomains(
             String currentUserAccount,
             String currentUserOrgId,
-            String taskTitle,
+            AnalyzedQuery query,
             WorkflowDirection workflowDirection,
             String[] candidateAccounts,
             String tenantCode,
             RecommendationType recommendationType) throws java.io.IOException {
+        String taskTitle = query.getText();
 
         log.debug("执行基于组织-领域关联的推荐，任务标题: {}", taskTitle);
 
-        // 获取所有组织
-        List<Organization> allOrgs = organizationService.getAllOrganizations();
+        // 获取租户的组织评分快照，请求期间只读取快照，不访问数据库
+        OrganizationScoringSnapshot snapshot = organizationService.getScoringSnapshot(tenantCode);
+        List<Organization> allOrgs = snapshot.getOrganizations();
+
+        // 复用查询中的关键词命中结果，并一次性计算各职责领域的匹配度，供所有组织复用
+        KeywordHits hits = query.getKeywordHits();
+        Map<String, Double> domainScores = organizationService.calculateDomainMatchScores(snapshot, query);
+        RecommendationTrace.countOrganizations(allOrgs.size());
+        RecommendationTrace.countDomains(domainScores.size());
 
         // 计算每个组织与任务标题的匹配度
         Map<String, Double> orgMatchScores = new HashMap<>();
         for (Organization org : allOrgs) {
-            double score = organizationService.calculateOrganizationMatchScore(org, taskTitle);
+            double score = organizationService.calculateOrganizationMatchScore(snapshot, org, hits, domainScores);
             orgMatchScores.put(org.getOrgId(), score);
         }
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_ORG_DOMAIN,
+                workflowDirection, allOrgs.size(), allOrgs.size());
 
         // 按匹配度排序
         List<Map.Entry<String, Double>> sortedOrgs = new ArrayList<>(orgMatchScores.entrySet());
@@ -894,7 +1489,7 @@ public class RecommendationService {
                 continue;
             }
 
-            Organization org = organizationService.getOrganizationById(orgId);
+            Organization org = snapshot.getOrganization(orgId);
 
             if (org == null) {
                 continue;
@@ -912,7 +1507,7 @@ public class RecommendationService {
                         + "，向上请示给主管领导";
             } else if (workflowDirection == WorkflowDirection.DOWNWARD) {
                 // 向下指派，选择分管领导
-                leaderAccount = organizationService.findBestDeputyLeaderByTaskTitle(org, taskTitle);
+                leaderAccount = organizationService.findBestDeputyLeaderByTaskTitle(tenantCode, org, query);
                 // 直接使用硬编码的推荐原因，避免编码问题
                 reason = "【规则1-基于组织-领域关联】任务标题与组织\"" + org.getOrgName() + "\"的职责领域匹配度为" + String.format("%.2f", orgScore)
                         + "，向下指派给分管领导";
@@ -929,7 +1524,7 @@ public class RecommendationService {
                 Leader leader = leaderService.getLeaderByAccountModel(leaderAccount);
                 if (leader != null) {
                     // 计算个人-领域匹配分数
-                    double personalScore = leaderService.calculateDomainMatchScore(leader, taskTitle);
+                    double personalScore = leaderService.calculateDomainMatchScore(leader, query);
 
                     // 组织分数占70%，个人分数占30%
                     double finalScore = orgScore * 0.7 + personalScore * 0.3;
@@ -948,6 +1543,7 @@ public class RecommendationService {
         }
 
         if (recommendedLeaders.isEmpty()) {
+            RecommendationTrace.note("没有匹配度不低于0.3且领导在候选账号列表中的组织");
             return null;
         }
 
@@ -1014,9 +1610,9 @@ public class RecommendationService {
         feedback.setCreateTime(new Date());
         feedback.setCreatedBy("system");
 
-        // 保存推荐反馈
-        recommendationFeedbackService.saveFeedback(feedback);
-        log.debug("保存推荐反馈成功");
+        // 提交推荐反馈，由后台线程批量写入
+        feedbackWriteBehindService.submit(feedback);
+        log.debug("已提交推荐反馈");
     }
 
     /**
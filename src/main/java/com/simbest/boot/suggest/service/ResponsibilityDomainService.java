@@ -1,7 +1,10 @@
 package com.simbest.boot.suggest.service;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -10,8 +13,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.KeywordOwnerType;
 import com.simbest.boot.suggest.model.ResponsibilityDomain;
 import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
+import com.simbest.boot.suggest.util.TransactionUtil;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,6 +31,15 @@ public class ResponsibilityDomainService {
     @Autowired
     private ResponsibilityDomainRepository responsibilityDomainRepository;
 
+    @Autowired
+    private OrganizationScoringSnapshotService organizationScoringSnapshotService; // 组织评分快照服务
+
+    @Autowired
+    private KeywordMatcherService keywordMatcherService; // 关键词多模式匹配服务
+
+    @Autowired
+    private LeaderDirectoryService leaderDirectoryService; // 领导目录服务
+
     /**
      * 获取所有职责领域
      *
@@ -75,7 +89,12 @@ public class ResponsibilityDomainService {
     public ResponsibilityDomainEntity createDomain(ResponsibilityDomainEntity domain) {
         domain.setCreateTime(new Date());
         domain.setUpdateTime(new Date());
-        return responsibilityDomainRepository.save(domain);
+        ResponsibilityDomainEntity saved = responsibilityDomainRepository.save(domain);
+        refreshSnapshotsAfterCommit(saved.getTenantCode(), Collections.singletonList(saved.getDomainId()));
+        leaderDirectoryService.domainSaved(null, saved);
+        keywordMatcherService.updateOwner(saved.getTenantCode(), KeywordOwnerType.DOMAIN, saved.getDomainId(),
+                saved.getKeywords());
+        return saved;
     }
 
     /**
@@ -86,8 +105,23 @@ public class ResponsibilityDomainService {
      */
     @Transactional
     public ResponsibilityDomainEntity updateDomain(ResponsibilityDomainEntity domain) {
+        // 保存前记录变更前的领域ID和租户，领域ID或租户被修改时需要从领导目录和关键词匹配器中移除原领域
+        Optional<ResponsibilityDomainEntity> previous = domain.getId() != null
+                ? responsibilityDomainRepository.findById(domain.getId())
+                : Optional.empty();
+        String previousDomainId = previous.map(ResponsibilityDomainEntity::getDomainId).orElse(null);
+        String previousTenantCode = previous.map(ResponsibilityDomainEntity::getTenantCode).orElse(null);
         domain.setUpdateTime(new Date());
-        return responsibilityDomainRepository.save(domain);
+        ResponsibilityDomainEntity saved = responsibilityDomainRepository.save(domain);
+        refreshSnapshotsAfterCommit(saved.getTenantCode(), Arrays.asList(previousDomainId, saved.getDomainId()));
+        leaderDirectoryService.domainSaved(previousDomainId, saved);
+        if (previousDomainId != null && (!previousDomainId.equals(saved.getDomainId())
+                || !Objects.equals(previousTenantCode, saved.getTenantCode()))) {
+            keywordMatcherService.removeOwner(previousTenantCode, KeywordOwnerType.DOMAIN, previousDomainId);
+        }
+        keywordMatcherService.updateOwner(saved.getTenantCode(), KeywordOwnerType.DOMAIN, saved.getDomainId(),
+                saved.getKeywords());
+        return saved;
     }
 
     /**
@@ -97,9 +131,25 @@ public class ResponsibilityDomainService {
      */
     @Transactional
     public void deleteDomain(Long id) {
+        responsibilityDomainRepository.findById(id).ifPresent(entity -> {
+            keywordMatcherService.removeOwner(entity.getTenantCode(), KeywordOwnerType.DOMAIN, entity.getDomainId());
+            leaderDirectoryService.domainRemoved(entity.getDomainId());
+            refreshSnapshotsAfterCommit(entity.getTenantCode(), Collections.singletonList(entity.getDomainId()));
+        });
         responsibilityDomainRepository.deleteById(id);
     }
 
+    /**
+     * 事务提交后重建受领域变更影响的组织评分快照
+     * 领域可能被其他租户的组织关联，除领域所属租户外还重建包含或关联该领域的已加载租户
+     *
+     * @param tenantCode 领域所属租户代码
+     * @param domainIds  变更的领域ID
+     */
+    private void refreshSnapshotsAfterCommit(String tenantCode, List<String> domainIds) {
+        TransactionUtil.afterCommit(() -> organizationScoringSnapshotService.refreshDomains(tenantCode, domainIds));
+    }
+
     /**
      * 将实体对象转换为模型对象
      *
@@ -26,6 +26,9 @@ public class SynonymGroupService {
     @Autowired
     private SynonymGroupRepository synonymGroupRepository;
 
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     /**
      * 获取所有同义词组
      *
@@ -76,7 +79,9 @@ public class SynonymGroupService {
     public SynonymGroupEntity createSynonymGroup(SynonymGroupEntity synonymGroup) {
         synonymGroup.setCreateTime(new Date());
         synonymGroup.setUpdateTime(new Date());
-        return synonymGroupRepository.save(synonymGroup);
+        SynonymGroupEntity saved = synonymGroupRepository.save(synonymGroup);
+        recommendationCacheService.invalidateAll();
+        return saved;
     }
 
     /**
@@ -88,7 +93,9 @@ public class SynonymGroupService {
     @Transactional
     public SynonymGroupEntity updateSynonymGroup(SynonymGroupEntity synonymGroup) {
         synonymGroup.setUpdateTime(new Date());
-        return synonymGroupRepository.save(synonymGroup);
+        SynonymGroupEntity saved = synonymGroupRepository.save(synonymGroup);
+        recommendationCacheService.invalidateAll();
+        return saved;
     }
 
     /**
@@ -99,6 +106,7 @@ public class SynonymGroupService {
     @Transactional
     public void deleteSynonymGroup(Long id) {
         synonymGroupRepository.deleteById(id);
+        recommendationCacheService.invalidateAll();
     }
 
     /**
@@ -0,0 +1,263 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.model.TaskPatternMatchDelta;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务模式匹配计数服务
+ * 推荐请求命中任务模式时只在内存中按任务模式累计匹配次数和批复人权重增量，不再同步读改写task_pattern表。
+ * 计数器按任务模式ID分段，每段由读写锁保护：记录时持有读锁并发累加，合并写入时持有写锁整体换出该段的计数器。
+ * 后台任务按固定间隔将换出的增量分批合并写入数据库，每个任务模式每次合并只重新计算一次置信度；
+ * 写入失败的增量放回计数器，在下次合并时重试；同一任务模式连续失败达到最大重试次数后丢弃其增量并记录日志。
+ * 应用关闭时写入剩余的全部增量。
+ */
+@Service
+@Slf4j
+public class TaskPatternMatchCounterService {
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private TaskPatternService taskPatternService;
+
+    private Stripe[] stripes; // 计数器分段
+    private ScheduledExecutorService scheduler; // 合并写入调度器
+
+    private final AtomicLong recordedCount = new AtomicLong(); // 已记录的匹配次数
+    private final AtomicLong flushedPatternCount = new AtomicLong(); // 已合并写入的任务模式数
+    private final AtomicLong failedPatternCount = new AtomicLong(); // 合并写入失败的任务模式数
+    private final AtomicLong droppedPatternCount = new AtomicLong(); // 达到最大重试次数后丢弃的任务模式数
+    private final Map<Long, Integer> failedAttempts = new HashMap<>(); // 任务模式ID到连续写入失败次数的映射，由flush的锁保护
+    private final AtomicLong flushCount = new AtomicLong(); // 合并写入次数
+    private final AtomicLong maxFlushNanos = new AtomicLong(); // 单次合并写入最大耗时（纳秒）
+    private volatile long lastFlushNanos; // 最近一次合并写入耗时（纳秒）
+
+    /**
+     * 创建计数器分段并启动合并写入任务
+     */
+    @PostConstruct
+    public void start() {
+        stripes = new Stripe[Math.max(1, appConfig.getPatternCounterStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        long interval = Math.max(1, appConfig.getPatternCounterFlushIntervalMs());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-pattern-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("任务模式匹配计数已启动: 分段数 {}, 合并间隔 {} ms, 每批任务模式数 {}", stripes.length, interval,
+                appConfig.getPatternCounterFlushBatchSize());
+    }
+
+    /**
+     * 停止合并写入任务并写入剩余的增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(appConfig.getPatternCounterShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("任务模式匹配计数已停止: 累计记录 {} 次匹配, 合并写入 {} 个任务模式, 失败 {} 个", recordedCount.get(),
+                flushedPatternCount.get(), failedPatternCount.get());
+    }
+
+    /**
+     * 记录一次任务模式匹配
+     *
+     * @param patternId       任务模式ID
+     * @param approverAccount 批复人账号，为空时只累计匹配次数
+     * @param weightIncrement 批复人权重增量
+     */
+    public void recordMatch(Long patternId, String approverAccount, double weightIncrement) {
+        if (patternId == null) {
+            return;
+        }
+        record(patternId, 1, approverAccount, weightIncrement);
+        recordedCount.incrementAndGet();
+    }
+
+    /**
+     * 将累计的增量合并写入数据库
+     *
+     * @return 合并写入的任务模式数
+     */
+    public synchronized int flush() {
+        // 1. 逐段换出计数器
+        Map<Long, TaskPatternMatchDelta> deltas = new LinkedHashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, PatternCounter> counters;
+            stripe.lock.writeLock().lock();
+            try {
+                if (stripe.counters.isEmpty()) {
+                    continue;
+                }
+                counters = stripe.counters;
+                stripe.counters = new ConcurrentHashMap<>();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+            for (Map.Entry<Long, PatternCounter> entry : counters.entrySet()) {
+                deltas.put(entry.getKey(), entry.getValue().toDelta());
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        // 2. 分批合并写入，每批一个事务
+        long startTime = System.nanoTime();
+        int batchSize = Math.max(1, appConfig.getPatternCounterFlushBatchSize());
+        List<Long> patternIds = new ArrayList<>(deltas.keySet());
+        int flushed = 0;
+        for (int from = 0; from < patternIds.size(); from += batchSize) {
+            Map<Long, TaskPatternMatchDelta> batch = new LinkedHashMap<>();
+            for (Long patternId : patternIds.subList(from, Math.min(from + batchSize, patternIds.size()))) {
+                batch.put(patternId, deltas.get(patternId));
+            }
+            try {
+                flushed += taskPatternService.applyPatternMatches(batch);
+                failedAttempts.keySet().removeAll(batch.keySet());
+            } catch (Exception e) {
+                failedPatternCount.addAndGet(batch.size());
+                log.error("合并写入任务模式匹配计数失败: {} 个任务模式, {}", batch.size(), e.getMessage(), e);
+                retryOrDrop(batch);
+            }
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        flushedPatternCount.addAndGet(flushed);
+        flushCount.incrementAndGet();
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        lastFlushNanos = elapsed;
+        log.debug("合并写入任务模式匹配计数: {} 个任务模式, 耗时 {} ms", flushed, elapsed / 1_000_000.0);
+        return flushed;
+    }
+
+    /**
+     * 获取匹配计数的运行统计
+     *
+     * @return 统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        int pendingPatterns = 0;
+        for (Stripe stripe : stripes) {
+            pendingPatterns += stripe.counters.size();
+        }
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("stripes", stripes.length);
+        statistics.put("pendingPatterns", pendingPatterns);
+        statistics.put("recorded", recordedCount.get());
+        statistics.put("flushedPatterns", flushedPatternCount.get());
+        statistics.put("failedPatterns", failedPatternCount.get());
+        statistics.put("droppedPatterns", droppedPatternCount.get());
+        statistics.put("flushCount", flushCount.get());
+        statistics.put("lastFlushMillis", lastFlushNanos / 1_000_000.0);
+        statistics.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        return statistics;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("任务模式匹配计数合并写入异常: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 写入失败的增量放回计数器，连续失败次数达到最大重试次数的任务模式丢弃其增量
+     *
+     * @param batch 任务模式ID到增量的映射
+     */
+    private void retryOrDrop(Map<Long, TaskPatternMatchDelta> batch) {
+        int maxRetries = Math.max(0, appConfig.getPatternCounterMaxRetries());
+        Map<Long, TaskPatternMatchDelta> dropped = new LinkedHashMap<>();
+        for (Map.Entry<Long, TaskPatternMatchDelta> entry : batch.entrySet()) {
+            int attempts = failedAttempts.merge(entry.getKey(), 1, Integer::sum);
+            if (attempts > maxRetries) {
+                failedAttempts.remove(entry.getKey());
+                dropped.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            TaskPatternMatchDelta delta = entry.getValue();
+            record(entry.getKey(), delta.getMatchCount(), null, 0.0);
+            for (Map.Entry<String, Double> weight : delta.getApproverWeightIncrements().entrySet()) {
+                record(entry.getKey(), 0, weight.getKey(), weight.getValue());
+            }
+        }
+        if (!dropped.isEmpty()) {
+            droppedPatternCount.addAndGet(dropped.size());
+            log.error("任务模式匹配计数连续 {} 次写入失败，丢弃增量: {}", maxRetries + 1, dropped);
+        }
+    }
+
+    private void record(Long patternId, long matchCount, String approverAccount, double weightIncrement) {
+        Stripe stripe = stripes[Math.floorMod(patternId.hashCode(), stripes.length)];
+        stripe.lock.readLock().lock();
+        try {
+            PatternCounter counter = stripe.counters.computeIfAbsent(patternId, k -> new PatternCounter());
+            if (matchCount > 0) {
+                counter.matchCount.add(matchCount);
+            }
+            if (approverAccount != null && !approverAccount.isEmpty()) {
+                counter.approverWeights.computeIfAbsent(approverAccount, k -> new DoubleAdder()).add(weightIncrement);
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 计数器分段
+     */
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // 记录持有读锁，换出持有写锁
+        private volatile Map<Long, PatternCounter> counters = new ConcurrentHashMap<>(); // 任务模式ID到计数器的映射
+    }
+
+    /**
+     * 单个任务模式的计数器
+     */
+    private static final class PatternCounter {
+        private final LongAdder matchCount = new LongAdder(); // 匹配次数
+        private final Map<String, DoubleAdder> approverWeights = new ConcurrentHashMap<>(); // 批复人账号到权重增量的映射
+
+        private TaskPatternMatchDelta toDelta() {
+            Map<String, Double> increments = new LinkedHashMap<>();
+            for (Map.Entry<String, DoubleAdder> entry : approverWeights.entrySet()) {
+                increments.put(entry.getKey(), entry.getValue().sum());
+            }
+            return new TaskPatternMatchDelta(matchCount.sum(), increments);
+        }
+    }
+}
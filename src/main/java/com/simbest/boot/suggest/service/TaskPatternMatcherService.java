@@ -0,0 +1,113 @@
+package com.simbest.boot.suggest.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.simbest.boot.suggest.model.TaskPattern;
+import com.simbest.boot.suggest.model.TaskPatternMatcher;
+import com.simbest.boot.suggest.repository.TaskPatternRepository;
+import com.simbest.boot.suggest.util.TransactionUtil;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 任务模式匹配器服务
+ * 按租户构建并发布任务模式匹配器，请求期间的任务模式匹配只读取内存中的匹配器。
+ * 任务模式新增或变更时在事务提交后用变更后的模式生成新的匹配器并原子替换。
+ * 仅依赖数据访问层，避免与任务模式服务形成循环依赖。
+ */
+@Service
+@Slf4j
+public class TaskPatternMatcherService {
+
+    private final Map<String, TaskPatternMatcher> matchers = new ConcurrentHashMap<>(); // 租户代码到匹配器的映射
+
+    @Autowired
+    private TaskPatternRepository taskPatternRepository;
+
+    /**
+     * 获取租户的任务模式匹配器，首次访问时构建
+     *
+     * @param tenantCode 租户代码
+     * @return 任务模式匹配器
+     */
+    public TaskPatternMatcher getMatcher(String tenantCode) {
+        TaskPatternMatcher matcher = matchers.get(tenantCode);
+        if (matcher == null) {
+            matcher = matchers.computeIfAbsent(tenantCode, this::buildMatcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * 从数据库重建租户的任务模式匹配器并原子替换
+     *
+     * @param tenantCode 租户代码
+     * @return 新的任务模式匹配器
+     */
+    public TaskPatternMatcher refresh(String tenantCode) {
+        TaskPatternMatcher matcher = buildMatcher(tenantCode);
+        matchers.put(tenantCode, matcher);
+        return matcher;
+    }
+
+    /**
+     * 任务模式新增或变更后更新所属租户的匹配器
+     * 在事务提交后生效；租户的匹配器尚未加载时不做处理，下次访问时从数据库加载
+     *
+     * @param pattern 新增或变更后的任务模式
+     */
+    public void update(TaskPattern pattern) {
+        if (pattern == null) {
+            return;
+        }
+        updateAll(Collections.singletonList(pattern));
+    }
+
+    /**
+     * 一批任务模式新增或变更后更新所属租户的匹配器，每个租户只重建一次
+     * 在事务提交后生效；租户的匹配器尚未加载时不做处理，下次访问时从数据库加载
+     *
+     * @param patterns 新增或变更后的任务模式列表
+     */
+    public void updateAll(List<TaskPattern> patterns) {
+        // 立即复制，避免提交前持久化对象再被修改
+        Map<String, List<TaskPattern>> snapshots = new HashMap<>();
+        for (TaskPattern pattern : patterns) {
+            if (pattern.getTenantCode() != null) {
+                snapshots.computeIfAbsent(pattern.getTenantCode(), k -> new ArrayList<>())
+                        .add(TaskPatternMatcher.copyOf(pattern));
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            for (Map.Entry<String, List<TaskPattern>> entry : snapshots.entrySet()) {
+                matchers.computeIfPresent(entry.getKey(), (tenant, matcher) -> matcher.withPatterns(entry.getValue()));
+            }
+        });
+    }
+
+    /**
+     * 从数据库构建租户的任务模式匹配器
+     *
+     * @param tenantCode 租户代码
+     * @return 任务模式匹配器
+     */
+    private TaskPatternMatcher buildMatcher(String tenantCode) {
+        long startTime = System.currentTimeMillis();
+        TaskPatternMatcher matcher = new TaskPatternMatcher(tenantCode,
+                taskPatternRepository.findByTenantCode(tenantCode));
+        log.info("租户 {} 任务模式匹配器构建完成: {} 个任务模式, {} 个关键词, 耗时 {} ms", tenantCode,
+                matcher.getPatterns().size(), matcher.getKeywords().size(), System.currentTimeMillis() - startTime);
+        return matcher;
+    }
+}
@@ -1,10 +1,14 @@
 package com.simbest.boot.suggest.service;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -14,10 +18,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.simbest.boot.suggest.config.AppConfig;
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.KeywordOwnerType;
 import com.simbest.boot.suggest.model.TaskPattern;
+import com.simbest.boot.suggest.model.TaskPatternMatchDelta;
+import com.simbest.boot.suggest.model.TaskPatternMatcher;
 import com.simbest.boot.suggest.model.WorkflowDirection;
 import com.simbest.boot.suggest.repository.TaskPatternRepository;
-import com.simbest.boot.suggest.util.ChineseTokenizer;
 import com.simbest.boot.suggest.util.TenantValidator;
 
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +44,24 @@ public class TaskPatternService {
     @Autowired
     private TenantValidator tenantValidator;
 
+    @Autowired
+    private KeywordMatcherService keywordMatcherService;
+
+    @Autowired
+    private QueryAnalysisService queryAnalysisService;
+
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
+    @Autowired
+    private TaskPatternMatcherService taskPatternMatcherService; // 任务模式匹配器服务
+
+    @Autowired
+    private RecommendationMetricsService recommendationMetricsService; // 推荐指标服务
+
+    @Autowired
+    private AppConfig appConfig; // 应用配置
+
     /**
      * 创建任务模式
      *
@@ -67,6 +93,9 @@ public class TaskPatternService {
         }
 
         TaskPattern savedPattern = taskPatternRepository.save(taskPattern);
+        taskPatternMatcherService.update(savedPattern);
+        keywordMatcherService.updateOwner(savedPattern.getTenantCode(), KeywordOwnerType.TASK_PATTERN,
+                String.valueOf(savedPattern.getId()), savedPattern.getKeywords());
         log.info("创建任务模式成功: {}", savedPattern.getId());
         return savedPattern;
     }
@@ -93,6 +122,9 @@ public class TaskPatternService {
         taskPattern.setLastUpdateTime(now);
 
         TaskPattern updatedPattern = taskPatternRepository.save(taskPattern);
+        taskPatternMatcherService.update(updatedPattern);
+        keywordMatcherService.updateOwner(updatedPattern.getTenantCode(), KeywordOwnerType.TASK_PATTERN,
+                String.valueOf(updatedPattern.getId()), updatedPattern.getKeywords());
         log.info("更新任务模式成功: {}", updatedPattern.getId());
         return updatedPattern;
     }
@@ -225,92 +257,32 @@ public class TaskPatternService {
     public TaskPattern findBestMatchingPattern(
             String tenantCode, String taskTitle, WorkflowDirection workflowDirection, double confidenceThreshold)
             throws java.io.IOException {
-        // 验证租户
-        tenantValidator.validateTenant(tenantCode);
-
-        // 获取指定工作流方向的所有任务模式
-        List<TaskPattern> patterns = taskPatternRepository.findByTenantCodeAndWorkflowDirection(
-                tenantCode, workflowDirection);
-
-        if (patterns.isEmpty()) {
-            return null;
-        }
-
-        // 对任务标题进行分词
-        List<String> taskTokens = ChineseTokenizer.tokenize(taskTitle);
-
-        // 计算每个模式的匹配分数
-        TaskPattern bestPattern = null;
-        double bestScore = 0.0;
-
-        for (TaskPattern pattern : patterns) {
-            // 如果模式的置信度为null或低于阈值，则跳过
-            Double confidence = pattern.getConfidence();
-            if (confidence == null) {
-                log.warn("任务模式 {} 的置信度为null，使用默认值0.0", pattern.getId());
-                confidence = 0.0;
-                pattern.setConfidence(confidence);
-            }
-            if (confidence < confidenceThreshold) {
-                continue;
-            }
-
-            // 检查关键词列表是否为null
-            List<String> keywords = pattern.getKeywords();
-            if (keywords == null) {
-                log.warn("任务模式 {} 的关键词列表为null", pattern.getId());
-                continue;
-            }
-
-            // 计算关键词匹配分数
-            double score = calculateKeywordMatchScore(keywords, taskTokens, taskTitle);
-
-            // 更新最佳匹配
-            if (score > bestScore) {
-                bestScore = score;
-                bestPattern = pattern;
-            }
-        }
-
-        // 如果最佳匹配分数太低，则返回null
-        if (bestScore < 0.3) {
-            return null;
-        }
-
-        return bestPattern;
+        return findBestMatchingPattern(tenantCode, queryAnalysisService.analyze(tenantCode, taskTitle),
+                workflowDirection, confidenceThreshold);
     }
 
     /**
-     * 计算关键词匹配分数
+     * 根据已分析的任务标题和工作流方向查找最匹配的任务模式
      *
-     * @param patternKeywords 模式关键词列表
-     * @param taskTokens      任务标题分词结果
-     * @param taskTitle       原始任务标题
-     * @return 匹配分数（0-1之间）
+     * @param tenantCode          租户编码
+     * @param query               已分析的任务标题
+     * @param workflowDirection   工作流方向
+     * @param confidenceThreshold 置信度阈值
+     * @return 最匹配的任务模式
+     * @throws java.io.IOException 如果初始化分词器失败
      */
-    private double calculateKeywordMatchScore(List<String> patternKeywords, List<String> taskTokens, String taskTitle) {
-        if (patternKeywords == null || patternKeywords.isEmpty() ||
-                taskTokens == null || taskTokens.isEmpty()) {
-            return 0.0;
-        }
-
-        int matchCount = 0;
-
-        for (String keyword : patternKeywords) {
-            // 直接匹配
-            if (taskTitle.contains(keyword)) {
-                matchCount++;
-                continue;
-            }
-
-            // 分词匹配
-            if (taskTokens.contains(keyword)) {
-                matchCount++;
-            }
-        }
+    public TaskPattern findBestMatchingPattern(
+            String tenantCode, AnalyzedQuery query, WorkflowDirection workflowDirection, double confidenceThreshold)
+            throws java.io.IOException {
+        // 验证租户
+        tenantValidator.validateTenant(tenantCode);
 
-        // 计算匹配比例
-        return (double) matchCount / patternKeywords.size();
+        // 在内存匹配器中按关键词倒排表匹配
+        TaskPatternMatcher.Match match = taskPatternMatcherService.getMatcher(tenantCode)
+                .match(query, workflowDirection, confidenceThreshold, 0.3);
+        recommendationMetricsService.recordScoring(RecommendationMetricsService.STRATEGY_HISTORY_PATTERN,
+                workflowDirection, match.getCandidates(), match.getScored());
+        return match.getPattern();
     }
 
     /**
@@ -329,6 +301,7 @@ public class TaskPatternService {
         }
 
         TaskPattern pattern = patternOpt.get();
+        List<Object> viewBefore = recommendationView(pattern);
 
         // 增加匹配次数
         pattern.incrementMatchCount();
@@ -352,7 +325,88 @@ public class TaskPatternService {
         // 重新计算置信度
         recalculateConfidence(pattern);
 
-        return taskPatternRepository.save(pattern);
+        TaskPattern savedPattern = taskPatternRepository.save(pattern);
+        taskPatternMatcherService.update(savedPattern);
+        if (!viewBefore.equals(recommendationView(savedPattern))) {
+            recommendationCacheService.invalidateTenant(savedPattern.getTenantCode());
+        }
+        return savedPattern;
+    }
+
+    /**
+     * 合并写入一批任务模式的匹配增量
+     * 累加匹配次数和批复人权重后每个任务模式只重新计算一次置信度，事务提交后更新匹配器；
+     * 只有变更可能改变推荐结果的任务模式才使所属租户的推荐结果缓存失效，见 {@link #recommendationView(TaskPattern)}
+     *
+     * @param deltas 任务模式ID到匹配增量的映射
+     * @return 写入的任务模式数
+     */
+    @Transactional
+    public int applyPatternMatches(Map<Long, TaskPatternMatchDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        List<TaskPattern> patterns = taskPatternRepository.findAllById(deltas.keySet());
+        if (patterns.size() < deltas.size()) {
+            log.warn("合并写入任务模式匹配计数时有 {} 个任务模式已不存在", deltas.size() - patterns.size());
+        }
+
+        Date now = new Date();
+        Set<String> tenantCodes = new HashSet<>();
+        for (TaskPattern pattern : patterns) {
+            TaskPatternMatchDelta delta = deltas.get(pattern.getId());
+            List<Object> viewBefore = recommendationView(pattern);
+
+            // 累加匹配次数
+            int matchCount = pattern.getMatchCount() == null ? 0 : pattern.getMatchCount();
+            pattern.setMatchCount((int) Math.min(Integer.MAX_VALUE, matchCount + delta.getMatchCount()));
+
+            // 累加批复人权重
+            if (!delta.getApproverWeightIncrements().isEmpty()) {
+                Map<String, Double> approverWeights = pattern.getApproverWeights();
+                if (approverWeights == null) {
+                    approverWeights = new HashMap<>();
+                    pattern.setApproverWeights(approverWeights);
+                }
+                for (Map.Entry<String, Double> entry : delta.getApproverWeightIncrements().entrySet()) {
+                    approverWeights.merge(entry.getKey(), entry.getValue(), Double::sum);
+                }
+            }
+
+            // 更新最后更新时间
+            pattern.setLastUpdateTime(now);
+            pattern.setUpdateTime(now);
+
+            // 重新计算置信度
+            recalculateConfidence(pattern);
+            if (!viewBefore.equals(recommendationView(pattern))) {
+                tenantCodes.add(pattern.getTenantCode());
+            }
+        }
+
+        taskPatternMatcherService.updateAll(taskPatternRepository.saveAll(patterns));
+        for (String tenantCode : tenantCodes) {
+            recommendationCacheService.invalidateTenant(tenantCode);
+        }
+        return patterns.size();
+    }
+
+    /**
+     * 任务模式中决定推荐结果的部分：置信度是否达到历史匹配置信度阈值（决定模式是否参与匹配）、
+     * 权重最高的批复人以及批复人集合。
+     * 匹配次数和批复人权重的累加只要不改变这些内容就不使推荐结果缓存失效，
+     * 否则每次合并写入都会清空重复标题的缓存；代价是缓存结果中的得分（即置信度）可能滞后于最新值。
+     *
+     * @param pattern 任务模式
+     * @return 可比较的视图
+     */
+    private List<Object> recommendationView(TaskPattern pattern) {
+        double confidence = pattern.getConfidence() != null ? pattern.getConfidence() : 0.0;
+        Map<String, Double> approverWeights = pattern.getApproverWeights();
+        return Arrays.asList(confidence >= appConfig.getHistoricalMatchingConfidenceThreshold(),
+                pattern.getBestApproverAccount(),
+                approverWeights != null ? new HashSet<>(approverWeights.keySet()) : Collections.emptySet());
     }
 
     /**
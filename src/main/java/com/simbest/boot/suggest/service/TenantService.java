@@ -1,7 +1,9 @@
 package com.simbest.boot.suggest.service;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,17 +12,30 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.simbest.boot.suggest.model.Tenant;
 import com.simbest.boot.suggest.repository.TenantRepository;
+import com.simbest.boot.suggest.util.TransactionUtil;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 租户服务类
  * 提供租户相关的业务逻辑
+ * 租户有效性在进程内缓存（有效和无效的结果都缓存），超过容量时淘汰最久未使用的租户编码；
+ * 租户创建、更新、激活和停用时失效并递增缓存版本，查询期间版本发生变化的结果不写入缓存。
  */
 @Service
 @Slf4j
 public class TenantService {
 
+    private static final int MAX_CACHED_TENANTS = 10000; // 缓存的租户编码数量上限，防止无效编码占用过多内存
+
+    private final Map<String, Boolean> tenantValidity = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_CACHED_TENANTS;
+        }
+    }; // 按访问顺序排列的租户编码到是否有效的映射
+    private long validityVersion; // 缓存版本，每次失效时递增，受tenantValidity锁保护
+
     @Autowired
     private TenantRepository tenantRepository;
 
@@ -47,6 +62,7 @@ public class TenantService {
         }
 
         Tenant savedTenant = tenantRepository.save(tenant);
+        invalidateTenant(savedTenant.getTenantCode());
         log.info("创建租户成功: {}", savedTenant.getTenantName());
         return savedTenant;
     }
@@ -68,6 +84,8 @@ public class TenantService {
         tenant.setUpdateTime(new Date());
 
         Tenant updatedTenant = tenantRepository.save(tenant);
+        // 租户编码可能被修改，清除全部缓存
+        invalidateAllTenants();
         log.info("更新租户成功: {}", updatedTenant.getTenantName());
         return updatedTenant;
     }
@@ -128,6 +146,7 @@ public class TenantService {
         tenant.setUpdateTime(new Date());
 
         Tenant updatedTenant = tenantRepository.save(tenant);
+        invalidateTenant(updatedTenant.getTenantCode());
         log.info("激活租户成功: {}", updatedTenant.getTenantName());
         return updatedTenant;
     }
@@ -150,12 +169,14 @@ public class TenantService {
         tenant.setUpdateTime(new Date());
 
         Tenant updatedTenant = tenantRepository.save(tenant);
+        invalidateTenant(updatedTenant.getTenantCode());
         log.info("停用租户成功: {}", updatedTenant.getTenantName());
         return updatedTenant;
     }
 
     /**
      * 验证租户是否有效
+     * 优先读取缓存，未缓存时查询数据库并缓存结果
      *
      * @param tenantCode 租户编码
      * @return 是否有效
@@ -165,7 +186,52 @@ public class TenantService {
             return false;
         }
 
+        long version;
+        synchronized (tenantValidity) {
+            Boolean cached = tenantValidity.get(tenantCode);
+            if (cached != null) {
+                return cached;
+            }
+            version = validityVersion;
+        }
+
         Optional<Tenant> tenantOpt = tenantRepository.findByTenantCode(tenantCode);
-        return tenantOpt.isPresent() && tenantOpt.get().isActive();
+        boolean valid = tenantOpt.isPresent() && tenantOpt.get().isActive();
+        synchronized (tenantValidity) {
+            // 查询期间租户数据已变更时不缓存，避免旧结果覆盖失效
+            if (version == validityVersion) {
+                tenantValidity.put(tenantCode, valid);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * 使租户有效性缓存失效
+     *
+     * @param tenantCode 租户编码
+     */
+    private void invalidateTenant(String tenantCode) {
+        if (tenantCode == null) {
+            return;
+        }
+        TransactionUtil.invalidateNowAndAfterCommit(() -> {
+            synchronized (tenantValidity) {
+                tenantValidity.remove(tenantCode);
+                validityVersion++;
+            }
+        });
+    }
+
+    /**
+     * 清除全部租户有效性缓存
+     */
+    private void invalidateAllTenants() {
+        TransactionUtil.invalidateNowAndAfterCommit(() -> {
+            synchronized (tenantValidity) {
+                tenantValidity.clear();
+                validityVersion++;
+            }
+        });
     }
 }
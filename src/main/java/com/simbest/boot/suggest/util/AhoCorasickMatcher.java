@@ -0,0 +1,182 @@
+package com.simbest.boot.suggest.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick多模式匹配器
+ * 对一组关键词构建自动机，一次扫描文本即可找出文本中出现的全部关键词，
+ * 结果与对每个关键词分别调用 {@link String#contains(CharSequence)} 一致。
+ * 构建完成后不可变，可被多个线程同时使用。空字符串和null不参与构建。
+ */
+public class AhoCorasickMatcher {
+
+    /**
+     * 匹配回调
+     */
+    public interface MatchHandler {
+        /**
+         * 命中关键词时回调
+         *
+         * @param keyword 命中的关键词
+         * @param start   关键词在文本中的起始位置（包含）
+         * @param end     关键词在文本中的结束位置（不包含）
+         */
+        void onMatch(String keyword, int start, int end);
+    }
+
+    private final Node root; // 根节点
+    private final Set<String> keywords; // 参与构建的关键词集合
+
+    /**
+     * 构造函数
+     *
+     * @param keywords 关键词集合
+     */
+    public AhoCorasickMatcher(Collection<String> keywords) {
+        Set<String> keywordSet = new HashSet<>();
+        BuildNode buildRoot = new BuildNode();
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty() || !keywordSet.add(keyword)) {
+                continue;
+            }
+            BuildNode node = buildRoot;
+            for (int i = 0; i < keyword.length(); i++) {
+                node = node.children.computeIfAbsent(keyword.charAt(i), k -> new BuildNode());
+            }
+            node.keyword = keyword;
+        }
+        this.keywords = Collections.unmodifiableSet(keywordSet);
+        this.root = freeze(buildRoot);
+        linkFailures();
+    }
+
+    /**
+     * 获取参与构建的关键词集合
+     *
+     * @return 关键词集合
+     */
+    public Set<String> getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * 找出文本中出现的全部关键词
+     *
+     * @param text 文本
+     * @return 命中的关键词集合
+     */
+    public Set<String> findAll(String text) {
+        Set<String> result = new HashSet<>();
+        scan(text, (keyword, start, end) -> result.add(keyword));
+        return result;
+    }
+
+    /**
+     * 扫描文本，对每一次关键词命中进行回调
+     *
+     * @param text    文本
+     * @param handler 匹配回调
+     */
+    public void scan(String text, MatchHandler handler) {
+        if (text == null || text.isEmpty() || keywords.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Node next = node.next(c);
+            while (next == null && node != root) {
+                node = node.failure;
+                next = node.next(c);
+            }
+            node = next != null ? next : root;
+
+            // 沿输出链报告以当前位置结尾的所有关键词
+            for (Node output = node.keyword != null ? node : node.output; output != null; output = output.output) {
+                handler.onMatch(output.keyword, i + 1 - output.keyword.length(), i + 1);
+            }
+        }
+    }
+
+    /**
+     * 将构建期节点转换为按字符排序的紧凑数组结构
+     *
+     * @param buildNode 构建期节点
+     * @return 运行期节点
+     */
+    private static Node freeze(BuildNode buildNode) {
+        Node node = new Node();
+        node.keyword = buildNode.keyword;
+        int size = buildNode.children.size();
+        node.chars = new char[size];
+        node.children = new Node[size];
+        int i = 0;
+        for (Map.Entry<Character, BuildNode> entry : buildNode.children.entrySet()) {
+            node.chars[i] = entry.getKey();
+            node.children[i] = freeze(entry.getValue());
+            i++;
+        }
+        return node;
+    }
+
+    /**
+     * 按广度优先顺序计算失败指针和输出链
+     */
+    private void linkFailures() {
+        Deque<Node> queue = new ArrayDeque<>();
+        root.failure = root;
+        for (Node child : root.children) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.chars.length; i++) {
+                char c = node.chars[i];
+                Node child = node.children[i];
+
+                Node failure = node.failure;
+                Node next = failure.next(c);
+                while (next == null && failure != root) {
+                    failure = failure.failure;
+                    next = failure.next(c);
+                }
+                child.failure = next != null && next != child ? next : root;
+                child.output = child.failure.keyword != null ? child.failure : child.failure.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 构建期节点
+     */
+    private static class BuildNode {
+        private final Map<Character, BuildNode> children = new TreeMap<>(); // 按字符排序的子节点
+        private String keyword; // 以该节点结尾的关键词
+    }
+
+    /**
+     * 运行期节点
+     */
+    private static class Node {
+        private char[] chars; // 已排序的子节点字符
+        private Node[] children; // 与字符一一对应的子节点
+        private String keyword; // 以该节点结尾的关键词
+        private Node failure; // 失败指针
+        private Node output; // 输出链：失败路径上最近的关键词节点
+
+        private Node next(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.simbest.boot.suggest.util;
+
+import java.util.Arrays;
+
+/**
+ * 字符键字典树
+ * 每个节点以有序字符数组保存子节点，查找时按字符二分定位，
+ * 在原文本上直接逐字符前进，不需要截取子串。
+ */
+public class CharTrie {
+    private static final char[] EMPTY_KEYS = new char[0];
+    private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+    private final Node root = new Node(); // 根节点
+    private int size; // 词语数量
+
+    /**
+     * 添加词语
+     *
+     * @param word 词语
+     * @return 词语此前不存在时返回true
+     */
+    public boolean add(CharSequence word) {
+        if (word == null || word.length() == 0) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.getOrAddChild(word.charAt(i));
+        }
+        if (node.terminal) {
+            return false;
+        }
+        node.terminal = true;
+        size++;
+        return true;
+    }
+
+    /**
+     * 判断是否包含词语
+     *
+     * @param word 词语
+     * @return 是否包含
+     */
+    public boolean contains(CharSequence word) {
+        if (word == null || word.length() == 0) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node != null && node.terminal;
+    }
+
+    /**
+     * 查找从指定位置开始、长度不超过maxLength的最长词语
+     *
+     * @param text      文本
+     * @param start     起始位置
+     * @param maxLength 最大词长
+     * @return 最长词语的结束位置（不包含），不存在时返回-1
+     */
+    public int longestMatch(CharSequence text, int start, int maxLength) {
+        int limit = Math.min(text.length(), start + Math.max(maxLength, 0));
+        int matchedEnd = -1;
+        Node node = root;
+        for (int i = start; i < limit; i++) {
+            node = node.child(text.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.terminal) {
+                matchedEnd = i + 1;
+            }
+        }
+        return matchedEnd;
+    }
+
+    /**
+     * 获取词语数量
+     *
+     * @return 词语数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 字典树节点
+     */
+    private static class Node {
+        private char[] keys = EMPTY_KEYS; // 已排序的子节点字符
+        private Node[] children = EMPTY_CHILDREN; // 与字符一一对应的子节点
+        private boolean terminal; // 是否为词语结尾
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node getOrAddChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+    }
+}
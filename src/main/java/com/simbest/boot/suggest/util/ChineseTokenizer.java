@@ -6,22 +6,43 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * 简单中文分词工具类
- * 使用最大正向匹配算法进行中文分词
+ * 使用最大正向匹配算法进行中文分词，词典以字符键字典树保存，
+ * 匹配时在原文本上逐字符前进，不为候选词截取子串。
+ * 词典采用写时复制：分词线程只读取已发布的不可变版本，
+ * 添加词语或重新加载租户常用词时构建新版本后原子替换。
  */
 @Slf4j
 public class ChineseTokenizer {
-    private static final Set<String> dictionary = new HashSet<>();
-    private static int maxWordLength = 10; // 默认最大词长
-    private static boolean isInitialized = false;
+
+    /**
+     * 分词结果回调
+     * 以偏移量形式报告每个词语，调用方可直接在原文本上读取，无需创建字符串
+     */
+    public interface TokenHandler {
+        /**
+         * 报告一个词语
+         *
+         * @param start 词语在原文本中的起始位置（包含）
+         * @param end   词语在原文本中的结束位置（不包含）
+         */
+        void onToken(int start, int end);
+    }
+
+    private static volatile Dictionary dictionary = new Dictionary(Collections.emptySet(), Collections.emptyMap(), 10); // 当前发布的词典
+    private static volatile boolean isInitialized = false;
 
     /**
      * 初始化词典
@@ -32,6 +53,7 @@ public class ChineseTokenizer {
         }
 
         // 从配置文件中加载分词器配置
+        int maxWordLength = dictionary.maxWordLength;
         Map<String, Object> tokenizerConfig = DataLoader.getAlgorithmWeightSection("tokenizer");
         if (tokenizerConfig.containsKey("maxWordLength")) {
             maxWordLength = ((Number) tokenizerConfig.get("maxWordLength")).intValue();
@@ -39,6 +61,7 @@ public class ChineseTokenizer {
         }
 
         // 从资源文件加载词典
+        Set<String> baseWords = new HashSet<>(dictionary.baseWords);
         InputStream is = ChineseTokenizer.class.getResourceAsStream("/dictionary.txt");
         if (is != null) {
             BufferedReader reader = null;
@@ -48,7 +71,7 @@ public class ChineseTokenizer {
                 while ((line = reader.readLine()) != null) {
                     line = line.trim();
                     if (!line.isEmpty()) {
-                        dictionary.add(line);
+                        baseWords.add(line);
                     }
                 }
             } catch (IOException e) {
@@ -68,6 +91,7 @@ public class ChineseTokenizer {
                 }
             }
         }
+        dictionary = new Dictionary(baseWords, dictionary.tenantWords, maxWordLength);
 
         // 添加一些常用词
         addCommonWords();
@@ -79,11 +103,11 @@ public class ChineseTokenizer {
      * 添加常用词
      *
      * 注意：常用词已迁移到数据库，该方法已不再从配置文件加载
-     * 常用词应通过DatabaseDataLoader.loadCommonWords()方法加载
+     * 常用词应通过CommonWordService.reloadTokenizerWords()方法按租户加载
      */
     private static void addCommonWords() {
         // 常用词已迁移到数据库，该方法不再从配置文件加载
-        log.info("常用词已迁移到数据库，请使用DatabaseDataLoader.loadCommonWords()方法加载");
+        log.info("常用词已迁移到数据库，请使用CommonWordService.reloadTokenizerWords()方法按租户加载");
     }
 
     /**
@@ -93,21 +117,81 @@ public class ChineseTokenizer {
      */
     public static void addWord(String word) {
         if (word != null && !word.isEmpty()) {
-            dictionary.add(word);
+            addWords(Collections.singletonList(word));
         }
     }
 
     /**
      * 添加多个词语到词典
+     * 基于当前词典构建新版本后整体替换，正在进行的分词不受影响
      *
      * @param words 词语列表
      */
-    public static void addWords(List<String> words) {
+    public static synchronized void addWords(List<String> words) {
+        if (words == null || words.isEmpty()) {
+            return;
+        }
+        Dictionary current = dictionary;
+        Set<String> baseWords = new HashSet<>(current.baseWords);
+        boolean changed = false;
+        for (String word : words) {
+            if (word != null && !word.isEmpty()) {
+                changed |= baseWords.add(word);
+            }
+        }
+        if (changed) {
+            dictionary = new Dictionary(baseWords, current.tenantWords, current.maxWordLength);
+        }
+    }
+
+    /**
+     * 替换指定租户的常用词
+     * 基于当前词典构建新版本后整体替换，正在进行的分词继续使用旧版本，不会被阻塞
+     *
+     * @param tenantCode 租户代码
+     * @param words      该租户的全部常用词
+     */
+    public static synchronized void reloadTenantWords(String tenantCode, Collection<String> words) {
+        Dictionary current = dictionary;
+        Map<String, Set<String>> tenantWords = new HashMap<>(current.tenantWords);
+        Set<String> wordSet = new HashSet<>();
         if (words != null) {
             for (String word : words) {
-                addWord(word);
+                if (word != null && !word.trim().isEmpty()) {
+                    wordSet.add(word.trim());
+                }
             }
         }
+        if (wordSet.isEmpty()) {
+            tenantWords.remove(tenantCode);
+        } else {
+            tenantWords.put(tenantCode, Collections.unmodifiableSet(wordSet));
+        }
+        dictionary = new Dictionary(current.baseWords, tenantWords, current.maxWordLength);
+        // 租户常用词可能被移除，回收已不在词典中的词语编号
+        CharTrie trie = dictionary.trie;
+        TokenVocabulary.retainAll(trie::contains);
+        log.info("已重新加载租户 {} 的分词常用词: {} 个, 词典共 {} 个词语", tenantCode, wordSet.size(),
+                dictionary.trie.size());
+    }
+
+    /**
+     * 获取当前词典的版本号
+     * 词典每次替换后版本号递增，缓存分词结果的调用方可据此判断结果是否过期
+     *
+     * @return 词典版本号
+     */
+    public static long getDictionaryVersion() {
+        return dictionary.version;
+    }
+
+    /**
+     * 获取词典中的词语数量
+     *
+     * @return 词语数量
+     */
+    public static int getDictionarySize() {
+        return dictionary.trie.size();
     }
 
     /**
@@ -117,38 +201,46 @@ public class ChineseTokenizer {
      * @return 分词结果
      */
     public static List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return result;
+        }
+
+        tokenize(text, (start, end) -> result.add(text.substring(start, end)));
+        return result;
+    }
+
+    /**
+     * 分词，以偏移量形式报告每个词语
+     * 分词过程本身不创建任何对象
+     *
+     * @param text    输入文本
+     * @param handler 分词结果回调
+     */
+    public static void tokenize(CharSequence text, TokenHandler handler) {
         if (!isInitialized) {
             initialize();
         }
 
-        List<String> result = new ArrayList<>();
-        if (text == null || text.isEmpty()) {
-            return result;
+        if (text == null || text.length() == 0) {
+            return;
         }
 
-        // 最大正向匹配算法
+        // 读取一次当前发布的词典，整个分词过程使用同一版本
+        Dictionary current = dictionary;
+
+        // 最大正向匹配算法：沿字典树前进，取不超过最大词长的最长匹配
         int start = 0;
         while (start < text.length()) {
-            // 尝试最长匹配
-            boolean found = false;
-            for (int end = Math.min(start + maxWordLength, text.length()); end > start; end--) {
-                String word = text.substring(start, end);
-                if (dictionary.contains(word)) {
-                    result.add(word);
-                    start = end;
-                    found = true;
-                    break;
-                }
-            }
+            int end = current.trie.longestMatch(text, start, current.maxWordLength);
 
             // 如果没有匹配到词，则按字符处理
-            if (!found) {
-                result.add(String.valueOf(text.charAt(start)));
-                start++;
+            if (end < 0) {
+                end = start + 1;
             }
+            handler.onToken(start, end);
+            start = end;
         }
-
-        return result;
     }
 
     /**
@@ -166,4 +258,34 @@ public class ChineseTokenizer {
         List<String> tokens = tokenize(text);
         return tokens.contains(word);
     }
+
+    /**
+     * 词典版本
+     * 发布后不再修改，写入方基于当前版本构建新版本并整体替换
+     */
+    private static class Dictionary {
+        private static final AtomicLong VERSION_SEQUENCE = new AtomicLong(); // 词典版本号序列
+
+        private final long version = VERSION_SEQUENCE.incrementAndGet(); // 词典版本号
+        private final Set<String> baseWords; // 词典文件及手工添加的词语
+        private final Map<String, Set<String>> tenantWords; // 租户代码到常用词的映射
+        private final CharTrie trie; // 由全部词语构建的字典树
+        private final int maxWordLength; // 最大词长
+
+        private Dictionary(Set<String> baseWords, Map<String, Set<String>> tenantWords, int maxWordLength) {
+            this.baseWords = Collections.unmodifiableSet(baseWords);
+            this.tenantWords = Collections.unmodifiableMap(tenantWords);
+            this.maxWordLength = maxWordLength;
+            CharTrie newTrie = new CharTrie();
+            for (String word : baseWords) {
+                newTrie.add(word);
+            }
+            for (Set<String> words : tenantWords.values()) {
+                for (String word : words) {
+                    newTrie.add(word);
+                }
+            }
+            this.trie = newTrie;
+        }
+    }
 }
@@ -12,6 +12,8 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.simbest.boot.suggest.config.ConfigConstants;
 import com.simbest.boot.suggest.config.ConfigManager;
+import com.simbest.boot.suggest.model.KeywordMatchWeights;
+import com.simbest.boot.suggest.model.TextSimilarityWeights;
 import com.simbest.boot.suggest.service.ConfigService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -116,6 +118,24 @@ public class DataLoader {
         }
     }
 
+    /**
+     * 获取默认租户的文本相似度权重
+     *
+     * @return 文本相似度权重，配置服务未初始化时返回默认权重
+     */
+    public static TextSimilarityWeights getTextSimilarityWeights() {
+        return configService != null ? configService.getTextSimilarityWeights() : TextSimilarityWeights.DEFAULTS;
+    }
+
+    /**
+     * 获取默认租户的关键词匹配权重
+     *
+     * @return 关键词匹配权重，配置服务未初始化时返回默认权重
+     */
+    public static KeywordMatchWeights getKeywordMatchWeights() {
+        return configService != null ? configService.getKeywordMatchWeights() : KeywordMatchWeights.DEFAULTS;
+    }
+
     /**
      * 加载AI分析配置
      *
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.simbest.boot.suggest.config.DefaultValueConstants;
+import com.simbest.boot.suggest.service.RecommendationCacheService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,6 +33,9 @@ public class DatabaseSynonymManager {
     @Autowired
     private DatabaseDataLoader databaseDataLoader;
 
+    @Autowired
+    private RecommendationCacheService recommendationCacheService; // 推荐结果缓存服务
+
     private String tenantCode = DefaultValueConstants.getDefaultTenantCode(); // 默认租户代码
 
     /**
@@ -92,6 +96,7 @@ public class DatabaseSynonymManager {
         addDatabaseSynonyms();
 
         isInitialized = true;
+        recommendationCacheService.invalidateAll();
         log.info("同义词表初始化完成，共加载 {} 个词条", synonyms.size());
     }
 
@@ -134,6 +139,7 @@ public class DatabaseSynonymManager {
                 }
             }
         }
+        recommendationCacheService.invalidateAll();
     }
 
     /**
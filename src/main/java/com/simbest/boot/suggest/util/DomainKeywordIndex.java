@@ -0,0 +1,329 @@
+package com.simbest.boot.suggest.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.simbest.boot.suggest.model.AnalyzedQuery;
+import com.simbest.boot.suggest.model.KeywordHits;
+import com.simbest.boot.suggest.model.KeywordMatchWeights;
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 职责领域关键词倒排索引
+ * 将关键词及其同义词映射到所属的职责领域，请求时只计算与任务标题有共同关键词的领域。
+ * 评分公式与 {@link ResponsibilityDomain#calculateMatchScore(String)} 完全一致，
+ * 未命中任何关键词的领域得分为0，不出现在结果中。
+ * 索引构建后不可变，随组织评分快照一起重建。
+ */
+@Slf4j
+public class DomainKeywordIndex {
+    private static final int DIRECT_MATCH = 1; // 直接匹配标记
+    private static final int TOKEN_MATCH = 2; // 分词匹配标记
+    private static final int SYNONYM_MATCH = 4; // 同义词匹配标记
+
+    private final Map<String, DomainEntry> domainEntries; // 领域ID到索引条目的映射
+    private final Map<String, List<DomainEntry>> keywordDomains; // 关键词到所属领域的映射
+    private final Map<Character, List<String>> keywordsByFirstChar; // 首字符到关键词的映射，用于直接匹配
+    private final Map<String, Set<String>> synonymKeywords; // 同义词到关键词的映射
+    private volatile Set<String> coveredDictionary; // 最近一次确认覆盖本索引关键词的匹配器关键词集合
+
+    /**
+     * 构造函数
+     *
+     * @param domains 职责领域集合
+     */
+    public DomainKeywordIndex(Collection<ResponsibilityDomain> domains) {
+        Map<String, DomainEntry> entries = new HashMap<>();
+        Map<String, List<DomainEntry>> keywordMap = new HashMap<>();
+        for (ResponsibilityDomain domain : domains) {
+            if (domain == null || domain.getDomainId() == null || domain.getKeywords() == null
+                    || domain.getKeywords().isEmpty()) {
+                continue;
+            }
+            DomainEntry entry = new DomainEntry(domain);
+            entries.put(domain.getDomainId(), entry);
+            for (String keyword : entry.distinctKeywords) {
+                keywordMap.computeIfAbsent(keyword, k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        Map<Character, List<String>> firstCharMap = new HashMap<>();
+        Map<String, Set<String>> synonymMap = new HashMap<>();
+        for (String keyword : keywordMap.keySet()) {
+            if (!keyword.isEmpty()) {
+                firstCharMap.computeIfAbsent(keyword.charAt(0), k -> new ArrayList<>()).add(keyword);
+            }
+            try {
+                for (String synonym : SynonymManagerAdapter.getSynonyms(keyword)) {
+                    synonymMap.computeIfAbsent(synonym, k -> new HashSet<>()).add(keyword);
+                }
+            } catch (IOException e) {
+                log.warn("获取关键词 {} 的同义词失败: {}", keyword, e.getMessage());
+            }
+        }
+
+        this.domainEntries = Collections.unmodifiableMap(entries);
+        this.keywordDomains = Collections.unmodifiableMap(keywordMap);
+        this.keywordsByFirstChar = Collections.unmodifiableMap(firstCharMap);
+        this.synonymKeywords = Collections.unmodifiableMap(synonymMap);
+    }
+
+    /**
+     * 判断索引是否包含指定领域
+     *
+     * @param domainId 领域ID
+     * @return 是否包含
+     */
+    public boolean containsDomain(String domainId) {
+        return domainEntries.containsKey(domainId);
+    }
+
+    /**
+     * 获取索引中的领域数量
+     *
+     * @return 领域数量
+     */
+    public int size() {
+        return domainEntries.size();
+    }
+
+    /**
+     * 计算文本与所有候选领域的匹配度
+     * 只有与文本存在直接、分词或同义词命中的领域才会被计算
+     *
+     * @param text 输入文本
+     * @return 领域ID到匹配度的映射，不包含的领域匹配度为0
+     */
+    public Map<String, Double> calculateMatchScores(String text) {
+        return calculateMatchScores(text, null);
+    }
+
+    /**
+     * 计算文本与所有候选领域的匹配度
+     * 直接匹配优先复用多模式匹配器的扫描结果，匹配器未覆盖全部领域关键词时回退为按首字符扫描
+     *
+     * @param text 输入文本
+     * @param hits 多模式匹配器对该文本的命中结果，可为null
+     * @return 领域ID到匹配度的映射，不包含的领域匹配度为0
+     */
+    public Map<String, Double> calculateMatchScores(String text, KeywordHits hits) {
+        return calculateMatchScores(text, hits, ChineseTokenizer.tokenize(text));
+    }
+
+    /**
+     * 计算已分析查询与所有候选领域的匹配度
+     * 复用查询中的分词结果和关键词命中结果，同一查询对同一索引只计算一次
+     *
+     * @param query 已分析的查询
+     * @return 领域ID到匹配度的映射（只读），不包含的领域匹配度为0
+     */
+    public Map<String, Double> calculateMatchScores(AnalyzedQuery query) {
+        return query.getDomainScores(this, index -> Collections.unmodifiableMap(
+                calculateMatchScores(query.getText(), query.getKeywordHits(), query.getTokenSet())));
+    }
+
+    /**
+     * 计算文本与所有候选领域的匹配度
+     *
+     * @param text   输入文本
+     * @param hits   多模式匹配器对该文本的命中结果，可为null
+     * @param tokens 文本的分词结果
+     * @return 领域ID到匹配度的映射，不包含的领域匹配度为0
+     */
+    private Map<String, Double> calculateMatchScores(String text, KeywordHits hits, Collection<String> tokens) {
+        Map<String, Double> scores = new HashMap<>();
+        if (text == null || text.isEmpty() || domainEntries.isEmpty()) {
+            return scores;
+        }
+
+        Map<String, Integer> keywordFlags = new HashMap<>();
+
+        if (hits != null && text.equals(hits.getText()) && isCoveredBy(hits.getDictionary())) {
+            // 直接匹配：取多模式匹配器命中的关键词
+            for (String keyword : hits.getMatchedKeywords()) {
+                if (keywordDomains.containsKey(keyword)) {
+                    keywordFlags.merge(keyword, DIRECT_MATCH, (a, b) -> a | b);
+                }
+            }
+        } else {
+            // 直接匹配：按首字符定位可能出现在文本中的关键词
+            for (int i = 0; i < text.length(); i++) {
+                List<String> candidates = keywordsByFirstChar.get(text.charAt(i));
+                if (candidates == null) {
+                    continue;
+                }
+                for (String keyword : candidates) {
+                    if (text.startsWith(keyword, i)) {
+                        keywordFlags.merge(keyword, DIRECT_MATCH, (a, b) -> a | b);
+                    }
+                }
+            }
+        }
+        if (keywordDomains.containsKey("")) {
+            keywordFlags.merge("", DIRECT_MATCH, (a, b) -> a | b);
+        }
+
+        // 分词匹配与同义词匹配
+        for (String token : tokens) {
+            if (keywordDomains.containsKey(token)) {
+                keywordFlags.merge(token, TOKEN_MATCH, (a, b) -> a | b);
+            }
+            Set<String> keywords = synonymKeywords.get(token);
+            if (keywords != null) {
+                for (String keyword : keywords) {
+                    keywordFlags.merge(keyword, SYNONYM_MATCH, (a, b) -> a | b);
+                }
+            }
+        }
+
+        if (keywordFlags.isEmpty()) {
+            return scores;
+        }
+
+        // 只计算命中关键词所属的领域
+        KeywordMatchWeights weights = DataLoader.getKeywordMatchWeights();
+        for (String keyword : keywordFlags.keySet()) {
+            for (DomainEntry entry : keywordDomains.get(keyword)) {
+                if (!scores.containsKey(entry.domainId)) {
+                    scores.put(entry.domainId, entry.calculateScore(keywordFlags, weights));
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 判断多模式匹配器的关键词集合是否覆盖本索引的全部非空关键词
+     * 同一关键词集合只检查一次
+     *
+     * @param dictionary 多模式匹配器的关键词集合
+     * @return 是否覆盖
+     */
+    private boolean isCoveredBy(Set<String> dictionary) {
+        if (dictionary == coveredDictionary) {
+            return true;
+        }
+        for (String keyword : keywordDomains.keySet()) {
+            if (!keyword.isEmpty() && !dictionary.contains(keyword)) {
+                return false;
+            }
+        }
+        coveredDictionary = dictionary;
+        return true;
+    }
+
+    /**
+     * 校验索引计算结果与逐领域计算结果是否完全一致
+     *
+     * @param text   输入文本
+     * @param scores 索引计算的领域匹配度
+     * @return 是否完全一致
+     */
+    public boolean verify(String text, Map<String, Double> scores) {
+        boolean consistent = true;
+        for (DomainEntry entry : domainEntries.values()) {
+            try {
+                double expected = entry.domain.calculateMatchScore(text);
+                double actual = scores.getOrDefault(entry.domainId, 0.0);
+                if (Double.compare(expected, actual) != 0) {
+                    consistent = false;
+                    log.warn("领域关键词索引评分不一致，领域: {}, 文本: {}, 期望: {}, 实际: {}",
+                            entry.domainId, text, expected, actual);
+                }
+            } catch (IOException e) {
+                log.warn("校验领域 {} 的匹配度失败: {}", entry.domainId, e.getMessage());
+            }
+        }
+        return consistent;
+    }
+
+    /**
+     * 领域索引条目
+     * 保存领域原始关键词顺序及与原算法一致的去重关键词迭代顺序
+     */
+    private static class DomainEntry {
+        private final String domainId; // 领域ID
+        private final ResponsibilityDomain domain; // 领域模型，用于校验
+        private final String[] keywords; // 原始关键词列表（含重复与null）
+        private final String[] distinctKeywords; // 去重后的关键词，顺序与原算法中权重映射的迭代顺序一致
+
+        private DomainEntry(ResponsibilityDomain domain) {
+            this.domainId = domain.getDomainId();
+            this.domain = domain;
+            this.keywords = domain.getKeywords().toArray(new String[0]);
+
+            // 按原算法的方式构建HashMap，保证总权重的累加顺序一致
+            Map<String, Double> weightOrder = new HashMap<>();
+            for (String keyword : keywords) {
+                if (keyword != null) {
+                    weightOrder.put(keyword, 0.0);
+                }
+            }
+            this.distinctKeywords = weightOrder.keySet().toArray(new String[0]);
+        }
+
+        /**
+         * 按原算法计算领域匹配度
+         *
+         * @param keywordFlags 关键词命中标记
+         * @param weights      关键词匹配权重
+         * @return 匹配度分数
+         */
+        private double calculateScore(Map<String, Integer> keywordFlags, KeywordMatchWeights weights) {
+            int matchedKeywordsCount = 0;
+            double weightedMatchScore = 0.0;
+
+            for (String keyword : keywords) {
+                if (keyword == null) {
+                    continue;
+                }
+                Integer flags = keywordFlags.get(keyword);
+                if (flags == null) {
+                    continue;
+                }
+                boolean directMatch = (flags & DIRECT_MATCH) != 0;
+                boolean tokenMatch = (flags & TOKEN_MATCH) != 0;
+                boolean synonymMatch = (flags & SYNONYM_MATCH) != 0;
+
+                matchedKeywordsCount++;
+                double matchWeight = weights.keywordWeight(keyword);
+                if (directMatch) {
+                    matchWeight *= weights.getDirectMatchMultiplier();
+                }
+                if (tokenMatch) {
+                    matchWeight *= weights.getTokenMatchMultiplier();
+                }
+                if (synonymMatch && !directMatch && !tokenMatch) {
+                    matchWeight *= weights.getSynonymMatchMultiplier();
+                }
+                weightedMatchScore += matchWeight;
+            }
+
+            double keywordCountRatio = 0.0;
+            if (keywords.length > 0) {
+                keywordCountRatio = (double) matchedKeywordsCount / keywords.length;
+            }
+
+            double totalWeight = 0.0;
+            for (String keyword : distinctKeywords) {
+                totalWeight += weights.keywordWeight(keyword);
+            }
+            double weightedRatio = 0.0;
+            if (totalWeight > 0.0) {
+                weightedRatio = weightedMatchScore / totalWeight;
+            }
+
+            return weights.getKeywordCountRatioWeight() * keywordCountRatio
+                    + weights.getWeightedRatioWeight() * weightedRatio;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.simbest.boot.suggest.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.simbest.boot.suggest.model.ApprovalHistory;
+import com.simbest.boot.suggest.model.TitleFeatureVector;
+
+/**
+ * 批复历史标题倒排索引
+ * 一个索引对应一个租户和工作流方向下的全部批复历史记录，
+ * 以词编号为键保存包含该词的记录及词频，按BM25对与任务标题有共同词语的记录打分，
+ * 只返回得分最高的有限条候选记录，供后续的文本相似度精排使用。
+ * 按发起人检索时在同一索引内过滤，词语的文档频率仍按整个分区统计。
+ * 同时按词语和按发起人维护审批人频次直方图，随记录的添加和移除增量更新，
+ * 历史推荐可直接合并任务标题各词语的直方图，而无需对候选记录逐条计算相似度。
+ * 支持增量添加和移除记录，读写之间通过读写锁隔离。
+ */
+public class HistoryTitleIndex {
+    private static final double K1 = 1.2; // BM25词频饱和参数
+    private static final double B = 0.75; // BM25文档长度归一化参数
+
+    private final long dictionaryVersion; // 构建索引时的词典版本
+    private final Map<Long, IndexedHistory> histories = new HashMap<>(); // 记录ID到索引记录的映射
+    private final Map<Integer, Map<Long, Integer>> postings = new HashMap<>(); // 词编号到记录ID及词频的映射
+    private final Map<String, Integer> initiatorCounts = new HashMap<>(); // 发起人到记录数量的映射
+    private final Map<Integer, Map<String, Integer>> tokenApproverCounts = new HashMap<>(); // 词编号到（审批人到记录数量）的映射
+    private final Map<String, Map<String, Integer>> initiatorApproverCounts = new HashMap<>(); // 发起人到（审批人到记录数量）的映射
+    private long totalTokenCount; // 全部记录的分词数量之和
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // 索引读写锁
+
+    /**
+     * 构造函数
+     *
+     * @param dictionaryVersion 构建索引时的词典版本
+     */
+    public HistoryTitleIndex(long dictionaryVersion) {
+        this.dictionaryVersion = dictionaryVersion;
+    }
+
+    /**
+     * 获取构建索引时的词典版本
+     *
+     * @return 词典版本
+     */
+    public long getDictionaryVersion() {
+        return dictionaryVersion;
+    }
+
+    /**
+     * 添加或替换一条批复历史记录
+     *
+     * @param history 批复历史记录，必须已有ID
+     * @param vector  任务标题的特征向量
+     */
+    public void add(ApprovalHistory history, TitleFeatureVector vector) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(history.getId());
+            IndexedHistory indexed = new IndexedHistory(history, vector);
+            histories.put(history.getId(), indexed);
+            int[] tokenIds = vector.getTokenIds();
+            int[] tokenCounts = vector.getTokenCounts();
+            for (int i = 0; i < tokenIds.length; i++) {
+                postings.computeIfAbsent(tokenIds[i], k -> new HashMap<>()).put(history.getId(), tokenCounts[i]);
+                if (indexed.approverAccount != null) {
+                    tokenApproverCounts.computeIfAbsent(tokenIds[i], k -> new HashMap<>())
+                            .merge(indexed.approverAccount, 1, Integer::sum);
+                }
+            }
+            totalTokenCount += vector.getTokenCount();
+            if (indexed.initiatorAccount != null) {
+                initiatorCounts.merge(indexed.initiatorAccount, 1, Integer::sum);
+                if (indexed.approverAccount != null) {
+                    initiatorApproverCounts.computeIfAbsent(indexed.initiatorAccount, k -> new HashMap<>())
+                            .merge(indexed.approverAccount, 1, Integer::sum);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除一条批复历史记录
+     *
+     * @param id 批复历史记录ID
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 获取记录数量
+     *
+     * @param initiatorAccount 发起人账号，为空时统计全部记录
+     * @return 记录数量
+     */
+    public int size(String initiatorAccount) {
+        lock.readLock().lock();
+        try {
+            if (initiatorAccount == null || initiatorAccount.isEmpty()) {
+                return histories.size();
+            }
+            return initiatorCounts.getOrDefault(initiatorAccount, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 检索与任务标题有共同词语的候选记录
+     * 候选记录超过上限时按BM25得分保留前limit条，返回结果按记录ID升序排列
+     *
+     * @param query            任务标题的特征向量
+     * @param initiatorAccount 发起人账号，为空时检索全部记录
+     * @param limit            候选记录数量上限
+     * @return 候选批复历史记录列表
+     */
+    public List<ApprovalHistory> search(TitleFeatureVector query, String initiatorAccount, int limit) {
+        boolean filterInitiator = initiatorAccount != null && !initiatorAccount.isEmpty();
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            if (histories.isEmpty()) {
+                return new ArrayList<>();
+            }
+            int documentCount = histories.size();
+            double averageLength = (double) totalTokenCount / documentCount;
+            int[] tokenIds = query.getTokenIds();
+            int[] tokenCounts = query.getTokenCounts();
+            for (int i = 0; i < tokenIds.length; i++) {
+                Map<Long, Integer> posting = postings.get(tokenIds[i]);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    IndexedHistory indexed = histories.get(entry.getKey());
+                    if (filterInitiator && !initiatorAccount.equals(indexed.initiatorAccount)) {
+                        continue;
+                    }
+                    int tf = entry.getValue();
+                    double lengthNorm = averageLength == 0 ? 1 : indexed.tokenCount / averageLength;
+                    double score = tokenCounts[i] * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengthNorm));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+
+            List<Long> selected = selectTop(scores, limit);
+            List<ApprovalHistory> result = new ArrayList<>(selected.size());
+            for (Long id : selected) {
+                result.add(histories.get(id).history);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 合并任务标题各词语及发起人的审批人频次直方图
+     * 词语部分为审批人在包含各词语的记录中所占比例按词频和IDF加权的平均值；
+     * 指定发起人时再按initiatorWeight混入审批人在该发起人记录中所占比例。
+     * 只返回至少在一个词语的直方图中出现的审批人。
+     *
+     * @param query            任务标题的特征向量
+     * @param initiatorAccount 发起人账号，为空时只使用词语直方图
+     * @param initiatorWeight  发起人直方图的权重（0-1之间）
+     * @return 审批人账号到得分（0-1之间）的映射，任务标题与分区内记录没有共同词语时为空
+     */
+    public Map<String, Double> approverHistogram(TitleFeatureVector query, String initiatorAccount,
+            double initiatorWeight) {
+        Map<String, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            if (histories.isEmpty()) {
+                return scores;
+            }
+            int documentCount = histories.size();
+            int[] tokenIds = query.getTokenIds();
+            int[] tokenCounts = query.getTokenCounts();
+            double totalWeight = 0.0;
+            for (int i = 0; i < tokenIds.length; i++) {
+                Map<Long, Integer> posting = postings.get(tokenIds[i]);
+                if (posting == null) {
+                    continue;
+                }
+                int documentFrequency = posting.size();
+                double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                double weight = tokenCounts[i] * idf;
+                totalWeight += weight;
+                Map<String, Integer> histogram = tokenApproverCounts.get(tokenIds[i]);
+                if (histogram == null) {
+                    continue;
+                }
+                for (Map.Entry<String, Integer> entry : histogram.entrySet()) {
+                    scores.merge(entry.getKey(), weight * entry.getValue() / documentFrequency, Double::sum);
+                }
+            }
+            if (totalWeight <= 0) {
+                scores.clear();
+                return scores;
+            }
+
+            boolean useInitiator = initiatorAccount != null && !initiatorAccount.isEmpty() && initiatorWeight > 0
+                    && initiatorCounts.containsKey(initiatorAccount);
+            Map<String, Integer> initiatorHistogram = useInitiator
+                    ? initiatorApproverCounts.getOrDefault(initiatorAccount, new HashMap<>()) : null;
+            int initiatorTotal = useInitiator ? initiatorCounts.get(initiatorAccount) : 0;
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                double tokenScore = entry.getValue() / totalWeight;
+                if (useInitiator) {
+                    double initiatorScore = (double) initiatorHistogram.getOrDefault(entry.getKey(), 0)
+                            / initiatorTotal;
+                    entry.setValue((1 - initiatorWeight) * tokenScore + initiatorWeight * initiatorScore);
+                } else {
+                    entry.setValue(tokenScore);
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按得分保留前limit条记录，同分时ID较小者优先，结果按ID升序排列
+     *
+     * @param scores 记录ID到得分的映射
+     * @param limit  数量上限
+     * @return 记录ID列表
+     */
+    private static List<Long> selectTop(Map<Long, Double> scores, int limit) {
+        List<Long> selected;
+        if (scores.size() <= limit) {
+            selected = new ArrayList<>(scores.keySet());
+        } else {
+            // 小顶堆，堆顶为当前保留记录中最差的一条
+            PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(limit + 1, (e1, e2) -> {
+                int compare = Double.compare(e1.getValue(), e2.getValue());
+                return compare != 0 ? compare : Long.compare(e2.getKey(), e1.getKey());
+            });
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            selected = new ArrayList<>(heap.size());
+            for (Map.Entry<Long, Double> entry : heap) {
+                selected.add(entry.getKey());
+            }
+        }
+        selected.sort(null);
+        return selected;
+    }
+
+    private void removeInternal(Long id) {
+        IndexedHistory previous = histories.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int tokenId : previous.tokenIds) {
+            Map<Long, Integer> posting = postings.get(tokenId);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(tokenId);
+                }
+            }
+            if (previous.approverAccount != null) {
+                decrement(tokenApproverCounts, tokenId, previous.approverAccount);
+            }
+        }
+        totalTokenCount -= previous.tokenCount;
+        if (previous.initiatorAccount != null) {
+            initiatorCounts.computeIfPresent(previous.initiatorAccount, (k, count) -> count > 1 ? count - 1 : null);
+            if (previous.approverAccount != null) {
+                decrement(initiatorApproverCounts, previous.initiatorAccount, previous.approverAccount);
+            }
+        }
+    }
+
+    private static <K> void decrement(Map<K, Map<String, Integer>> histograms, K key, String approverAccount) {
+        Map<String, Integer> histogram = histograms.get(key);
+        if (histogram == null) {
+            return;
+        }
+        histogram.computeIfPresent(approverAccount, (k, count) -> count > 1 ? count - 1 : null);
+        if (histogram.isEmpty()) {
+            histograms.remove(key);
+        }
+    }
+
+    /**
+     * 索引中的批复历史记录
+     * 保存添加时的发起人、审批人和词编号，移除时据此清理倒排表和直方图，不受实体后续修改影响
+     */
+    private static class IndexedHistory {
+        private final ApprovalHistory history; // 批复历史记录
+        private final String initiatorAccount; // 发起人账号
+        private final String approverAccount; // 审批人账号
+        private final int[] tokenIds; // 去重后的词编号
+        private final int tokenCount; // 分词数量（含重复）
+
+        private IndexedHistory(ApprovalHistory history, TitleFeatureVector vector) {
+            this.history = history;
+            this.initiatorAccount = history.getInitiatorAccount();
+            this.approverAccount = history.getApproverAccount();
+            this.tokenIds = vector.getTokenIds();
+            this.tokenCount = vector.getTokenCount();
+        }
+    }
+}
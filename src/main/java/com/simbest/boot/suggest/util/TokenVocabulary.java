@@ -0,0 +1,54 @@
+package com.simbest.boot.suggest.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * 词语编号表
+ * 为分词结果分配全局唯一的整数编号，使文本特征可以用整型数组表示和比较。
+ * 分词结果由词典词语和单字组成：单字直接以字符值作为编号，不占用编号表；
+ * 多字词语从字符值范围之后分配编号，词语从词典中移除后其编号随之回收，编号表的规模不超过当前词典。
+ * 回收的编号不再复用，词语重新加入词典时分配新编号；按旧词典计算的特征会因词典版本变化而重新计算。
+ */
+public class TokenVocabulary {
+
+    private static final Map<String, Integer> TOKEN_IDS = new ConcurrentHashMap<>(); // 词语到编号的映射
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(Character.MAX_VALUE + 1); // 下一个可用编号
+
+    /**
+     * 获取词语的编号，词语首次出现时分配新编号
+     *
+     * @param token 词语
+     * @return 编号
+     */
+    public static int idOf(String token) {
+        if (token.length() == 1) {
+            return token.charAt(0);
+        }
+        Integer id = TOKEN_IDS.get(token);
+        if (id == null) {
+            id = TOKEN_IDS.computeIfAbsent(token, k -> NEXT_ID.getAndIncrement());
+        }
+        return id;
+    }
+
+    /**
+     * 回收不再满足条件的词语的编号，词典移除词语后调用
+     *
+     * @param retained 判断词语是否保留的条件
+     */
+    public static void retainAll(Predicate<String> retained) {
+        TOKEN_IDS.keySet().removeIf(retained.negate());
+    }
+
+    /**
+     * 获取已分配编号的词语数量（不含单字）
+     *
+     * @return 词语数量
+     */
+    public static int size() {
+        return TOKEN_IDS.size();
+    }
+}
@@ -0,0 +1,60 @@
+package com.simbest.boot.suggest.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ * 统一内存数据（缓存、索引、快照）与数据库事务的同步方式：
+ * 内存数据只应反映已提交的数据，因此更新在事务提交后执行，事务回滚时不执行；
+ * 不在事务中调用时（例如启动加载或测试代码）立即执行。
+ * 提交后回调中再注册的回调不会被Spring执行，因此回调执行期间调用时同样立即执行。
+ */
+public class TransactionUtil {
+
+    private static final ThreadLocal<Boolean> IN_AFTER_COMMIT = new ThreadLocal<>(); // 当前线程是否正在执行提交后回调
+
+    private TransactionUtil() {
+    }
+
+    /**
+     * 在当前事务提交后执行操作，没有活动事务时立即执行
+     *
+     * @param action 操作
+     */
+    public static void afterCommit(Runnable action) {
+        if (isDeferrable()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    IN_AFTER_COMMIT.set(Boolean.TRUE);
+                    try {
+                        action.run();
+                    } finally {
+                        IN_AFTER_COMMIT.remove();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 立即执行失效操作，并在当前事务提交后再次执行
+     * 用于缓存失效：立即失效使本事务内的后续读取不命中旧数据；提交前其他线程可能读到旧数据并重新写入缓存，
+     * 提交后再次失效将其清除。没有活动事务时只执行一次。
+     *
+     * @param invalidation 失效操作，应可重复执行
+     */
+    public static void invalidateNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (isDeferrable()) {
+            afterCommit(invalidation);
+        }
+    }
+
+    private static boolean isDeferrable() {
+        return TransactionSynchronizationManager.isSynchronizationActive() && IN_AFTER_COMMIT.get() == null;
+    }
+}
@@ -0,0 +1,147 @@
+package com.simbest.boot.suggest.test;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simbest.boot.suggest.model.ResponsibilityDomain;
+import com.simbest.boot.suggest.util.DomainKeywordIndex;
+
+/**
+ * 职责领域关键词索引测试
+ * 以data/domains.json中的真实职责领域为基础，补充含重复关键词、null关键词、空关键词的领域，
+ * 逐一比较 {@link DomainKeywordIndex} 与 {@link ResponsibilityDomain#calculateMatchScore(String)} 的得分。
+ * 不依赖运行中的服务，使用默认权重。
+ */
+public class DomainKeywordIndexTest {
+
+    private static final String[] TITLES = {
+            "关于网络安全管理规定的通知",
+            "关于开展网络安全专项行动的通知",
+            "关于2024年计费账务系统维护的请示",
+            "关于10086短信平台扩展号码申请的报告",
+            "政企业务支撑需求评审",
+            "关于召开年度财务预算审核会议的通知",
+            "人力资源招聘计划审批",
+            "安全安全安全",
+            "春耕两会保密检查",
+            "无关的标题",
+            "a" };
+
+    private List<ResponsibilityDomain> domains; // 测试用职责领域
+    private DomainKeywordIndex index; // 被测索引
+
+    @BeforeClass
+    public void setup() throws Exception {
+        domains = new ArrayList<>();
+        try (InputStream input = getClass().getResourceAsStream("/data/domains.json")) {
+            List<Map<String, Object>> fixtures = new ObjectMapper().readValue(input,
+                    new TypeReference<List<Map<String, Object>>>() {
+                    });
+            for (Map<String, Object> fixture : fixtures) {
+                ResponsibilityDomain domain = new ResponsibilityDomain();
+                domain.setDomainId((String) fixture.get("domainId"));
+                domain.setDomainName((String) fixture.get("domainName"));
+                @SuppressWarnings("unchecked")
+                List<String> keywords = (List<String>) fixture.get("keywords");
+                domain.setKeywords(new ArrayList<>(keywords));
+                domains.add(domain);
+            }
+        }
+        Assert.assertFalse(domains.isEmpty(), "职责领域数据不应为空");
+
+        // 重复关键词：计数按原始列表，权重按去重后的关键词
+        domains.add(domain("dup001", "安全", "安全", "网络安全", "计费", "计费"));
+        // null关键词：计入关键词总数但不参与匹配
+        domains.add(domain("null001", "网络安全", null, "漏洞", null));
+        // 空关键词：任意非空文本都直接命中
+        domains.add(domain("empty001", "", "预算"));
+        // 只能通过同义词命中的关键词；同义词适配器当前不返回同义词，两种计算应一致判为未命中
+        domains.add(domain("synonym001", "互联网信安", "安全隐患", "系统漏洞"));
+        // 与真实领域共享关键词的领域
+        domains.add(domain("shared001", "安全", "计费", "政企"));
+
+        index = new DomainKeywordIndex(domains);
+    }
+
+    /**
+     * 标题与每个领域的得分与逐领域计算一致
+     */
+    @Test
+    public void testScoresMatchDomainCalculation() throws Exception {
+        for (String text : texts()) {
+            Map<String, Double> scores = index.calculateMatchScores(text);
+            for (ResponsibilityDomain domain : domains) {
+                double expected = domain.calculateMatchScore(text);
+                double actual = scores.getOrDefault(domain.getDomainId(), 0.0);
+                Assert.assertEquals(Double.compare(actual, expected), 0,
+                        domain.getDomainId() + " / " + text + " 期望: " + expected + " 实际: " + actual);
+            }
+            Assert.assertTrue(index.verify(text, scores), "索引自校验应通过: " + text);
+        }
+    }
+
+    /**
+     * 未命中任何关键词的领域不出现在结果中
+     */
+    @Test
+    public void testUnmatchedDomainsOmitted() throws Exception {
+        for (String text : texts()) {
+            Map<String, Double> scores = index.calculateMatchScores(text);
+            for (ResponsibilityDomain domain : domains) {
+                if (domain.calculateMatchScore(text) == 0.0) {
+                    Assert.assertEquals(scores.getOrDefault(domain.getDomainId(), 0.0), 0.0,
+                            domain.getDomainId() + " / " + text);
+                }
+            }
+        }
+    }
+
+    /**
+     * 空文本和null文本得分为空
+     */
+    @Test
+    public void testEmptyText() {
+        Assert.assertTrue(index.calculateMatchScores("").isEmpty(), "空文本不应命中任何领域");
+        Assert.assertTrue(index.calculateMatchScores((String) null).isEmpty(), "null文本不应命中任何领域");
+    }
+
+    /**
+     * 测试文本：固定标题、每个关键词本身、两个关键词的拼接以及同义词表中的词语
+     */
+    private Set<String> texts() {
+        Set<String> texts = new LinkedHashSet<>(Arrays.asList(TITLES));
+        List<String> keywords = new ArrayList<>();
+        for (ResponsibilityDomain domain : domains) {
+            for (String keyword : domain.getKeywords()) {
+                if (keyword != null && !keyword.isEmpty()) {
+                    keywords.add(keyword);
+                }
+            }
+        }
+        texts.addAll(keywords);
+        for (int i = 0; i + 1 < keywords.size(); i += 7) {
+            texts.add("关于" + keywords.get(i) + "和" + keywords.get(i + 1) + "的通知");
+        }
+        texts.addAll(Arrays.asList("安全漏洞", "隐患", "安全风险", "信息安全检查", "互联网信安"));
+        return texts;
+    }
+
+    private static ResponsibilityDomain domain(String domainId, String... keywords) {
+        ResponsibilityDomain domain = new ResponsibilityDomain();
+        domain.setDomainId(domainId);
+        domain.setDomainName(domainId);
+        domain.setKeywords(new ArrayList<>(Arrays.asList(keywords)));
+        return domain;
+    }
+}
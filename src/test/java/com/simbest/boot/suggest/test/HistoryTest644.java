@@ -175,4 +175,125 @@ public class HistoryTest644 {
             Assert.fail("测试执行失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 6.4.4.3 审批人频次直方图重建测试
+     * 验证重建后的记录数量与数据库中的批复历史一致、最常用审批人统计不变、无效租户返回失败，
+     * 以及重建后租户的推荐结果缓存失效
+     */
+    @Test
+    public void test_6_4_4_3_RebuildApproverHistograms() {
+        System.out.println("执行测试用例6.4.4.3: 审批人频次直方图重建测试");
+
+        // 第一步：保存一条批复历史记录，确保租户有历史数据
+        String createHistoryBody = "{\n" +
+                "  \"taskId\": \"test-task-rebuild-001\",\n" +
+                "  \"taskTitle\": \"关于审批人频次直方图重建的请示\",\n" +
+                "  \"initiatorAccount\": \"user004\",\n" +
+                "  \"approverAccount\": \"user020\",\n" +
+                "  \"workflowDirection\": \"UPWARD\",\n" +
+                "  \"approvalTime\": " + System.currentTimeMillis() + ",\n" +
+                "  \"tenantCode\": \"default\"\n" +
+                "}";
+        Response createResponse = given()
+                .contentType(ContentType.JSON)
+                .body(createHistoryBody)
+                .when()
+                .post("/approval-history")
+                .then()
+                .extract().response();
+        System.out.println("创建批复历史响应内容: " + createResponse.asString());
+        Assert.assertEquals(createResponse.getStatusCode(), 200, "创建批复历史响应状态码应为200");
+        Assert.assertEquals(createResponse.jsonPath().getInt("errcode"), 0, "创建批复历史响应中errcode字段应为0");
+
+        // 第二步：记录重建前的批复历史数量和最常用审批人
+        List<?> histories = given()
+                .when()
+                .get("/approval-history/tenant/default")
+                .then()
+                .extract().response().jsonPath().getList("data");
+        Assert.assertNotNull(histories, "批复历史记录不应为null");
+        Assert.assertFalse(histories.isEmpty(), "批复历史记录不应为空");
+        Map<String, Object> approversBefore = mostFrequentApprovers();
+
+        // 第三步：连续两次推荐，第二次命中推荐结果缓存
+        String recommendBody = "{\n" +
+                "  \"taskTitle\": \"关于审批人频次直方图重建的请示\",\n" +
+                "  \"recommendationType\": \"SINGLE\",\n" +
+                "  \"workflowDirection\": \"UPWARD\",\n" +
+                "  \"userAccount\": \"user004\",\n" +
+                "  \"tenantCode\": \"default\",\n" +
+                "  \"trace\": true\n" +
+                "}";
+        recommendWithTrace(recommendBody);
+        Assert.assertEquals(recommendWithTrace(recommendBody).jsonPath().getString("data.trace.cache"), "hit",
+                "重复推荐应命中推荐结果缓存");
+        long staleMissesBefore = cacheStats().jsonPath().getLong("data.staleMisses");
+
+        // 第四步：重建审批人频次直方图
+        Response rebuildResponse = given()
+                .queryParam("tenantCode", "default")
+                .when()
+                .post("/approval-history/histograms/rebuild")
+                .then()
+                .extract().response();
+        System.out.println("重建响应内容: " + rebuildResponse.asString());
+        Assert.assertEquals(rebuildResponse.getStatusCode(), 200, "重建响应状态码应为200");
+        Assert.assertEquals(rebuildResponse.jsonPath().getInt("errcode"), 0, "重建响应中errcode字段应为0");
+        Assert.assertEquals(rebuildResponse.jsonPath().getInt("data"), histories.size(), "重建的记录数量应等于租户的批复历史数量");
+
+        // 第五步：重建前后最常用审批人统计一致
+        Assert.assertEquals(mostFrequentApprovers(), approversBefore, "重建前后最常用审批人统计应一致");
+
+        // 第六步：重建后租户的推荐结果缓存失效
+        Assert.assertEquals(recommendWithTrace(recommendBody).jsonPath().getString("data.trace.cache"), "miss",
+                "重建后推荐结果缓存应失效");
+        Assert.assertEquals(cacheStats().jsonPath().getLong("data.staleMisses"), staleMissesBefore + 1,
+                "失效的缓存条目应计入staleMisses");
+
+        // 第七步：无效租户重建失败
+        Response invalidResponse = given()
+                .queryParam("tenantCode", "invalid-tenant")
+                .when()
+                .post("/approval-history/histograms/rebuild")
+                .then()
+                .extract().response();
+        System.out.println("无效租户重建响应内容: " + invalidResponse.asString());
+        Assert.assertFalse(invalidResponse.jsonPath().getBoolean("success"), "无效租户重建应失败");
+        Assert.assertNotEquals(invalidResponse.jsonPath().getInt("errcode"), 0, "无效租户重建的errcode字段不应为0");
+    }
+
+    private Map<String, Object> mostFrequentApprovers() {
+        Response response = given()
+                .queryParam("tenantCode", "default")
+                .when()
+                .get("/approval-history/most-frequent-approvers")
+                .then()
+                .extract().response();
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "最常用审批人响应中errcode字段应为0");
+        return response.jsonPath().getMap("data");
+    }
+
+    private Response recommendWithTrace(String requestBody) {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/recommend/getRecommendation")
+                .then()
+                .extract().response();
+        System.out.println("推荐响应内容: " + response.asString());
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "推荐响应中errcode字段应为0");
+        return response;
+    }
+
+    private Response cacheStats() {
+        Response response = given()
+                .when()
+                .get("/recommend/cache-stats")
+                .then()
+                .extract().response();
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "缓存统计响应中errcode字段应为0");
+        return response;
+    }
 }
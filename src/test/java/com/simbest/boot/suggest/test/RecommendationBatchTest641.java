@@ -0,0 +1,278 @@
+package com.simbest.boot.suggest.test;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * 批量推荐和推荐结果缓存统计测试套件
+ * 覆盖批量推荐接口的结果顺序、单项失败和批次大小上限，以及缓存统计接口的命中与未命中计数
+ */
+@Listeners(com.simbest.boot.suggest.test.report.TestReportGenerator.class)
+public class RecommendationBatchTest641 {
+
+    private int batchMaxSize; // 批量推荐单次请求数量上限，与服务端app.recommendationBatchMaxSize一致
+
+    @BeforeClass
+    @Parameters({ "baseUrl", "port", "batchMaxSize" })
+    public void setup(String baseUrl, int port, @Optional("100") int batchMaxSize) {
+        RestAssured.baseURI = baseUrl;
+        RestAssured.port = port;
+        RestAssured.basePath = "/suggest";
+        this.batchMaxSize = batchMaxSize;
+
+        System.out.println("测试环境配置:");
+        System.out.println("- 基础URL: " + baseUrl);
+        System.out.println("- 端口: " + port);
+        System.out.println("- 基础路径: " + RestAssured.basePath);
+        System.out.println("- 批量推荐数量上限: " + batchMaxSize);
+    }
+
+    /**
+     * 6.4.1.3.1 批量推荐结果顺序测试
+     * 验证结果项与推荐请求一一对应、按输入顺序返回，且与单个推荐接口的结果一致
+     */
+    @Test
+    public void test_6_4_1_3_1_BatchPreservesInputOrder() {
+        System.out.println("执行测试用例6.4.1.3.1: 批量推荐结果顺序测试");
+
+        List<String> requests = new ArrayList<>();
+        requests.add(request("batch-order-0", "关于迎接集团公司政企大客户行为规范培训的通知", "MULTIPLE", "DOWNWARD",
+                "user004", null));
+        requests.add(request("batch-order-1", "关于信息系统安全管理规定的通知", "SINGLE", "UPWARD", null,
+                "team_security"));
+        requests.add(request("batch-order-2", "关于部门年度预算编制的通知", "SINGLE", "UPWARD", "user004", null));
+        requests.add(request("batch-order-3", "关于软件平台升级的技术方案", "SINGLE", "UPWARD", null, "team_platform"));
+        requests.add(request("batch-order-4", "关于政企业务客户满意度调查的通知", "MULTIPLE", "UPWARD", null,
+                "team_marketing"));
+
+        Response response = batch("default", requests, false);
+        Assert.assertEquals(response.getStatusCode(), 200, "响应状态码应为200");
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "响应中errcode字段应为0");
+
+        List<Map<String, Object>> items = response.jsonPath().getList("data");
+        Assert.assertEquals(items.size(), requests.size(), "结果项数量应与推荐请求数量一致");
+        for (int i = 0; i < items.size(); i++) {
+            Assert.assertEquals(response.jsonPath().getInt("data[" + i + "].index"), i, "结果项下标应与输入顺序一致");
+            Assert.assertEquals(response.jsonPath().getString("data[" + i + "].taskId"), "batch-order-" + i,
+                    "结果项任务ID应与输入顺序一致");
+            Assert.assertTrue(response.jsonPath().getBoolean("data[" + i + "].success"), "第" + i + "项应处理成功");
+
+            // 与单个推荐接口的结果一致
+            Response single = given()
+                    .contentType(ContentType.JSON)
+                    .body(requests.get(i))
+                    .when()
+                    .post("/recommend/getRecommendation")
+                    .then()
+                    .extract().response();
+            Assert.assertEquals(single.jsonPath().getInt("errcode"), 0, "单个推荐响应中errcode字段应为0");
+            Assert.assertEquals(response.jsonPath().getList("data[" + i + "].result.leaders.suggestAccount"),
+                    single.jsonPath().getList("data.leaders.suggestAccount"), "第" + i + "项推荐领导应与单个推荐一致");
+            Assert.assertEquals(response.jsonPath().getString("data[" + i + "].result.score"),
+                    single.jsonPath().getString("data.score"), "第" + i + "项推荐得分应与单个推荐一致");
+        }
+    }
+
+    /**
+     * 6.4.1.3.2 批量推荐单项失败测试
+     * 验证校验失败的推荐请求只使对应结果项失败，不影响其他推荐请求
+     */
+    @Test
+    public void test_6_4_1_3_2_BatchPerItemErrors() {
+        System.out.println("执行测试用例6.4.1.3.2: 批量推荐单项失败测试");
+
+        List<String> requests = new ArrayList<>();
+        requests.add(request("batch-error-0", "关于部门年度预算编制的通知", "SINGLE", "UPWARD", "user004", null));
+        requests.add(request("batch-error-1", null, "SINGLE", "UPWARD", "user004", null));
+        requests.add(request("batch-error-2", "关于部门年度预算编制的通知", "SINGLE", null, "user004", null));
+        requests.add(request("batch-error-3", "关于部门年度预算编制的通知", "SINGLE", "UPWARD", null, null));
+        requests.add("{ \"taskId\": \"batch-error-4\", \"tenantCode\": \"other\","
+                + " \"taskTitle\": \"关于部门年度预算编制的通知\", \"workflowDirection\": \"UPWARD\","
+                + " \"userAccount\": \"user004\" }");
+        requests.add(request("batch-error-5", "关于信息系统安全管理规定的通知", "SINGLE", "UPWARD", null,
+                "team_security"));
+
+        Response response = batch("default", requests, false);
+        System.out.println("响应内容: " + response.asString());
+        Assert.assertEquals(response.getStatusCode(), 200, "响应状态码应为200");
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "单项失败时整个批次仍应成功");
+
+        List<Map<String, Object>> items = response.jsonPath().getList("data");
+        Assert.assertEquals(items.size(), requests.size(), "结果项数量应与推荐请求数量一致");
+        String[] expectedErrors = { null, "任务标题不能为空", "工作流方向不能为空", "用户账号和组织ID不能同时为空",
+                "租户编码与批次租户编码不一致", null };
+        for (int i = 0; i < items.size(); i++) {
+            Assert.assertEquals(response.jsonPath().getInt("data[" + i + "].index"), i, "结果项下标应与输入顺序一致");
+            Assert.assertEquals(response.jsonPath().getString("data[" + i + "].taskId"), "batch-error-" + i,
+                    "结果项任务ID应与输入顺序一致");
+            if (expectedErrors[i] == null) {
+                Assert.assertTrue(response.jsonPath().getBoolean("data[" + i + "].success"), "第" + i + "项应处理成功");
+                Assert.assertNull(response.jsonPath().get("data[" + i + "].message"), "第" + i + "项不应有失败原因");
+            } else {
+                Assert.assertFalse(response.jsonPath().getBoolean("data[" + i + "].success"), "第" + i + "项应处理失败");
+                Assert.assertNull(response.jsonPath().get("data[" + i + "].result"), "第" + i + "项不应有推荐结果");
+                String message = response.jsonPath().getString("data[" + i + "].message");
+                Assert.assertTrue(message != null && message.contains(expectedErrors[i]),
+                        "第" + i + "项失败原因应包含: " + expectedErrors[i] + "，实际: " + message);
+            }
+        }
+    }
+
+    /**
+     * 6.4.1.3.3 批量推荐批次校验测试
+     * 验证批次大小上限、空批次和无效租户整体返回失败
+     */
+    @Test
+    public void test_6_4_1_3_3_BatchValidation() {
+        System.out.println("执行测试用例6.4.1.3.3: 批量推荐批次校验测试");
+
+        // 恰好达到上限的批次正常处理
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < batchMaxSize; i++) {
+            requests.add(request("batch-limit-" + i, "关于部门年度预算编制的通知", "SINGLE", "UPWARD", "user004", null));
+        }
+        Response response = batch("default", requests, false);
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "达到上限的批次应处理成功");
+        Assert.assertEquals(response.jsonPath().getList("data").size(), batchMaxSize, "结果项数量应与推荐请求数量一致");
+
+        // 超过上限的批次整体失败
+        requests.add(request("batch-limit-" + batchMaxSize, "关于部门年度预算编制的通知", "SINGLE", "UPWARD", "user004",
+                null));
+        response = batch("default", requests, false);
+        System.out.println("超过上限响应内容: " + response.asString());
+        Assert.assertFalse(response.jsonPath().getBoolean("success"), "超过上限的批次应失败");
+        Assert.assertTrue(response.jsonPath().getString("message").contains("不能超过" + batchMaxSize),
+                "失败原因应包含批次大小上限");
+
+        // 空批次整体失败
+        response = batch("default", new ArrayList<>(), false);
+        Assert.assertFalse(response.jsonPath().getBoolean("success"), "空批次应失败");
+        Assert.assertTrue(response.jsonPath().getString("message").contains("推荐请求列表不能为空"), "失败原因应说明请求列表为空");
+
+        // 无效租户整体失败
+        requests = new ArrayList<>();
+        requests.add(request("batch-tenant-0", "关于部门年度预算编制的通知", "SINGLE", "UPWARD", "user004", null));
+        response = batch("invalid-tenant", requests, false);
+        System.out.println("无效租户响应内容: " + response.asString());
+        Assert.assertFalse(response.jsonPath().getBoolean("success"), "无效租户的批次应失败");
+        Assert.assertNotEquals(response.jsonPath().getInt("errcode"), 0, "无效租户的批次errcode字段不应为0");
+    }
+
+    /**
+     * 6.4.1.3.4 推荐结果缓存统计测试
+     * 验证缓存统计接口的命中、未命中计数与推荐执行轨迹中的缓存查询次数一致
+     */
+    @Test
+    public void test_6_4_1_3_4_CacheStats() {
+        System.out.println("执行测试用例6.4.1.3.4: 推荐结果缓存统计测试");
+
+        // 使用唯一的任务标题，保证第一次请求未命中缓存
+        String requestBody = "{\n" +
+                "  \"taskTitle\": \"关于推荐结果缓存统计测试" + System.nanoTime() + "的通知\",\n" +
+                "  \"recommendationType\": \"SINGLE\",\n" +
+                "  \"workflowDirection\": \"UPWARD\",\n" +
+                "  \"userAccount\": \"user004\",\n" +
+                "  \"tenantCode\": \"default\",\n" +
+                "  \"trace\": true\n" +
+                "}";
+
+        Map<String, Object> before = cacheStats();
+        Assert.assertEquals(before.get("enabled"), Boolean.TRUE, "推荐结果缓存应已启用");
+
+        Response first = recommend(requestBody);
+        Response second = recommend(requestBody);
+        Assert.assertEquals(first.jsonPath().getString("data.trace.cache"), "miss", "第一次请求应未命中缓存");
+        Assert.assertEquals(second.jsonPath().getString("data.trace.cache"), "hit", "第二次请求应命中缓存");
+
+        Map<String, Object> after = cacheStats();
+        long expectedHits = first.jsonPath().getLong("data.trace.cacheHits")
+                + second.jsonPath().getLong("data.trace.cacheHits");
+        long expectedMisses = first.jsonPath().getLong("data.trace.cacheMisses")
+                + second.jsonPath().getLong("data.trace.cacheMisses");
+        Assert.assertEquals(toLong(after.get("hits")) - toLong(before.get("hits")), expectedHits,
+                "命中次数增量应与执行轨迹一致");
+        Assert.assertEquals(toLong(after.get("misses")) - toLong(before.get("misses")), expectedMisses,
+                "未命中次数增量应与执行轨迹一致");
+        Assert.assertTrue(toLong(after.get("size")) >= 1, "缓存中应至少有一条推荐结果");
+        Assert.assertTrue(toLong(after.get("size")) <= toLong(after.get("maxEntries")), "缓存大小不应超过上限");
+
+        long hits = toLong(after.get("hits"));
+        long misses = toLong(after.get("misses"));
+        Assert.assertEquals(((Number) after.get("hitRate")).doubleValue(), (double) hits / (hits + misses), 1e-6,
+                "命中率应等于命中次数除以查询次数");
+        Assert.assertEquals(((Number) after.get("missRate")).doubleValue(), (double) misses / (hits + misses), 1e-6,
+                "未命中率应等于未命中次数除以查询次数");
+    }
+
+    private static String request(String taskId, String taskTitle, String recommendationType,
+            String workflowDirection, String userAccount, String orgId) {
+        return "{ \"taskId\": \"" + taskId + "\", \"tenantCode\": \"default\", \"taskTitle\": " + quote(taskTitle)
+                + ", \"recommendationType\": " + quote(recommendationType)
+                + ", \"workflowDirection\": " + quote(workflowDirection)
+                + ", \"userAccount\": " + quote(userAccount) + ", \"orgId\": " + quote(orgId) + " }";
+    }
+
+    private static String quote(String value) {
+        return value != null ? "\"" + value + "\"" : "null";
+    }
+
+    private static Response batch(String tenantCode, List<String> requests, boolean saveFeedback) {
+        String requestBody = "{\n" +
+                "  \"tenantCode\": \"" + tenantCode + "\",\n" +
+                "  \"saveFeedback\": " + saveFeedback + ",\n" +
+                "  \"requests\": [" + String.join(",\n", requests) + "]\n" +
+                "}";
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/recommend/batch")
+                .then()
+                .extract().response();
+        System.out.println("批量推荐响应时间: " + response.time() + "ms");
+        return response;
+    }
+
+    private static Response recommend(String requestBody) {
+        Response response = given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/recommend/getRecommendation")
+                .then()
+                .extract().response();
+        System.out.println("推荐响应内容: " + response.asString());
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "推荐响应中errcode字段应为0");
+        return response;
+    }
+
+    private static Map<String, Object> cacheStats() {
+        Response response = given()
+                .when()
+                .get("/recommend/cache-stats")
+                .then()
+                .extract().response();
+        System.out.println("缓存统计响应内容: " + response.asString());
+        Assert.assertEquals(response.getStatusCode(), 200, "响应状态码应为200");
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "响应中errcode字段应为0");
+        return response.jsonPath().getMap("data");
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,174 @@
+package com.simbest.boot.suggest.test;
+
+import static io.restassured.RestAssured.given;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+/**
+ * 推荐策略并行执行一致性测试
+ * 同一组推荐请求分别发送到顺序执行推荐策略的服务（port）和并行执行推荐策略的服务
+ * （parallelPort，以 --app.recommendationParallelEnabled=true 启动），两个服务使用相同的初始数据，
+ * 验证推荐结果、胜出策略以及延后执行的任务模式匹配计数一致。
+ * 每个请求重复发送一次，验证命中推荐结果缓存时重放的任务模式匹配计数同样一致。
+ * 初始数据中的任务模式置信度为0，两个服务都需以 --app.historicalMatchingConfidenceThreshold=0 启动，
+ * 使任务模式参与匹配并登记延后执行的匹配计数。合并写入匹配计数不改变胜出的批复人时不使缓存失效，
+ * 两个服务的缓存命中情况不受写入时机影响。
+ */
+@Listeners(com.simbest.boot.suggest.test.report.TestReportGenerator.class)
+public class RecommendationParallelTest641 {
+
+    private static final String[][] REQUESTS = {
+            // taskTitle, recommendationType, workflowDirection, userAccount, orgId
+            { "关于政企市场客户拓展工作的通知", "SINGLE", "DOWNWARD", "user004", null },
+            { "关于数据治理标准制定的请示", "SINGLE", "UPWARD", "user004", null },
+            { "关于迎接集团公司政企大客户行为规范培训的通知", "MULTIPLE", "DOWNWARD", "user004", null },
+            { "关于迎接集团公司政企大客户行为规范培训的通知", "SINGLE", "UPWARD", "user023", null },
+            { "关于迎接集团公司政企大客户行为规范培训的通知", "SINGLE", "UPWARD", null, "team_enterprise_support" },
+            { "关于信息系统安全管理规定的通知", "SINGLE", "UPWARD", null, "team_security" },
+            { "关于政企业务客户满意度调查的通知", "MULTIPLE", "UPWARD", null, "team_marketing" },
+            { "关于部门年度预算编制的通知", "SINGLE", "UPWARD", "user004", null },
+            { "关于软件平台升级的技术方案", "SINGLE", "UPWARD", null, "team_platform" },
+            { "关于开展网络安全专项检查的通知", "MULTIPLE", "PARALLEL", "user004", null },
+            { "无关的测试标题", "SINGLE", "DOWNWARD", "user023", null } };
+
+    private int sequentialPort; // 顺序执行推荐策略的服务端口
+    private int parallelPort; // 并行执行推荐策略的服务端口
+
+    @BeforeClass
+    @Parameters({ "baseUrl", "port", "parallelPort" })
+    public void setup(String baseUrl, int port, int parallelPort) {
+        RestAssured.baseURI = baseUrl;
+        RestAssured.basePath = "/suggest";
+        this.sequentialPort = port;
+        this.parallelPort = parallelPort;
+
+        System.out.println("测试环境配置:");
+        System.out.println("- 基础URL: " + baseUrl);
+        System.out.println("- 顺序执行端口: " + port);
+        System.out.println("- 并行执行端口: " + parallelPort);
+        System.out.println("- 基础路径: " + RestAssured.basePath);
+    }
+
+    /**
+     * 6.4.1.2.1 并行与顺序执行推荐结果一致性测试
+     * 比较推荐领导、得分、推荐原因、胜出策略以及每个请求登记的任务模式匹配次数
+     */
+    @Test
+    public void test_6_4_1_2_1_ParallelMatchesSequential() {
+        System.out.println("执行测试用例6.4.1.2.1: 并行与顺序执行推荐结果一致性测试");
+
+        long totalRecorded = 0;
+        long replayedRecorded = 0;
+        for (String[] request : REQUESTS) {
+            String requestBody = requestBody(request);
+            // 第一次请求执行推荐策略，第二次请求命中缓存并重放延后执行的更新
+            for (int round = 1; round <= 2; round++) {
+                String label = request[0] + " / " + request[2] + " / 第" + round + "次";
+
+                long sequentialBefore = recordedMatches(sequentialPort);
+                Response sequential = recommend(sequentialPort, requestBody);
+                long sequentialRecorded = recordedMatches(sequentialPort) - sequentialBefore;
+
+                long parallelBefore = recordedMatches(parallelPort);
+                Response parallel = recommend(parallelPort, requestBody);
+                long parallelRecorded = recordedMatches(parallelPort) - parallelBefore;
+
+                System.out.println(label + " 顺序执行: " + sequential.asString());
+                System.out.println(label + " 并行执行: " + parallel.asString());
+
+                if (round == 1) {
+                    Assert.assertFalse(sequential.jsonPath().getBoolean("data.trace.parallel"),
+                            "port对应的服务应顺序执行推荐策略: " + label);
+                    Assert.assertTrue(parallel.jsonPath().getBoolean("data.trace.parallel"),
+                            "parallelPort对应的服务应并行执行推荐策略: " + label);
+                }
+                Assert.assertEquals(parallel.jsonPath().getString("data.trace.cache"),
+                        sequential.jsonPath().getString("data.trace.cache"), "缓存查询结果应一致: " + label);
+                Assert.assertEquals(parallel.jsonPath().getString("data.trace.winner"),
+                        sequential.jsonPath().getString("data.trace.winner"), "胜出策略应一致: " + label);
+                Assert.assertEquals(leaderAccounts(parallel), leaderAccounts(sequential), "推荐领导应一致: " + label);
+                Assert.assertEquals(parallel.jsonPath().getString("data.score"),
+                        sequential.jsonPath().getString("data.score"), "推荐得分应一致: " + label);
+                Assert.assertEquals(parallel.jsonPath().getString("data.reason"),
+                        sequential.jsonPath().getString("data.reason"), "推荐原因应一致: " + label);
+                Assert.assertEquals(parallelRecorded, sequentialRecorded, "登记的任务模式匹配次数应一致: " + label);
+                totalRecorded += sequentialRecorded;
+                if ("hit".equals(sequential.jsonPath().getString("data.trace.cache"))) {
+                    replayedRecorded += sequentialRecorded;
+                }
+            }
+        }
+        // 确认延后执行的更新确实发生且命中缓存时确实重放，否则匹配次数的比较没有意义
+        Assert.assertTrue(totalRecorded > 0, "应有请求命中任务模式并登记匹配次数");
+        Assert.assertTrue(replayedRecorded > 0, "应有命中缓存的请求重放任务模式匹配计数");
+    }
+
+    private static String requestBody(String[] request) {
+        return "{\n" +
+                "  \"taskTitle\": \"" + request[0] + "\",\n" +
+                "  \"recommendationType\": \"" + request[1] + "\",\n" +
+                "  \"workflowDirection\": \"" + request[2] + "\",\n" +
+                "  \"userAccount\": " + quote(request[3]) + ",\n" +
+                "  \"orgId\": " + quote(request[4]) + ",\n" +
+                "  \"tenantCode\": \"default\",\n" +
+                "  \"candidateAccounts\": null,\n" +
+                "  \"trace\": true\n" +
+                "}";
+    }
+
+    private static String quote(String value) {
+        return value != null ? "\"" + value + "\"" : "null";
+    }
+
+    private static Response recommend(int port, String requestBody) {
+        Response response = given()
+                .port(port)
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/recommend/getRecommendation")
+                .then()
+                .extract().response();
+        Assert.assertEquals(response.getStatusCode(), 200, "响应状态码应为200");
+        Assert.assertEquals(response.jsonPath().getInt("errcode"), 0, "响应中errcode字段应为0");
+        Assert.assertNotNull(response.jsonPath().get("data.trace"), "开启轨迹后响应中应包含data.trace");
+        return response;
+    }
+
+    /**
+     * 任务模式匹配计数的累计登记次数，登记在推荐返回前完成，不受合并写入周期影响
+     */
+    private static long recordedMatches(int port) {
+        Response response = given()
+                .port(port)
+                .when()
+                .get("/sys/health/anonymous/patternCounters")
+                .then()
+                .extract().response();
+        Assert.assertEquals(response.getStatusCode(), 200, "响应状态码应为200");
+        return response.jsonPath().getLong("data.recorded");
+    }
+
+    private static List<String> leaderAccounts(Response response) {
+        List<String> accounts = new ArrayList<>();
+        List<Map<String, Object>> leaders = response.jsonPath().getList("data.leaders");
+        if (leaders != null) {
+            for (Map<String, Object> leader : leaders) {
+                accounts.add((String) leader.get("suggestAccount"));
+            }
+        }
+        return accounts;
+    }
+}
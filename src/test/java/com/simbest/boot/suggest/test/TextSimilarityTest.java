@@ -0,0 +1,232 @@
+package com.simbest.boot.suggest.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.simbest.boot.suggest.model.TextSimilarityUtil;
+import com.simbest.boot.suggest.model.TitleFeatureVector;
+import com.simbest.boot.suggest.util.ChineseTokenizer;
+
+/**
+ * 文本相似度测试
+ * 将TextSimilarityUtil的计算结果与逐项构建集合、完整编辑距离矩阵的基准实现逐一比较，
+ * 验证有序数组归并、两行编辑距离以及按最低相似度提前结束后的得分不变。
+ * 不依赖运行中的服务，使用默认权重。
+ */
+public class TextSimilarityTest {
+
+    private static final double DELTA = 1e-9; // 浮点比较误差
+
+    private static final String[] TITLES = {
+            "关于网络安全管理规定的通知",
+            "关于加强网络安全管理工作的通知",
+            "关于召开2024年度财务预算审核会议的通知",
+            "财务预算审核",
+            "关于开展安全生产大检查的通知",
+            "关于印发人力资源管理办法的通知",
+            "人力资源招聘计划审批",
+            "信息化项目建设方案评审",
+            "关于信息化项目验收的请示",
+            "采购合同审批",
+            "采购合同审批",
+            "党风廉政建设工作部署",
+            "a",
+            "ab",
+            "ba",
+            "" };
+
+    private static final double[] MIN_SIMILARITIES = { 0.0, 0.1, 0.3, 0.5, 0.6, 0.7, 0.8, 0.9, 0.99, 1.0 };
+
+    /**
+     * Levenshtein相似度与基准实现一致
+     */
+    @Test
+    public void testLevenshteinSimilarityMatchesBaseline() {
+        for (String[] pair : pairs()) {
+            double expected = baselineLevenshteinSimilarity(pair[0], pair[1]);
+            Assert.assertEquals(TextSimilarityUtil.calculateLevenshteinSimilarity(pair[0], pair[1]), expected, DELTA,
+                    pair[0] + " / " + pair[1]);
+        }
+    }
+
+    /**
+     * 按最低相似度提前结束的Levenshtein相似度：不低于最低相似度时与基准一致，否则返回值同样低于最低相似度
+     */
+    @Test
+    public void testPrunedLevenshteinSimilarity() {
+        int pruned = 0;
+        for (String[] pair : pairs()) {
+            double expected = baselineLevenshteinSimilarity(pair[0], pair[1]);
+            for (double minSimilarity : MIN_SIMILARITIES) {
+                double actual = TextSimilarityUtil.calculateLevenshteinSimilarity(pair[0], pair[1], minSimilarity);
+                assertPruned(actual, expected, minSimilarity, pair);
+                if (actual != expected) {
+                    pruned++;
+                }
+            }
+        }
+        // 提前结束时返回的上界与实际相似度不同，据此确认剪枝确实生效
+        Assert.assertTrue(pruned > 0, "应存在提前结束的计算");
+    }
+
+    /**
+     * 最终综合相似度与基准实现一致
+     */
+    @Test
+    public void testFinalSimilarityMatchesBaseline() throws Exception {
+        for (String[] pair : pairs()) {
+            double expected = baselineFinalSimilarity(pair[0], pair[1]);
+            Assert.assertEquals(TextSimilarityUtil.calculateFinalSimilarity(pair[0], pair[1]), expected, DELTA,
+                    pair[0] + " / " + pair[1]);
+        }
+    }
+
+    /**
+     * 按最低相似度提前结束的最终综合相似度：不低于最低相似度时与基准一致，否则返回值同样低于最低相似度
+     */
+    @Test
+    public void testPrunedFinalSimilarity() {
+        for (String[] pair : pairs()) {
+            double expected = baselineFinalSimilarity(pair[0], pair[1]);
+            TitleFeatureVector vector1 = TitleFeatureVector.of(pair[0]);
+            TitleFeatureVector vector2 = TitleFeatureVector.of(pair[1]);
+            for (double minSimilarity : MIN_SIMILARITIES) {
+                double actual = TextSimilarityUtil.calculateFinalSimilarity(vector1, vector2, minSimilarity);
+                assertPruned(actual, expected, minSimilarity, pair);
+            }
+            // 最低相似度恰好等于基准得分时不得被提前结束
+            if (expected > 0) {
+                Assert.assertEquals(TextSimilarityUtil.calculateFinalSimilarity(vector1, vector2, expected), expected,
+                        DELTA, pair[0] + " / " + pair[1]);
+            }
+        }
+    }
+
+    private static void assertPruned(double actual, double expected, double minSimilarity, String[] pair) {
+        String message = pair[0] + " / " + pair[1] + " @ " + minSimilarity;
+        if (expected >= minSimilarity) {
+            Assert.assertEquals(actual, expected, DELTA, message);
+        } else {
+            Assert.assertTrue(actual < minSimilarity, message + " 返回值应低于最低相似度: " + actual);
+        }
+    }
+
+    /**
+     * 测试文本对：固定标题两两组合，以及由常用字随机组成的文本
+     */
+    private static List<String[]> pairs() {
+        List<String[]> pairs = new ArrayList<>();
+        for (String title1 : TITLES) {
+            for (String title2 : TITLES) {
+                pairs.add(new String[] { title1, title2 });
+            }
+        }
+        String alphabet = "关于网络安全管理通知财务预算审核项目";
+        Random random = new Random(20241017L);
+        for (int i = 0; i < 200; i++) {
+            pairs.add(new String[] { randomText(random, alphabet), randomText(random, alphabet) });
+        }
+        return pairs;
+    }
+
+    private static String randomText(Random random, String alphabet) {
+        int length = 1 + random.nextInt(30);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    // ---------- 基准实现：逐项构建集合和完整编辑距离矩阵，使用默认权重 ----------
+
+    private static double baselineFinalSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+        double levenshtein = baselineLevenshteinSimilarity(text1, text2);
+        double overall = 0.3 * baselineJaccard(toChars(text1), toChars(text2))
+                + 0.4 * baselineCosine(toChars(text1), toChars(text2)) + 0.3 * levenshtein;
+        List<String> tokens1 = ChineseTokenizer.tokenize(text1);
+        List<String> tokens2 = ChineseTokenizer.tokenize(text2);
+        double tokenOverall = 0.35 * baselineJaccard(tokens1, tokens2) + 0.45 * baselineCosine(tokens1, tokens2)
+                + 0.2 * levenshtein;
+        return 0.4 * overall + 0.6 * tokenOverall;
+    }
+
+    private static List<Character> toChars(String text) {
+        List<Character> chars = new ArrayList<>();
+        for (char c : text.toCharArray()) {
+            chars.add(c);
+        }
+        return chars;
+    }
+
+    private static <T> double baselineJaccard(List<T> items1, List<T> items2) {
+        Set<T> intersection = new HashSet<>(items1);
+        intersection.retainAll(new HashSet<>(items2));
+        Set<T> union = new HashSet<>(items1);
+        union.addAll(items2);
+        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+    }
+
+    private static <T> double baselineCosine(List<T> items1, List<T> items2) {
+        Map<T, Integer> vector1 = new HashMap<>();
+        for (T item : items1) {
+            vector1.merge(item, 1, Integer::sum);
+        }
+        Map<T, Integer> vector2 = new HashMap<>();
+        for (T item : items2) {
+            vector2.merge(item, 1, Integer::sum);
+        }
+        double dotProduct = 0.0;
+        for (Map.Entry<T, Integer> entry : vector1.entrySet()) {
+            dotProduct += entry.getValue() * vector2.getOrDefault(entry.getKey(), 0);
+        }
+        double norm1 = 0.0;
+        for (int count : vector1.values()) {
+            norm1 += count * count;
+        }
+        double norm2 = 0.0;
+        for (int count : vector2.values()) {
+            norm2 += count * count;
+        }
+        if (norm1 == 0.0 || norm2 == 0.0) {
+            return 0.0;
+        }
+        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
+    }
+
+    private static double baselineLevenshteinSimilarity(String text1, String text2) {
+        if (text1.equals(text2)) {
+            return 1.0;
+        }
+        if (text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+        int[][] distance = new int[text1.length() + 1][text2.length() + 1];
+        for (int i = 0; i <= text1.length(); i++) {
+            distance[i][0] = i;
+        }
+        for (int j = 0; j <= text2.length(); j++) {
+            distance[0][j] = j;
+        }
+        for (int i = 1; i <= text1.length(); i++) {
+            for (int j = 1; j <= text2.length(); j++) {
+                int cost = (text1.charAt(i - 1) == text2.charAt(j - 1)) ? 0 : 1;
+                distance[i][j] = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
+                        distance[i - 1][j - 1] + cost);
+            }
+        }
+        int maxLength = Math.max(text1.length(), text2.length());
+        return 1.0 - (double) distance[text1.length()][text2.length()] / maxLength;
+    }
+}
@@ -0,0 +1,541 @@
+package com.simbest.boot.suggest.test.load;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simbest.boot.suggest.entity.DomainLeaderMappingEntity;
+import com.simbest.boot.suggest.entity.LeaderEntity;
+import com.simbest.boot.suggest.entity.LeaderInfoEntity;
+import com.simbest.boot.suggest.entity.OrganizationDomainEntity;
+import com.simbest.boot.suggest.entity.OrganizationEntity;
+import com.simbest.boot.suggest.entity.ResponsibilityDomainEntity;
+import com.simbest.boot.suggest.model.Tenant;
+import com.simbest.boot.suggest.model.WorkflowDirection;
+import com.simbest.boot.suggest.repository.DomainLeaderMappingRepository;
+import com.simbest.boot.suggest.repository.LeaderInfoRepository;
+import com.simbest.boot.suggest.repository.LeaderRepository;
+import com.simbest.boot.suggest.repository.OrganizationDomainRepository;
+import com.simbest.boot.suggest.repository.OrganizationRepository;
+import com.simbest.boot.suggest.repository.ResponsibilityDomainRepository;
+import com.simbest.boot.suggest.repository.TenantRepository;
+import com.simbest.boot.suggest.service.ApprovalHistoryIndexService;
+import com.simbest.boot.suggest.service.KeywordMatcherService;
+import com.simbest.boot.suggest.service.LeaderDirectoryService;
+import com.simbest.boot.suggest.service.OrganizationScoringSnapshotService;
+import com.simbest.boot.suggest.service.RecommendationCacheService;
+import com.simbest.boot.suggest.service.TaskPatternMatcherService;
+
+/**
+ * 大租户压测数据生成器
+ * 在已启动的应用上下文中按配置的数据量向数据库写入职责领域、领导、组织、批复历史和推荐反馈，
+ * 任务标题为公文风格的中文标题，批复人与标题主题和发起人所在组织相关联，使历史匹配和反馈统计的命中分布接近真实数据。
+ * 领域、领导和组织通过数据访问层分批保存；批复历史和推荐反馈数据量大，直接使用JDBC批量插入。
+ * 写入完成后重建领导目录、组织评分快照、关键词自动机、任务模式匹配器和批复历史索引，并清空推荐结果缓存。
+ * 同一组参数和随机种子每次生成的数据完全相同。
+ */
+public class LoadDataGenerator {
+
+    private static final String[] ACTIONS = { "关于开展", "关于组织", "关于推进", "关于加强", "关于落实", "关于印发", "关于申请",
+            "关于报送", "关于做好", "关于调整", "关于召开", "关于转发" };
+    private static final String[] PERIODS = { "2024年", "2025年", "第一季度", "第二季度", "上半年", "下半年", "年度", "近期",
+            "", "", "" };
+    private static final String[] SUBJECTS = { "网络安全", "安全生产", "财务预算", "人力资源", "党风廉政", "信息化建设", "工程建设",
+            "市场营销", "客户服务", "采购管理", "合同管理", "审计监督", "宣传报道", "工会活动", "后勤保障", "数据治理", "应急管理",
+            "科技创新", "质量管理", "档案管理", "网格运营", "政企业务", "综合维护", "节能减排", "保密工作", "集团客户", "渠道管理",
+            "网络优化", "基站建设", "计费结算", "品牌推广", "员工培训", "绩效考核", "法律事务", "资产管理", "投资管理" };
+    private static final String[] OBJECTS = { "专项检查", "工作方案", "培训计划", "考核办法", "整改情况", "年度总结", "实施细则",
+            "调研报告", "费用报销", "资金拨付", "风险排查", "隐患治理", "制度修订", "评审会议", "验收工作", "推进会", "督导检查",
+            "经验交流", "情况通报", "需求申请" };
+    private static final String[] SUFFIXES = { "的通知", "的请示", "的报告", "的函", "的意见", "的批复", "" };
+    private static final String[] ORG_SUFFIXES = { "部", "中心", "办公室", "室", "分公司", "支撑中心" };
+    private static final String[] ORG_TYPES = { "DEPARTMENT", "OFFICE", "TEAM", "DIVISION" };
+    private static final String[] DOMAIN_SUFFIXES = { "管理", "工作", "业务", "保障", "支撑" };
+    private static final String[] SURNAMES = { "王", "李", "张", "刘", "陈", "杨", "黄", "赵", "吴", "周", "徐", "孙", "马", "朱",
+            "胡", "郭", "何", "高", "林", "罗" };
+    private static final String GIVEN_NAME_CHARS = "伟芳娜敏静丽强磊军洋勇艳杰娟涛明超秀霞平刚桂英华建国志红玉兰文斌宇浩晨";
+    private static final String[] APPROVAL_RESULTS = { "APPROVED", "APPROVED", "APPROVED", "REJECTED", "RETURNED" };
+    private static final WorkflowDirection[] DIRECTIONS = WorkflowDirection.values();
+
+    private static final int SAVE_BATCH_SIZE = 1000; // 数据访问层每批保存的记录数
+    private static final int INSERT_BATCH_SIZE = 5000; // JDBC每批插入的记录数
+    private static final int PROGRESS_INTERVAL = 100000; // 进度输出间隔
+    private static final long TIME_SPAN_MILLIS = 730L * 24 * 3600 * 1000; // 批复时间跨度：两年
+
+    private final ApplicationContext context; // 应用上下文
+    private final JdbcTemplate jdbcTemplate; // JDBC模板
+    private final TransactionTemplate transactionTemplate; // 事务模板
+    private final Random random; // 随机数生成器
+
+    private String tenantCode = "default"; // 租户代码
+    private int organizationCount = 2000; // 组织数量
+    private int domainCount = 1000; // 职责领域数量
+    private int leaderCount = 20000; // 领导数量
+    private int staffPerOrganization = 5; // 每个组织的发起人数量
+    private long historyCount = 1000000L; // 批复历史数量
+    private long feedbackCount = 1000000L; // 推荐反馈数量
+
+    private final List<String> leaderAccounts = new ArrayList<>(); // 生成的领导账号
+    private final List<String> leaderNames = new ArrayList<>(); // 与领导账号一一对应的姓名
+    private final List<String> organizationIds = new ArrayList<>(); // 生成的组织ID
+    private final List<String[]> organizationLeaders = new ArrayList<>(); // 组织ID到[主管领导, 上级分管领导, 副领导...]
+    private final List<List<Integer>> subjectLeaders = new ArrayList<>(); // 主题下标到负责该主题的领导下标
+
+    /**
+     * 创建压测数据生成器
+     *
+     * @param context 已启动的应用上下文
+     * @param seed    随机种子
+     */
+    public LoadDataGenerator(ApplicationContext context, long seed) {
+        this.context = context;
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.random = new Random(seed);
+    }
+
+    public LoadDataGenerator tenantCode(String tenantCode) {
+        this.tenantCode = tenantCode;
+        return this;
+    }
+
+    public LoadDataGenerator organizations(int organizationCount) {
+        this.organizationCount = organizationCount;
+        return this;
+    }
+
+    public LoadDataGenerator domains(int domainCount) {
+        this.domainCount = domainCount;
+        return this;
+    }
+
+    public LoadDataGenerator leaders(int leaderCount) {
+        this.leaderCount = leaderCount;
+        return this;
+    }
+
+    public LoadDataGenerator staffPerOrganization(int staffPerOrganization) {
+        this.staffPerOrganization = staffPerOrganization;
+        return this;
+    }
+
+    public LoadDataGenerator histories(long historyCount) {
+        this.historyCount = historyCount;
+        return this;
+    }
+
+    public LoadDataGenerator feedbacks(long feedbackCount) {
+        this.feedbackCount = feedbackCount;
+        return this;
+    }
+
+    public String getTenantCode() {
+        return tenantCode;
+    }
+
+    /**
+     * 生成全部数据并重建内存中的快照和索引
+     */
+    public void generate() {
+        if (organizationCount <= 0 || leaderCount <= 0 || staffPerOrganization <= 0) {
+            throw new IllegalArgumentException("组织数量、领导数量和每个组织的发起人数量必须大于0");
+        }
+        long startTime = System.currentTimeMillis();
+        System.out.println("开始生成压测数据: 租户 " + tenantCode + ", 组织 " + organizationCount + ", 职责领域 " + domainCount
+                + ", 领导 " + leaderCount + ", 批复历史 " + historyCount + ", 推荐反馈 " + feedbackCount);
+
+        ensureTenant();
+        List<ResponsibilityDomainEntity> domains = generateDomains();
+        generateLeaders(domains);
+        generateOrganizations(domains);
+        generateHistories();
+        generateFeedbacks();
+        refreshCaches();
+
+        System.out.println("压测数据生成完成, 耗时 " + (System.currentTimeMillis() - startTime) / 1000.0 + " 秒");
+    }
+
+    /**
+     * 随机生成一个公文风格的任务标题
+     *
+     * @param random 随机数生成器
+     * @return 任务标题
+     */
+    public static String nextTitle(Random random) {
+        return nextTitle(random, random.nextInt(SUBJECTS.length));
+    }
+
+    /**
+     * 随机选取一个发起人及其所在组织
+     *
+     * @param random 随机数生成器
+     * @return [发起人账号, 组织ID]
+     */
+    public String[] nextInitiator(Random random) {
+        int orgIndex = random.nextInt(organizationIds.size());
+        return new String[] { staffAccount(orgIndex, random.nextInt(staffPerOrganization)),
+                organizationIds.get(orgIndex) };
+    }
+
+    private static String nextTitle(Random random, int subjectIndex) {
+        return pick(random, ACTIONS) + pick(random, PERIODS) + SUBJECTS[subjectIndex] + pick(random, OBJECTS)
+                + pick(random, SUFFIXES);
+    }
+
+    /**
+     * 租户不存在时创建租户
+     */
+    private void ensureTenant() {
+        TenantRepository tenantRepository = context.getBean(TenantRepository.class);
+        if (!tenantRepository.existsByTenantCode(tenantCode)) {
+            Tenant tenant = new Tenant();
+            tenant.setTenantCode(tenantCode);
+            tenant.setTenantName("压测租户" + tenantCode);
+            tenant.setStatus(1);
+            tenant.setCreateTime(new java.util.Date());
+            tenant.setUpdateTime(new java.util.Date());
+            tenant.setCreatedBy("load-generator");
+            tenantRepository.save(tenant);
+            System.out.println("已创建租户: " + tenantCode);
+        }
+    }
+
+    private List<ResponsibilityDomainEntity> generateDomains() {
+        List<ResponsibilityDomainEntity> domains = new ArrayList<>(domainCount);
+        for (int i = 0; i < domainCount; i++) {
+            String subject = SUBJECTS[i % SUBJECTS.length];
+            ResponsibilityDomainEntity domain = new ResponsibilityDomainEntity();
+            domain.setDomainId(tenantCode + "_load_dom_" + i);
+            domain.setDomainName(subject + pick(random, DOMAIN_SUFFIXES) + (i / SUBJECTS.length + 1));
+            domain.setDescription("负责" + subject + "相关的" + pick(random, OBJECTS) + "等工作");
+            domain.setTenantCode(tenantCode);
+            Set<String> keywords = new LinkedHashSet<>();
+            keywords.add(subject);
+            int keywordCount = 3 + random.nextInt(7);
+            while (keywords.size() < keywordCount) {
+                keywords.add(random.nextInt(3) == 0 ? pick(random, SUBJECTS) : pick(random, OBJECTS));
+            }
+            domain.setKeywords(new ArrayList<>(keywords));
+            domain.setCreateTime(new java.util.Date());
+            domain.setCreatedBy("load-generator");
+            domains.add(domain);
+        }
+        saveInBatches(context.getBean(ResponsibilityDomainRepository.class), domains, "职责领域");
+        return domains;
+    }
+
+    private void generateLeaders(List<ResponsibilityDomainEntity> domains) {
+        for (int s = 0; s < SUBJECTS.length; s++) {
+            subjectLeaders.add(new ArrayList<>());
+        }
+
+        List<LeaderEntity> leaders = new ArrayList<>(leaderCount);
+        List<LeaderInfoEntity> leaderInfos = new ArrayList<>(leaderCount);
+        for (int i = 0; i < leaderCount; i++) {
+            String account = tenantCode + "_load_leader_" + i;
+            String name = personName();
+            leaderAccounts.add(account);
+            leaderNames.add(name);
+
+            List<String> domainIds = new ArrayList<>();
+            int domainsPerLeader = domains.isEmpty() ? 0 : 1 + random.nextInt(3);
+            for (int d = 0; d < domainsPerLeader; d++) {
+                int domainIndex = random.nextInt(domains.size());
+                if (!domainIds.contains(domains.get(domainIndex).getDomainId())) {
+                    domainIds.add(domains.get(domainIndex).getDomainId());
+                    subjectLeaders.get(domainIndex % SUBJECTS.length).add(i);
+                }
+            }
+
+            LeaderEntity leader = new LeaderEntity();
+            leader.setAccount(account);
+            leader.setName(name);
+            leader.setDomainIds(domainIds);
+            leader.setTenantCode(tenantCode);
+            leader.setCreateTime(new java.util.Date());
+            leader.setCreatedBy("load-generator");
+            leaders.add(leader);
+
+            LeaderInfoEntity leaderInfo = new LeaderInfoEntity();
+            leaderInfo.setAccount(account);
+            leaderInfo.setTruename(name);
+            leaderInfo.setTenantCode(tenantCode);
+            leaderInfo.setCreateTime(new java.util.Date());
+            leaderInfo.setCreatedBy("load-generator");
+            leaderInfos.add(leaderInfo);
+        }
+        saveInBatches(context.getBean(LeaderRepository.class), leaders, "领导");
+        saveInBatches(context.getBean(LeaderInfoRepository.class), leaderInfos, "领导信息");
+
+        // 每个职责领域指定一位负责领导
+        List<DomainLeaderMappingEntity> mappings = new ArrayList<>(domains.size());
+        for (int d = 0; d < domains.size() && !leaderAccounts.isEmpty(); d++) {
+            List<Integer> candidates = subjectLeaders.get(d % SUBJECTS.length);
+            int leaderIndex = candidates.isEmpty() ? random.nextInt(leaderAccounts.size())
+                    : candidates.get(random.nextInt(candidates.size()));
+            DomainLeaderMappingEntity mapping = new DomainLeaderMappingEntity();
+            mapping.setDomainName(domains.get(d).getDomainName());
+            mapping.setLeaderAccount(leaderAccounts.get(leaderIndex));
+            mapping.setTenantCode(tenantCode);
+            mapping.setCreateTime(new java.util.Date());
+            mapping.setCreatedBy("load-generator");
+            mappings.add(mapping);
+        }
+        saveInBatches(context.getBean(DomainLeaderMappingRepository.class), mappings, "领域领导映射");
+    }
+
+    private void generateOrganizations(List<ResponsibilityDomainEntity> domains) {
+        List<OrganizationEntity> organizations = new ArrayList<>(organizationCount);
+        List<OrganizationDomainEntity> organizationDomains = new ArrayList<>();
+        List<List<String>> organizationKeywords = new ArrayList<>(organizationCount);
+        List<List<Double>> organizationKeywordWeights = new ArrayList<>(organizationCount);
+        int topLevelCount = Math.max(1, organizationCount / 50);
+        for (int i = 0; i < organizationCount; i++) {
+            String orgId = tenantCode + "_load_org_" + i;
+            int subjectIndex = random.nextInt(SUBJECTS.length);
+            OrganizationEntity organization = new OrganizationEntity();
+            organization.setOrgId(orgId);
+            organization.setOrgName(SUBJECTS[subjectIndex] + pick(random, ORG_SUFFIXES) + (i + 1));
+            organization.setParentOrgId(i < topLevelCount ? null : organizationIds.get(random.nextInt(topLevelCount)));
+            organization.setOrgType(i < topLevelCount ? "COMPANY" : ORG_TYPES[i % ORG_TYPES.length]);
+            organization.setTenantCode(tenantCode);
+
+            String[] leaders = new String[2 + random.nextInt(3)];
+            for (int l = 0; l < leaders.length; l++) {
+                leaders[l] = leaderAccounts.isEmpty() ? null : leaderAccounts.get(random.nextInt(leaderAccounts.size()));
+            }
+            organization.setMainLeaderAccount(leaders[0]);
+            organization.setSuperiorLeaderAccount(leaders[1]);
+            List<String> deputies = new ArrayList<>();
+            for (int l = 2; l < leaders.length; l++) {
+                deputies.add(leaders[l]);
+            }
+            organization.setDeputyLeaderAccounts(deputies);
+
+            List<String> keywords = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            keywords.add(SUBJECTS[subjectIndex]);
+            weights.add(1.0);
+            int keywordCount = 3 + random.nextInt(6);
+            while (keywords.size() < keywordCount) {
+                String keyword = random.nextBoolean() ? pick(random, SUBJECTS) : pick(random, OBJECTS);
+                if (!keywords.contains(keyword)) {
+                    keywords.add(keyword);
+                    weights.add(0.5 + random.nextInt(6) / 10.0);
+                }
+            }
+            organizationKeywords.add(keywords);
+            organizationKeywordWeights.add(weights);
+            organization.setCreateTime(new java.util.Date());
+            organization.setCreatedBy("load-generator");
+            organizations.add(organization);
+            organizationIds.add(orgId);
+            organizationLeaders.add(leaders);
+
+            int domainsPerOrganization = domains.isEmpty() ? 0 : 1 + random.nextInt(3);
+            for (int d = 0; d < domainsPerOrganization; d++) {
+                OrganizationDomainEntity organizationDomain = new OrganizationDomainEntity();
+                organizationDomain.setOrganizationId(orgId);
+                organizationDomain.setDomainId(domains.get(random.nextInt(domains.size())).getDomainId());
+                organizationDomain.setDomainWeight(0.5 + random.nextInt(6) / 10.0);
+                organizationDomain.setTenantCode(tenantCode);
+                organizationDomain.setCreateTime(new java.util.Date());
+                organizationDomain.setCreatedBy("load-generator");
+                organizationDomains.add(organizationDomain);
+            }
+        }
+        saveInBatches(context.getBean(OrganizationRepository.class), organizations, "组织");
+
+        // 关键词和权重两个集合映射到同一张表，与初始化脚本一样按行直接写入关键词及其权重
+        List<Object[]> keywordRows = new ArrayList<>();
+        for (int i = 0; i < organizations.size(); i++) {
+            List<String> keywords = organizationKeywords.get(i);
+            for (int k = 0; k < keywords.size(); k++) {
+                keywordRows.add(new Object[] { organizations.get(i).getId(), keywords.get(k), k,
+                        organizationKeywordWeights.get(i).get(k) });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO organization_keywords (organization_id, keyword, keyword_order, "
+                + "keyword_weight) VALUES (?, ?, ?, ?)", keywordRows, INSERT_BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setString(2, (String) row[1]);
+                    ps.setInt(3, (Integer) row[2]);
+                    ps.setDouble(4, (Double) row[3]);
+                });
+        saveInBatches(context.getBean(OrganizationDomainRepository.class), organizationDomains, "组织领域关联");
+    }
+
+    private void generateHistories() {
+        String sql = "INSERT INTO approval_history (tenant_code, task_id, task_title, initiator_account, initiator_org_id, "
+                + "approver_account, approver_name, workflow_direction, approval_time, approval_result, is_recommended, "
+                + "create_time, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        long now = System.currentTimeMillis();
+        insertInBatches(sql, historyCount, "批复历史", (ps, i) -> {
+            int orgIndex = random.nextInt(organizationIds.size());
+            int subjectIndex = random.nextInt(SUBJECTS.length);
+            WorkflowDirection direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            int approverIndex = approverFor(orgIndex, subjectIndex, direction);
+            Timestamp approvalTime = new Timestamp(now - (long) (random.nextDouble() * TIME_SPAN_MILLIS));
+            ps.setString(1, tenantCode);
+            ps.setString(2, "load_task_" + i);
+            ps.setString(3, nextTitle(random, subjectIndex));
+            ps.setString(4, staffAccount(orgIndex, random.nextInt(staffPerOrganization)));
+            ps.setString(5, organizationIds.get(orgIndex));
+            ps.setString(6, leaderAccounts.get(approverIndex));
+            ps.setString(7, leaderNames.get(approverIndex));
+            ps.setString(8, direction.name());
+            ps.setTimestamp(9, approvalTime);
+            ps.setString(10, pick(random, APPROVAL_RESULTS));
+            ps.setBoolean(11, random.nextInt(3) == 0);
+            ps.setTimestamp(12, approvalTime);
+            ps.setString(13, "load-generator");
+        });
+    }
+
+    private void generateFeedbacks() {
+        String sql = "INSERT INTO recommendation_feedback (tenant_code, task_id, task_title, user_account, user_org_id, "
+                + "recommended_leader_account, recommended_leader_name, workflow_direction, recommendation_score, "
+                + "recommendation_type, is_accepted, actual_leader_account, actual_leader_name, rating, feedback_time, "
+                + "create_time, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        long now = System.currentTimeMillis();
+        insertInBatches(sql, feedbackCount, "推荐反馈", (ps, i) -> {
+            int orgIndex = random.nextInt(organizationIds.size());
+            int subjectIndex = random.nextInt(SUBJECTS.length);
+            WorkflowDirection direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            int recommendedIndex = approverFor(orgIndex, subjectIndex, direction);
+            boolean accepted = random.nextInt(10) < 7;
+            int actualIndex = accepted ? recommendedIndex : approverFor(orgIndex, subjectIndex, direction);
+            Timestamp feedbackTime = new Timestamp(now - (long) (random.nextDouble() * TIME_SPAN_MILLIS));
+            ps.setString(1, tenantCode);
+            ps.setString(2, "load_feedback_task_" + i);
+            ps.setString(3, nextTitle(random, subjectIndex));
+            ps.setString(4, staffAccount(orgIndex, random.nextInt(staffPerOrganization)));
+            ps.setString(5, organizationIds.get(orgIndex));
+            ps.setString(6, leaderAccounts.get(recommendedIndex));
+            ps.setString(7, leaderNames.get(recommendedIndex));
+            ps.setString(8, direction.name());
+            ps.setDouble(9, 0.3 + random.nextInt(70) / 100.0);
+            ps.setString(10, random.nextInt(4) == 0 ? "MULTIPLE" : "SINGLE");
+            ps.setBoolean(11, accepted);
+            ps.setString(12, leaderAccounts.get(actualIndex));
+            ps.setString(13, leaderNames.get(actualIndex));
+            ps.setInt(14, accepted ? 4 + random.nextInt(2) : 1 + random.nextInt(3));
+            ps.setTimestamp(15, feedbackTime);
+            ps.setTimestamp(16, feedbackTime);
+            ps.setString(17, "load-generator");
+        });
+    }
+
+    /**
+     * 重建依赖数据库数据的内存快照和索引
+     */
+    private void refreshCaches() {
+        long startTime = System.currentTimeMillis();
+        context.getBean(LeaderDirectoryService.class).refresh(tenantCode);
+        context.getBean(OrganizationScoringSnapshotService.class).refresh(tenantCode);
+        context.getBean(KeywordMatcherService.class).refresh(tenantCode);
+        context.getBean(TaskPatternMatcherService.class).refresh(tenantCode);
+        int indexed = context.getBean(ApprovalHistoryIndexService.class).rebuildTenant(tenantCode);
+        context.getBean(RecommendationCacheService.class).invalidateAll();
+        System.out.println("内存快照和索引重建完成: 批复历史索引 " + indexed + " 条, 耗时 "
+                + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    /**
+     * 选择批复人：多数情况下按工作流方向取发起人所在组织的领导，其余情况取负责标题主题的领导
+     */
+    private int approverFor(int orgIndex, int subjectIndex, WorkflowDirection direction) {
+        List<Integer> subjectCandidates = subjectLeaders.get(subjectIndex);
+        if (random.nextInt(10) < 3 && !subjectCandidates.isEmpty()) {
+            return subjectCandidates.get(random.nextInt(subjectCandidates.size()));
+        }
+        String[] leaders = organizationLeaders.get(orgIndex);
+        String account;
+        if (direction == WorkflowDirection.UPWARD) {
+            account = leaders[random.nextInt(4) == 0 ? 1 : 0];
+        } else if (direction == WorkflowDirection.DOWNWARD && leaders.length > 2) {
+            account = leaders[2 + random.nextInt(leaders.length - 2)];
+        } else {
+            account = leaders[random.nextInt(leaders.length)];
+        }
+        return leaderIndex(account);
+    }
+
+    private int leaderIndex(String account) {
+        return Integer.parseInt(account.substring(account.lastIndexOf('_') + 1));
+    }
+
+    private String staffAccount(int orgIndex, int staffIndex) {
+        return tenantCode + "_load_user_" + orgIndex + "_" + staffIndex;
+    }
+
+    private String personName() {
+        StringBuilder name = new StringBuilder(pick(random, SURNAMES));
+        int length = 1 + random.nextInt(2);
+        for (int i = 0; i < length; i++) {
+            name.append(GIVEN_NAME_CHARS.charAt(random.nextInt(GIVEN_NAME_CHARS.length())));
+        }
+        return name.toString();
+    }
+
+    private <T> void saveInBatches(JpaRepository<T, Long> repository, List<T> entities, String label) {
+        long startTime = System.currentTimeMillis();
+        for (int from = 0; from < entities.size(); from += SAVE_BATCH_SIZE) {
+            List<T> batch = entities.subList(from, Math.min(from + SAVE_BATCH_SIZE, entities.size()));
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+        }
+        System.out.println("已写入" + label + ": " + entities.size() + " 条, 耗时 "
+                + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    private void insertInBatches(String sql, long total, String label, RowWriter writer) {
+        long startTime = System.currentTimeMillis();
+        long written = 0;
+        while (written < total) {
+            int batchSize = (int) Math.min(INSERT_BATCH_SIZE, total - written);
+            long offset = written;
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    writer.write(ps, offset + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batchSize;
+                }
+            });
+            long previous = written;
+            written += batchSize;
+            if (written / PROGRESS_INTERVAL != previous / PROGRESS_INTERVAL) {
+                System.out.println("正在写入" + label + ": " + written + "/" + total);
+            }
+        }
+        System.out.println("已写入" + label + ": " + total + " 条, 耗时 " + (System.currentTimeMillis() - startTime)
+                + " ms");
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * 写入一行批量插入参数
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, long index) throws SQLException;
+    }
+}
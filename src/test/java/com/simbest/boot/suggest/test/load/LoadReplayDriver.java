@@ -0,0 +1,274 @@
+package com.simbest.boot.suggest.test.load;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simbest.boot.suggest.SimbestApplication;
+import com.simbest.boot.suggest.model.WorkflowDirection;
+
+/**
+ * 推荐接口压测回放驱动
+ * 在同一进程中启动应用，使用 {@link LoadDataGenerator} 生成大租户数据后，
+ * 由多个线程并发向 /recommend/getRecommendation 回放随机生成的推荐请求，
+ * 输出吞吐量、p50/p95/p99延迟和每个请求的分配字节数。
+ *
+ * 请求通过MockMvc在调用线程上完整经过Spring MVC的拦截器、参数绑定和JSON序列化，不经过网络和Tomcat线程池，
+ * 因此调用线程的分配字节数即为单个请求在请求线程上的分配；推荐服务内部并行阶段的分配另按整个进程的分配总量统计。
+ *
+ * 用法：
+ * <pre>
+ * java ... LoadReplayDriver -histories 2000000 -feedbacks 1000000 -threads 16 -requests 50000
+ * </pre>
+ * 以 -- 开头的参数原样传给应用，例如 --app.recommendationCacheEnabled=false
+ */
+public class LoadReplayDriver {
+
+    private static final String ENDPOINT = "/recommend/getRecommendation";
+
+    public static void main(String[] args) throws Exception {
+        // 解析命令行参数
+        String tenantCode = "default";
+        long seed = 20240601L;
+        int organizations = 2000;
+        int domains = 1000;
+        int leaders = 20000;
+        int staff = 5;
+        long histories = 1000000L;
+        long feedbacks = 1000000L;
+        int threads = 8;
+        int requests = 20000;
+        int warmup = 2000;
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                applicationArgs.add(args[i]);
+            } else if ("-tenant".equals(args[i]) && i + 1 < args.length) {
+                tenantCode = args[++i];
+            } else if ("-seed".equals(args[i]) && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else if ("-organizations".equals(args[i]) && i + 1 < args.length) {
+                organizations = Integer.parseInt(args[++i]);
+            } else if ("-domains".equals(args[i]) && i + 1 < args.length) {
+                domains = Integer.parseInt(args[++i]);
+            } else if ("-leaders".equals(args[i]) && i + 1 < args.length) {
+                leaders = Integer.parseInt(args[++i]);
+            } else if ("-staff".equals(args[i]) && i + 1 < args.length) {
+                staff = Integer.parseInt(args[++i]);
+            } else if ("-histories".equals(args[i]) && i + 1 < args.length) {
+                histories = Long.parseLong(args[++i]);
+            } else if ("-feedbacks".equals(args[i]) && i + 1 < args.length) {
+                feedbacks = Long.parseLong(args[++i]);
+            } else if ("-threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("-requests".equals(args[i]) && i + 1 < args.length) {
+                requests = Integer.parseInt(args[++i]);
+            } else if ("-warmup".equals(args[i]) && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            }
+        }
+
+        // 压测默认关闭SQL和业务日志输出，可通过 -D 系统属性或 -- 参数覆盖
+        setDefaultProperty("server.port", "0");
+        setDefaultProperty("spring.jpa.show-sql", "false");
+        setDefaultProperty("spring.devtools.restart.enabled", "false");
+        setDefaultProperty("logging.level.root", "WARN");
+        setDefaultProperty("logging.level.com.simbest.boot.suggest", "WARN");
+
+        ConfigurableApplicationContext context = SpringApplication.run(SimbestApplication.class,
+                applicationArgs.toArray(new String[0]));
+        try {
+            LoadDataGenerator generator = new LoadDataGenerator(context, seed)
+                    .tenantCode(tenantCode)
+                    .organizations(organizations)
+                    .domains(domains)
+                    .leaders(leaders)
+                    .staffPerOrganization(staff)
+                    .histories(histories)
+                    .feedbacks(feedbacks);
+            generator.generate();
+
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+            ObjectMapper objectMapper = new ObjectMapper();
+            Random random = new Random(seed + 1);
+
+            System.out.println("预热: " + warmup + " 个请求, " + threads + " 个线程");
+            replay(mockMvc, objectMapper, buildRequests(generator, objectMapper, random, warmup), tenantCode, threads);
+
+            System.out.println("回放: " + requests + " 个请求, " + threads + " 个线程");
+            ReplayReport report = replay(mockMvc, objectMapper,
+                    buildRequests(generator, objectMapper, random, requests), tenantCode, threads);
+            report.print();
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 生成推荐请求体
+     */
+    private static List<String> buildRequests(LoadDataGenerator generator, ObjectMapper objectMapper, Random random,
+            int count) throws Exception {
+        WorkflowDirection[] directions = WorkflowDirection.values();
+        List<String> bodies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] initiator = generator.nextInitiator(random);
+            Map<String, Object> body = new HashMap<>();
+            body.put("tenantCode", generator.getTenantCode());
+            body.put("taskTitle", LoadDataGenerator.nextTitle(random));
+            body.put("userAccount", initiator[0]);
+            body.put("orgId", initiator[1]);
+            body.put("workflowDirection", directions[random.nextInt(directions.length)].name());
+            body.put("recommendationType", random.nextInt(4) == 0 ? "MULTIPLE" : "SINGLE");
+            bodies.add(objectMapper.writeValueAsString(body));
+        }
+        return bodies;
+    }
+
+    /**
+     * 并发回放推荐请求
+     */
+    private static ReplayReport replay(MockMvc mockMvc, ObjectMapper objectMapper, List<String> bodies,
+            String tenantCode, int threads) throws InterruptedException {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long[] latencies = new long[bodies.size()];
+        AtomicInteger next = new AtomicInteger();
+        LongAdder requestThreadBytes = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        long processBytesBefore = processAllocatedBytes(threadBean);
+        long startTime = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    int index;
+                    while ((index = next.getAndIncrement()) < bodies.size()) {
+                        long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+                        long requestStart = System.nanoTime();
+                        MvcResult result = null;
+                        try {
+                            result = mockMvc.perform(MockMvcRequestBuilders.post(ENDPOINT)
+                                    .header("X-Tenant-Code", tenantCode)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(bodies.get(index))).andReturn();
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latencies[index] = System.nanoTime() - requestStart;
+                        requestThreadBytes.add(threadBean.getCurrentThreadAllocatedBytes() - bytesBefore);
+                        if (result != null && !isSuccess(objectMapper, result)) {
+                            errors.increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - startTime;
+        long processBytes = processAllocatedBytes(threadBean) - processBytesBefore;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        return new ReplayReport(bodies.size(), threads, elapsed, latencies, errors.sum(), requestThreadBytes.sum(),
+                processBytes);
+    }
+
+    private static boolean isSuccess(ObjectMapper objectMapper, MvcResult result) {
+        try {
+            return result.getResponse().getStatus() == 200
+                    && objectMapper.readTree(result.getResponse().getContentAsByteArray()).path("errcode").asInt(-1) == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 进程内全部存活线程的累计分配字节数
+     */
+    private static long processAllocatedBytes(com.sun.management.ThreadMXBean threadBean) {
+        long total = 0;
+        for (long bytes : threadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static void setDefaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    /**
+     * 回放结果
+     */
+    private static class ReplayReport {
+        private final int requests; // 请求数
+        private final int threads; // 线程数
+        private final long elapsedNanos; // 总耗时（纳秒）
+        private final long[] sortedLatencies; // 升序排列的请求延迟（纳秒）
+        private final long errors; // 失败请求数
+        private final long requestThreadBytes; // 请求线程分配字节数
+        private final long processBytes; // 进程分配字节数
+
+        private ReplayReport(int requests, int threads, long elapsedNanos, long[] latencies, long errors,
+                long requestThreadBytes, long processBytes) {
+            this.requests = requests;
+            this.threads = threads;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.errors = errors;
+            this.requestThreadBytes = requestThreadBytes;
+            this.processBytes = processBytes;
+        }
+
+        private void print() {
+            double seconds = elapsedNanos / 1e9;
+            System.out.println("======== 推荐接口回放结果 ========");
+            System.out.println("请求数: " + requests + ", 线程数: " + threads + ", 失败: " + errors);
+            System.out.println(String.format("总耗时: %.2f s, 吞吐量: %.1f 请求/秒", seconds, requests / seconds));
+            System.out.println(String.format("延迟(ms): 平均 %.2f, p50 %.2f, p95 %.2f, p99 %.2f, 最大 %.2f",
+                    Arrays.stream(sortedLatencies).average().orElse(0) / 1e6, percentile(0.50), percentile(0.95),
+                    percentile(0.99), sortedLatencies.length == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1] / 1e6));
+            System.out.println(String.format("分配(KB/请求): 请求线程 %.1f, 整个进程 %.1f",
+                    requestThreadBytes / 1024.0 / requests, processBytes / 1024.0 / requests));
+        }
+
+        private double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+    }
+}